@@ -0,0 +1,80 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Loads the recorded server responses from {@code src/jmh/resources/fixtures}.
+ */
+public final class Fixtures {
+
+    /**
+     * Load the fixture with the given name.
+     *
+     * @param name
+     *            file name of the fixture
+     *
+     * @return content of the fixture
+     */
+    public static String load(final String name) {
+        try (final InputStream input = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (input == null) {
+                throw new IllegalArgumentException("fixture " + name + " does not exist");
+            }
+            return IOUtils.toString(input, StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new IllegalStateException("could not load fixture " + name, e);
+        }
+    }
+
+    /**
+     * Scale a recorded response up by repeating the last element with the given name.
+     *
+     * @param document
+     *            the recorded response
+     * @param element
+     *            qualified name of the element to repeat (e.g. {@code D:response})
+     * @param count
+     *            how often the element is contained in the result
+     *
+     * @return UTF-8 encoded response that contains the element {@code count} times
+     */
+    public static byte[] repeat(final String document, final String element, final int count) {
+        final int start = Math.max(document.lastIndexOf("<" + element + ">"), document.lastIndexOf("<" + element + " "));
+        final String endTag = "</" + element + ">";
+        final int endTagStart = (start < 0) ? -1 : document.indexOf(endTag, start);
+        if (endTagStart < 0) {
+            throw new IllegalArgumentException("element " + element + " is missing");
+        }
+        final int end = endTagStart + endTag.length();
+
+        final String block = document.substring(start, end);
+        final String repeated = document.substring(0, start) + StringUtils.repeat(block, "\n", count) + document.substring(end);
+        return repeated.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Fixtures() {
+        // prevent instantiation
+    }
+}
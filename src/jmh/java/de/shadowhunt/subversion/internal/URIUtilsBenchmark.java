@@ -0,0 +1,61 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import de.shadowhunt.subversion.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class URIUtilsBenchmark {
+
+    private static final Resource BASE_PATH = Resource.create("/test");
+
+    private static final URI BASE_URI = URI.create("http://subversion.example.net:8080/svn-http-v1/test");
+
+    private static final Resource PREFIX = Resource.create("/!svn/bc/42");
+
+    private static final Resource RESOURCE = Resource.create("/trunk/some directory/with spaces/Example.java");
+
+    private final QualifiedResource qualifiedResource = new QualifiedResource(BASE_PATH, RESOURCE);
+
+    @Benchmark
+    public URI appendQualifiedResource() {
+        return URIUtils.appendResources(BASE_URI, qualifiedResource);
+    }
+
+    @Benchmark
+    public URI appendResources() {
+        return URIUtils.appendResources(BASE_URI, PREFIX, RESOURCE);
+    }
+}
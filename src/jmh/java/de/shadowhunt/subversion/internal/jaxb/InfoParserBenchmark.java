@@ -0,0 +1,69 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class InfoParserBenchmark {
+
+    private static final Resource BASE_PATH = Resource.create("/test");
+
+    private byte[] content;
+
+    @Param({ "file", "properties", "directory-10", "directory-1000" })
+    public String response;
+
+    @Benchmark
+    public void parse(final Blackhole blackhole) throws IOException {
+        InfoParser.parse(new ByteArrayInputStream(content), BASE_PATH, blackhole::consume);
+    }
+
+    @Setup
+    public void setup() {
+        if (response.startsWith("directory-")) {
+            final int entries = Integer.parseInt(response.substring("directory-".length()));
+            content = Fixtures.repeat(Fixtures.load("multistatus-directory.xml"), "D:response", entries);
+        } else {
+            content = Fixtures.load("multistatus-" + response + ".xml").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
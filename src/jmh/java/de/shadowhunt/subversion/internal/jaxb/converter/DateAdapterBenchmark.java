@@ -0,0 +1,77 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.jaxb.converter;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class DateAdapterBenchmark {
+
+    private static final String CREATED = "2019-01-05T12:34:56.123456Z";
+
+    private static final String LAST_MODIFIED = "Sat, 05 Jan 2019 12:34:56 GMT";
+
+    private final CreatedDateAdapter createdDateAdapter = new CreatedDateAdapter();
+
+    private Date date;
+
+    private final LastModifedDateAdapter lastModifedDateAdapter = new LastModifedDateAdapter();
+
+    @Benchmark
+    public String formatCreated() throws Exception {
+        return createdDateAdapter.marshal(date);
+    }
+
+    @Benchmark
+    public String formatLastModified() throws Exception {
+        return lastModifedDateAdapter.marshal(date);
+    }
+
+    @Benchmark
+    public Date parseCreated() throws ParseException {
+        return CreatedDateAdapter.parseDate(CREATED);
+    }
+
+    @Benchmark
+    public Date parseLastModified() throws ParseException {
+        return LastModifedDateAdapter.parseDate(LAST_MODIFIED);
+    }
+
+    @Setup
+    public void setup() throws ParseException {
+        date = CreatedDateAdapter.parseDate(CREATED);
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.RepositoryDescriptor;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.ResourceProperty;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryHttpv1;
+import de.shadowhunt.subversion.internal.ResourcePropertyUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.protocol.BasicHttpContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class RequestBodyBenchmark {
+
+    private static final Resource BASE_PATH = Resource.create("/test");
+
+    private static final URI BASE_URI = URI.create("http://subversion.example.net:8080/svn-http-v1/test");
+
+    private static final Resource RESOURCE = Resource.create("/trunk/src/main/java/Example.java");
+
+    private CloseableHttpClient client;
+
+    private InfoOperationHttpv1 infoOperation;
+
+    private ListReportOperationHttpv1 listReportOperation;
+
+    private LogOperationHttpv1 logOperation;
+
+    private ReadOnlyRepositoryHttpv1 repository;
+
+    private SparseInfoOperationHttpv1 sparseInfoOperation;
+
+    @Benchmark
+    public HttpEntity listReport() throws IOException {
+        return listReportOperation.createRequestBody();
+    }
+
+    @Benchmark
+    public HttpEntity logReport() throws IOException {
+        return logOperation.createRequestBody();
+    }
+
+    @Benchmark
+    public HttpEntity propfindAllProperties() throws IOException {
+        return infoOperation.createRequestBody();
+    }
+
+    @Benchmark
+    public HttpEntity propfindSparse() throws IOException {
+        return sparseInfoOperation.createRequestBody();
+    }
+
+    @Setup
+    public void setup() {
+        client = HttpClients.createMinimal();
+        final RepositoryDescriptor descriptor = RepositoryDescriptor.create(BASE_URI, BASE_PATH, UUID.randomUUID(), ProtocolVersion.HTTP_V1, "!svn", false);
+        repository = new ReadOnlyRepositoryHttpv1(descriptor, client, new BasicHttpContext(), RepositoryConfiguration.DEFAULT);
+
+        final QualifiedResource qualifiedResource = new QualifiedResource(BASE_PATH, RESOURCE);
+        infoOperation = new InfoOperationHttpv1(repository, qualifiedResource);
+        listReportOperation = new ListReportOperationHttpv1(repository, qualifiedResource, Revision.create(42), Depth.IMMEDIATES);
+        logOperation = new LogOperationHttpv1(repository, qualifiedResource, Revision.INITIAL, Revision.create(42), 100, true, entry -> true);
+        sparseInfoOperation = new SparseInfoOperationHttpv1(repository, qualifiedResource, ResourcePropertyUtils.RESOURCE_TYPE, ResourcePropertyUtils.VERSION, ResourcePropertyUtils.MD5_HASH, ResourceProperty.Key.EXECUTABLE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        repository.getExecutor().shutdown();
+        client.close();
+    }
+}
@@ -0,0 +1,355 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+
+/**
+ * Asynchronous variant of {@link ReadOnlyRepository}: every operation that communicates with the server returns immediately with a {@link CompletableFuture}.
+ *
+ * <p>
+ * {@link #createView()}, {@link #createView(boolean)}, {@link #download(View, Resource, Revision)}, {@link #downloadURI(View, Resource, Revision)}, {@link #exists(View, Resource, Revision)}, {@link #info(View, Resource, Revision)},
+ * {@link #list(View, Resource, Revision, Depth)} and {@link #log(View, Resource, Revision, Revision, int, boolean)} send their requests through the {@link org.apache.http.nio.client.HttpAsyncClient} of the repository, no thread waits for
+ * the responses. Their {@link CompletableFuture}s are completed on an I/O thread of the client, so dependent stages must not block. A downloaded content has been received completely (and is kept in a temporary file) once the
+ * {@link CompletableFuture} completes.
+ * </p>
+ *
+ * <p>
+ * All other operations are thread-pool wrappers: they run the blocking {@link ReadOnlyRepository} operation on the {@link java.util.concurrent.Executor} of the repository, which is occupied until the operation has finished. This also applies to
+ * {@code download} from the download cache (see {@link RepositoryConfiguration#getDownloadCacheDirectory()}), to {@code list} with {@link Depth#INFINITY} unless the list report is used, and to {@code exists}, {@code info} and {@code list} if
+ * the metadata cache is enabled (see {@link RepositoryConfiguration#getMetadataCacheWeight()}).
+ * </p>
+ *
+ * <p>
+ * The methods do not throw exceptions themselves, the returned {@link CompletableFuture} is completed exceptionally with the {@link NullPointerException}, {@link SubversionException} or {@link TransmissionException} the corresponding
+ * {@link ReadOnlyRepository} operation would have thrown.
+ * </p>
+ */
+@ThreadSafe
+public interface AsyncReadOnlyRepository {
+
+    /**
+     * Create a new {@link View} to query consistent repository information.
+     *
+     * @return {@link CompletableFuture} that completes with the new {@link View}
+     *
+     * @see ReadOnlyRepository#createView()
+     */
+    CompletableFuture<View> createView();
+
+    /**
+     * Create a new {@link View} to query consistent repository information.
+     *
+     * @param fresh
+     *            {@code true} if the {@link View} must be based on the head revision at the time of the call, {@code false} if a tracked head revision may be used
+     *
+     * @return {@link CompletableFuture} that completes with the new {@link View}
+     *
+     * @see ReadOnlyRepository#createView(boolean)
+     */
+    CompletableFuture<View> createView(boolean fresh);
+
+    /**
+     * Download the resource.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the resource to retrieve
+     *
+     * @return {@link CompletableFuture} that completes with {@link InputStream} from which the content can be read (caller has to close the stream properly)
+     *
+     * @see ReadOnlyRepository#download(View, Resource, Revision)
+     */
+    CompletableFuture<InputStream> download(View view, Resource resource, Revision revision);
+
+    /**
+     * Download the resource in the target revision as delta against its content in the base revision.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param base
+     *            the {@link Revision} of the resource the base content belongs to
+     * @param target
+     *            the {@link Revision} of the resource to retrieve
+     * @param baseContent
+     *            {@link InputStream} with the content of the resource in the base revision
+     *
+     * @return {@link CompletableFuture} that completes with {@link InputStream} from which the content of the target revision can be read (caller has to close the stream properly)
+     *
+     * @see ReadOnlyRepository#download(View, Resource, Revision, Revision, InputStream)
+     */
+    CompletableFuture<InputStream> download(View view, Resource resource, Revision base, Revision target, InputStream baseContent);
+
+    /**
+     * Download the file to the given {@link Path}.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the file (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the file to retrieve
+     * @param target
+     *            {@link Path} of the file the content is written to
+     *
+     * @return {@link CompletableFuture} that completes once the content has been written and verified
+     *
+     * @see ReadOnlyRepository#download(View, Resource, Revision, Path)
+     */
+    CompletableFuture<Void> download(View view, Resource resource, Revision revision, Path target);
+
+    /**
+     * Download the file into the given {@link WritableByteChannel}.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the file (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the file to retrieve
+     * @param target
+     *            {@link WritableByteChannel} the content is written to
+     *
+     * @return {@link CompletableFuture} that completes once the content has been written and verified
+     *
+     * @see ReadOnlyRepository#download(View, Resource, Revision, WritableByteChannel)
+     */
+    CompletableFuture<Void> download(View view, Resource resource, Revision revision, WritableByteChannel target);
+
+    /**
+     * Download the file into the given {@link FileChannel}.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the file (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the file to retrieve
+     * @param target
+     *            {@link FileChannel} the content is written to
+     *
+     * @return {@link CompletableFuture} that completes once the content has been written and verified
+     *
+     * @see ReadOnlyRepository#downloadSegmented(View, Resource, Revision, FileChannel)
+     */
+    CompletableFuture<Void> downloadSegmented(View view, Resource resource, Revision revision, FileChannel target);
+
+    /**
+     * Determine the HTTP download URI for the resource.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the resource to retrieve
+     *
+     * @return {@link CompletableFuture} that completes with the HTTP download {@link URI} for the resource
+     *
+     * @see ReadOnlyRepository#downloadURI(View, Resource, Revision)
+     */
+    CompletableFuture<URI> downloadURI(View view, Resource resource, Revision revision);
+
+    /**
+     * Check if the resource already exists in the latest revision of the repository.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the resource to retrieve
+     *
+     * @return {@link CompletableFuture} that completes with {@code true} if the resource already exists in the latest revision of the repository otherwise {@code false}
+     *
+     * @see ReadOnlyRepository#exists(View, Resource, Revision)
+     */
+    CompletableFuture<Boolean> exists(View view, Resource resource, Revision revision);
+
+    /**
+     * Check for each of the given resources if it exists in the given revision of the repository. Resources sharing the same parent directory are checked with a single request, independent groups may be checked concurrently (see
+     * {@link RepositoryConfiguration#getMaxRequestsInFlight()}).
+     *
+     * <p>
+     * Unlike {@link #exists(View, Resource, Revision)} the history of the resources is not traced, every resource is looked up by its path in the given revision.
+     * </p>
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resources
+     *            the {@link Resource}s to check (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the resources to check
+     *
+     * @return {@link CompletableFuture} that completes with a {@link Map} containing every requested {@link Resource}, mapped to {@code true} if the resource exists in the given revision otherwise {@code false}
+     *
+     * @see ReadOnlyRepository#existsAll(View, Collection, Revision)
+     */
+    CompletableFuture<Map<Resource, Boolean>> existsAll(View view, Collection<Resource> resources, Revision revision);
+
+    /**
+     * Returns the {@link Resource} to the base for this {@link Repository}.
+     *
+     * @return the {@link Resource} to the base for this {@link Repository}.
+     */
+    Resource getBasePath();
+
+    /**
+     * Returns the {@link URI} to the root of this {@link Repository}.
+     *
+     * @return the {@link URI} to the root of this {@link Repository}
+     */
+    URI getBaseUri();
+
+    /**
+     * Returns the {@link ProtocolVersion} of the server running this {@link Repository}.
+     *
+     * @return the {@link ProtocolVersion} of the server running this {@link Repository}
+     */
+    ProtocolVersion getProtocolVersion();
+
+    /**
+     * Returns the {@link UUID} that identifies the {@link Repository} globally.
+     *
+     * @return the {@link UUID} that identifies the {@link Repository} globally
+     */
+    UUID getRepositoryId();
+
+    /**
+     * Retrieve information for the resource.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the resource to retrieve
+     *
+     * @return {@link CompletableFuture} that completes with {@link Info} for the resource
+     *
+     * @see ReadOnlyRepository#info(View, Resource, Revision)
+     */
+    CompletableFuture<Info> info(View view, Resource resource, Revision revision);
+
+    /**
+     * Retrieve information for each of the given resources. Resources sharing the same parent directory are retrieved with a single request, independent groups may be retrieved concurrently (see
+     * {@link RepositoryConfiguration#getMaxRequestsInFlight()}).
+     *
+     * <p>
+     * Unlike {@link #info(View, Resource, Revision)} the history of the resources is not traced, every resource is looked up by its path in the given revision. Missing resources do not cause an exception, they are mapped to {@link Optional#empty()}
+     * instead.
+     * </p>
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resources
+     *            the {@link Resource}s to retrieve (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the resources to retrieve
+     *
+     * @return {@link CompletableFuture} that completes with a {@link Map} containing every requested {@link Resource}, mapped to its {@link Info} or {@link Optional#empty()} if the resource does not exist in the given revision
+     *
+     * @see ReadOnlyRepository#infoAll(View, Collection, Revision)
+     */
+    CompletableFuture<Map<Resource, Optional<Info>>> infoAll(View view, Collection<Resource> resources, Revision revision);
+
+    /**
+     * Retrieve information for the resource in the given revision and its child resources (depending on depth parameter).
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the resource to retrieve
+     * @param depth
+     *            whether to retrieve only for the given resource, its children or only part of its children depending on the value of {@link Depth}
+     *
+     * @return {@link CompletableFuture} that completes with {@link NavigableSet} of {@link Info} for the resource and its child resources (depending on depth parameter)
+     *
+     * @see ReadOnlyRepository#list(View, Resource, Revision, Depth)
+     */
+    CompletableFuture<NavigableSet<Info>> list(View view, Resource resource, Revision revision, Depth depth);
+
+    /**
+     * Retrieve the log information for the revisions between startRevision and endRevision of the resource.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param startRevision
+     *            the first {@link Revision} of the resource to retrieve (including)
+     * @param endRevision
+     *            the last {@link Revision} of the resource to retrieve (including)
+     * @param limit
+     *            maximal number of {@link LogEntry} entries, if the value is lower or equal to {@code 0} all entries will be returned
+     * @param stopOnCopy
+     *            do not cross copies while traversing history
+     *
+     * @return {@link CompletableFuture} that completes with ordered (early to latest) {@link List} of {@link LogEntry} for the revisions between startRevision and endRevision of the resource
+     *
+     * @see ReadOnlyRepository#log(View, Resource, Revision, Revision, int, boolean)
+     */
+    CompletableFuture<List<LogEntry>> log(View view, Resource resource, Revision startRevision, Revision endRevision, int limit, boolean stopOnCopy);
+
+    /**
+     * Stream the log information for the revisions between startRevision and endRevision of the resource. Each {@link LogEntry} is passed to the handler as soon as it has been received, so the memory consumption does not depend on the number of entries.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param startRevision
+     *            the first {@link Revision} of the resource to retrieve (including)
+     * @param endRevision
+     *            the last {@link Revision} of the resource to retrieve (including)
+     * @param limit
+     *            maximal number of {@link LogEntry} entries, if the value is lower or equal to {@code 0} all entries will be returned
+     * @param stopOnCopy
+     *            do not cross copies while traversing history
+     * @param handler
+     *            receives the {@link LogEntry} entries ordered (early to latest) on a thread of the {@link java.util.concurrent.Executor}, returning {@code false} stops the retrieval of further entries
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see ReadOnlyRepository#log(View, Resource, Revision, Revision, int, boolean, Predicate)
+     */
+    CompletableFuture<Void> log(View view, Resource resource, Revision startRevision, Revision endRevision, int limit, boolean stopOnCopy, Predicate<? super LogEntry> handler);
+}
@@ -0,0 +1,325 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Asynchronous variant of {@link Repository}, see {@link AsyncReadOnlyRepository} for the execution and error handling of the operations. All modifications are thread-pool wrappers, they run the blocking {@link Repository} operation on the
+ * {@link java.util.concurrent.Executor} of the repository.
+ *
+ * <p>
+ * The operations of a single {@link Transaction} are not ordered by the {@link AsyncRepository}, the caller has to wait for the modifications to complete before committing the {@link Transaction}.
+ * </p>
+ */
+@ThreadSafe
+public interface AsyncRepository extends AsyncReadOnlyRepository {
+
+    /**
+     * Upload a new revision of the resource and set properties.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     * @param content
+     *            {@link InputStream} from which the content will be read (will be closed after transfer)
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#add(Transaction, Resource, boolean, InputStream)
+     */
+    CompletableFuture<Void> add(Transaction transaction, Resource resource, boolean parents, InputStream content);
+
+    /**
+     * Upload a new revision of the resource and set properties.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     * @param content
+     *            content of the resource (must not be modified during the transfer)
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#add(Transaction, Resource, boolean, byte[])
+     */
+    CompletableFuture<Void> add(Transaction transaction, Resource resource, boolean parents, byte[] content);
+
+    /**
+     * Upload a new revision of the resource and set properties.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     * @param content
+     *            {@link ByteBuffer} whose remaining bytes are the content of the resource, its position is not modified
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#add(Transaction, Resource, boolean, ByteBuffer)
+     */
+    CompletableFuture<Void> add(Transaction transaction, Resource resource, boolean parents, ByteBuffer content);
+
+    /**
+     * Upload a new revision of the resource and set properties.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     * @param content
+     *            {@link Path} of the file with the content of the resource (must not be modified during the transfer)
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#add(Transaction, Resource, boolean, Path)
+     */
+    CompletableFuture<Void> add(Transaction transaction, Resource resource, boolean parents, Path content);
+
+    /**
+     * Upload a new revision of the resource and set properties.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     * @param content
+     *            {@link Supplier} that creates a new {@link InputStream} (will be closed after transfer) each time the content has to be read, possibly from another thread
+     * @param length
+     *            number of bytes each {@link InputStream} provides, must be greater or equal than {@code 0}
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#add(Transaction, Resource, boolean, Supplier, long)
+     */
+    CompletableFuture<Void> add(Transaction transaction, Resource resource, boolean parents, Supplier<InputStream> content, long length);
+
+    /**
+     * Upload new revisions of many resources at once.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param contents
+     *            {@link Map} of the {@link Resource}s (relative to the repository root) to upload to a {@link Supplier} of the {@link InputStream} from which the content will be read (will be closed after transfer)
+     * @param parents
+     *            whether to create missing parents folders or not
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#addAll(Transaction, Map, boolean)
+     */
+    CompletableFuture<Void> addAll(Transaction transaction, Map<Resource, Supplier<InputStream>> contents, boolean parents);
+
+    /**
+     * Save all modifications of the current running {@link Transaction}.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param message
+     *            the commit message for the expected operation
+     * @param releaseLocks
+     *            remove all locks from {@link Resource}s in this {@link Transaction}
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#commit(Transaction, String, boolean)
+     */
+    CompletableFuture<Void> commit(Transaction transaction, String message, boolean releaseLocks);
+
+    /**
+     * Recursively copy a resource in the given revision.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param sourceResource
+     *            the {@link Resource} of the source resource (relative to the repository root)
+     * @param sourceRevision
+     *            {@link Revision} of the resource to copy
+     * @param targetResource
+     *            the {@link Resource} of the target resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#copy(Transaction, Resource, Revision, Resource, boolean)
+     */
+    CompletableFuture<Void> copy(Transaction transaction, Resource sourceResource, Revision sourceRevision, Resource targetResource, boolean parents);
+
+    /**
+     * Create a new {@link Transaction} to make modifications within.
+     *
+     * @return {@link CompletableFuture} that completes with the new {@link Transaction}
+     *
+     * @see Repository#createTransaction()
+     */
+    CompletableFuture<Transaction> createTransaction();
+
+    /**
+     * Delete the resource from the repository.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#delete(Transaction, Resource)
+     */
+    CompletableFuture<Void> delete(Transaction transaction, Resource resource);
+
+    /**
+     * Mark the expected revision of the resource as locked.
+     *
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param steal
+     *            if the resource is locked by another user {@code true} will override the lock, otherwise the operation will fail
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#lock(Resource, boolean)
+     */
+    CompletableFuture<Void> lock(Resource resource, boolean steal);
+
+    /**
+     * Create a folder with all necessary parents folders.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#mkdir(Transaction, Resource, boolean)
+     */
+    CompletableFuture<Void> mkdir(Transaction transaction, Resource resource, boolean parents);
+
+    /**
+     * Recursively move a resource (latest revision).
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param sourceResource
+     *            the {@link Resource} of the source resource (relative to the repository root)
+     * @param targetResource
+     *            the {@link Resource} of the target resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#move(Transaction, Resource, Resource, boolean)
+     */
+    CompletableFuture<Void> move(Transaction transaction, Resource sourceResource, Resource targetResource, boolean parents);
+
+    /**
+     * Remove the given properties form the resource.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param properties
+     *            {@link ResourceProperty} to remove
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#propertiesDelete(Transaction, Resource, ResourceProperty...)
+     */
+    CompletableFuture<Void> propertiesDelete(Transaction transaction, Resource resource, ResourceProperty... properties);
+
+    /**
+     * Set the given properties for the resource (new properties will be added, existing properties will be overridden).
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param properties
+     *            {@link ResourceProperty} to add or override
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#propertiesSet(Transaction, Resource, ResourceProperty...)
+     */
+    CompletableFuture<Void> propertiesSet(Transaction transaction, Resource resource, ResourceProperty... properties);
+
+    /**
+     * Abort the current running {@link Transaction} and revert all modifications.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#rollback(Transaction)
+     */
+    CompletableFuture<Void> rollback(Transaction transaction);
+
+    /**
+     * Abort the current running {@link Transaction} and revert all modifications if the transaction is not committed.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#rollbackIfNotCommitted(Transaction)
+     */
+    CompletableFuture<Void> rollbackIfNotCommitted(Transaction transaction);
+
+    /**
+     * Remove the lock on the expected revision of the resource.
+     *
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param force
+     *            the user that created the lock must match the user who wants to delete it, unless force is {@code
+     * true}
+     *
+     * @return {@link CompletableFuture} that completes when the operation has finished
+     *
+     * @see Repository#unlock(Resource, boolean)
+     */
+    CompletableFuture<Void> unlock(Resource resource, boolean force);
+}
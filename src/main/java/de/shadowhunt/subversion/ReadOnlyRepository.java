@@ -19,9 +19,16 @@ package de.shadowhunt.subversion;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -42,6 +49,11 @@ public interface ReadOnlyRepository {
     /**
      * Create a new {@link View} to query consistent repository information.
      *
+     * <p>
+     * If the head revision is tracked (see {@link RepositoryConfiguration#isHeadRevisionTracking()}) the {@link View} may be based on a recently observed head revision, use {@link #createView(boolean)} to get a {@link View} of the latest
+     * revision.
+     * </p>
+     *
      * @return the new {@link View}
      *
      * @throws SubversionException
@@ -51,6 +63,21 @@ public interface ReadOnlyRepository {
      */
     View createView();
 
+    /**
+     * Create a new {@link View} to query consistent repository information.
+     *
+     * @param fresh
+     *            {@code true} if the {@link View} must be based on the head revision at the time of the call, {@code false} if a tracked head revision may be used (see {@link #createView()})
+     *
+     * @return the new {@link View}
+     *
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    View createView(boolean fresh);
+
     /**
      * Download the resource.
      *
@@ -72,6 +99,114 @@ public interface ReadOnlyRepository {
      */
     InputStream download(View view, Resource resource, Revision revision);
 
+    /**
+     * Download the resource in the target revision as delta against its content in the base revision. Only the differences between both revisions are transferred, the returned {@link InputStream} applies them to the given base content
+     * while it is read, so neither the base nor the target content is kept in memory.
+     *
+     * <p>
+     * The base content must be the unmodified content of the resource in the base revision (e.g. as returned by {@link #download(View, Resource, Revision)}), it is read sequentially and exactly once. If the server is not able to create a
+     * delta the full content of the target revision is returned instead. The base content is closed together with the returned {@link InputStream}, or immediately if the download fails.
+     * </p>
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root), the resource is traced back to its location in the base revision
+     * @param base
+     *            the {@link Revision} of the resource the base content belongs to
+     * @param target
+     *            the {@link Revision} of the resource to retrieve
+     * @param baseContent
+     *            {@link InputStream} with the content of the resource in the base revision
+     *
+     * @return {@link InputStream} from which the content of the target revision can be read (caller has to close the stream properly)
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    InputStream download(View view, Resource resource, Revision base, Revision target, InputStream baseContent);
+
+    /**
+     * Download the file to the given {@link Path}. The content is written into a temporary file next to the target, which replaces the target (atomically, if supported by the file system) once the content has been verified against
+     * {@link Info#getMd5()}. On failure the target is left untouched. A replaced target keeps its permissions.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the file (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the file to retrieve
+     * @param target
+     *            {@link Path} of the file the content is written to, its directory must exist
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository, the resource is not a file or the downloaded content does not match the checksum
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server or the target can not be written
+     */
+    void download(View view, Resource resource, Revision revision, Path target);
+
+    /**
+     * Download the file into the given {@link WritableByteChannel}. The content is streamed without buffering the complete file, its MD5 checksum is calculated in the same pass and verified against
+     * {@link Info#getMd5()} once the content has been transferred. The connection is released as soon as the content has been consumed.
+     *
+     * <p>
+     * The {@link WritableByteChannel} is not closed. A {@link FileChannel} can be downloaded in segments instead (see {@link #downloadSegmented(View, Resource, Revision, FileChannel)}).
+     * </p>
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the file (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the file to retrieve
+     * @param target
+     *            {@link WritableByteChannel} the content is written to
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository, the resource is not a file or the downloaded content does not match the checksum
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    void download(View view, Resource resource, Revision revision, WritableByteChannel target);
+
+    /**
+     * Download the file into the given {@link FileChannel}. Once the size of the file is known, it is split into segments (see {@link RepositoryConfiguration#getDownloadSegmentSize()}) that are requested as byte ranges and written at their
+     * position into the {@link FileChannel}; up to {@link RepositoryConfiguration#getMaxRequestsInFlight()} segments are transferred concurrently, each over its own connection (the connection manager of the {@link org.apache.http.client.HttpClient}
+     * has to provide enough connections per route). A failed segment is requested again on its own, a server that does not support byte ranges transfers the
+     * complete file with the first request. Afterwards the {@link FileChannel} is truncated to the size of the file and the content is verified against
+     * {@link Info#getMd5()}.
+     *
+     * <p>
+     * The position of the {@link FileChannel} is not modified, the {@link FileChannel} must be readable and writable and is not closed.
+     * </p>
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the file (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the file to retrieve
+     * @param target
+     *            {@link FileChannel} the content is written to
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository, the resource is not a file or the downloaded content does not match the checksum
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    void downloadSegmented(View view, Resource resource, Revision revision, FileChannel target);
+
     /**
      * Determine the HTTP download URI for the resource.
      *
@@ -115,6 +250,32 @@ public interface ReadOnlyRepository {
      */
     boolean exists(View view, Resource resource, Revision revision);
 
+    /**
+     * Check for each of the given resources if it exists in the given revision of the repository. Resources sharing the same parent directory are checked with a single request, independent groups may be checked concurrently (see
+     * {@link RepositoryConfiguration#getMaxRequestsInFlight()}).
+     *
+     * <p>
+     * Unlike {@link #exists(View, Resource, Revision)} the history of the resources is not traced, every resource is looked up by its path in the given revision.
+     * </p>
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resources
+     *            the {@link Resource}s to check (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the resources to check
+     *
+     * @return a {@link Map} containing every requested {@link Resource}, mapped to {@code true} if the resource exists in the given revision otherwise {@code false}
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null} or resources contains {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    Map<Resource, Boolean> existsAll(View view, Collection<Resource> resources, Revision revision);
+
     /**
      * Returns the {@link Resource} to the base for this {@link Repository}.
      *
@@ -164,6 +325,33 @@ public interface ReadOnlyRepository {
      */
     Info info(View view, Resource resource, Revision revision);
 
+    /**
+     * Retrieve information for each of the given resources. Resources sharing the same parent directory are retrieved with a single request, independent groups may be retrieved concurrently (see
+     * {@link RepositoryConfiguration#getMaxRequestsInFlight()}).
+     *
+     * <p>
+     * Unlike {@link #info(View, Resource, Revision)} the history of the resources is not traced, every resource is looked up by its path in the given revision. Missing resources do not cause an exception, they are mapped to {@link Optional#empty()}
+     * instead.
+     * </p>
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resources
+     *            the {@link Resource}s to retrieve (relative to the repository root)
+     * @param revision
+     *            the {@link Revision} of the resources to retrieve
+     *
+     * @return a {@link Map} containing every requested {@link Resource}, mapped to its {@link Info} or {@link Optional#empty()} if the resource does not exist in the given revision
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null} or resources contains {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    Map<Resource, Optional<Info>> infoAll(View view, Collection<Resource> resources, Revision revision);
+
     /**
      * Retrieve information for the resource in the given revision and its child resources (depending on depth parameter).
      *
@@ -213,4 +401,31 @@ public interface ReadOnlyRepository {
      *             if an error occurs in the underlining communication with the server
      */
     List<LogEntry> log(View view, Resource resource, Revision startRevision, Revision endRevision, int limit, boolean stopOnCopy);
+
+    /**
+     * Stream the log information for the revisions between startRevision and endRevision of the resource. Each {@link LogEntry} is passed to the handler as soon as it has been received, so the memory consumption does not depend on the number of entries.
+     *
+     * @param view
+     *            the current valid {@link View}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param startRevision
+     *            the first {@link Revision} of the resource to retrieve (including)
+     * @param endRevision
+     *            the last {@link Revision} of the resource to retrieve (including)
+     * @param limit
+     *            maximal number of {@link LogEntry} entries, if the value is lower or equal to {@code 0} all entries will be returned
+     * @param stopOnCopy
+     *            do not cross copies while traversing history
+     * @param handler
+     *            receives the {@link LogEntry} entries ordered (early to latest), returning {@code false} stops the retrieval of further entries
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    void log(View view, Resource resource, Revision startRevision, Revision endRevision, int limit, boolean stopOnCopy, Predicate<? super LogEntry> handler);
 }
@@ -18,6 +18,10 @@
 package de.shadowhunt.subversion;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -28,7 +32,8 @@ import javax.annotation.concurrent.ThreadSafe;
 public interface Repository extends ReadOnlyRepository {
 
     /**
-     * Upload a new revision of the resource and set properties.
+     * Upload a new revision of the resource and set properties. The length of the content is not known in advance and the {@link InputStream} can only be read once, so the upload can not be repeated unless the content is spooled (see
+     * {@link RepositoryConfiguration#isUploadSpoolingEnabled()}).
      *
      * @param transaction
      *            the current running {@link Transaction}
@@ -48,6 +53,117 @@ public interface Repository extends ReadOnlyRepository {
      */
     void add(Transaction transaction, Resource resource, boolean parents, InputStream content);
 
+    /**
+     * Upload a new revision of the resource and set properties. The content has a known length, so the upload can be repeated (e.g. after a connection failure or an authentication challenge).
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     * @param content
+     *            content of the resource (must not be modified during the transfer)
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    void add(Transaction transaction, Resource resource, boolean parents, byte[] content);
+
+    /**
+     * Upload a new revision of the resource and set properties. The content has a known length, so the upload can be repeated (e.g. after a connection failure or an authentication challenge).
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     * @param content
+     *            {@link ByteBuffer} whose remaining bytes are the content of the resource, its position is not modified
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    void add(Transaction transaction, Resource resource, boolean parents, ByteBuffer content);
+
+    /**
+     * Upload a new revision of the resource and set properties. The file is read while it is sent, it is neither loaded into memory as a whole nor spooled into
+     * a temporary file. Its length is known, so the upload is sent without chunked transfer encoding and can be repeated (e.g. after a connection failure or an
+     * authentication challenge).
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     * @param content
+     *            {@link Path} of the file with the content of the resource (must not be modified during the transfer)
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    void add(Transaction transaction, Resource resource, boolean parents, Path content);
+
+    /**
+     * Upload a new revision of the resource and set properties. The content has a known length, so the upload can be repeated (e.g. after a connection failure or an authentication challenge) by reading the content again from a new {@link InputStream}.
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param resource
+     *            the {@link Resource} of the resource (relative to the repository root)
+     * @param parents
+     *            whether to create missing parents folders or not
+     * @param content
+     *            {@link Supplier} that creates a new {@link InputStream} (will be closed after transfer) each time the content has to be read, possibly from another thread
+     * @param length
+     *            number of bytes each {@link InputStream} provides, must be greater or equal than {@code 0}
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null}
+     * @throws IllegalArgumentException
+     *             if length is smaller than {@code 0}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    void add(Transaction transaction, Resource resource, boolean parents, Supplier<InputStream> content, long length);
+
+    /**
+     * Upload new revisions of many resources at once. The lock status of all resources in a folder is retrieved with a single request, missing parent folders are created once and the contents are uploaded concurrently (see
+     * {@link RepositoryConfiguration#getMaxRequestsInFlight()}).
+     *
+     * @param transaction
+     *            the current running {@link Transaction}
+     * @param contents
+     *            {@link Map} of the {@link Resource}s (relative to the repository root) to upload to a {@link Supplier} of the {@link InputStream} from which the content will be read (will be closed after transfer), each {@link Supplier}
+     *            is called exactly once, possibly from another thread
+     * @param parents
+     *            whether to create missing parents folders or not
+     *
+     * @throws java.lang.NullPointerException
+     *             if any parameter is {@code null} or contents contains {@code null}
+     * @throws SubversionException
+     *             if an error occurs while operating on the repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    void addAll(Transaction transaction, Map<Resource, Supplier<InputStream>> contents, boolean parents);
+
     /**
      * Save all modifications of the current running {@link Transaction}.
      *
@@ -0,0 +1,827 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import de.shadowhunt.subversion.metrics.MetricsRegistry;
+import de.shadowhunt.subversion.metrics.NoopMetricsRegistry;
+import de.shadowhunt.subversion.tracing.NoopSpanExporter;
+import de.shadowhunt.subversion.tracing.SpanExporter;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * {@link RepositoryConfiguration} holds the tuning parameters of a {@link ReadOnlyRepository}. Instances are immutable, each {@code with*} method returns a new {@link RepositoryConfiguration} with the changed value.
+ */
+@Immutable
+public final class RepositoryConfiguration {
+
+    /**
+     * Mutable copy of all values, so each {@code with*} method only has to change its own value.
+     */
+    private static final class Builder {
+
+        boolean checksumVerificationEnabled;
+
+        boolean compressionEnabled;
+
+        boolean deltaUploadEnabled;
+
+        Path downloadCacheDirectory;
+
+        long downloadCacheSize;
+
+        long downloadSegmentSize;
+
+        long headRevisionMaximumAge;
+
+        boolean headRevisionTracking;
+
+        boolean lazyProbing;
+
+        boolean listReportEnabled;
+
+        boolean lockTokenRefreshEnabled;
+
+        int maxRequestsInFlight;
+
+        long metadataCacheWeight;
+
+        MetricsRegistry metricsRegistry;
+
+        int resolveCacheSize;
+
+        SpanExporter spanExporter;
+
+        int svndiffVersion;
+
+        boolean uploadSpoolingEnabled;
+
+        int workerThreads;
+
+        Builder() {
+            checksumVerificationEnabled = false;
+            compressionEnabled = false;
+            deltaUploadEnabled = false;
+            downloadCacheDirectory = null;
+            downloadCacheSize = DEFAULT_DOWNLOAD_CACHE_SIZE;
+            downloadSegmentSize = DEFAULT_DOWNLOAD_SEGMENT_SIZE;
+            headRevisionMaximumAge = 0L;
+            headRevisionTracking = false;
+            lazyProbing = false;
+            listReportEnabled = false;
+            lockTokenRefreshEnabled = false;
+            maxRequestsInFlight = 1;
+            metadataCacheWeight = 0L;
+            metricsRegistry = NoopMetricsRegistry.INSTANCE;
+            resolveCacheSize = 1024;
+            spanExporter = NoopSpanExporter.INSTANCE;
+            svndiffVersion = 0;
+            uploadSpoolingEnabled = false;
+            workerThreads = 4;
+        }
+
+        Builder(final RepositoryConfiguration source) {
+            checksumVerificationEnabled = source.checksumVerificationEnabled;
+            compressionEnabled = source.compressionEnabled;
+            deltaUploadEnabled = source.deltaUploadEnabled;
+            downloadCacheDirectory = source.downloadCacheDirectory;
+            downloadCacheSize = source.downloadCacheSize;
+            downloadSegmentSize = source.downloadSegmentSize;
+            headRevisionMaximumAge = source.headRevisionMaximumAge;
+            headRevisionTracking = source.headRevisionTracking;
+            lazyProbing = source.lazyProbing;
+            listReportEnabled = source.listReportEnabled;
+            lockTokenRefreshEnabled = source.lockTokenRefreshEnabled;
+            maxRequestsInFlight = source.maxRequestsInFlight;
+            metadataCacheWeight = source.metadataCacheWeight;
+            metricsRegistry = source.metricsRegistry;
+            resolveCacheSize = source.resolveCacheSize;
+            spanExporter = source.spanExporter;
+            svndiffVersion = source.svndiffVersion;
+            uploadSpoolingEnabled = source.uploadSpoolingEnabled;
+            workerThreads = source.workerThreads;
+        }
+    }
+
+    private static final long DEFAULT_DOWNLOAD_CACHE_SIZE = 1024L * 1024L * 1024L;
+
+    private static final long DEFAULT_DOWNLOAD_SEGMENT_SIZE = 16L * 1024L * 1024L;
+
+    /**
+     * Default {@link RepositoryConfiguration}: all requests are executed sequentially.
+     */
+    public static final RepositoryConfiguration DEFAULT = new RepositoryConfiguration(new Builder());
+
+    private final boolean checksumVerificationEnabled;
+
+    private final boolean compressionEnabled;
+
+    private final boolean deltaUploadEnabled;
+
+    private final Path downloadCacheDirectory;
+
+    private final long downloadCacheSize;
+
+    private final long downloadSegmentSize;
+
+    private final long headRevisionMaximumAge;
+
+    private final boolean headRevisionTracking;
+
+    private final boolean lazyProbing;
+
+    private final boolean listReportEnabled;
+
+    private final boolean lockTokenRefreshEnabled;
+
+    private final int maxRequestsInFlight;
+
+    private final long metadataCacheWeight;
+
+    private final MetricsRegistry metricsRegistry;
+
+    private final int resolveCacheSize;
+
+    private final SpanExporter spanExporter;
+
+    private final int svndiffVersion;
+
+    private final boolean uploadSpoolingEnabled;
+
+    private final int workerThreads;
+
+    private RepositoryConfiguration(final Builder builder) {
+        checksumVerificationEnabled = builder.checksumVerificationEnabled;
+        compressionEnabled = builder.compressionEnabled;
+        deltaUploadEnabled = builder.deltaUploadEnabled;
+        downloadCacheDirectory = builder.downloadCacheDirectory;
+        downloadCacheSize = builder.downloadCacheSize;
+        downloadSegmentSize = builder.downloadSegmentSize;
+        headRevisionMaximumAge = builder.headRevisionMaximumAge;
+        headRevisionTracking = builder.headRevisionTracking;
+        lazyProbing = builder.lazyProbing;
+        listReportEnabled = builder.listReportEnabled;
+        lockTokenRefreshEnabled = builder.lockTokenRefreshEnabled;
+        maxRequestsInFlight = builder.maxRequestsInFlight;
+        metadataCacheWeight = builder.metadataCacheWeight;
+        metricsRegistry = builder.metricsRegistry;
+        resolveCacheSize = builder.resolveCacheSize;
+        spanExporter = builder.spanExporter;
+        svndiffVersion = builder.svndiffVersion;
+        uploadSpoolingEnabled = builder.uploadSpoolingEnabled;
+        workerThreads = builder.workerThreads;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof RepositoryConfiguration)) {
+            return false;
+        }
+        final RepositoryConfiguration other = (RepositoryConfiguration) obj;
+        if (checksumVerificationEnabled != other.checksumVerificationEnabled) {
+            return false;
+        }
+        if (compressionEnabled != other.compressionEnabled) {
+            return false;
+        }
+        if (deltaUploadEnabled != other.deltaUploadEnabled) {
+            return false;
+        }
+        if (downloadCacheDirectory == null) {
+            if (other.downloadCacheDirectory != null) {
+                return false;
+            }
+        } else if (!downloadCacheDirectory.equals(other.downloadCacheDirectory)) {
+            return false;
+        }
+        if (downloadCacheSize != other.downloadCacheSize) {
+            return false;
+        }
+        if (downloadSegmentSize != other.downloadSegmentSize) {
+            return false;
+        }
+        if (headRevisionMaximumAge != other.headRevisionMaximumAge) {
+            return false;
+        }
+        if (headRevisionTracking != other.headRevisionTracking) {
+            return false;
+        }
+        if (lazyProbing != other.lazyProbing) {
+            return false;
+        }
+        if (listReportEnabled != other.listReportEnabled) {
+            return false;
+        }
+        if (lockTokenRefreshEnabled != other.lockTokenRefreshEnabled) {
+            return false;
+        }
+        if (maxRequestsInFlight != other.maxRequestsInFlight) {
+            return false;
+        }
+        if (metadataCacheWeight != other.metadataCacheWeight) {
+            return false;
+        }
+        if (metricsRegistry == null) {
+            if (other.metricsRegistry != null) {
+                return false;
+            }
+        } else if (!metricsRegistry.equals(other.metricsRegistry)) {
+            return false;
+        }
+        if (resolveCacheSize != other.resolveCacheSize) {
+            return false;
+        }
+        if (!spanExporter.equals(other.spanExporter)) {
+            return false;
+        }
+        if (svndiffVersion != other.svndiffVersion) {
+            return false;
+        }
+        if (uploadSpoolingEnabled != other.uploadSpoolingEnabled) {
+            return false;
+        }
+        if (workerThreads != other.workerThreads) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the directory of the persistent download cache. The content of a file in a concrete revision never changes, so downloads of concrete revisions
+     * are stored in this directory and served from it by all repositories (even from different JVMs) that share the directory. Downloads of
+     * {@link Revision#HEAD} bypass the cache.
+     *
+     * @return the directory of the download cache or {@code null} if downloads are not cached
+     */
+    @Nullable
+    public Path getDownloadCacheDirectory() {
+        return downloadCacheDirectory;
+    }
+
+    /**
+     * Returns the number of bytes the download cache may occupy, once the limit is exceeded the least recently used content is removed.
+     *
+     * @return the maximal size of the download cache in bytes
+     */
+    public long getDownloadCacheSize() {
+        return downloadCacheSize;
+    }
+
+    /**
+     * Returns the size of the segments a file is split into when it is downloaded into a {@link java.nio.channels.FileChannel} (see
+     * {@link ReadOnlyRepository#downloadSegmented(View, Resource, Revision, java.nio.channels.FileChannel)}). Each segment is requested as byte range over its
+     * own connection, up to {@link #getMaxRequestsInFlight()} segments are transferred concurrently.
+     *
+     * @return the size of the download segments in bytes
+     */
+    public long getDownloadSegmentSize() {
+        return downloadSegmentSize;
+    }
+
+    /**
+     * Returns the maximal age (in milliseconds) of a tracked head revision that {@link ReadOnlyRepository#createView()} may use instead of asking the server.
+     * Commits performed through the repository are visible immediately, commits by other clients become visible after at most this period. Only used if
+     * {@link #isHeadRevisionTracking()} is enabled.
+     *
+     * @return the maximal age of a tracked head revision in milliseconds, {@code 0} to always ask the server
+     */
+    public long getHeadRevisionMaximumAge() {
+        return headRevisionMaximumAge;
+    }
+
+    /**
+     * Returns the maximal number of concurrent requests a single repository call (e.g. {@link ReadOnlyRepository#list(View, Resource, Revision, Depth)} with {@link Depth#INFINITY}) may issue.
+     *
+     * @return the maximal number of concurrent requests per call, {@code 1} means all requests are executed sequentially
+     */
+    public int getMaxRequestsInFlight() {
+        return maxRequestsInFlight;
+    }
+
+    /**
+     * Returns the maximal weight of the in-memory metadata cache. {@link ReadOnlyRepository#info(View, Resource, Revision)},
+     * {@link ReadOnlyRepository#list(View, Resource, Revision, Depth)} and {@link ReadOnlyRepository#exists(View, Resource, Revision)} results for revisions
+     * pinned by a {@link View} never change, so they are cached (including missing resources). Each {@link Info} weighs {@code 1} plus the number of its
+     * properties; once the limit is exceeded the least recently used results are evicted.
+     *
+     * @return the maximal weight of the metadata cache, {@code 0} disables the cache
+     */
+    public long getMetadataCacheWeight() {
+        return metadataCacheWeight;
+    }
+
+    /**
+     * Returns the {@link MetricsRegistry} that records the metrics of the repository, see {@link MetricsRegistry} for the recorded metrics. By default all metrics are discarded.
+     *
+     * @return the {@link MetricsRegistry} that records the metrics of the repository
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Returns the maximal number of resolved resource locations a repository keeps. Resolving the location of a resource in a former revision requires a request to the server, as the result can never change for a repository the locations are cached.
+     *
+     * @return the maximal number of cached resource locations, {@code 0} disables the cache
+     */
+    public int getResolveCacheSize() {
+        return resolveCacheSize;
+    }
+
+    /**
+     * Returns the {@link SpanExporter} that receives the tracing spans of the repository: one {@link de.shadowhunt.subversion.tracing.Span} per call of a public repository method with a child span per HTTP request. By default spans are not recorded.
+     *
+     * @return the {@link SpanExporter} that receives the tracing spans of the repository
+     */
+    public SpanExporter getSpanExporter() {
+        return spanExporter;
+    }
+
+    /**
+     * Returns the version of the svndiff format used for delta uploads (see {@link #isDeltaUploadEnabled()}). Version {@code 0} transfers new data as is,
+     * version {@code 1} compresses it with zlib. If compression is enabled (see {@link #isCompressionEnabled()}) version {@code 1} is always used. Servers that
+     * are not known to understand version {@code 1} (HTTP v1 servers may be older than 1.4) always receive version {@code 0}.
+     *
+     * @return the svndiff version, either {@code 0} or {@code 1}
+     */
+    public int getSvndiffVersion() {
+        return svndiffVersion;
+    }
+
+    /**
+     * Returns the number of threads in the worker pool that executes concurrent requests of a repository. The blocking operations of an asynchronous repository run on the {@link java.util.concurrent.Executor} given to the {@link RepositoryFactory}.
+     *
+     * @return the number of worker threads
+     */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = (prime * result) + (checksumVerificationEnabled ? 1231 : 1237);
+        result = (prime * result) + (compressionEnabled ? 1231 : 1237);
+        result = (prime * result) + (deltaUploadEnabled ? 1231 : 1237);
+        result = (prime * result) + ((downloadCacheDirectory == null) ? 0 : downloadCacheDirectory.hashCode());
+        result = (prime * result) + (int) (downloadCacheSize ^ (downloadCacheSize >>> 32));
+        result = (prime * result) + (int) (downloadSegmentSize ^ (downloadSegmentSize >>> 32));
+        result = (prime * result) + (int) (headRevisionMaximumAge ^ (headRevisionMaximumAge >>> 32));
+        result = (prime * result) + (headRevisionTracking ? 1231 : 1237);
+        result = (prime * result) + (lazyProbing ? 1231 : 1237);
+        result = (prime * result) + (listReportEnabled ? 1231 : 1237);
+        result = (prime * result) + (lockTokenRefreshEnabled ? 1231 : 1237);
+        result = (prime * result) + maxRequestsInFlight;
+        result = (prime * result) + (int) (metadataCacheWeight ^ (metadataCacheWeight >>> 32));
+        result = (prime * result) + ((metricsRegistry == null) ? 0 : metricsRegistry.hashCode());
+        result = (prime * result) + resolveCacheSize;
+        result = (prime * result) + spanExporter.hashCode();
+        result = (prime * result) + svndiffVersion;
+        result = (prime * result) + (uploadSpoolingEnabled ? 1231 : 1237);
+        result = (prime * result) + workerThreads;
+        return result;
+    }
+
+    /**
+     * Returns whether transferred file contents are verified against their MD5 checksum. Downloads calculate the checksum while the content is read and fail
+     * with an {@link java.io.IOException} at the end of the content if it does not match the checksum of the resource (which costs an additional request per
+     * download, downloads of {@link Revision#HEAD} are pinned to the head revision of the {@link View}). Uploads send the checksum of the content along, so the
+     * server rejects corrupted content; contents that are not uploaded as delta (see {@link #isDeltaUploadEnabled()}) are buffered in temporary files to
+     * determine the checksum up front.
+     *
+     * @return {@code true} if transferred file contents are verified otherwise {@code false}
+     */
+    public boolean isChecksumVerificationEnabled() {
+        return checksumVerificationEnabled;
+    }
+
+    /**
+     * Returns whether the transferred data is compressed. Responses are requested with gzip or deflate encoding and decompressed while they are parsed, file
+     * contents are uploaded as zlib compressed svndiff (version 1, see {@link #getSvndiffVersion()}), if the server understands it. Compression trades CPU time
+     * on client and server for bandwidth, so it pays off on slow links. If compression is disabled, responses are requested with identity encoding.
+     * <p>
+     * The {@link org.apache.http.client.HttpClient} must be built with {@link org.apache.http.impl.client.HttpClientBuilder#disableContentCompression()}:
+     * otherwise the client negotiates and decompresses the encoding on its own, the compressed size of the responses can not be reported to the metrics
+     * registry (see {@link #getMetricsRegistry()}) then.
+     *
+     * @return {@code true} if the transferred data is compressed otherwise {@code false}
+     */
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * Returns whether the content of modified files is uploaded as svndiff delta against the content in the base revision of the {@link Transaction}. The base
+     * content has to be downloaded (or taken from the download cache, see {@link #getDownloadCacheDirectory()}) and the new content is buffered in temporary
+     * files; if the delta is not smaller than the new content, the full text is uploaded instead.
+     *
+     * @return {@code true} if modified files are uploaded as delta otherwise {@code false}
+     */
+    public boolean isDeltaUploadEnabled() {
+        return deltaUploadEnabled;
+    }
+
+    /**
+     * Returns whether the head revision of the repository is tracked. With tracking enabled concurrent {@link ReadOnlyRepository#createView()} calls share a
+     * single request to the server, and views may be served from a recently observed head revision (see {@link #getHeadRevisionMaximumAge()}).
+     * {@link ReadOnlyRepository#createView(boolean)} always asks the server.
+     *
+     * @return {@code true} if the head revision is tracked otherwise {@code false}
+     */
+    public boolean isHeadRevisionTracking() {
+        return headRevisionTracking;
+    }
+
+    /**
+     * Returns whether the {@link RepositoryFactory} returns a repository before the server has been probed. The server is then probed in the background and the
+     * first operation waits for the probe to complete; if the probe fails, the next operation probes again. Repositories created from a
+     * {@link RepositoryDescriptor} never probe the server.
+     *
+     * @return {@code true} if the server is probed lazily otherwise {@code false}
+     */
+    public boolean isLazyProbing() {
+        return lazyProbing;
+    }
+
+    /**
+     * Returns whether {@link ReadOnlyRepository#list(View, Resource, Revision, Depth)} with {@link Depth#INFINITY} or {@link Depth#FILES} uses a single {@code svn:list-report}
+     * REPORT on servers that support it (mod_dav_svn 1.10 and newer). The report only transfers the kind, revision and date of each resource, so the returned
+     * {@link Info} entries carry neither md5 checksums, lock information nor properties.
+     *
+     * @return {@code true} if the {@code svn:list-report} REPORT is used when available
+     */
+    public boolean isListReportEnabled() {
+        return listReportEnabled;
+    }
+
+    /**
+     * Returns whether the lock status of all modified and deleted resources is retrieved again when a {@link Transaction} is committed. Otherwise the lock
+     * tokens found while the resources were modified are used, only resources with unknown lock status are queried. Either way resources of the same folder
+     * share a single request.
+     *
+     * @return {@code true} if the lock status is retrieved again on commit otherwise {@code false}
+     */
+    public boolean isLockTokenRefreshEnabled() {
+        return lockTokenRefreshEnabled;
+    }
+
+    /**
+     * Returns whether contents given as {@link java.io.InputStream} are copied into temporary files before they are uploaded. An {@link java.io.InputStream}
+     * can only be read once, so a failed upload (e.g. after a connection failure or an authentication challenge) can not be repeated and the content is sent
+     * with chunked transfer encoding. Spooled contents have a known length and their uploads can be repeated, at the cost of writing and reading the content
+     * once more locally. Contents given as {@link java.nio.file.Path}, {@code byte[]}, {@link java.nio.ByteBuffer} or sized supplier are never spooled.
+     *
+     * @return {@code true} if streamed contents are spooled into temporary files otherwise {@code false}
+     */
+    public boolean isUploadSpoolingEnabled() {
+        return uploadSpoolingEnabled;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("RepositoryConfiguration [checksumVerificationEnabled=");
+        builder.append(checksumVerificationEnabled);
+        builder.append(", compressionEnabled=");
+        builder.append(compressionEnabled);
+        builder.append(", deltaUploadEnabled=");
+        builder.append(deltaUploadEnabled);
+        builder.append(", downloadCacheDirectory=");
+        builder.append(downloadCacheDirectory);
+        builder.append(", downloadCacheSize=");
+        builder.append(downloadCacheSize);
+        builder.append(", downloadSegmentSize=");
+        builder.append(downloadSegmentSize);
+        builder.append(", headRevisionMaximumAge=");
+        builder.append(headRevisionMaximumAge);
+        builder.append(", headRevisionTracking=");
+        builder.append(headRevisionTracking);
+        builder.append(", lazyProbing=");
+        builder.append(lazyProbing);
+        builder.append(", listReportEnabled=");
+        builder.append(listReportEnabled);
+        builder.append(", lockTokenRefreshEnabled=");
+        builder.append(lockTokenRefreshEnabled);
+        builder.append(", maxRequestsInFlight=");
+        builder.append(maxRequestsInFlight);
+        builder.append(", metadataCacheWeight=");
+        builder.append(metadataCacheWeight);
+        builder.append(", metricsRegistry=");
+        builder.append(metricsRegistry);
+        builder.append(", resolveCacheSize=");
+        builder.append(resolveCacheSize);
+        builder.append(", spanExporter=");
+        builder.append(spanExporter);
+        builder.append(", svndiffVersion=");
+        builder.append(svndiffVersion);
+        builder.append(", uploadSpoolingEnabled=");
+        builder.append(uploadSpoolingEnabled);
+        builder.append(", workerThreads=");
+        builder.append(workerThreads);
+        builder.append(']');
+        return builder.toString();
+    }
+
+    private RepositoryConfiguration with(final Consumer<Builder> change) {
+        final Builder builder = new Builder(this);
+        change.accept(builder);
+        return new RepositoryConfiguration(builder);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given checksum verification, see {@link #isChecksumVerificationEnabled()}.
+     *
+     * @param enabled
+     *            {@code true} to verify transferred file contents
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     */
+    public RepositoryConfiguration withChecksumVerificationEnabled(final boolean enabled) {
+        return with(builder -> builder.checksumVerificationEnabled = enabled);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given compression, see {@link #isCompressionEnabled()}.
+     *
+     * @param enabled
+     *            {@code true} to compress the transferred data
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     */
+    public RepositoryConfiguration withCompressionEnabled(final boolean enabled) {
+        return with(builder -> builder.compressionEnabled = enabled);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given delta upload, see {@link #isDeltaUploadEnabled()}.
+     *
+     * @param enabled
+     *            {@code true} to upload modified files as delta
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     */
+    public RepositoryConfiguration withDeltaUploadEnabled(final boolean enabled) {
+        return with(builder -> builder.deltaUploadEnabled = enabled);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} that caches downloads in the given directory, see {@link #getDownloadCacheDirectory()}.
+     *
+     * @param directory
+     *            directory of the download cache (will be created if necessary), {@code null} disables the cache
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     */
+    public RepositoryConfiguration withDownloadCacheDirectory(@Nullable final Path directory) {
+        return with(builder -> builder.downloadCacheDirectory = directory);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given size of the download cache, see {@link #getDownloadCacheSize()}.
+     *
+     * @param size
+     *            maximal size of the download cache in bytes, must be greater or equal than {@code 0}
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws IllegalArgumentException
+     *             if size is smaller than {@code 0}
+     */
+    public RepositoryConfiguration withDownloadCacheSize(final long size) {
+        Validate.isTrue((size >= 0), "downloadCacheSize must be greater or equal than 0, was %d", size);
+        return with(builder -> builder.downloadCacheSize = size);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given size of the download segments, see {@link #getDownloadSegmentSize()}.
+     *
+     * @param size
+     *            size of the download segments in bytes, must be greater than {@code 0}
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws IllegalArgumentException
+     *             if size is smaller or equal than {@code 0}
+     */
+    public RepositoryConfiguration withDownloadSegmentSize(final long size) {
+        Validate.isTrue((size > 0), "downloadSegmentSize must be greater than 0, was %d", size);
+        return with(builder -> builder.downloadSegmentSize = size);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given maximal age of a tracked head revision, see {@link #getHeadRevisionMaximumAge()}.
+     *
+     * @param age
+     *            maximal age of a tracked head revision in milliseconds, must be greater or equal than {@code 0}
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws IllegalArgumentException
+     *             if age is smaller than {@code 0}
+     */
+    public RepositoryConfiguration withHeadRevisionMaximumAge(final long age) {
+        Validate.isTrue((age >= 0), "headRevisionMaximumAge must be greater or equal than 0, was %d", age);
+        return with(builder -> builder.headRevisionMaximumAge = age);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given head revision tracking, see {@link #isHeadRevisionTracking()}.
+     *
+     * @param enabled
+     *            {@code true} to track the head revision
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     */
+    public RepositoryConfiguration withHeadRevisionTracking(final boolean enabled) {
+        return with(builder -> builder.headRevisionTracking = enabled);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given lazy probing, see {@link #isLazyProbing()}.
+     *
+     * @param enabled
+     *            {@code true} to probe the server lazily
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     */
+    public RepositoryConfiguration withLazyProbing(final boolean enabled) {
+        return with(builder -> builder.lazyProbing = enabled);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} that uses (or does not use) the {@code svn:list-report} REPORT for deep listings, see {@link #isListReportEnabled()}.
+     *
+     * @param enabled
+     *            whether to use the {@code svn:list-report} REPORT when the server supports it
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     */
+    public RepositoryConfiguration withListReportEnabled(final boolean enabled) {
+        return with(builder -> builder.listReportEnabled = enabled);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given lock token refresh, see {@link #isLockTokenRefreshEnabled()}.
+     *
+     * @param enabled
+     *            {@code true} to retrieve the lock status again on commit
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     */
+    public RepositoryConfiguration withLockTokenRefreshEnabled(final boolean enabled) {
+        return with(builder -> builder.lockTokenRefreshEnabled = enabled);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given maximal number of concurrent requests per repository call. The underlying {@link org.apache.http.client.HttpClient} must allow at least as many connections per route.
+     *
+     * @param value
+     *            maximal number of concurrent requests per call, must be greater or equal than {@code 1}
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws IllegalArgumentException
+     *             if value is smaller than {@code 1}
+     */
+    public RepositoryConfiguration withMaxRequestsInFlight(final int value) {
+        Validate.isTrue((value >= 1), "maxRequestsInFlight must be greater or equal than 1, was %d", value);
+        return with(builder -> builder.maxRequestsInFlight = value);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given weight of the metadata cache, see {@link #getMetadataCacheWeight()}.
+     *
+     * @param weight
+     *            maximal weight of the metadata cache, must be greater or equal than {@code 0}
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws IllegalArgumentException
+     *             if weight is smaller than {@code 0}
+     */
+    public RepositoryConfiguration withMetadataCacheWeight(final long weight) {
+        Validate.isTrue((weight >= 0), "metadataCacheWeight must be greater or equal than 0, was %d", weight);
+        return with(builder -> builder.metadataCacheWeight = weight);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given {@link MetricsRegistry}, see {@link #getMetricsRegistry()}.
+     *
+     * @param registry
+     *            the {@link MetricsRegistry} that records the metrics of the repository
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws NullPointerException
+     *             if registry is {@code null}
+     */
+    public RepositoryConfiguration withMetricsRegistry(final MetricsRegistry registry) {
+        Validate.notNull(registry, "metricsRegistry must not be null");
+
+        return with(builder -> builder.metricsRegistry = registry);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given size of the resolve cache, see {@link #getResolveCacheSize()}.
+     *
+     * @param size
+     *            maximal number of cached resource locations, must be greater or equal than {@code 0}
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws IllegalArgumentException
+     *             if size is smaller than {@code 0}
+     */
+    public RepositoryConfiguration withResolveCacheSize(final int size) {
+        Validate.isTrue((size >= 0), "resolveCacheSize must be greater or equal than 0, was %d", size);
+        return with(builder -> builder.resolveCacheSize = size);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given {@link SpanExporter}, see {@link #getSpanExporter()}.
+     *
+     * @param exporter
+     *            the {@link SpanExporter} that receives the tracing spans of the repository
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws NullPointerException
+     *             if exporter is {@code null}
+     */
+    public RepositoryConfiguration withSpanExporter(final SpanExporter exporter) {
+        Validate.notNull(exporter, "spanExporter must not be null");
+
+        return with(builder -> builder.spanExporter = exporter);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given svndiff version, see {@link #getSvndiffVersion()}.
+     *
+     * @param version
+     *            svndiff version, must be {@code 0} or {@code 1}
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws IllegalArgumentException
+     *             if version is neither {@code 0} nor {@code 1}
+     */
+    public RepositoryConfiguration withSvndiffVersion(final int version) {
+        Validate.isTrue((version == 0) || (version == 1), "svndiffVersion must be 0 or 1, was %d", version);
+        return with(builder -> builder.svndiffVersion = version);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given spooling of uploads, see {@link #isUploadSpoolingEnabled()}.
+     *
+     * @param enabled
+     *            {@code true} to spool streamed contents into temporary files
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     */
+    public RepositoryConfiguration withUploadSpoolingEnabled(final boolean enabled) {
+        return with(builder -> builder.uploadSpoolingEnabled = enabled);
+    }
+
+    /**
+     * Create a new {@link RepositoryConfiguration} with the given size of the worker pool. The worker pool bounds the number of concurrent requests of all calls of a repository.
+     *
+     * @param threads
+     *            number of worker threads, must be greater or equal than {@code 1}
+     *
+     * @return the new {@link RepositoryConfiguration} instance
+     *
+     * @throws IllegalArgumentException
+     *             if threads is smaller than {@code 1}
+     */
+    public RepositoryConfiguration withWorkerThreads(final int threads) {
+        Validate.isTrue((threads >= 1), "workerThreads must be greater or equal than 1, was %d", threads);
+        return with(builder -> builder.workerThreads = threads);
+    }
+}
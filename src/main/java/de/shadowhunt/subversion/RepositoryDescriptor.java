@@ -0,0 +1,268 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Properties;
+import java.util.UUID;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * {@link RepositoryDescriptor} contains everything the {@link RepositoryFactory} learns about a {@link Repository} by probing the server. A persisted {@link RepositoryDescriptor} allows to create a {@link Repository} without any request to the
+ * server (see {@link RepositoryFactory#createRepository(RepositoryDescriptor, org.apache.http.client.HttpClient, org.apache.http.protocol.HttpContext)}).
+ */
+@Immutable
+public final class RepositoryDescriptor implements Serializable {
+
+    private static final String BASE_PATH = "basePath";
+
+    private static final String BASE_URI = "baseUri";
+
+    private static final String LIST_REPORT_SUPPORTED = "listReportSupported";
+
+    private static final String PREFIX = "prefix";
+
+    private static final String PROTOCOL_VERSION = "protocolVersion";
+
+    private static final String REPOSITORY_ID = "repositoryId";
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a new {@link RepositoryDescriptor} instance for the given values.
+     *
+     * @param baseUri
+     *            the {@link URI} to the root of the {@link Repository}
+     * @param basePath
+     *            the {@link Resource} to the base of the {@link Repository} (relative to the repository root)
+     * @param repositoryId
+     *            the {@link UUID} that identifies the {@link Repository} globally
+     * @param protocolVersion
+     *            the {@link ProtocolVersion} of the server
+     * @param prefix
+     *            the prefix of the special resources on the server
+     * @param listReportSupported
+     *            {@code true} if the server supports the {@code svn:list-report} REPORT
+     *
+     * @return the new {@link RepositoryDescriptor} instance with the given values
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     */
+    public static RepositoryDescriptor create(final URI baseUri, final Resource basePath, final UUID repositoryId, final ProtocolVersion protocolVersion, final String prefix, final boolean listReportSupported) {
+        Validate.notNull(baseUri, "baseUri must not be null");
+        Validate.notNull(basePath, "basePath must not be null");
+        Validate.notNull(repositoryId, "repositoryId must not be null");
+        Validate.notNull(protocolVersion, "protocolVersion must not be null");
+        Validate.notNull(prefix, "prefix must not be null");
+
+        return new RepositoryDescriptor(baseUri, basePath, repositoryId, protocolVersion, prefix, listReportSupported);
+    }
+
+    /**
+     * Create a new {@link RepositoryDescriptor} instance from {@link Properties} that have been created by {@link #toProperties()}.
+     *
+     * @param properties
+     *            the {@link Properties} describing the {@link Repository}
+     *
+     * @return the new {@link RepositoryDescriptor} instance
+     *
+     * @throws NullPointerException
+     *             if properties is {@code null}
+     * @throws IllegalArgumentException
+     *             if properties do not describe a {@link Repository}
+     */
+    public static RepositoryDescriptor fromProperties(final Properties properties) {
+        Validate.notNull(properties, "properties must not be null");
+
+        final URI baseUri = URI.create(getProperty(properties, BASE_URI));
+        final Resource basePath = Resource.create(getProperty(properties, BASE_PATH));
+        final UUID repositoryId = UUID.fromString(getProperty(properties, REPOSITORY_ID));
+        final ProtocolVersion protocolVersion = ProtocolVersion.valueOf(getProperty(properties, PROTOCOL_VERSION));
+        final String prefix = getProperty(properties, PREFIX);
+        final boolean listReportSupported = Boolean.parseBoolean(getProperty(properties, LIST_REPORT_SUPPORTED));
+        return new RepositoryDescriptor(baseUri, basePath, repositoryId, protocolVersion, prefix, listReportSupported);
+    }
+
+    private static String getProperty(final Properties properties, final String key) {
+        final String value = properties.getProperty(key);
+        Validate.isTrue((value != null), "properties must contain %s", key);
+        return value;
+    }
+
+    private final Resource basePath;
+
+    private final URI baseUri;
+
+    private final boolean listReportSupported;
+
+    private final String prefix;
+
+    private final ProtocolVersion protocolVersion;
+
+    private final UUID repositoryId;
+
+    private RepositoryDescriptor(final URI baseUri, final Resource basePath, final UUID repositoryId, final ProtocolVersion protocolVersion, final String prefix, final boolean listReportSupported) {
+        this.baseUri = baseUri;
+        this.basePath = basePath;
+        this.repositoryId = repositoryId;
+        this.protocolVersion = protocolVersion;
+        this.prefix = prefix;
+        this.listReportSupported = listReportSupported;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final RepositoryDescriptor other = (RepositoryDescriptor) obj;
+        if (!basePath.equals(other.basePath)) {
+            return false;
+        }
+        if (!baseUri.equals(other.baseUri)) {
+            return false;
+        }
+        if (listReportSupported != other.listReportSupported) {
+            return false;
+        }
+        if (!prefix.equals(other.prefix)) {
+            return false;
+        }
+        if (protocolVersion != other.protocolVersion) {
+            return false;
+        }
+        if (!repositoryId.equals(other.repositoryId)) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the {@link Resource} to the base of the {@link Repository}.
+     *
+     * @return the {@link Resource} to the base of the {@link Repository}
+     */
+    public Resource getBasePath() {
+        return basePath;
+    }
+
+    /**
+     * Returns the {@link URI} to the root of the {@link Repository}.
+     *
+     * @return the {@link URI} to the root of the {@link Repository}
+     */
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Returns the prefix of the special resources on the server.
+     *
+     * @return the prefix of the special resources on the server
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Returns the {@link ProtocolVersion} of the server.
+     *
+     * @return the {@link ProtocolVersion} of the server
+     */
+    public ProtocolVersion getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    /**
+     * Returns the {@link UUID} that identifies the {@link Repository} globally.
+     *
+     * @return the {@link UUID} that identifies the {@link Repository} globally
+     */
+    public UUID getRepositoryId() {
+        return repositoryId;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = (prime * result) + basePath.hashCode();
+        result = (prime * result) + baseUri.hashCode();
+        result = (prime * result) + (listReportSupported ? 1231 : 1237);
+        result = (prime * result) + prefix.hashCode();
+        result = (prime * result) + protocolVersion.hashCode();
+        result = (prime * result) + repositoryId.hashCode();
+        return result;
+    }
+
+    /**
+     * Returns whether the server supports the {@code svn:list-report} REPORT.
+     *
+     * @return {@code true} if the server supports the {@code svn:list-report} REPORT otherwise {@code false}
+     */
+    public boolean isListReportSupported() {
+        return listReportSupported;
+    }
+
+    /**
+     * Export the {@link RepositoryDescriptor} as {@link Properties}, {@link #fromProperties(Properties)} restores the {@link RepositoryDescriptor} from them.
+     *
+     * @return the {@link Properties} describing the {@link Repository}
+     */
+    public Properties toProperties() {
+        final Properties properties = new Properties();
+        properties.setProperty(BASE_PATH, basePath.getValue());
+        properties.setProperty(BASE_URI, baseUri.toString());
+        properties.setProperty(LIST_REPORT_SUPPORTED, Boolean.toString(listReportSupported));
+        properties.setProperty(PREFIX, prefix);
+        properties.setProperty(PROTOCOL_VERSION, protocolVersion.name());
+        properties.setProperty(REPOSITORY_ID, repositoryId.toString());
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("RepositoryDescriptor [baseUri=");
+        builder.append(baseUri);
+        builder.append(", basePath=");
+        builder.append(basePath);
+        builder.append(", repositoryId=");
+        builder.append(repositoryId);
+        builder.append(", protocolVersion=");
+        builder.append(protocolVersion);
+        builder.append(", prefix=");
+        builder.append(prefix);
+        builder.append(", listReportSupported=");
+        builder.append(listReportSupported);
+        builder.append(']');
+        return builder.toString();
+    }
+}
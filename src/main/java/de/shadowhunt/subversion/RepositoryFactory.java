@@ -19,10 +19,12 @@ package de.shadowhunt.subversion;
 
 import java.net.URI;
 import java.util.ServiceLoader;
+import java.util.concurrent.Executor;
 
 import javax.annotation.concurrent.ThreadSafe;
 
 import org.apache.http.client.HttpClient;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.apache.http.protocol.HttpContext;
 
 /**
@@ -46,6 +48,152 @@ public interface RepositoryFactory {
         throw new SubversionException("Can not find a RepositoryFactory");
     }
 
+    /**
+     * Create a new {@link AsyncReadOnlyRepository} for given {@link URI} and use the given {@link HttpClient} and {@link HttpAsyncClient} with the {@link HttpContext} to connect to the server. Unless {@link RepositoryConfiguration#isLazyProbing()} is enabled, the server
+     * is probed before this method returns (otherwise the probe runs on the {@link Executor}), all further operations are executed asynchronously (see {@link AsyncReadOnlyRepository} for the operations that are sent without blocking a thread). As the operations may
+     * run concurrently, the {@link HttpClient} must be able to handle concurrent requests (e.g. by using a pooling connection manager).
+     *
+     * @param uri
+     *            {@link URI} to the root of the repository (e.g: http://repository.example.net/svn/test_repo/trunk/folder)
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository that are executed on the {@link Executor}
+     * @param asyncClient
+     *            {@link HttpAsyncClient} (already started) that will send the requests of the non-blocking operations of this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @param executor
+     *            {@link Executor} that runs all blocking operations, it is not shut down by the repository
+     * @return a new {@link AsyncReadOnlyRepository} for given {@link URI}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link AsyncReadOnlyRepository} can be created
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    AsyncReadOnlyRepository createAsyncReadOnlyRepository(URI uri, HttpClient client, HttpAsyncClient asyncClient, HttpContext context, Executor executor);
+
+    /**
+     * Create a new {@link AsyncReadOnlyRepository} for given {@link URI} and use the given {@link HttpClient} and {@link HttpAsyncClient} with the {@link HttpContext} to connect to the server. Unless {@link RepositoryConfiguration#isLazyProbing()} is enabled, the server
+     * is probed before this method returns (otherwise the probe runs on the {@link Executor}), all further operations are executed asynchronously (see {@link AsyncReadOnlyRepository} for the operations that are sent without blocking a thread). As the operations may
+     * run concurrently, the {@link HttpClient} must be able to handle concurrent requests (e.g. by using a pooling connection manager).
+     *
+     * @param uri
+     *            {@link URI} to the root of the repository (e.g: http://repository.example.net/svn/test_repo/trunk/folder)
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository that are executed on the {@link Executor}
+     * @param asyncClient
+     *            {@link HttpAsyncClient} (already started) that will send the requests of the non-blocking operations of this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @param executor
+     *            {@link Executor} that runs all blocking operations, it is not shut down by the repository
+     * @param configuration
+     *            {@link RepositoryConfiguration} that tunes the behavior of the repository
+     * @return a new {@link AsyncReadOnlyRepository} for given {@link URI}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link AsyncReadOnlyRepository} can be created
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    AsyncReadOnlyRepository createAsyncReadOnlyRepository(URI uri, HttpClient client, HttpAsyncClient asyncClient, HttpContext context, Executor executor, RepositoryConfiguration configuration);
+
+    /**
+     * Create a new {@link AsyncRepository} for given {@link URI} and use the given {@link HttpClient} and {@link HttpAsyncClient} with the {@link HttpContext} to connect to the server. Unless {@link RepositoryConfiguration#isLazyProbing()} is enabled, the server
+     * is probed before this method returns (otherwise the probe runs on the {@link Executor}), all further operations are executed asynchronously (see {@link AsyncReadOnlyRepository} for the operations that are sent without blocking a thread). As the operations may
+     * run concurrently, the {@link HttpClient} must be able to handle concurrent requests (e.g. by using a pooling connection manager).
+     *
+     * @param uri
+     *            {@link URI} to the root of the repository (e.g: http://repository.example.net/svn/test_repo/trunk/folder)
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository that are executed on the {@link Executor}
+     * @param asyncClient
+     *            {@link HttpAsyncClient} (already started) that will send the requests of the non-blocking operations of this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @param executor
+     *            {@link Executor} that runs all blocking operations, it is not shut down by the repository
+     * @return a new {@link AsyncRepository} for given {@link URI}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link AsyncRepository} can be created
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    AsyncRepository createAsyncRepository(URI uri, HttpClient client, HttpAsyncClient asyncClient, HttpContext context, Executor executor);
+
+    /**
+     * Create a new {@link AsyncRepository} for given {@link URI} and use the given {@link HttpClient} and {@link HttpAsyncClient} with the {@link HttpContext} to connect to the server. Unless {@link RepositoryConfiguration#isLazyProbing()} is enabled, the server
+     * is probed before this method returns (otherwise the probe runs on the {@link Executor}), all further operations are executed asynchronously (see {@link AsyncReadOnlyRepository} for the operations that are sent without blocking a thread). As the operations may
+     * run concurrently, the {@link HttpClient} must be able to handle concurrent requests (e.g. by using a pooling connection manager).
+     *
+     * @param uri
+     *            {@link URI} to the root of the repository (e.g: http://repository.example.net/svn/test_repo/trunk/folder)
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository that are executed on the {@link Executor}
+     * @param asyncClient
+     *            {@link HttpAsyncClient} (already started) that will send the requests of the non-blocking operations of this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @param executor
+     *            {@link Executor} that runs all blocking operations, it is not shut down by the repository
+     * @param configuration
+     *            {@link RepositoryConfiguration} that tunes the behavior of the repository
+     * @return a new {@link AsyncRepository} for given {@link URI}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link AsyncRepository} can be created
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    AsyncRepository createAsyncRepository(URI uri, HttpClient client, HttpAsyncClient asyncClient, HttpContext context, Executor executor, RepositoryConfiguration configuration);
+
+    /**
+     * Create a new {@link ReadOnlyRepository} for the given {@link RepositoryDescriptor} and use the given {@link HttpClient} with the {@link HttpContext} to connect to the server. The server is not probed, so no request is sent before the first operation.
+     *
+     * @param descriptor
+     *            {@link RepositoryDescriptor} of the repository (see {@link #probe(URI, HttpClient, HttpContext)})
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @return a new {@link ReadOnlyRepository} for given {@link RepositoryDescriptor}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link ReadOnlyRepository} can be created
+     */
+    ReadOnlyRepository createReadOnlyRepository(RepositoryDescriptor descriptor, HttpClient client, HttpContext context);
+
+    /**
+     * Create a new {@link ReadOnlyRepository} for the given {@link RepositoryDescriptor} and use the given {@link HttpClient} with the {@link HttpContext} to connect to the server. The server is not probed, so no request is sent before the first operation.
+     *
+     * @param descriptor
+     *            {@link RepositoryDescriptor} of the repository (see {@link #probe(URI, HttpClient, HttpContext)})
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @param configuration
+     *            {@link RepositoryConfiguration} that tunes the behavior of the repository
+     * @return a new {@link ReadOnlyRepository} for given {@link RepositoryDescriptor}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link ReadOnlyRepository} can be created
+     */
+    ReadOnlyRepository createReadOnlyRepository(RepositoryDescriptor descriptor, HttpClient client, HttpContext context, RepositoryConfiguration configuration);
+
     /**
      * Create a new {@link ReadOnlyRepository} for given {@link URI} and use the given {@link HttpClient} with the {@link HttpContext} to connect to the server.
      *
@@ -66,6 +214,66 @@ public interface RepositoryFactory {
      */
     ReadOnlyRepository createReadOnlyRepository(URI uri, HttpClient client, HttpContext context);
 
+    /**
+     * Create a new {@link ReadOnlyRepository} for given {@link URI} and use the given {@link HttpClient} with the {@link HttpContext} to connect to the server.
+     *
+     * @param uri
+     *            {@link URI} to the root of the repository (e.g: http://repository.example.net/svn/test_repo/trunk/folder)
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @param configuration
+     *            {@link RepositoryConfiguration} that tunes the behavior of the repository
+     * @return a new {@link Repository} for given {@link URI}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link Repository} can be created
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    ReadOnlyRepository createReadOnlyRepository(URI uri, HttpClient client, HttpContext context, RepositoryConfiguration configuration);
+
+    /**
+     * Create a new {@link Repository} for the given {@link RepositoryDescriptor} and use the given {@link HttpClient} with the {@link HttpContext} to connect to the server. The server is not probed, so no request is sent before the first operation.
+     *
+     * @param descriptor
+     *            {@link RepositoryDescriptor} of the repository (see {@link #probe(URI, HttpClient, HttpContext)})
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @return a new {@link Repository} for given {@link RepositoryDescriptor}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link Repository} can be created
+     */
+    Repository createRepository(RepositoryDescriptor descriptor, HttpClient client, HttpContext context);
+
+    /**
+     * Create a new {@link Repository} for the given {@link RepositoryDescriptor} and use the given {@link HttpClient} with the {@link HttpContext} to connect to the server. The server is not probed, so no request is sent before the first operation.
+     *
+     * @param descriptor
+     *            {@link RepositoryDescriptor} of the repository (see {@link #probe(URI, HttpClient, HttpContext)})
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @param configuration
+     *            {@link RepositoryConfiguration} that tunes the behavior of the repository
+     * @return a new {@link Repository} for given {@link RepositoryDescriptor}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link Repository} can be created
+     */
+    Repository createRepository(RepositoryDescriptor descriptor, HttpClient client, HttpContext context, RepositoryConfiguration configuration);
+
     /**
      * Create a new {@link Repository} for given {@link URI} and use the given {@link HttpClient} with the {@link HttpContext} to connect to the server.
      *
@@ -85,4 +293,46 @@ public interface RepositoryFactory {
      *             if an error occurs in the underlining communication with the server
      */
     Repository createRepository(URI uri, HttpClient client, HttpContext context);
+
+    /**
+     * Create a new {@link Repository} for given {@link URI} and use the given {@link HttpClient} with the {@link HttpContext} to connect to the server.
+     *
+     * @param uri
+     *            {@link URI} to the root of the repository (e.g: http://repository.example.net/svn/test_repo/trunk/folder)
+     * @param client
+     *            {@link HttpClient} that will handle all requests for this repository
+     * @param context
+     *            {@link HttpContext} that will be used by all requests to this repository
+     * @param configuration
+     *            {@link RepositoryConfiguration} that tunes the behavior of the repository
+     * @return a new {@link Repository} for given {@link URI}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if no {@link Repository} can be created
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    Repository createRepository(URI uri, HttpClient client, HttpContext context, RepositoryConfiguration configuration);
+
+    /**
+     * Probe the server for the given {@link URI} and return the {@link RepositoryDescriptor} of the repository. The {@link RepositoryDescriptor} can be persisted and used to create repositories without probing the server again.
+     *
+     * @param uri
+     *            {@link URI} to the root of the repository (e.g: http://repository.example.net/svn/test_repo/trunk/folder)
+     * @param client
+     *            {@link HttpClient} that will handle all requests for the probe
+     * @param context
+     *            {@link HttpContext} that will be used by all requests for the probe
+     * @return the {@link RepositoryDescriptor} of the repository for given {@link URI}
+     *
+     * @throws NullPointerException
+     *             if any parameter is {@code null}
+     * @throws SubversionException
+     *             if the server does not host a repository
+     * @throws TransmissionException
+     *             if an error occurs in the underlining communication with the server
+     */
+    RepositoryDescriptor probe(URI uri, HttpClient client, HttpContext context);
 }
@@ -35,6 +35,7 @@ import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.ResourceProperty;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.http.client.SubversionRequestExecutor;
 import de.shadowhunt.subversion.http.client.SubversionRequestRetryHandler;
 import joptsimple.ArgumentAcceptingOptionSpec;
 import joptsimple.BuiltinHelpFormatter;
@@ -124,6 +125,7 @@ abstract class AbstractCommand implements Command {
 
         final SubversionRequestRetryHandler retryHandler = new SubversionRequestRetryHandler();
         builder.setRetryHandler(retryHandler);
+        builder.setRequestExecutor(new SubversionRequestExecutor());
         return builder.build();
     }
 
@@ -18,10 +18,8 @@
 package de.shadowhunt.subversion.cmdl;
 
 import java.io.File;
-import java.io.InputStream;
 import java.io.PrintStream;
 import java.net.URI;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
@@ -76,16 +74,14 @@ public class CheckinCommand extends AbstractCommand {
             try {
                 final File input = inputOption.value(options);
                 final Path path = input.toPath();
-                try (InputStream content = Files.newInputStream(path)) {
-                    final Resource resource = resourceOption.value(options);
-                    final boolean parents = options.has(parentsOption);
+                final Resource resource = resourceOption.value(options);
+                final boolean parents = options.has(parentsOption);
 
-                    repository.add(transaction, resource, parents, content);
+                repository.add(transaction, resource, parents, path);
 
-                    final String message = commitMessageOption.value(options);
-                    final boolean releaseLocks = !options.has(noUnlockOption);
-                    repository.commit(transaction, message, releaseLocks);
-                }
+                final String message = commitMessageOption.value(options);
+                final boolean releaseLocks = !options.has(noUnlockOption);
+                repository.commit(transaction, message, releaseLocks);
             } finally {
                 repository.rollbackIfNotCommitted(transaction);
             }
@@ -18,11 +18,8 @@
 package de.shadowhunt.subversion.cmdl;
 
 import java.io.File;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.PrintStream;
 import java.net.URI;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import de.shadowhunt.subversion.ReadOnlyRepository;
@@ -33,7 +30,6 @@ import de.shadowhunt.subversion.View;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
-import org.apache.commons.io.IOUtils;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.protocol.HttpContext;
 
@@ -72,13 +68,9 @@ public class DownloadCommand extends AbstractCommand {
 
             final File file = outputOption.value(options);
             final Path path = file.toPath();
-            try (OutputStream os = Files.newOutputStream(path)) {
-                final Resource resource = resourceOption.value(options);
-                final Revision revision = revisionOption.value(options);
-                try (InputStream download = repository.download(view, resource, revision)) {
-                    IOUtils.copy(download, os);
-                }
-            }
+            final Resource resource = resourceOption.value(options);
+            final Revision revision = revisionOption.value(options);
+            repository.download(view, resource, revision, path);
         }
         return true;
     }
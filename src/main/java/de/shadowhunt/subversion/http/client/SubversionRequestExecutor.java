@@ -0,0 +1,69 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.http.client;
+
+import java.io.IOException;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+/**
+ * A {@link HttpRequestExecutor} that records when the phases of a request end as {@link System#nanoTime()} values in the {@link HttpContext}, so the tracing spans of a repository can tell the connection lease, sending the
+ * request and waiting for the response apart. Install it with {@code HttpClientBuilder.setRequestExecutor(new SubversionRequestExecutor())}.
+ */
+public class SubversionRequestExecutor extends HttpRequestExecutor {
+
+    /**
+     * Name of the {@link HttpContext} attribute that holds the {@link System#nanoTime()} at which the connection was leased and established.
+     */
+    public static final String CONNECTED = "de.shadowhunt.subversion.connected";
+
+    /**
+     * Name of the {@link HttpContext} attribute that holds the {@link System#nanoTime()} at which the request was sent completely.
+     */
+    public static final String REQUEST_SENT = "de.shadowhunt.subversion.request-sent";
+
+    /**
+     * Name of the {@link HttpContext} attribute that holds the {@link System#nanoTime()} at which the response headers were received.
+     */
+    public static final String RESPONSE_RECEIVED = "de.shadowhunt.subversion.response-received";
+
+    @Override
+    protected HttpResponse doReceiveResponse(final HttpRequest request, final HttpClientConnection conn, final HttpContext context) throws HttpException, IOException {
+        final HttpResponse response = super.doReceiveResponse(request, conn, context);
+        context.setAttribute(RESPONSE_RECEIVED, System.nanoTime());
+        return response;
+    }
+
+    @Override
+    protected HttpResponse doSendRequest(final HttpRequest request, final HttpClientConnection conn, final HttpContext context) throws IOException, HttpException {
+        final HttpResponse response = super.doSendRequest(request, conn, context);
+        context.setAttribute(REQUEST_SENT, System.nanoTime());
+        return response;
+    }
+
+    @Override
+    public HttpResponse execute(final HttpRequest request, final HttpClientConnection conn, final HttpContext context) throws IOException, HttpException {
+        context.setAttribute(CONNECTED, System.nanoTime());
+        return super.execute(request, conn, context);
+    }
+}
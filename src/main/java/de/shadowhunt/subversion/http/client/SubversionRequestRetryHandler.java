@@ -17,13 +17,16 @@
  */
 package de.shadowhunt.subversion.http.client;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.http.HttpRequest;
 import org.apache.http.RequestLine;
 import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.protocol.HttpContext;
 
 /**
  * A {@link SubversionRequestRetryHandler} which retires all requested HTTP and DAV methods which should be idempotent according to RFC-2616.
@@ -35,6 +38,11 @@ public class SubversionRequestRetryHandler extends DefaultHttpRequestRetryHandle
      */
     public static final int DEFAULT_RETRIES = 3;
 
+    /**
+     * Name of the {@link HttpContext} attribute that holds an {@link AtomicInteger}, which is incremented every time a request is retried.
+     */
+    public static final String RETRY_COUNTER = "de.shadowhunt.subversion.retry-counter";
+
     private final Map<String, Boolean> idempotentMethods;
 
     /**
@@ -88,4 +96,16 @@ public class SubversionRequestRetryHandler extends DefaultHttpRequestRetryHandle
         final Boolean idempotent = idempotentMethods.get(methodUppercase);
         return Boolean.TRUE.equals(idempotent);
     }
+
+    @Override
+    public boolean retryRequest(final IOException exception, final int executionCount, final HttpContext context) {
+        final boolean retry = super.retryRequest(exception, executionCount, context);
+        if (retry) {
+            final Object counter = context.getAttribute(RETRY_COUNTER);
+            if (counter instanceof AtomicInteger) {
+                ((AtomicInteger) counter).incrementAndGet();
+            }
+        }
+        return retry;
+    }
 }
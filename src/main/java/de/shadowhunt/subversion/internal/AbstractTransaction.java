@@ -17,10 +17,15 @@
  */
 package de.shadowhunt.subversion.internal;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
 
+import de.shadowhunt.subversion.LockToken;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
 import org.apache.commons.lang3.Validate;
@@ -33,6 +38,12 @@ public abstract class AbstractTransaction extends ViewImpl implements Transactio
 
     protected final String id;
 
+    // guarded by changeSet
+    private final Set<Resource> knownFolders = new HashSet<>();
+
+    // guarded by changeSet
+    private final Map<Resource, Optional<LockToken>> lockTokens = new TreeMap<>();
+
     protected final Resource prefix;
 
     protected AbstractTransaction(final String id, final UUID repositoryId, final Revision headRevision, final Resource prefix) {
@@ -70,6 +81,17 @@ public abstract class AbstractTransaction extends ViewImpl implements Transactio
         return true;
     }
 
+    private void forgetFolders(final Resource resource) {
+        final String descendantPrefix = resource.getValue() + Resource.SEPARATOR;
+        final Iterator<Resource> iterator = knownFolders.iterator();
+        while (iterator.hasNext()) {
+            final Resource folder = iterator.next();
+            if (resource.equals(folder) || folder.getValue().startsWith(descendantPrefix)) {
+                iterator.remove();
+            }
+        }
+    }
+
     @Override
     public final Map<Resource, Status> getChangeSet() {
         synchronized (changeSet) {
@@ -82,6 +104,13 @@ public abstract class AbstractTransaction extends ViewImpl implements Transactio
         return id;
     }
 
+    @Override
+    public final Map<Resource, Optional<LockToken>> getLockTokens() {
+        synchronized (changeSet) {
+            return new TreeMap<>(lockTokens);
+        }
+    }
+
     @Override
     public final int hashCode() {
         final int prime = 31;
@@ -96,6 +125,8 @@ public abstract class AbstractTransaction extends ViewImpl implements Transactio
         active = false;
         synchronized (changeSet) {
             changeSet.clear();
+            knownFolders.clear();
+            lockTokens.clear();
         }
     }
 
@@ -117,12 +148,23 @@ public abstract class AbstractTransaction extends ViewImpl implements Transactio
         }
     }
 
+    @Override
+    public final boolean isKnownFolder(final Resource resource) {
+        synchronized (changeSet) {
+            return knownFolders.contains(resource);
+        }
+    }
+
     @Override
     public final boolean register(final Resource resource, final Status status) {
         Validate.notNull(resource, "resource must not be null");
         Validate.notNull(status, "status must not be null");
 
         synchronized (changeSet) {
+            if (Status.DELETED == status) {
+                forgetFolders(resource);
+            }
+
             final Status old = changeSet.put(resource, status);
             if (old != null) {
                 // if we delete an newly added resource, we remove completely
@@ -142,6 +184,25 @@ public abstract class AbstractTransaction extends ViewImpl implements Transactio
         }
     }
 
+    @Override
+    public final void registerFolder(final Resource resource) {
+        Validate.notNull(resource, "resource must not be null");
+
+        synchronized (changeSet) {
+            knownFolders.add(resource);
+        }
+    }
+
+    @Override
+    public final void registerLockToken(final Resource resource, final Optional<LockToken> lockToken) {
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(lockToken, "lockToken must not be null");
+
+        synchronized (changeSet) {
+            lockTokens.put(resource, lockToken);
+        }
+    }
+
     @Override
     public final String toString() {
         return "Transaction [id=" + id + ", repositoryId=" + repositoryId + ", active=" + active + "]";
@@ -0,0 +1,337 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+
+/**
+ * Content of a file that is uploaded into a transaction. Contents from files, buffers and sized stream suppliers can be read as often as necessary and have a known length, so their requests can be repeated (e.g. after a connection failure
+ * or an authentication challenge) and are sent without chunked transfer encoding.
+ */
+public abstract class AbstractUploadContent implements Closeable {
+
+    private static final class BufferContent extends AbstractUploadContent {
+
+        private final ByteBuffer buffer;
+
+        BufferContent(final ByteBuffer buffer) {
+            this.buffer = buffer.asReadOnlyBuffer();
+        }
+
+        @Override
+        public long getLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public InputStream open() {
+            return new ByteBufferInputStream(buffer.duplicate());
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            final ByteBuffer data = buffer.duplicate();
+            final WritableByteChannel channel = Channels.newChannel(output);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a {@link ByteBuffer} without copying them, each stream needs its own {@link ByteBuffer#duplicate()}.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer data;
+
+        ByteBufferInputStream(final ByteBuffer data) {
+            this.data = data;
+        }
+
+        @Override
+        public int available() {
+            return data.remaining();
+        }
+
+        @Override
+        public int read() {
+            if (!data.hasRemaining()) {
+                return -1;
+            }
+            return data.get() & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!data.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, data.remaining());
+            data.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int count = (int) Math.max(0L, Math.min(n, data.remaining()));
+            data.position(data.position() + count);
+            return count;
+        }
+    }
+
+    private static final class PathContent extends AbstractUploadContent {
+
+        private final boolean deleteOnClose;
+
+        private final Path path;
+
+        PathContent(final Path path, final boolean deleteOnClose) {
+            this.path = path;
+            this.deleteOnClose = deleteOnClose;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (deleteOnClose) {
+                Files.deleteIfExists(path);
+            }
+        }
+
+        @Override
+        public long getLength() {
+            return path.toFile().length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            // HttpClient 4 only provides an OutputStream: transferTo can not hand the file to the socket, the content is copied through a small buffer of the channel adapter
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                final WritableByteChannel target = Channels.newChannel(output);
+                final long size = channel.size();
+                long position = 0L;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            }
+        }
+    }
+
+    private static final class StreamContent extends AbstractUploadContent {
+
+        private InputStream content;
+
+        StreamContent(final InputStream content) {
+            this.content = content;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (content != null) {
+                content.close();
+            }
+        }
+
+        @Override
+        public long getLength() {
+            return -1L;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public synchronized InputStream open() {
+            if (content == null) {
+                throw new IllegalStateException("content can only be read once");
+            }
+            final InputStream stream = content;
+            content = null;
+            return stream;
+        }
+    }
+
+    private static final class SupplierContent extends AbstractUploadContent {
+
+        private final long length;
+
+        private final Supplier<InputStream> supplier;
+
+        SupplierContent(final Supplier<InputStream> supplier, final long length) {
+            this.supplier = supplier;
+            this.length = length;
+        }
+
+        @Override
+        public long getLength() {
+            return length;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public InputStream open() {
+            return supplier.get();
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            final CountingOutputStream counting = new CountingOutputStream(output);
+            super.writeTo(counting);
+            if (counting.getByteCount() != length) {
+                throw new IOException("content has " + counting.getByteCount() + " bytes, but a length of " + length + " bytes was given");
+            }
+        }
+    }
+
+    private static AbstractUploadContent copy(final InputStream content) throws IOException {
+        try (final InputStream input = content) {
+            final Path spool = Files.createTempFile("svn-upload-", ".tmp");
+            try (final OutputStream output = Files.newOutputStream(spool)) {
+                IOUtils.copy(input, output);
+            } catch (final IOException | RuntimeException e) {
+                Files.deleteIfExists(spool);
+                throw e;
+            }
+            return new PathContent(spool, true);
+        }
+    }
+
+    public static AbstractUploadContent of(final byte[] content) {
+        return new BufferContent(ByteBuffer.wrap(content));
+    }
+
+    /**
+     * @param content
+     *            the remaining bytes of the {@link ByteBuffer} are uploaded, its position is not modified
+     */
+    public static AbstractUploadContent of(final ByteBuffer content) {
+        return new BufferContent(content);
+    }
+
+    /**
+     * @param content
+     *            {@link InputStream} that can be read only once, it is closed together with the {@link AbstractUploadContent}
+     */
+    public static AbstractUploadContent of(final InputStream content) {
+        return new StreamContent(content);
+    }
+
+    public static AbstractUploadContent of(final Path content) {
+        return new PathContent(content, false);
+    }
+
+    /**
+     * @param supplier
+     *            creates a new {@link InputStream} each time the content is read
+     * @param length
+     *            number of bytes each {@link InputStream} provides
+     */
+    public static AbstractUploadContent of(final Supplier<InputStream> supplier, final long length) {
+        return new SupplierContent(supplier, length);
+    }
+
+    /**
+     * Copy the content into a temporary file, which is deleted when the returned {@link AbstractUploadContent} is closed.
+     *
+     * @return repeatable {@link AbstractUploadContent} with known length
+     */
+    public static AbstractUploadContent spool(final AbstractUploadContent content) throws IOException {
+        if (content.isRepeatable()) {
+            return content;
+        }
+        return copy(content.open());
+    }
+
+    /**
+     * Copy the content into a temporary file, which is deleted when the returned {@link AbstractUploadContent} is closed. The content is always copied, even if it is repeatable already.
+     *
+     * @param digest
+     *            {@link MessageDigest} that is updated with the content while it is copied
+     *
+     * @return repeatable {@link AbstractUploadContent} with known length
+     */
+    public static AbstractUploadContent spool(final AbstractUploadContent content, final MessageDigest digest) throws IOException {
+        return copy(new DigestInputStream(content.open(), digest));
+    }
+
+    @Override
+    public void close() throws IOException {
+        // nothing to release
+    }
+
+    /**
+     * @return number of bytes of the content or {@code -1} if the length is not known in advance
+     */
+    public abstract long getLength();
+
+    /**
+     * @return {@code true} if the content can be read more than once otherwise {@code false}
+     */
+    public abstract boolean isRepeatable();
+
+    /**
+     * @return new {@link InputStream} with the content (caller has to close the stream properly)
+     */
+    public abstract InputStream open() throws IOException;
+
+    public void writeTo(final OutputStream output) throws IOException {
+        try (final InputStream input = open()) {
+            IOUtils.copy(input, output);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Calculates the MD5 checksum of the content while it is read and fails with an {@link IOException} once the end of the content is reached, if the checksum does not match the expected one.
+ */
+public final class ChecksumVerifyingInputStream extends DigestInputStream {
+
+    private static final int SKIP_BUFFER_SIZE = 8 * 1024;
+
+    private String actualMd5;
+
+    private final String expectedMd5;
+
+    public ChecksumVerifyingInputStream(final InputStream content, final String expectedMd5) {
+        super(content, DigestUtils.getMd5Digest());
+        this.expectedMd5 = expectedMd5;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b < 0) {
+            verify();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        final int n = super.read(buffer, offset, length);
+        if (n < 0) {
+            verify();
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        // skipped content must be part of the checksum as well
+        final byte[] buffer = new byte[SKIP_BUFFER_SIZE];
+        long skipped = 0L;
+        while (skipped < n) {
+            final int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    private void verify() throws IOException {
+        if (actualMd5 == null) {
+            actualMd5 = Hex.encodeHexString(getMessageDigest().digest());
+        }
+        if (!expectedMd5.equalsIgnoreCase(actualMd5)) {
+            throw new IOException("checksum mismatch: expected " + expectedMd5 + " but was " + actualMd5);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Persistent cache for the content of files in concrete revisions. The content is stored once per MD5 checksum in {@code objects/}, the files in {@code index/} map repository UUID, path and revision to the checksum. All files are written to
+ * {@code tmp/} first and then moved atomically to their final location, so several JVMs can share the same directory. Once the content exceeds the maximal size, the least recently used content is removed together with its index files.
+ * <p>
+ * The size of the content, the order of use and the index files of each content are kept in memory. They are read from the directory once, when the cache is used for the first time. Content that other JVMs add later is accounted for when
+ * it is used by this cache.
+ */
+@ThreadSafe
+public final class DownloadCache {
+
+    private static final class Entry {
+
+        private final long lastModified;
+
+        private final String md5;
+
+        private final long size;
+
+        Entry(final String md5, final BasicFileAttributes attributes) {
+            this.md5 = md5;
+            lastModified = attributes.lastModifiedTime().toMillis();
+            size = attributes.size();
+        }
+    }
+
+    private static final Comparator<Entry> LEAST_RECENTLY_USED = Comparator.comparingLong(entry -> entry.lastModified);
+
+    private static final Pattern MD5_PATTERN = Pattern.compile("[0-9a-f]{32}");
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            // file is still in use (or already gone), it will be removed by a later eviction
+        }
+    }
+
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void touch(final Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (final IOException e) {
+            // only affects the eviction order after a restart
+        }
+    }
+
+    private final Path directory;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    // index files of each content, guarded by this
+    private final Map<String, Set<Path>> indexes = new HashMap<>();
+
+    private boolean loaded = false;
+
+    private final long maximumSize;
+
+    private final AtomicLong misses = new AtomicLong();
+
+    // size of each content in the order of use (least recently used first), guarded by this
+    private final LinkedHashMap<String, Long> objects = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size = 0L;
+
+    public DownloadCache(final Path directory, final long maximumSize) {
+        this.directory = directory;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Removes the least recently used content and its index files until the size is within the limit, the caller must hold the lock.
+     */
+    private void evict(final String keep) {
+        final Iterator<Map.Entry<String, Long>> iterator = objects.entrySet().iterator();
+        while ((size > maximumSize) && iterator.hasNext()) {
+            final Map.Entry<String, Long> entry = iterator.next();
+            final String md5 = entry.getKey();
+            if (md5.equals(keep)) {
+                continue;
+            }
+
+            iterator.remove();
+            size -= entry.getValue();
+            for (final Path index : indexes.getOrDefault(md5, Collections.emptySet())) {
+                deleteQuietly(index);
+            }
+            indexes.remove(md5);
+            deleteQuietly(getObjectDirectory().resolve(md5));
+        }
+    }
+
+    /**
+     * @return the cached content of the resource in the given revision or {@code null} if the content is not cached
+     */
+    @CheckForNull
+    public InputStream get(final UUID repositoryId, final Resource resource, final Revision revision) {
+        final Path index = getIndex(repositoryId, resource, revision);
+        try {
+            final String md5 = new String(Files.readAllBytes(index), StandardCharsets.US_ASCII);
+            final InputStream content = open(md5);
+            if (content == null) {
+                // content has been evicted
+                deleteQuietly(index);
+                misses.incrementAndGet();
+                return null;
+            }
+            register(md5, index);
+            hits.incrementAndGet();
+            return content;
+        } catch (final IOException e) {
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    private Path getIndex(final UUID repositoryId, final Resource resource, final Revision revision) {
+        final String key = repositoryId + "@" + revision + ":" + resource.getValue();
+        return getIndexDirectory().resolve(DigestUtils.sha1Hex(key));
+    }
+
+    private Path getIndexDirectory() {
+        return directory.resolve("index");
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private Path getObject(final String md5) throws IOException {
+        final String checksum = md5.toLowerCase(Locale.ENGLISH);
+        if (!MD5_PATTERN.matcher(checksum).matches()) {
+            throw new IOException("invalid md5 checksum: " + md5);
+        }
+        return getObjectDirectory().resolve(checksum);
+    }
+
+    private Path getObjectDirectory() {
+        return directory.resolve("objects");
+    }
+
+    /**
+     * @return total size of the cached content known to this cache
+     */
+    public synchronized long getSize() {
+        load();
+        return size;
+    }
+
+    private Path getTemporaryDirectory() {
+        return directory.resolve("tmp");
+    }
+
+    /**
+     * Map the resource in the given revision to already cached content with the same MD5 checksum.
+     *
+     * @return the cached content or {@code null} if no content with the MD5 checksum is cached
+     */
+    @CheckForNull
+    public InputStream link(final UUID repositoryId, final Resource resource, final Revision revision, final String md5) throws IOException {
+        final InputStream content = open(md5);
+        if (content != null) {
+            final Path index = writeIndex(repositoryId, resource, revision, md5);
+            register(md5, index);
+        }
+        return content;
+    }
+
+    /**
+     * Reads the content and the index files of the directory, only the first invocation has an effect. The caller must hold the lock.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        final List<Entry> entries = new ArrayList<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(getObjectDirectory())) {
+            for (final Path object : stream) {
+                final String md5 = object.getFileName().toString();
+                if (!MD5_PATTERN.matcher(md5).matches()) {
+                    continue;
+                }
+                try {
+                    entries.add(new Entry(md5, Files.readAttributes(object, BasicFileAttributes.class)));
+                } catch (final NoSuchFileException e) {
+                    // evicted concurrently
+                }
+            }
+        } catch (final IOException e) {
+            // nothing cached yet
+        }
+        entries.sort(LEAST_RECENTLY_USED);
+        for (final Entry entry : entries) {
+            objects.put(entry.md5, entry.size);
+            size += entry.size;
+        }
+
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(getIndexDirectory())) {
+            for (final Path index : stream) {
+                try {
+                    final String md5 = new String(Files.readAllBytes(index), StandardCharsets.US_ASCII).toLowerCase(Locale.ENGLISH);
+                    if (objects.containsKey(md5)) {
+                        indexes.computeIfAbsent(md5, key -> new HashSet<>()).add(index);
+                    } else {
+                        // content has been evicted
+                        deleteQuietly(index);
+                    }
+                } catch (final IOException e) {
+                    // removed concurrently
+                }
+            }
+        } catch (final IOException e) {
+            // nothing cached yet
+        }
+    }
+
+    @CheckForNull
+    private InputStream open(final String md5) throws IOException {
+        final Path object = getObject(md5);
+        try {
+            final InputStream content = Files.newInputStream(object);
+            touch(object);
+            return content;
+        } catch (final NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Marks the content as most recently used and adds the index file to it. Content that another JVM has added is accounted for now.
+     */
+    private synchronized void register(final String md5, final Path index) {
+        load();
+        final String checksum = md5.toLowerCase(Locale.ENGLISH);
+        if (objects.get(checksum) == null) {
+            try {
+                final long objectSize = Files.size(getObjectDirectory().resolve(checksum));
+                objects.put(checksum, objectSize);
+                size += objectSize;
+            } catch (final IOException e) {
+                // evicted concurrently
+                deleteQuietly(index);
+                return;
+            }
+        }
+        indexes.computeIfAbsent(checksum, key -> new HashSet<>()).add(index);
+    }
+
+    /**
+     * Store the content of the resource in the given revision. The content is verified against the given MD5 checksum before it is added to the cache.
+     *
+     * @return the cached content
+     *
+     * @throws IOException
+     *             if the content can not be read or written, or does not match the MD5 checksum
+     */
+    public InputStream store(final UUID repositoryId, final Resource resource, final Revision revision, final String md5, final InputStream content) throws IOException {
+        final Path object = getObject(md5);
+        final Path temporaryDirectory = getTemporaryDirectory();
+        Files.createDirectories(temporaryDirectory);
+        final Path temporary = Files.createTempFile(temporaryDirectory, "content-", ".tmp");
+        try {
+            final MessageDigest digest = DigestUtils.getMd5Digest();
+            try (final InputStream input = new DigestInputStream(content, digest); final OutputStream output = Files.newOutputStream(temporary)) {
+                IOUtils.copy(input, output);
+            }
+
+            final String actual = Hex.encodeHexString(digest.digest());
+            if (!actual.equalsIgnoreCase(md5)) {
+                throw new IOException("checksum mismatch for " + resource + "@" + revision + ": expected " + md5 + " but was " + actual);
+            }
+
+            Files.createDirectories(object.getParent());
+            move(temporary, object);
+            final Path index = writeIndex(repositoryId, resource, revision, md5);
+
+            final InputStream cached = Files.newInputStream(object);
+            synchronized (this) {
+                register(md5, index);
+                evict(object.getFileName().toString());
+            }
+            return cached;
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("DownloadCache [directory=");
+        builder.append(directory);
+        builder.append(", maximumSize=");
+        builder.append(maximumSize);
+        builder.append(", hits=");
+        builder.append(hits.get());
+        builder.append(", misses=");
+        builder.append(misses.get());
+        builder.append(']');
+        return builder.toString();
+    }
+
+    private Path writeIndex(final UUID repositoryId, final Resource resource, final Revision revision, final String md5) throws IOException {
+        final Path temporaryDirectory = getTemporaryDirectory();
+        Files.createDirectories(temporaryDirectory);
+        final Path temporary = Files.createTempFile(temporaryDirectory, "index-", ".tmp");
+        try {
+            Files.write(temporary, md5.getBytes(StandardCharsets.US_ASCII));
+
+            final Path index = getIndex(repositoryId, resource, revision);
+            Files.createDirectories(index.getParent());
+            move(temporary, index);
+            return index;
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.shadowhunt.subversion.SubversionException;
+
+/**
+ * Tracks the head revision of a repository. Concurrent requests for a new {@link ViewInternal} share a single request to the server (single-flight), and a head revision that has been observed within the maximal age is handed out without
+ * asking the server at all.
+ */
+@ThreadSafe
+public final class HeadRevisionTracker {
+
+    private static ViewInternal await(final CompletableFuture<ViewInternal> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (final InterruptedException e) {
+                    // the shared request is not aborted on behalf of a single waiter
+                    interrupted = true;
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new SubversionException("could not determine head revision", cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final boolean enabled;
+
+    // incremented on every invalidation, requests started before must not update the tracked head revision
+    private long generation;
+
+    private CompletableFuture<ViewInternal> inFlight;
+
+    private ViewInternal latest;
+
+    private final Object lock = new Object();
+
+    private final long maximumAge;
+
+    private long observed;
+
+    /**
+     * @param enabled
+     *            {@code false} passes every request directly to the server
+     * @param maximumAge
+     *            maximal age of a tracked head revision in milliseconds, {@code 0} only shares concurrent requests
+     */
+    public HeadRevisionTracker(final boolean enabled, final long maximumAge) {
+        this.enabled = enabled;
+        this.maximumAge = TimeUnit.MILLISECONDS.toNanos(maximumAge);
+    }
+
+    /**
+     * Determine a {@link ViewInternal}.
+     *
+     * @param fresh
+     *            {@code true} ignores tracked and already requested head revisions, the loader is always called
+     * @param loader
+     *            requests the head revision from the server
+     *
+     * @return the tracked or loaded {@link ViewInternal}
+     */
+    public ViewInternal createView(final boolean fresh, final Supplier<ViewInternal> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        final CompletableFuture<ViewInternal> shared;
+        final CompletableFuture<ViewInternal> future = new CompletableFuture<>();
+        final long loadGeneration;
+        synchronized (lock) {
+            if (!fresh && (latest != null) && ((System.nanoTime() - observed) < maximumAge)) {
+                return latest;
+            }
+            shared = fresh ? null : inFlight;
+            if (shared == null) {
+                inFlight = future;
+            }
+            loadGeneration = generation;
+        }
+
+        if (shared != null) {
+            return await(shared);
+        }
+        return load(loader, future, loadGeneration);
+    }
+
+    /**
+     * Determine a {@link ViewInternal} without blocking the calling thread, shares concurrent requests with {@link #createView(boolean, Supplier)}.
+     *
+     * @param fresh
+     *            {@code true} ignores tracked and already requested head revisions, the loader is always called
+     * @param loader
+     *            sends the request for the head revision to the server
+     *
+     * @return {@link CompletableFuture} that completes with the tracked or loaded {@link ViewInternal}
+     */
+    public CompletableFuture<ViewInternal> createViewAsync(final boolean fresh, final Supplier<CompletableFuture<ViewInternal>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        final CompletableFuture<ViewInternal> shared;
+        final CompletableFuture<ViewInternal> future = new CompletableFuture<>();
+        final long loadGeneration;
+        synchronized (lock) {
+            if (!fresh && (latest != null) && ((System.nanoTime() - observed) < maximumAge)) {
+                return CompletableFuture.completedFuture(latest);
+            }
+            shared = fresh ? null : inFlight;
+            if (shared == null) {
+                inFlight = future;
+            }
+            loadGeneration = generation;
+        }
+
+        if (shared != null) {
+            // callers must not be able to complete the shared request
+            return shared.thenApply(view -> view);
+        }
+
+        final long started = System.nanoTime();
+        final CompletableFuture<ViewInternal> loaded;
+        try {
+            loaded = loader.get();
+        } catch (final RuntimeException e) {
+            failed(future, e);
+            throw e;
+        }
+        loaded.whenComplete((view, e) -> {
+            if (e == null) {
+                loaded(future, loadGeneration, started, view);
+            } else {
+                failed(future, (e instanceof CompletionException) ? e.getCause() : e);
+            }
+        });
+        return future.thenApply(view -> view);
+    }
+
+    private void failed(final CompletableFuture<ViewInternal> future, final Throwable cause) {
+        synchronized (lock) {
+            if (inFlight == future) {
+                inFlight = null;
+            }
+        }
+        future.completeExceptionally(cause);
+    }
+
+    /**
+     * Forget the tracked head revision, the next {@link #createView(boolean, Supplier)} has to ask the server. Must be called after the repository has been modified.
+     */
+    public void invalidate() {
+        synchronized (lock) {
+            generation++;
+            inFlight = null;
+            latest = null;
+        }
+    }
+
+    private ViewInternal load(final Supplier<ViewInternal> loader, final CompletableFuture<ViewInternal> future, final long loadGeneration) {
+        // the head revision is at least as fresh as the start of the request
+        final long started = System.nanoTime();
+        final ViewInternal view;
+        try {
+            view = loader.get();
+        } catch (final RuntimeException e) {
+            failed(future, e);
+            throw e;
+        }
+
+        loaded(future, loadGeneration, started, view);
+        return view;
+    }
+
+    private void loaded(final CompletableFuture<ViewInternal> future, final long loadGeneration, final long started, final ViewInternal view) {
+        synchronized (lock) {
+            if (inFlight == future) {
+                inFlight = null;
+            }
+            if ((generation == loadGeneration) && ((latest == null) || (latest.getHeadRevision().compareTo(view.getHeadRevision()) <= 0))) {
+                latest = view;
+                observed = started;
+            }
+        }
+        future.complete(view);
+    }
+}
@@ -26,14 +26,17 @@ public final class ProbeResult {
 
     private final Resource basePath;
 
+    private final boolean listReportSupported;
+
     private final String prefix;
 
     private final ProtocolVersion version;
 
-    public ProbeResult(final ProtocolVersion version, final Resource basePath, final String prefix) {
+    public ProbeResult(final ProtocolVersion version, final Resource basePath, final String prefix, final boolean listReportSupported) {
         this.version = version;
         this.basePath = basePath;
         this.prefix = prefix;
+        this.listReportSupported = listReportSupported;
     }
 
     public Resource getBasePath() {
@@ -60,4 +63,11 @@ public final class ProbeResult {
     public ProtocolVersion getVersion() {
         return version;
     }
+
+    /**
+     * @return {@code true} if the server supports the {@code svn:list-report} REPORT (mod_dav_svn 1.10 and newer)
+     */
+    public boolean isListReportSupported() {
+        return listReportSupported;
+    }
 }
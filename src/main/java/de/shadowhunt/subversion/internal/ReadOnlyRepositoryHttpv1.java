@@ -19,27 +19,45 @@ package de.shadowhunt.subversion.internal;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 
 import de.shadowhunt.subversion.Depth;
 import de.shadowhunt.subversion.Info;
 import de.shadowhunt.subversion.LogEntry;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.RepositoryDescriptor;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.View;
 import de.shadowhunt.subversion.internal.action.Action;
 import de.shadowhunt.subversion.internal.action.CreateViewActionHttpv1;
 import de.shadowhunt.subversion.internal.action.DownloadActionHttpv1;
+import de.shadowhunt.subversion.internal.action.DownloadChannelActionHttpv1;
+import de.shadowhunt.subversion.internal.action.DownloadDeltaActionHttpv1;
+import de.shadowhunt.subversion.internal.action.DownloadFileActionHttpv1;
+import de.shadowhunt.subversion.internal.action.DownloadSegmentedActionHttpv1;
 import de.shadowhunt.subversion.internal.action.DownloadUriActionHttpv1;
 import de.shadowhunt.subversion.internal.action.ExistsActionHttpv1;
+import de.shadowhunt.subversion.internal.action.ExistsAllActionHttpv1;
 import de.shadowhunt.subversion.internal.action.InfoActionHttpv1;
+import de.shadowhunt.subversion.internal.action.InfoAllActionHttpv1;
 import de.shadowhunt.subversion.internal.action.ListActionHttpv1;
 import de.shadowhunt.subversion.internal.action.LogActionHttpv1;
 import de.shadowhunt.subversion.internal.action.QualifiedVersionedResourceActionHttpv1;
 import de.shadowhunt.subversion.internal.action.ResolveActionHttpv1;
 import org.apache.http.client.HttpClient;
+import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.protocol.HttpContext;
 
 public class ReadOnlyRepositoryHttpv1 implements ReadOnlyRepositoryInternal {
@@ -50,25 +68,66 @@ public class ReadOnlyRepositoryHttpv1 implements ReadOnlyRepositoryInternal {
 
     private final HttpClient client;
 
+    private final RepositoryConfiguration configuration;
+
     private final HttpContext context;
 
+    private final ThreadLocal<HttpContext> contexts;
+
+    private final DownloadCache downloadCache;
+
+    private final ExecutorService executor;
+
+    private final HeadRevisionTracker headRevisionTracker;
+
+    private final boolean listReportSupported;
+
     private final String prefix;
 
     private final UUID repositoryId;
 
-    public ReadOnlyRepositoryHttpv1(final URI baseUri, final Resource basePath, final UUID repositoryId, final String prefix, final HttpClient client, final HttpContext context) {
-        this.baseUri = baseUri;
-        this.basePath = basePath;
-        this.repositoryId = repositoryId;
-        this.prefix = prefix;
+    private final ResolveCache resolveCache;
+
+    private final TransferStatistics transferStatistics = new TransferStatistics();
+
+    public ReadOnlyRepositoryHttpv1(final RepositoryDescriptor descriptor, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        baseUri = descriptor.getBaseUri();
+        basePath = descriptor.getBasePath();
+        repositoryId = descriptor.getRepositoryId();
+        prefix = descriptor.getPrefix();
+        listReportSupported = descriptor.isListReportSupported();
         this.client = client;
         this.context = context;
+        this.configuration = configuration;
+
+        // HttpContext is not thread safe: each worker thread gets its own child context
+        contexts = ThreadLocal.withInitial(() -> WorkerPool.isWorkerThread() ? new BasicHttpContext(context) : context);
+        final int workerThreads = configuration.getWorkerThreads();
+        executor = WorkerPool.create(workerThreads);
+        final int resolveCacheSize = configuration.getResolveCacheSize();
+        resolveCache = new ResolveCache(resolveCacheSize);
+        final boolean headRevisionTracking = configuration.isHeadRevisionTracking();
+        final long headRevisionMaximumAge = configuration.getHeadRevisionMaximumAge();
+        headRevisionTracker = new HeadRevisionTracker(headRevisionTracking, headRevisionMaximumAge);
+        final Path downloadCacheDirectory = configuration.getDownloadCacheDirectory();
+        if (downloadCacheDirectory == null) {
+            downloadCache = null;
+        } else {
+            final long downloadCacheSize = configuration.getDownloadCacheSize();
+            downloadCache = new DownloadCache(downloadCacheDirectory, downloadCacheSize);
+        }
+        RepositoryMetrics.register(configuration.getMetricsRegistry(), transferStatistics, resolveCache, downloadCache);
     }
 
     @Override
     public View createView() {
+        return createView(false);
+    }
+
+    @Override
+    public View createView(final boolean fresh) {
         final Action<ViewInternal> action = new CreateViewActionHttpv1(this);
-        return action.perform();
+        return headRevisionTracker.createView(fresh, action::perform);
     }
 
     @Override
@@ -78,6 +137,34 @@ public class ReadOnlyRepositoryHttpv1 implements ReadOnlyRepositoryInternal {
         return action.perform();
     }
 
+    @Override
+    public InputStream download(final View view, final Resource resource, final Revision base, final Revision target, final InputStream baseContent) {
+        final ViewInternal viewInternal = ViewInternal.from(view);
+        final Action<InputStream> action = new DownloadDeltaActionHttpv1(this, viewInternal, resource, base, target, baseContent);
+        return action.perform();
+    }
+
+    @Override
+    public void download(final View view, final Resource resource, final Revision revision, final Path target) {
+        final ViewInternal viewInternal = ViewInternal.from(view);
+        final Action<Void> action = new DownloadFileActionHttpv1(this, viewInternal, resource, revision, target);
+        action.perform();
+    }
+
+    @Override
+    public void download(final View view, final Resource resource, final Revision revision, final WritableByteChannel target) {
+        final ViewInternal viewInternal = ViewInternal.from(view);
+        final Action<Void> action = new DownloadChannelActionHttpv1(this, viewInternal, resource, revision, target);
+        action.perform();
+    }
+
+    @Override
+    public void downloadSegmented(final View view, final Resource resource, final Revision revision, final FileChannel target) {
+        final ViewInternal viewInternal = ViewInternal.from(view);
+        final Action<Void> action = new DownloadSegmentedActionHttpv1(this, viewInternal, resource, revision, target);
+        action.perform();
+    }
+
     @Override
     public URI downloadURI(final View view, final Resource resource, final Revision revision) {
         final ViewInternal viewInternal = ViewInternal.from(view);
@@ -92,6 +179,13 @@ public class ReadOnlyRepositoryHttpv1 implements ReadOnlyRepositoryInternal {
         return action.perform();
     }
 
+    @Override
+    public Map<Resource, Boolean> existsAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        final ViewInternal viewInternal = ViewInternal.from(view);
+        final Action<Map<Resource, Boolean>> action = new ExistsAllActionHttpv1(this, viewInternal, resources, revision);
+        return action.perform();
+    }
+
     @Override
     public Resource getBasePath() {
         return basePath;
@@ -107,9 +201,29 @@ public class ReadOnlyRepositoryHttpv1 implements ReadOnlyRepositoryInternal {
         return client;
     }
 
+    @Override
+    public RepositoryConfiguration getConfiguration() {
+        return configuration;
+    }
+
     @Override
     public HttpContext getContext() {
-        return context;
+        return contexts.get();
+    }
+
+    @Override
+    public DownloadCache getDownloadCache() {
+        return downloadCache;
+    }
+
+    @Override
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public HeadRevisionTracker getHeadRevisionTracker() {
+        return headRevisionTracker;
     }
 
     @Override
@@ -143,6 +257,16 @@ public class ReadOnlyRepositoryHttpv1 implements ReadOnlyRepositoryInternal {
         return URIUtils.appendResources(baseUri, qualifiedResource);
     }
 
+    @Override
+    public ResolveCache getResolveCache() {
+        return resolveCache;
+    }
+
+    @Override
+    public TransferStatistics getTransferStatistics() {
+        return transferStatistics;
+    }
+
     @Override
     public Info info(final View view, final Resource resource, final Revision revision) {
         final ViewInternal viewInternal = ViewInternal.from(view);
@@ -150,6 +274,13 @@ public class ReadOnlyRepositoryHttpv1 implements ReadOnlyRepositoryInternal {
         return action.perform();
     }
 
+    @Override
+    public Map<Resource, Optional<Info>> infoAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        final ViewInternal viewInternal = ViewInternal.from(view);
+        final Action<Map<Resource, Optional<Info>>> action = new InfoAllActionHttpv1(this, viewInternal, resources, revision);
+        return action.perform();
+    }
+
     @Override
     public NavigableSet<Info> list(final View view, final Resource resource, final Revision revision, final Depth depth) {
         final ViewInternal viewInternal = ViewInternal.from(view);
@@ -157,11 +288,29 @@ public class ReadOnlyRepositoryHttpv1 implements ReadOnlyRepositoryInternal {
         return action.perform();
     }
 
+    @Override
+    public boolean isListReportSupported() {
+        return listReportSupported;
+    }
+
+    @Override
+    public boolean isSvndiff1Supported() {
+        // the protocol does not reveal whether the server is newer than 1.4, svndiff version 0 is understood by all of them
+        return false;
+    }
+
     @Override
     public List<LogEntry> log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy) {
+        final List<LogEntry> entries = new ArrayList<>();
+        log(view, resource, startRevision, endRevision, limit, stopOnCopy, entries::add);
+        return entries;
+    }
+
+    @Override
+    public void log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy, final Predicate<? super LogEntry> handler) {
         final ViewInternal viewInternal = ViewInternal.from(view);
-        final Action<List<LogEntry>> action = new LogActionHttpv1(this, viewInternal, resource, startRevision, endRevision, limit, stopOnCopy);
-        return action.perform();
+        final Action<Void> action = new LogActionHttpv1(this, viewInternal, resource, startRevision, endRevision, new LogActionHttpv1.Options(limit, stopOnCopy), handler);
+        action.perform();
     }
 
     @Override
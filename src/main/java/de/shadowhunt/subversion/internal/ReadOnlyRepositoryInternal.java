@@ -18,8 +18,12 @@
 package de.shadowhunt.subversion.internal;
 
 import java.net.URI;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.CheckForNull;
 
 import de.shadowhunt.subversion.ReadOnlyRepository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.View;
@@ -30,8 +34,23 @@ public interface ReadOnlyRepositoryInternal extends ReadOnlyRepository {
 
     HttpClient getClient();
 
+    RepositoryConfiguration getConfiguration();
+
+    /**
+     * @return the {@link HttpContext} for requests of the current thread, threads of the {@link WorkerPool} use their own child context
+     */
     HttpContext getContext();
 
+    /**
+     * @return the {@link DownloadCache} of this repository or {@code null} if downloads are not cached
+     */
+    @CheckForNull
+    DownloadCache getDownloadCache();
+
+    ExecutorService getExecutor();
+
+    HeadRevisionTracker getHeadRevisionTracker();
+
     String getPrefix();
 
     QualifiedResource getQualifiedResource(Resource resource);
@@ -40,5 +59,22 @@ public interface ReadOnlyRepositoryInternal extends ReadOnlyRepository {
 
     URI getRequestUri(QualifiedResource qualifiedResource);
 
+    /**
+     * @return the {@link ResolveCache} that keeps the resolved locations of this repository
+     */
+    ResolveCache getResolveCache();
+
+    /**
+     * @return the {@link TransferStatistics} of all requests sent by this repository
+     */
+    TransferStatistics getTransferStatistics();
+
+    boolean isListReportSupported();
+
+    /**
+     * @return {@code true} if the server accepts zlib compressed svndiff version 1 (mod_dav_svn 1.4 and newer), otherwise only svndiff version 0 must be sent
+     */
+    boolean isSvndiff1Supported();
+
     QualifiedResource resolve(View view, QualifiedResource qualifiedResource, Revision revision, boolean resolve);
 }
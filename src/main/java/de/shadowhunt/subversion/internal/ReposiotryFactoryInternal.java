@@ -20,16 +20,32 @@ package de.shadowhunt.subversion.internal;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
+import de.shadowhunt.subversion.AsyncReadOnlyRepository;
+import de.shadowhunt.subversion.AsyncRepository;
 import de.shadowhunt.subversion.Info;
 import de.shadowhunt.subversion.ReadOnlyRepository;
 import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
 import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.RepositoryDescriptor;
 import de.shadowhunt.subversion.RepositoryFactory;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.SubversionException;
 import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.async.AsyncReadOnlyRepositoryImpl;
+import de.shadowhunt.subversion.internal.async.AsyncReadOnlyRepositoryImpl.Repositories;
+import de.shadowhunt.subversion.internal.async.AsyncRepositoryImpl;
+import de.shadowhunt.subversion.internal.caching.CachingReadOnlyRepository;
+import de.shadowhunt.subversion.internal.caching.CachingRepository;
+import de.shadowhunt.subversion.internal.lazy.LazyReadOnlyRepository;
+import de.shadowhunt.subversion.internal.lazy.LazyReference;
+import de.shadowhunt.subversion.internal.lazy.LazyRepository;
 import de.shadowhunt.subversion.internal.operation.Operation;
 import de.shadowhunt.subversion.internal.operation.ProbeServerOperation;
 import de.shadowhunt.subversion.internal.operation.SparseInfoOperationHttpv1;
@@ -37,8 +53,11 @@ import de.shadowhunt.subversion.internal.tracing.TracingReadOnlyRepository;
 import de.shadowhunt.subversion.internal.tracing.TracingRepository;
 import de.shadowhunt.subversion.internal.validate.ValidatingReadOnlyRepository;
 import de.shadowhunt.subversion.internal.validate.ValidatingRepository;
+import de.shadowhunt.subversion.metrics.MetricsRegistry;
+import de.shadowhunt.subversion.metrics.NoopMetricsRegistry;
 import org.apache.commons.lang3.Validate;
 import org.apache.http.client.HttpClient;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.apache.http.protocol.HttpContext;
 
 public class ReposiotryFactoryInternal implements RepositoryFactory {
@@ -51,6 +70,39 @@ public class ReposiotryFactoryInternal implements RepositoryFactory {
 
     private static final UUID DEFAULT_UUID = UUID.fromString("00000000-0000-0000-0000-000000000000");
 
+    private static <D extends ReadOnlyRepository> Supplier<CompletableFuture<Repositories<D>>> createRepositories(final Supplier<Repositories<D>> supplier, final Executor executor, final RepositoryConfiguration configuration) {
+        if (configuration.isLazyProbing()) {
+            final LazyReference<Repositories<D>> reference = new LazyReference<>(supplier, executor);
+            return reference::getAsync;
+        }
+        final CompletableFuture<Repositories<D>> repositories = CompletableFuture.completedFuture(supplier.get());
+        return () -> repositories;
+    }
+
+    private static ReadOnlyRepository decorate(final ReadOnlyRepository repository, final RepositoryConfiguration configuration) {
+        final MetricsRegistry registry = configuration.getMetricsRegistry();
+        ReadOnlyRepository decorated = repository;
+        final long metadataCacheWeight = configuration.getMetadataCacheWeight();
+        if (metadataCacheWeight > 0L) {
+            final CachingReadOnlyRepository caching = new CachingReadOnlyRepository(decorated, metadataCacheWeight);
+            RepositoryMetrics.register(registry, caching);
+            decorated = caching;
+        }
+        return new TracingReadOnlyRepository(decorated, registry, configuration.getSpanExporter());
+    }
+
+    private static Repository decorate(final Repository repository, final RepositoryConfiguration configuration) {
+        final MetricsRegistry registry = configuration.getMetricsRegistry();
+        Repository decorated = repository;
+        final long metadataCacheWeight = configuration.getMetadataCacheWeight();
+        if (metadataCacheWeight > 0L) {
+            final CachingRepository caching = new CachingRepository(decorated, metadataCacheWeight);
+            RepositoryMetrics.register(registry, caching);
+            decorated = caching;
+        }
+        return new TracingRepository(decorated, registry, configuration.getSpanExporter());
+    }
+
     private static URI sanitise(final URI uri, final Resource path) {
         try {
             final String scheme = uri.getScheme();
@@ -64,90 +116,182 @@ public class ReposiotryFactoryInternal implements RepositoryFactory {
         }
     }
 
+    private static URI sanitise(final URI uri) {
+        final String path = uri.getPath();
+        final Resource resource = Resource.create(path);
+        return sanitise(uri, resource);
+    }
+
     @Override
-    public ReadOnlyRepository createReadOnlyRepository(final URI uri, final HttpClient client, final HttpContext context) {
+    public AsyncReadOnlyRepository createAsyncReadOnlyRepository(final URI uri, final HttpClient client, final HttpAsyncClient asyncClient, final HttpContext context, final Executor executor) {
+        return createAsyncReadOnlyRepository(uri, client, asyncClient, context, executor, RepositoryConfiguration.DEFAULT);
+    }
+
+    @Override
+    public AsyncReadOnlyRepository createAsyncReadOnlyRepository(final URI uri, final HttpClient client, final HttpAsyncClient asyncClient, final HttpContext context, final Executor executor, final RepositoryConfiguration configuration) {
         Validate.notNull(uri, "uri must not be null");
         Validate.notNull(client, "client must not be null");
+        Validate.notNull(asyncClient, "asyncClient must not be null");
         Validate.notNull(context, "context must not be null");
+        Validate.notNull(executor, "executor must not be null");
+        Validate.notNull(configuration, "configuration must not be null");
 
-        final String path = uri.getPath();
-        final Resource resource = Resource.create(path);
-        final URI saneUri = sanitise(uri, resource);
-        ReadOnlyRepository repository = createReadOnlyRepositoryInternal(saneUri, client, context);
-        repository = new TracingReadOnlyRepository(repository);
-        repository = new ValidatingReadOnlyRepository(repository);
-        return repository;
+        final URI saneUri = sanitise(uri);
+        final Supplier<Repositories<ReadOnlyRepository>> supplier = () -> {
+            final ReadOnlyRepositoryInternal repository = createReadOnlyRepositoryInternal(saneUri, client, context, configuration);
+            final ReadOnlyRepository decorated = decorate(repository, configuration);
+            return new Repositories<>(repository, new ValidatingReadOnlyRepository(decorated));
+        };
+        return new AsyncReadOnlyRepositoryImpl<>(createRepositories(supplier, executor, configuration), asyncClient, executor);
     }
 
-    public ReadOnlyRepositoryInternal createReadOnlyRepositoryInternal(final URI uri, final HttpClient client, final HttpContext context) {
-        final Operation<ProbeResult> probeOperation = new ProbeServerOperation(uri, client, context);
-        final ProbeResult probe = probeOperation.execute();
+    @Override
+    public AsyncRepository createAsyncRepository(final URI uri, final HttpClient client, final HttpAsyncClient asyncClient, final HttpContext context, final Executor executor) {
+        return createAsyncRepository(uri, client, asyncClient, context, executor, RepositoryConfiguration.DEFAULT);
+    }
 
-        final URI baseUri = probe.getBaseUri(uri);
-        final Resource basePath = probe.getBasePath(uri);
-        final String prefix = probe.getPrefix();
-        final ProtocolVersion version = probe.getVersion();
+    @Override
+    public AsyncRepository createAsyncRepository(final URI uri, final HttpClient client, final HttpAsyncClient asyncClient, final HttpContext context, final Executor executor, final RepositoryConfiguration configuration) {
+        Validate.notNull(uri, "uri must not be null");
+        Validate.notNull(client, "client must not be null");
+        Validate.notNull(asyncClient, "asyncClient must not be null");
+        Validate.notNull(context, "context must not be null");
+        Validate.notNull(executor, "executor must not be null");
+        Validate.notNull(configuration, "configuration must not be null");
+
+        final URI saneUri = sanitise(uri);
+        final Supplier<Repositories<Repository>> supplier = () -> {
+            final RepositoryInternal repository = createRepositoryInternal(saneUri, client, context, configuration);
+            final Repository decorated = decorate(repository, configuration);
+            return new Repositories<>(repository, new ValidatingRepository(decorated));
+        };
+        return new AsyncRepositoryImpl(createRepositories(supplier, executor, configuration), asyncClient, executor);
+    }
+
+    @Override
+    public ReadOnlyRepository createReadOnlyRepository(final RepositoryDescriptor descriptor, final HttpClient client, final HttpContext context) {
+        return createReadOnlyRepository(descriptor, client, context, RepositoryConfiguration.DEFAULT);
+    }
+
+    @Override
+    public ReadOnlyRepository createReadOnlyRepository(final RepositoryDescriptor descriptor, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        Validate.notNull(descriptor, "descriptor must not be null");
+        Validate.notNull(client, "client must not be null");
+        Validate.notNull(context, "context must not be null");
+        Validate.notNull(configuration, "configuration must not be null");
+
+        final ReadOnlyRepository repository = createReadOnlyRepositoryInternal(descriptor, client, context, configuration);
+        final ReadOnlyRepository decorated = decorate(repository, configuration);
+        return new ValidatingReadOnlyRepository(decorated);
+    }
+
+    @Override
+    public ReadOnlyRepository createReadOnlyRepository(final URI uri, final HttpClient client, final HttpContext context) {
+        return createReadOnlyRepository(uri, client, context, RepositoryConfiguration.DEFAULT);
+    }
 
+    @Override
+    public ReadOnlyRepository createReadOnlyRepository(final URI uri, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        Validate.notNull(uri, "uri must not be null");
+        Validate.notNull(client, "client must not be null");
+        Validate.notNull(context, "context must not be null");
+        Validate.notNull(configuration, "configuration must not be null");
+
+        final URI saneUri = sanitise(uri);
+        final ReadOnlyRepository repository;
+        if (configuration.isLazyProbing()) {
+            final ExecutorService executor = WorkerPool.create(1);
+            repository = new LazyReadOnlyRepository(() -> decorate(createReadOnlyRepositoryInternal(saneUri, client, context, configuration), configuration), executor);
+        } else {
+            final ReadOnlyRepository internal = createReadOnlyRepositoryInternal(saneUri, client, context, configuration);
+            repository = decorate(internal, configuration);
+        }
+        return new ValidatingReadOnlyRepository(repository);
+    }
+
+    public ReadOnlyRepositoryInternal createReadOnlyRepositoryInternal(final RepositoryDescriptor descriptor, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        final ProtocolVersion version = descriptor.getProtocolVersion();
         switch (version) {
-            case HTTP_V1: {
-                final ReadOnlyRepositoryInternal incompleteRepository = new ReadOnlyRepositoryHttpv1(baseUri, basePath, DEFAULT_UUID, prefix, client, context);
-                final Info info = getSparseInfo(incompleteRepository);
-                final UUID repositoryId = info.getRepositoryId();
-                return new ReadOnlyRepositoryHttpv1(baseUri, basePath, repositoryId, prefix, client, context);
-            }
-            case HTTP_V2: {
-                final ReadOnlyRepositoryInternal incompleteRepository = new ReadOnlyRepositoryHttpv2(baseUri, basePath, DEFAULT_UUID, prefix, client, context);
-                final Info info = getSparseInfo(incompleteRepository);
-                final UUID repositoryId = info.getRepositoryId();
-                return new ReadOnlyRepositoryHttpv2(baseUri, basePath, repositoryId, prefix, client, context);
-            }
+            case HTTP_V1:
+                return new ReadOnlyRepositoryHttpv1(descriptor, client, context, configuration);
+            case HTTP_V2:
+                return new ReadOnlyRepositoryHttpv2(descriptor, client, context, configuration);
             default:
-                throw new SubversionException("Could not find suitable repository for " + uri);
+                throw new SubversionException("Could not find suitable repository for " + descriptor.getBaseUri());
         }
     }
 
+    public ReadOnlyRepositoryInternal createReadOnlyRepositoryInternal(final URI uri, final HttpClient client, final HttpContext context) {
+        return createReadOnlyRepositoryInternal(uri, client, context, RepositoryConfiguration.DEFAULT);
+    }
+
+    public ReadOnlyRepositoryInternal createReadOnlyRepositoryInternal(final URI uri, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        final RepositoryDescriptor descriptor = probe(uri, client, context, configuration);
+        return createReadOnlyRepositoryInternal(descriptor, client, context, configuration);
+    }
+
     @Override
-    public Repository createRepository(final URI uri, final HttpClient client, final HttpContext context) {
-        Validate.notNull(uri, "uri must not be null");
+    public Repository createRepository(final RepositoryDescriptor descriptor, final HttpClient client, final HttpContext context) {
+        return createRepository(descriptor, client, context, RepositoryConfiguration.DEFAULT);
+    }
+
+    @Override
+    public Repository createRepository(final RepositoryDescriptor descriptor, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        Validate.notNull(descriptor, "descriptor must not be null");
         Validate.notNull(client, "client must not be null");
         Validate.notNull(context, "context must not be null");
+        Validate.notNull(configuration, "configuration must not be null");
 
-        final String path = uri.getPath();
-        final Resource resource = Resource.create(path);
-        final URI saneUri = sanitise(uri, resource);
-        Repository repository = createRepositoryInternal(saneUri, client, context);
-        repository = new TracingRepository(repository);
-        repository = new ValidatingRepository(repository);
-        return repository;
+        final Repository repository = createRepositoryInternal(descriptor, client, context, configuration);
+        final Repository decorated = decorate(repository, configuration);
+        return new ValidatingRepository(decorated);
     }
 
-    public RepositoryInternal createRepositoryInternal(final URI uri, final HttpClient client, final HttpContext context) {
-        final Operation<ProbeResult> probeOperation = new ProbeServerOperation(uri, client, context);
-        final ProbeResult probe = probeOperation.execute();
+    @Override
+    public Repository createRepository(final URI uri, final HttpClient client, final HttpContext context) {
+        return createRepository(uri, client, context, RepositoryConfiguration.DEFAULT);
+    }
 
-        final URI baseUri = probe.getBaseUri(uri);
-        final Resource basePath = probe.getBasePath(uri);
-        final String prefix = probe.getPrefix();
-        final ProtocolVersion version = probe.getVersion();
+    @Override
+    public Repository createRepository(final URI uri, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        Validate.notNull(uri, "uri must not be null");
+        Validate.notNull(client, "client must not be null");
+        Validate.notNull(context, "context must not be null");
+        Validate.notNull(configuration, "configuration must not be null");
 
+        final URI saneUri = sanitise(uri);
+        final Repository repository;
+        if (configuration.isLazyProbing()) {
+            final ExecutorService executor = WorkerPool.create(1);
+            repository = new LazyRepository(() -> decorate(createRepositoryInternal(saneUri, client, context, configuration), configuration), executor);
+        } else {
+            final Repository internal = createRepositoryInternal(saneUri, client, context, configuration);
+            repository = decorate(internal, configuration);
+        }
+        return new ValidatingRepository(repository);
+    }
+
+    public RepositoryInternal createRepositoryInternal(final RepositoryDescriptor descriptor, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        final ProtocolVersion version = descriptor.getProtocolVersion();
         switch (version) {
-            case HTTP_V1: {
-                final ReadOnlyRepositoryInternal incompleteRepository = new ReadOnlyRepositoryHttpv1(baseUri, basePath, DEFAULT_UUID, prefix, client, context);
-                final Info info = getSparseInfo(incompleteRepository);
-                final UUID repositoryId = info.getRepositoryId();
-                return new RepositoryHttpv1(baseUri, basePath, repositoryId, prefix, client, context);
-            }
-            case HTTP_V2: {
-                final ReadOnlyRepositoryInternal incompleteRepository = new ReadOnlyRepositoryHttpv2(baseUri, basePath, DEFAULT_UUID, prefix, client, context);
-                final Info info = getSparseInfo(incompleteRepository);
-                final UUID repositoryId = info.getRepositoryId();
-                return new RepositoryHttpv2(baseUri, basePath, repositoryId, prefix, client, context);
-            }
+            case HTTP_V1:
+                return new RepositoryHttpv1(descriptor, client, context, configuration);
+            case HTTP_V2:
+                return new RepositoryHttpv2(descriptor, client, context, configuration);
             default:
-                throw new SubversionException("Could not find suitable repository for " + uri);
+                throw new SubversionException("Could not find suitable repository for " + descriptor.getBaseUri());
         }
     }
 
+    public RepositoryInternal createRepositoryInternal(final URI uri, final HttpClient client, final HttpContext context) {
+        return createRepositoryInternal(uri, client, context, RepositoryConfiguration.DEFAULT);
+    }
+
+    public RepositoryInternal createRepositoryInternal(final URI uri, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        final RepositoryDescriptor descriptor = probe(uri, client, context, configuration);
+        return createRepositoryInternal(descriptor, client, context, configuration);
+    }
+
     private Info getSparseInfo(final ReadOnlyRepositoryInternal repository) {
         final View view = repository.createView();
         final QualifiedResource qualifiedResource = repository.getQualifiedResource(Resource.ROOT);
@@ -158,4 +302,35 @@ public class ReposiotryFactoryInternal implements RepositoryFactory {
         return infoOperation.execute();
     }
 
+    @Override
+    public RepositoryDescriptor probe(final URI uri, final HttpClient client, final HttpContext context) {
+        Validate.notNull(uri, "uri must not be null");
+        Validate.notNull(client, "client must not be null");
+        Validate.notNull(context, "context must not be null");
+
+        final URI saneUri = sanitise(uri);
+        return probe(saneUri, client, context, RepositoryConfiguration.DEFAULT);
+    }
+
+    private RepositoryDescriptor probe(final URI uri, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        final Operation<ProbeResult> probeOperation = new ProbeServerOperation(uri, client, context);
+        final ProbeResult probe = probeOperation.execute();
+
+        final URI baseUri = probe.getBaseUri(uri);
+        final Resource basePath = probe.getBasePath(uri);
+        final String prefix = probe.getPrefix();
+        final ProtocolVersion version = probe.getVersion();
+        final boolean listReportSupported = probe.isListReportSupported();
+
+        final RepositoryDescriptor incompleteDescriptor = RepositoryDescriptor.create(baseUri, basePath, DEFAULT_UUID, version, prefix, listReportSupported);
+        // throwaway instance that only queries the repository id: it must not publish gauges or open the download cache
+        final RepositoryConfiguration probeConfiguration = configuration //
+                .withMetricsRegistry(NoopMetricsRegistry.INSTANCE) //
+                .withDownloadCacheDirectory(null) //
+                .withWorkerThreads(1);
+        final ReadOnlyRepositoryInternal incompleteRepository = createReadOnlyRepositoryInternal(incompleteDescriptor, client, context, probeConfiguration);
+        final Info info = getSparseInfo(incompleteRepository);
+        final UUID repositoryId = info.getRepositoryId();
+        return RepositoryDescriptor.create(baseUri, basePath, repositoryId, version, prefix, listReportSupported);
+    }
 }
@@ -18,15 +18,20 @@
 package de.shadowhunt.subversion.internal;
 
 import java.io.InputStream;
-import java.net.URI;
-import java.util.UUID;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Supplier;
 
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.RepositoryDescriptor;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.ResourceProperty;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.Transaction;
 import de.shadowhunt.subversion.internal.action.Action;
 import de.shadowhunt.subversion.internal.action.AddActionHttpv1;
+import de.shadowhunt.subversion.internal.action.AddAllActionHttpv1;
 import de.shadowhunt.subversion.internal.action.CommitActionHttpv2;
 import de.shadowhunt.subversion.internal.action.CopyActionHttpv2;
 import de.shadowhunt.subversion.internal.action.CreateTransactionActionHttpv2;
@@ -42,22 +47,59 @@ import org.apache.http.protocol.HttpContext;
 
 public class RepositoryHttpv2 extends ReadOnlyRepositoryHttpv2 implements RepositoryInternal {
 
-    public RepositoryHttpv2(final URI baseUri, final Resource basePath, final UUID repositoryId, final String prefix, final HttpClient client, final HttpContext context) {
-        super(baseUri, basePath, repositoryId, prefix, client, context);
+    public RepositoryHttpv2(final RepositoryDescriptor descriptor, final HttpClient client, final HttpContext context, final RepositoryConfiguration configuration) {
+        super(descriptor, client, context, configuration);
     }
 
     @Override
     public void add(final Transaction transaction, final Resource resource, final boolean parents, final InputStream content) {
+        add(transaction, resource, parents, AbstractUploadContent.of(content));
+    }
+
+    @Override
+    public void add(final Transaction transaction, final Resource resource, final boolean parents, final byte[] content) {
+        add(transaction, resource, parents, AbstractUploadContent.of(content));
+    }
+
+    @Override
+    public void add(final Transaction transaction, final Resource resource, final boolean parents, final ByteBuffer content) {
+        add(transaction, resource, parents, AbstractUploadContent.of(content));
+    }
+
+    @Override
+    public void add(final Transaction transaction, final Resource resource, final boolean parents, final Path content) {
+        add(transaction, resource, parents, AbstractUploadContent.of(content));
+    }
+
+    @Override
+    public void add(final Transaction transaction, final Resource resource, final boolean parents, final Supplier<InputStream> content, final long length) {
+        add(transaction, resource, parents, AbstractUploadContent.of(content, length));
+    }
+
+    private void add(final Transaction transaction, final Resource resource, final boolean parents, final AbstractUploadContent content) {
         final TransactionInternal transactionInternal = TransactionInternal.from(transaction);
         final Action<Void> action = new AddActionHttpv1(this, transactionInternal, resource, parents, content);
         action.perform();
     }
 
+    @Override
+    public void addAll(final Transaction transaction, final Map<Resource, Supplier<InputStream>> contents, final boolean parents) {
+        final TransactionInternal transactionInternal = TransactionInternal.from(transaction);
+        final Action<Void> action = new AddAllActionHttpv1(this, transactionInternal, contents, parents);
+        action.perform();
+    }
+
     @Override
     public void commit(final Transaction transaction, final String message, final boolean releaseLocks) {
         final TransactionInternal transactionInternal = TransactionInternal.from(transaction);
         final Action<Void> action = new CommitActionHttpv2(this, transactionInternal, message, releaseLocks);
-        action.perform();
+        try {
+            action.perform();
+        } finally {
+            // the head revision has (most likely) changed
+            final HeadRevisionTracker headRevisionTracker = getHeadRevisionTracker();
+            headRevisionTracker.invalidate();
+        }
     }
 
     @Override
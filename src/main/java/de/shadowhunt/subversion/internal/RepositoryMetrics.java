@@ -0,0 +1,138 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+import javax.annotation.Nullable;
+
+import de.shadowhunt.subversion.internal.caching.CachingReadOnlyRepository;
+import de.shadowhunt.subversion.metrics.MetricsRegistry;
+import de.shadowhunt.subversion.metrics.NoopMetricsRegistry;
+
+/**
+ * Publishes the statistics of a repository as gauges of a {@link MetricsRegistry}. The gauges are shared by all repositories that record into the same {@link MetricsRegistry}: each gauge reports the sum over these repositories.
+ */
+final class RepositoryMetrics {
+
+    /**
+     * Sums the statistic of all registered sources. Sources are only weakly referenced, so the gauge does not keep discarded repositories alive.
+     */
+    private static final class AggregatedGauge implements LongSupplier {
+
+        private final Collection<Source<?>> sources = new ConcurrentLinkedQueue<>();
+
+        void add(final Source<?> source) {
+            sources.add(source);
+        }
+
+        @Override
+        public long getAsLong() {
+            long sum = 0L;
+            final Iterator<Source<?>> iterator = sources.iterator();
+            while (iterator.hasNext()) {
+                final Source<?> source = iterator.next();
+                if (source.isDiscarded()) {
+                    iterator.remove();
+                } else {
+                    sum += source.getValue();
+                }
+            }
+            return sum;
+        }
+    }
+
+    private static final class Source<T> {
+
+        private final WeakReference<T> reference;
+
+        private final ToLongFunction<T> statistic;
+
+        Source(final T source, final ToLongFunction<T> statistic) {
+            this.reference = new WeakReference<>(source);
+            this.statistic = statistic;
+        }
+
+        long getValue() {
+            final T source = reference.get();
+            return (source == null) ? 0L : statistic.applyAsLong(source);
+        }
+
+        boolean isDiscarded() {
+            return (reference.get() == null);
+        }
+    }
+
+    // registries are only weakly referenced as well, guarded by the class lock
+    private static final Map<MetricsRegistry, Map<String, AggregatedGauge>> GAUGES = new WeakHashMap<>();
+
+    private static synchronized <T> void gauge(final MetricsRegistry registry, final String name, final T source, final ToLongFunction<T> statistic) {
+        final Map<String, AggregatedGauge> gauges = GAUGES.computeIfAbsent(registry, r -> new HashMap<>());
+        AggregatedGauge gauge = gauges.get(name);
+        if (gauge == null) {
+            gauge = new AggregatedGauge();
+            gauges.put(name, gauge);
+            registry.gauge(name, gauge);
+        }
+        gauge.add(new Source<>(source, statistic));
+    }
+
+    static void register(final MetricsRegistry registry, final CachingReadOnlyRepository repository) {
+        if (registry == NoopMetricsRegistry.INSTANCE) {
+            return;
+        }
+
+        gauge(registry, "subversion.cache.metadata.evictions", repository, r -> r.getStatistics().getEvictionCount());
+        gauge(registry, "subversion.cache.metadata.hits", repository, r -> r.getStatistics().getHitCount());
+        gauge(registry, "subversion.cache.metadata.misses", repository, r -> r.getStatistics().getMissCount());
+        gauge(registry, "subversion.cache.metadata.weight", repository, r -> r.getStatistics().getWeight());
+    }
+
+    static void register(final MetricsRegistry registry, final TransferStatistics transferStatistics, final ResolveCache resolveCache, @Nullable final DownloadCache downloadCache) {
+        if (registry == NoopMetricsRegistry.INSTANCE) {
+            return;
+        }
+
+        gauge(registry, "subversion.transfer.received.raw.bytes", transferStatistics, TransferStatistics::getReceivedRawBytes);
+        gauge(registry, "subversion.transfer.received.wire.bytes", transferStatistics, TransferStatistics::getReceivedWireBytes);
+        gauge(registry, "subversion.transfer.sent.raw.bytes", transferStatistics, TransferStatistics::getSentRawBytes);
+        gauge(registry, "subversion.transfer.sent.wire.bytes", transferStatistics, TransferStatistics::getSentWireBytes);
+
+        gauge(registry, "subversion.cache.resolve.evictions", resolveCache, ResolveCache::getEvictionCount);
+        gauge(registry, "subversion.cache.resolve.hits", resolveCache, ResolveCache::getHitCount);
+        gauge(registry, "subversion.cache.resolve.misses", resolveCache, ResolveCache::getMissCount);
+        gauge(registry, "subversion.cache.resolve.size", resolveCache, ResolveCache::size);
+
+        if (downloadCache != null) {
+            gauge(registry, "subversion.cache.download.hits", downloadCache, DownloadCache::getHitCount);
+            gauge(registry, "subversion.cache.download.misses", downloadCache, DownloadCache::getMissCount);
+        }
+    }
+
+    private RepositoryMetrics() {
+        // prevent instantiation
+    }
+}
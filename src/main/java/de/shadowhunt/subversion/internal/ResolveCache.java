@@ -0,0 +1,205 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.shadowhunt.subversion.Revision;
+
+/**
+ * Bounded cache of resolved resource locations. The location of a resource (identified by its path in a peg revision) in another revision of a repository can never change, so entries never have to be invalidated; once the cache is full the
+ * least recently used entry is evicted.
+ */
+@ThreadSafe
+public final class ResolveCache {
+
+    private static final class Key {
+
+        private final Revision pegRevision;
+
+        private final QualifiedResource qualifiedResource;
+
+        private final UUID repositoryId;
+
+        private final Revision revision;
+
+        Key(final UUID repositoryId, final QualifiedResource qualifiedResource, final Revision pegRevision, final Revision revision) {
+            this.repositoryId = repositoryId;
+            this.qualifiedResource = qualifiedResource;
+            this.pegRevision = pegRevision;
+            this.revision = revision;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return repositoryId.equals(other.repositoryId) && qualifiedResource.equals(other.qualifiedResource) && pegRevision.equals(other.pegRevision) && revision.equals(other.revision);
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = (prime * result) + pegRevision.hashCode();
+            result = (prime * result) + qualifiedResource.hashCode();
+            result = (prime * result) + repositoryId.hashCode();
+            result = (prime * result) + revision.hashCode();
+            return result;
+        }
+    }
+
+    private final Map<Key, QualifiedResource> entries;
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final int maximumSize;
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public ResolveCache(final int maximumSize) {
+        this.maximumSize = maximumSize;
+        entries = new LinkedHashMap<Key, QualifiedResource>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, QualifiedResource> eldest) {
+                if (size() > ResolveCache.this.maximumSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the cached location or resolves it with the given resolver. The resolver is invoked without holding any lock, so concurrent lookups of the same location may both resolve it.
+     *
+     * @return the location of the resource in the given revision
+     */
+    public QualifiedResource resolve(final UUID repositoryId, final QualifiedResource qualifiedResource, final Revision pegRevision, final Revision revision, final Supplier<QualifiedResource> resolver) {
+        if (maximumSize <= 0) {
+            return resolver.get();
+        }
+
+        final Key key = new Key(repositoryId, qualifiedResource, pegRevision, revision);
+        synchronized (entries) {
+            final QualifiedResource cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        misses.incrementAndGet();
+        final QualifiedResource resolved = resolver.get();
+        synchronized (entries) {
+            entries.put(key, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns the cached location or resolves it with the given resolver without blocking the calling thread, see {@link #resolve(UUID, QualifiedResource, Revision, Revision, Supplier)}.
+     *
+     * @return {@link CompletableFuture} that completes with the location of the resource in the given revision
+     */
+    public CompletableFuture<QualifiedResource> resolveAsync(final UUID repositoryId, final QualifiedResource qualifiedResource, final Revision pegRevision, final Revision revision, final Supplier<CompletableFuture<QualifiedResource>> resolver) {
+        if (maximumSize <= 0) {
+            return resolver.get();
+        }
+
+        final Key key = new Key(repositoryId, qualifiedResource, pegRevision, revision);
+        synchronized (entries) {
+            final QualifiedResource cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        misses.incrementAndGet();
+        return resolver.get().thenApply(resolved -> {
+            synchronized (entries) {
+                entries.put(key, resolved);
+            }
+            return resolved;
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("ResolveCache [size=");
+        builder.append(size());
+        builder.append(", maximumSize=");
+        builder.append(maximumSize);
+        builder.append(", hits=");
+        builder.append(hits.get());
+        builder.append(", misses=");
+        builder.append(misses.get());
+        builder.append(", evictions=");
+        builder.append(evictions.get());
+        builder.append(']');
+        return builder.toString();
+    }
+}
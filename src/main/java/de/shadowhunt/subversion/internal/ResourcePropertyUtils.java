@@ -17,22 +17,16 @@
  */
 package de.shadowhunt.subversion.internal;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.Comparator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import de.shadowhunt.subversion.ResourceProperty;
 import de.shadowhunt.subversion.ResourceProperty.Key;
 import de.shadowhunt.subversion.ResourceProperty.Type;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.Validate;
 
 /**
- * SVN as support for properties that have a namespace and contain a colon in their name. XML in general does not allow such names. The methods in this class make sure these properties can be read and written by default XML tool by escaping them before the XML processing and reverting the escaping
- * afterwards.
+ * SVN as support for properties that have a namespace and contain a colon in their name. XML in general does not allow such names. The names of properties that are set get escaped before they
+ * are written with a namespace aware XML writer. Responses are read without namespace support (see {@link de.shadowhunt.subversion.internal.jaxb.InfoParser}) and need no unescaping.
  */
 public final class ResourcePropertyUtils {
 
@@ -52,8 +46,6 @@ public final class ResourcePropertyUtils {
 
     public static final Key MD5_HASH = new Key(Type.SUBVERSION_DAV, "md5-checksum");
 
-    private static final Pattern PATTERN = Pattern.compile("<(/?)(\\s*)([\\w\\d]+):([\\w\\d]+):([\\w\\d]+)((?:\\s*[\\w\\d=\"]*\\s*)*)(/?)>");
-
     public static final Key REPOSITORY_ID = new Key(Type.SUBVERSION_DAV, "repository-uuid");
 
     public static final Key RESOURCE = new Key(Type.SUBVERSION_DAV, "baseline-relative-path");
@@ -71,24 +63,11 @@ public final class ResourcePropertyUtils {
 
     public static final Key VERSION = new Key(Type.DAV, "version-name");
 
-    public static InputStream escapedInputStream(final InputStream inputStream) throws IOException {
-        final String rawData = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-        inputStream.close();
-
-        final Matcher matcher = PATTERN.matcher(rawData);
-        final String escapedData = matcher.replaceAll("<$1$2$3:$4" + MARKER + "$5$6$7>");
-        return IOUtils.toInputStream(escapedData, StandardCharsets.UTF_8);
-    }
-
     public static String escapedKeyNameXml(final String name) {
         return name.replace(COLON, MARKER);
     }
 
-    public static String filterMarker(final String xml) {
-        return xml.replaceAll(MARKER, COLON);
-    }
-
-    static String unescapedKeyNameXml(final String name) {
+    public static String unescapedKeyNameXml(final String name) {
         return name.replace(MARKER, COLON);
     }
 
@@ -17,6 +17,10 @@
  */
 package de.shadowhunt.subversion.internal;
 
+import java.util.Map;
+import java.util.Optional;
+
+import de.shadowhunt.subversion.LockToken;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.SubversionException;
 import de.shadowhunt.subversion.Transaction;
@@ -30,6 +34,11 @@ public interface TransactionInternal extends Transaction, ViewInternal {
         throw new SubversionException("transaction can not be used");
     }
 
+    /**
+     * @return the lock status of all resources that has been retrieved by operations of this transaction, {@link Optional#empty()} marks resources that are not locked
+     */
+    Map<Resource, Optional<LockToken>> getLockTokens();
+
     QualifiedResource getQualifiedCommitMessageResource(QualifiedResource qualifiedResource);
 
     QualifiedResource getQualifiedTransactionResource();
@@ -38,5 +47,20 @@ public interface TransactionInternal extends Transaction, ViewInternal {
 
     void invalidate();
 
+    /**
+     * @return {@code true} if the folder has already been created or prepared (checked out) in this transaction, so children can be added without asking the server
+     */
+    boolean isKnownFolder(Resource resource);
+
     boolean register(Resource resource, Status status);
+
+    /**
+     * Remember the lock status of the resource, so it does not need to be retrieved again on commit.
+     */
+    void registerLockToken(Resource resource, Optional<LockToken> lockToken);
+
+    /**
+     * Remember that the folder has been created or prepared (checked out) in this transaction, deleting the folder (or one of its ancestors) forgets it again.
+     */
+    void registerFolder(Resource resource);
 }
@@ -0,0 +1,78 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Counts the bytes exchanged with the server. Raw bytes are the bytes before compression (requests) or after decompression (responses), wire bytes are the bytes actually transferred; without compression both are equal.
+ */
+@ThreadSafe
+public final class TransferStatistics {
+
+    private final AtomicLong receivedRawBytes = new AtomicLong();
+
+    private final AtomicLong receivedWireBytes = new AtomicLong();
+
+    private final AtomicLong sentRawBytes = new AtomicLong();
+
+    private final AtomicLong sentWireBytes = new AtomicLong();
+
+    public long getReceivedRawBytes() {
+        return receivedRawBytes.get();
+    }
+
+    public long getReceivedWireBytes() {
+        return receivedWireBytes.get();
+    }
+
+    public long getSentRawBytes() {
+        return sentRawBytes.get();
+    }
+
+    public long getSentWireBytes() {
+        return sentWireBytes.get();
+    }
+
+    public void received(final long rawBytes, final long wireBytes) {
+        receivedRawBytes.addAndGet(rawBytes);
+        receivedWireBytes.addAndGet(wireBytes);
+    }
+
+    public void sent(final long rawBytes, final long wireBytes) {
+        sentRawBytes.addAndGet(rawBytes);
+        sentWireBytes.addAndGet(wireBytes);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("TransferStatistics [receivedRawBytes=");
+        builder.append(receivedRawBytes.get());
+        builder.append(", receivedWireBytes=");
+        builder.append(receivedWireBytes.get());
+        builder.append(", sentRawBytes=");
+        builder.append(sentRawBytes.get());
+        builder.append(", sentWireBytes=");
+        builder.append(sentWireBytes.get());
+        builder.append(']');
+        return builder.toString();
+    }
+}
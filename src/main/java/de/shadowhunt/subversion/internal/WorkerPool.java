@@ -0,0 +1,80 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.shadowhunt.subversion.internal.tracing.ActiveSpan;
+
+/**
+ * Bounded pool of daemon threads that execute the concurrent requests of a repository. Idle threads are released
+ * after a while, so a pool does not need to be shut down explicitly.
+ */
+public final class WorkerPool {
+
+    private static final class WorkerPoolExecutor extends ThreadPoolExecutor {
+
+        WorkerPoolExecutor(final int threads, final ThreadFactory factory) {
+            super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            // tasks belong to the span of the submitting thread
+            super.execute(ActiveSpan.propagate(command));
+        }
+    }
+
+    private static final class WorkerThread extends Thread {
+
+        WorkerThread(final Runnable runnable, final String name) {
+            super(runnable, name);
+            setDaemon(true);
+        }
+    }
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    public static ExecutorService create(final int threads) {
+        final String namePrefix = "subversion-worker-" + POOL_NUMBER.incrementAndGet() + "-";
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadFactory factory = runnable -> new WorkerThread(runnable, namePrefix + threadNumber.incrementAndGet());
+
+        final ThreadPoolExecutor executor = new WorkerPoolExecutor(threads, factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @return {@code true} if the current thread belongs to a {@link WorkerPool}
+     */
+    public static boolean isWorkerThread() {
+        return (Thread.currentThread() instanceof WorkerThread);
+    }
+
+    private WorkerPool() {
+        // prevent instantiation
+    }
+}
@@ -17,7 +17,6 @@
  */
 package de.shadowhunt.subversion.internal.action;
 
-import java.io.InputStream;
 import java.util.Optional;
 
 import javax.annotation.CheckForNull;
@@ -27,17 +26,17 @@ import de.shadowhunt.subversion.LockToken;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.Transaction.Status;
+import de.shadowhunt.subversion.internal.AbstractUploadContent;
 import de.shadowhunt.subversion.internal.QualifiedResource;
 import de.shadowhunt.subversion.internal.RepositoryInternal;
 import de.shadowhunt.subversion.internal.ResourcePropertyUtils;
 import de.shadowhunt.subversion.internal.TransactionInternal;
 import de.shadowhunt.subversion.internal.operation.Operation;
 import de.shadowhunt.subversion.internal.operation.SparseInfoOperationHttpv1;
-import de.shadowhunt.subversion.internal.operation.UploadOperationHttpv1;
 
 public class AddActionHttpv1 implements Action<Void> {
 
-    private final InputStream content;
+    private final AbstractUploadContent content;
 
     private final boolean createMissingParents;
 
@@ -47,7 +46,7 @@ public class AddActionHttpv1 implements Action<Void> {
 
     private final TransactionInternal transaction;
 
-    public AddActionHttpv1(final RepositoryInternal repository, final TransactionInternal transaction, final Resource resource, final boolean createMissingParents, final InputStream content) {
+    public AddActionHttpv1(final RepositoryInternal repository, final TransactionInternal transaction, final Resource resource, final boolean createMissingParents, final AbstractUploadContent content) {
         this.repository = repository;
         this.transaction = transaction;
         this.resource = resource;
@@ -83,12 +82,10 @@ public class AddActionHttpv1 implements Action<Void> {
             status = Status.MODIFIED;
         }
 
-        final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
-        final QualifiedResource qualifiedWorkingResource = transaction.getQualifiedWorkingResource(qualifiedResource);
-        final Operation<Void> uploadOperation = new UploadOperationHttpv1(repository, qualifiedWorkingResource, lockToken, content);
-        uploadOperation.execute();
+        Uploads.upload(repository, transaction, resource, status, lockToken, content);
 
         transaction.register(resource, status);
+        transaction.registerLockToken(resource, lockToken);
         return null;
     }
 
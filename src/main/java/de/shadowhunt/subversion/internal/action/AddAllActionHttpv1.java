@@ -0,0 +1,168 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.LockToken;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction.Status;
+import de.shadowhunt.subversion.internal.AbstractUploadContent;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.RepositoryInternal;
+import de.shadowhunt.subversion.internal.ResourcePropertyUtils;
+import de.shadowhunt.subversion.internal.TransactionInternal;
+import de.shadowhunt.subversion.internal.operation.Operation;
+import de.shadowhunt.subversion.internal.operation.SparseListOperationHttpv1;
+
+/**
+ * Uploads many resources at once: the lock status of all resources in a directory is retrieved by a single PROPFIND request, all missing parent directories are created once and the contents are uploaded concurrently (see
+ * {@link de.shadowhunt.subversion.RepositoryConfiguration#getMaxRequestsInFlight()}).
+ */
+public class AddAllActionHttpv1 implements Action<Void> {
+
+    private final Map<Resource, Supplier<InputStream>> contents;
+
+    private final boolean createMissingParents;
+
+    private final RepositoryInternal repository;
+
+    private final TransactionInternal transaction;
+
+    public AddAllActionHttpv1(final RepositoryInternal repository, final TransactionInternal transaction, final Map<Resource, Supplier<InputStream>> contents, final boolean createMissingParents) {
+        this.repository = repository;
+        this.transaction = transaction;
+        this.contents = new TreeMap<>(contents);
+        this.createMissingParents = createMissingParents;
+    }
+
+    private void createParents(final NavigableSet<Resource> parents) {
+        final Set<Resource> created = new HashSet<>();
+        // descending order: deeper directories are created first, together with all their ancestors
+        for (final Resource parent : parents.descendingSet()) {
+            if (created.contains(parent)) {
+                continue;
+            }
+            repository.mkdir(transaction, parent, true);
+
+            Resource ancestor = parent;
+            while (created.add(ancestor) && !Resource.ROOT.equals(ancestor)) {
+                ancestor = ancestor.getParent();
+            }
+        }
+    }
+
+    private Map<Resource, Info> fetchLockStatus(final Resource parent, final Set<Resource> members) {
+        final Resource target;
+        final Depth depth;
+        if (members.size() == 1) {
+            target = members.iterator().next();
+            depth = Depth.EMPTY;
+        } else {
+            target = parent;
+            depth = Depth.IMMEDIATES;
+        }
+
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(target);
+        final Revision revision = transaction.getHeadRevision();
+        final QualifiedResource versionedResource = repository.getQualifiedVersionedResource(qualifiedResource, revision);
+        final Operation<NavigableSet<Info>> listOperation = new SparseListOperationHttpv1(repository, versionedResource, depth, ResourcePropertyUtils.LOCK_STATUS);
+
+        final Map<Resource, Info> infos = new HashMap<>();
+        for (final Info info : listOperation.execute()) {
+            final Resource resource = info.getResource();
+            if (members.contains(resource)) {
+                infos.put(resource, info);
+            }
+        }
+        return infos;
+    }
+
+    @Override
+    public Void perform() {
+        if (contents.isEmpty()) {
+            return null;
+        }
+
+        final Map<Resource, Set<Resource>> groups = new TreeMap<>();
+        for (final Resource resource : contents.keySet()) {
+            final Resource parent = resource.getParent();
+            groups.computeIfAbsent(parent, x -> new TreeSet<>()).add(resource);
+        }
+
+        final List<Callable<Map<Resource, Info>>> statusTasks = new ArrayList<>(groups.size());
+        for (final Entry<Resource, Set<Resource>> group : groups.entrySet()) {
+            final Resource parent = group.getKey();
+            final Set<Resource> members = group.getValue();
+            statusTasks.add(() -> fetchLockStatus(parent, members));
+        }
+        final Map<Resource, Info> existing = new HashMap<>();
+        for (final Map<Resource, Info> infos : ParallelTasks.invokeAll(repository, statusTasks, "retrieve lock status of " + contents.size() + " resources")) {
+            existing.putAll(infos);
+        }
+
+        if (createMissingParents) {
+            createParents(new TreeSet<>(groups.keySet()));
+        }
+
+        final List<Callable<Void>> uploadTasks = new ArrayList<>(contents.size());
+        for (final Entry<Resource, Supplier<InputStream>> entry : contents.entrySet()) {
+            final Resource resource = entry.getKey();
+            final Supplier<InputStream> content = entry.getValue();
+            final Info info = existing.get(resource);
+            uploadTasks.add(() -> upload(resource, info, content));
+        }
+        ParallelTasks.invokeAll(repository, uploadTasks, "upload " + contents.size() + " resources");
+        return null;
+    }
+
+    private Void upload(final Resource resource, final Info info, final Supplier<InputStream> content) {
+        final Optional<LockToken> lockToken;
+        final Status status;
+        if (info == null) {
+            lockToken = Optional.empty();
+            status = Status.ADDED;
+        } else {
+            lockToken = info.getLockToken();
+            status = Status.MODIFIED;
+        }
+
+        final AbstractUploadContent stream = AbstractUploadContent.of(content.get());
+        Uploads.upload(repository, transaction, resource, status, lockToken, stream);
+
+        transaction.register(resource, status);
+        transaction.registerLockToken(resource, lockToken);
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import de.shadowhunt.subversion.internal.operation.Operation;
+import org.apache.http.nio.client.HttpAsyncClient;
+
+/**
+ * A {@link Action} that can also be run without blocking the calling thread, its {@link Operation}s are sent through a {@link HttpAsyncClient}
+ */
+public interface AsyncAction<E> extends Action<E> {
+
+    /**
+     * Run a logical command against the Subversion server without blocking the calling thread
+     *
+     * @param client
+     *            {@link HttpAsyncClient} (already started) that sends the requests
+     * @param executor
+     *            {@link Executor} that runs the parts of the command that have to block (e.g. file system access), if there are any
+     *
+     * @return {@link CompletableFuture} that completes with the processed response
+     */
+    CompletableFuture<E> performAsync(HttpAsyncClient client, Executor executor);
+}
@@ -17,17 +17,21 @@
  */
 package de.shadowhunt.subversion.internal.action;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.Optional;
+import java.util.TreeMap;
 
 import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.LockToken;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.Transaction.Status;
 import de.shadowhunt.subversion.internal.QualifiedResource;
 import de.shadowhunt.subversion.internal.RepositoryInternal;
+import de.shadowhunt.subversion.internal.ResourcePropertyUtils;
 import de.shadowhunt.subversion.internal.TransactionInternal;
 import de.shadowhunt.subversion.internal.operation.CommitMessageOperationHttpv1;
 import de.shadowhunt.subversion.internal.operation.MergeOperationHttpv1;
@@ -51,15 +55,22 @@ public class CommitActionHttpv1 implements Action<Void> {
         this.releaseLocks = releaseLocks;
     }
 
-    private Set<Info> getInfoSetWithLockTokens() {
+    private Map<Resource, LockToken> getLockTokens() {
         final Map<Resource, Status> changeSet = transaction.getChangeSet();
         if (changeSet.isEmpty()) {
-            return Collections.emptySet();
+            return Collections.emptyMap();
         }
 
-        final Revision headRevision = transaction.getHeadRevision();
+        // lock tokens are recorded by the modifying actions, only resources without a recorded state have to be queried
+        final Map<Resource, Optional<LockToken>> knownLockTokens;
+        if (repository.getConfiguration().isLockTokenRefreshEnabled()) {
+            knownLockTokens = Collections.emptyMap();
+        } else {
+            knownLockTokens = transaction.getLockTokens();
+        }
 
-        final Set<Info> result = new TreeSet<>(Info.RESOURCE_COMPARATOR);
+        final Map<Resource, LockToken> result = new TreeMap<>();
+        final List<Resource> unknown = new ArrayList<>();
         for (final Map.Entry<Resource, Status> entry : changeSet.entrySet()) {
             final Status status = entry.getValue();
             if ((Status.EXISTS == status) || (Status.ADDED == status)) {
@@ -67,9 +78,20 @@ public class CommitActionHttpv1 implements Action<Void> {
             }
 
             final Resource resource = entry.getKey();
-            final Info info = repository.info(transaction, resource, headRevision);
-            if (info.isLocked()) {
-                result.add(info);
+            final Optional<LockToken> lockToken = knownLockTokens.get(resource);
+            if (lockToken == null) {
+                unknown.add(resource);
+            } else {
+                lockToken.ifPresent(token -> result.put(resource, token));
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            final Revision headRevision = transaction.getHeadRevision();
+            final Action<Map<Resource, Optional<Info>>> infoAllAction = new InfoAllActionHttpv1(repository, transaction, unknown, headRevision, ResourcePropertyUtils.RESOURCE, ResourcePropertyUtils.LOCK_STATUS);
+            for (final Map.Entry<Resource, Optional<Info>> entry : infoAllAction.perform().entrySet()) {
+                final Resource resource = entry.getKey();
+                entry.getValue().flatMap(Info::getLockToken).ifPresent(token -> result.put(resource, token));
             }
         }
         return result;
@@ -94,9 +116,9 @@ public class CommitActionHttpv1 implements Action<Void> {
         }
 
         // only invalidate after successful commit to allow rollback
-        final Set<Info> lockTokenInfoSet = getInfoSetWithLockTokens();
+        final Map<Resource, LockToken> lockTokens = getLockTokens();
         final QualifiedResource qualifiedMergeResource = transaction.getQualifiedTransactionResource();
-        final Operation<Void> mergeOperation = new MergeOperationHttpv1(repository, qualifiedMergeResource, lockTokenInfoSet, releaseLocks);
+        final Operation<Void> mergeOperation = new MergeOperationHttpv1(repository, qualifiedMergeResource, lockTokens, releaseLocks);
         mergeOperation.execute();
         transaction.invalidate();
         return null;
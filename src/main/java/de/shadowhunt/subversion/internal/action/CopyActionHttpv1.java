@@ -125,6 +125,7 @@ public class CopyActionHttpv1 implements Action<Void> {
         copyOperation.execute();
 
         transaction.register(targetResource, status);
+        transaction.registerLockToken(targetResource, lockToken);
         return null;
     }
 
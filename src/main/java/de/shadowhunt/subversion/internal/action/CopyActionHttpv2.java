@@ -110,6 +110,7 @@ public class CopyActionHttpv2 implements Action<Void> {
         copyOperation.execute();
 
         transaction.register(targetResource, status);
+        transaction.registerLockToken(targetResource, lockToken);
         return null;
     }
 
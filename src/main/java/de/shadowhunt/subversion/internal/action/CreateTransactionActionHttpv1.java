@@ -39,7 +39,7 @@ public class CreateTransactionActionHttpv1 implements Action<TransactionInternal
     }
 
     private TransactionInternal createTransaction() {
-        final View view = repository.createView();
+        final View view = repository.createView(true);
 
         final Operation<String> transactionIdOperation = new GetTransactionIdOperationHttpv1(repository);
         final String transactionId = transactionIdOperation.execute();
@@ -42,7 +42,7 @@ public class CreateTransactionActionHttpv2 implements Action<TransactionInternal
         final String transactionId = transactionIdOperation.execute();
 
         final UUID repositoryId = repository.getRepositoryId();
-        final View view = repository.createView();
+        final View view = repository.createView(true);
         final Revision headRevision = view.getHeadRevision();
         final String prefix = repository.getPrefix();
         final Resource resource = Resource.create(prefix);
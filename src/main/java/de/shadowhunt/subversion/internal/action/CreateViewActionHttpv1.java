@@ -18,6 +18,8 @@
 package de.shadowhunt.subversion.internal.action;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
@@ -27,8 +29,9 @@ import de.shadowhunt.subversion.internal.ViewImpl;
 import de.shadowhunt.subversion.internal.ViewInternal;
 import de.shadowhunt.subversion.internal.operation.HeadRevisionOperationHttpv1;
 import de.shadowhunt.subversion.internal.operation.Operation;
+import org.apache.http.nio.client.HttpAsyncClient;
 
-public class CreateViewActionHttpv1 implements Action<ViewInternal> {
+public class CreateViewActionHttpv1 implements AsyncAction<ViewInternal> {
 
     private final ReadOnlyRepositoryInternal repository;
 
@@ -47,4 +50,13 @@ public class CreateViewActionHttpv1 implements Action<ViewInternal> {
         return new ViewImpl(repositoryId, headRevision);
     }
 
+    @Override
+    public CompletableFuture<ViewInternal> performAsync(final HttpAsyncClient client, final Executor executor) {
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(Resource.ROOT);
+
+        final UUID repositoryId = repository.getRepositoryId();
+        final Operation<Revision> headRevisionOperation = new HeadRevisionOperationHttpv1(repository, qualifiedResource);
+        return headRevisionOperation.executeAsync(client).thenApply(headRevision -> new ViewImpl(repositoryId, headRevision));
+    }
+
 }
@@ -73,6 +73,7 @@ public class DeleteActionHttpv1 implements Action<Void> {
         operation.execute();
 
         transaction.register(resource, Status.DELETED);
+        transaction.registerLockToken(resource, lockToken);
         return null;
     }
 
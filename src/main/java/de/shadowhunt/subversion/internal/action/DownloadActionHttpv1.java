@@ -17,17 +17,35 @@
  */
 package de.shadowhunt.subversion.internal.action;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import de.shadowhunt.subversion.Info;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.TransmissionException;
+import de.shadowhunt.subversion.internal.ChecksumVerifyingInputStream;
+import de.shadowhunt.subversion.internal.DownloadCache;
 import de.shadowhunt.subversion.internal.QualifiedResource;
 import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
 import de.shadowhunt.subversion.internal.ViewInternal;
 import de.shadowhunt.subversion.internal.operation.DownloadOperationHttpv1;
 import de.shadowhunt.subversion.internal.operation.Operation;
+import org.apache.http.nio.client.HttpAsyncClient;
 
-public class DownloadActionHttpv1 implements Action<InputStream> {
+public class DownloadActionHttpv1 implements AsyncAction<InputStream> {
+
+    private static InputStream verify(final Info info, final InputStream content) {
+        if ((info == null) || !info.getMd5().isPresent()) {
+            // only files have a checksum
+            return content;
+        }
+        return new ChecksumVerifyingInputStream(content, info.getMd5().get());
+    }
 
     private final ReadOnlyRepositoryInternal repository;
 
@@ -44,13 +62,102 @@ public class DownloadActionHttpv1 implements Action<InputStream> {
         this.revision = revision;
     }
 
+    private InputStream download(final QualifiedResource resolvedQualifiedResource) {
+        final Operation<InputStream> downloadOperation = new DownloadOperationHttpv1(repository, resolvedQualifiedResource);
+        return downloadOperation.execute();
+    }
+
+    private CompletableFuture<InputStream> downloadAsync(final HttpAsyncClient client, final QualifiedResource resolvedQualifiedResource) {
+        final Operation<InputStream> downloadOperation = new DownloadOperationHttpv1(repository, resolvedQualifiedResource);
+        return downloadOperation.executeAsync(client);
+    }
+
+    private InputStream downloadCached(final DownloadCache downloadCache, final QualifiedResource resolvedQualifiedResource) {
+        final UUID repositoryId = repository.getRepositoryId();
+        final InputStream cached = downloadCache.get(repositoryId, resource, revision);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Operation<Info> infoOperation = Downloads.createInfoOperation(repository, resolvedQualifiedResource);
+        final Info info = infoOperation.execute();
+        if (info == null) {
+            // let the download report the missing resource
+            return download(resolvedQualifiedResource);
+        }
+
+        final Optional<String> md5 = info.getMd5();
+        if (!md5.isPresent()) {
+            // only files can be cached
+            return download(resolvedQualifiedResource);
+        }
+
+        try {
+            final InputStream linked = downloadCache.link(repositoryId, resource, revision, md5.get());
+            if (linked != null) {
+                return linked;
+            }
+
+            try (final InputStream content = download(resolvedQualifiedResource)) {
+                return downloadCache.store(repositoryId, resource, revision, md5.get(), content);
+            }
+        } catch (final IOException e) {
+            throw new TransmissionException(e);
+        }
+    }
+
+    private InputStream downloadVerified(final QualifiedResource qualifiedResource) {
+        final QualifiedResource pinnedQualifiedResource = Downloads.pin(repository, view, qualifiedResource, revision);
+
+        final Operation<Info> infoOperation = Downloads.createInfoOperation(repository, pinnedQualifiedResource);
+        final Info info = infoOperation.execute();
+        final InputStream content = download(pinnedQualifiedResource);
+        return verify(info, content);
+    }
+
+    private CompletableFuture<InputStream> downloadVerifiedAsync(final HttpAsyncClient client, final QualifiedResource qualifiedResource) {
+        final QualifiedResource pinnedQualifiedResource = Downloads.pin(repository, view, qualifiedResource, revision);
+
+        final Operation<Info> infoOperation = Downloads.createInfoOperation(repository, pinnedQualifiedResource);
+        // the content is only requested once the checksum is known, a failed info must not leave an unclosed content behind
+        return infoOperation.executeAsync(client).thenCompose(info -> downloadAsync(client, pinnedQualifiedResource).thenApply(content -> verify(info, content)));
+    }
+
     @Override
     public InputStream perform() {
         final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+        final DownloadCache downloadCache = repository.getDownloadCache();
+        if ((downloadCache == null) || Revision.HEAD.equals(revision)) {
+            if (repository.getConfiguration().isChecksumVerificationEnabled()) {
+                return downloadVerified(qualifiedResource);
+            }
+
+            // HEAD is not pinned to the head revision of the view, its content may change at any time
+            final QualifiedResource resolvedQualifiedResource = repository.resolve(view, qualifiedResource, revision, false);
+            return download(resolvedQualifiedResource);
+        }
+
+        // the download cache verifies the checksum of all contents it stores
         final QualifiedResource resolvedQualifiedResource = repository.resolve(view, qualifiedResource, revision, false);
+        return downloadCached(downloadCache, resolvedQualifiedResource);
+    }
 
-        final Operation<InputStream> downloadOperation = new DownloadOperationHttpv1(repository, resolvedQualifiedResource);
-        return downloadOperation.execute();
+    @Override
+    public CompletableFuture<InputStream> performAsync(final HttpAsyncClient client, final Executor executor) {
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+        final DownloadCache downloadCache = repository.getDownloadCache();
+        if ((downloadCache == null) || Revision.HEAD.equals(revision)) {
+            if (repository.getConfiguration().isChecksumVerificationEnabled()) {
+                return downloadVerifiedAsync(client, qualifiedResource);
+            }
+
+            // HEAD is not pinned to the head revision of the view, its content may change at any time
+            final QualifiedResource resolvedQualifiedResource = repository.resolve(view, qualifiedResource, revision, false);
+            return downloadAsync(client, resolvedQualifiedResource);
+        }
+
+        // the download cache reads and writes files
+        return CompletableFuture.supplyAsync(this::perform, executor);
     }
 
 }
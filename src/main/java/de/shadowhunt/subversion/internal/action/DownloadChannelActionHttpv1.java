@@ -0,0 +1,61 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.nio.channels.WritableByteChannel;
+
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.ViewInternal;
+import de.shadowhunt.subversion.internal.operation.DownloadChannelOperationHttpv1;
+import de.shadowhunt.subversion.internal.operation.Operation;
+
+public class DownloadChannelActionHttpv1 implements Action<Void> {
+
+    private final ReadOnlyRepositoryInternal repository;
+
+    private final Resource resource;
+
+    private final Revision revision;
+
+    private final WritableByteChannel target;
+
+    private final ViewInternal view;
+
+    public DownloadChannelActionHttpv1(final ReadOnlyRepositoryInternal repository, final ViewInternal view, final Resource resource, final Revision revision, final WritableByteChannel target) {
+        this.repository = repository;
+        this.view = view;
+        this.resource = resource;
+        this.revision = revision;
+        this.target = target;
+    }
+
+    @Override
+    public Void perform() {
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+        final QualifiedResource pinnedQualifiedResource = Downloads.pin(repository, view, qualifiedResource, revision);
+        final String expected = Downloads.expectedMd5(repository, pinnedQualifiedResource, resource, revision);
+
+        final Operation<String> downloadOperation = new DownloadChannelOperationHttpv1(repository, pinnedQualifiedResource, target);
+        final String actual = downloadOperation.execute();
+        Downloads.verify(expected, actual, resource, revision);
+        return null;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.internal.ChecksumVerifyingInputStream;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.ResourcePropertyUtils;
+import de.shadowhunt.subversion.internal.ViewInternal;
+import de.shadowhunt.subversion.internal.operation.DownloadDeltaOperationHttpv1;
+import de.shadowhunt.subversion.internal.operation.Operation;
+import de.shadowhunt.subversion.internal.operation.SparseInfoOperationHttpv1;
+
+public class DownloadDeltaActionHttpv1 implements Action<InputStream> {
+
+    private final Revision base;
+
+    private final InputStream baseContent;
+
+    private final ReadOnlyRepositoryInternal repository;
+
+    private final Resource resource;
+
+    private final Revision target;
+
+    private final ViewInternal view;
+
+    public DownloadDeltaActionHttpv1(final ReadOnlyRepositoryInternal repository, final ViewInternal view, final Resource resource, final Revision base, final Revision target, final InputStream baseContent) {
+        this.repository = repository;
+        this.view = view;
+        this.resource = resource;
+        this.base = base;
+        this.target = target;
+        this.baseContent = baseContent;
+    }
+
+    private Optional<String> getExpectedMd5(final QualifiedResource resolvedTarget) {
+        if (!repository.getConfiguration().isChecksumVerificationEnabled()) {
+            return Optional.empty();
+        }
+        final Operation<Info> infoOperation = new SparseInfoOperationHttpv1(repository, resolvedTarget, ResourcePropertyUtils.MD5_HASH);
+        final Info info = infoOperation.execute();
+        if (info == null) {
+            // let the download report the missing resource
+            return Optional.empty();
+        }
+        return info.getMd5();
+    }
+
+    @Override
+    public InputStream perform() {
+        try {
+            final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+            // pinned, so the checksum and the content belong to the same revision
+            final Revision concreteTarget = view.getConcreteRevision(target);
+            final QualifiedResource resolvedTarget = repository.resolve(view, qualifiedResource, concreteTarget, false);
+
+            // the server expects the version resource of the base: !svn/ver/<revision>/<path in that revision>
+            final Revision concreteBase = view.getConcreteRevision(base);
+            final QualifiedResource resolvedBase = repository.resolve(view, qualifiedResource, concreteBase, true);
+            final String prefix = repository.getPrefix();
+            final Resource versionBase = Resource.create(prefix + Resource.SEPARATOR + "ver" + Resource.SEPARATOR + concreteBase);
+            final QualifiedResource deltaBase = new QualifiedResource(versionBase, resolvedBase.getSuffix());
+
+            final Optional<String> md5 = getExpectedMd5(resolvedTarget);
+            final Operation<InputStream> operation = new DownloadDeltaOperationHttpv1(repository, resolvedTarget, deltaBase, baseContent);
+            final InputStream content = operation.execute();
+            if (md5.isPresent()) {
+                return new ChecksumVerifyingInputStream(content, md5.get());
+            }
+            return content;
+        } catch (final RuntimeException e) {
+            try {
+                baseContent.close();
+            } catch (final IOException ioe) {
+                e.addSuppressed(ioe);
+            }
+            throw e;
+        }
+    }
+}
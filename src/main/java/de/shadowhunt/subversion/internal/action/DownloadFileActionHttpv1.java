@@ -0,0 +1,119 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.TransmissionException;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.ViewInternal;
+
+/**
+ * Downloads a file into a temporary file next to the target and renames it atomically to the target once the content has been verified, so the target either keeps its previous content or contains the complete new content. A new target gets the default permissions, a replaced target keeps its
+ * permissions.
+ */
+public class DownloadFileActionHttpv1 implements Action<Void> {
+
+    private static Path createTemporary(final Path target) throws IOException {
+        final Path directory = target.getParent();
+        final String prefix = "." + target.getFileName() + "-";
+        while (true) {
+            final Path temporary = directory.resolve(prefix + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                // unlike Files.createTempFile (owner only), the default permissions apply as if the target was written directly
+                return Files.createFile(temporary);
+            } catch (final FileAlreadyExistsException e) {
+                // try another name
+            }
+        }
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            // nothing we can do about it
+        }
+    }
+
+    private static void keepPermissions(final Path target, final Path temporary) throws IOException {
+        if (Files.exists(target) && Files.getFileStore(temporary).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            // the replaced target keeps its permissions
+            Files.setPosixFilePermissions(temporary, Files.getPosixFilePermissions(target));
+        }
+    }
+
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private final ReadOnlyRepositoryInternal repository;
+
+    private final Resource resource;
+
+    private final Revision revision;
+
+    private final Path target;
+
+    private final ViewInternal view;
+
+    public DownloadFileActionHttpv1(final ReadOnlyRepositoryInternal repository, final ViewInternal view, final Resource resource, final Revision revision, final Path target) {
+        this.repository = repository;
+        this.view = view;
+        this.resource = resource;
+        this.revision = revision;
+        this.target = target;
+    }
+
+    @Override
+    public Void perform() {
+        final Path absoluteTarget = target.toAbsolutePath();
+        Path temporary = null;
+        try {
+            temporary = createTemporary(absoluteTarget);
+            keepPermissions(absoluteTarget, temporary);
+            try (final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final Action<Void> action = new DownloadChannelActionHttpv1(repository, view, resource, revision, channel);
+                action.perform();
+            }
+            move(temporary, absoluteTarget);
+            return null;
+        } catch (final IOException e) {
+            throw new TransmissionException(e);
+        } finally {
+            if (temporary != null) {
+                deleteQuietly(temporary);
+            }
+        }
+    }
+}
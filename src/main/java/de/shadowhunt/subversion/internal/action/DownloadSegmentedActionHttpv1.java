@@ -0,0 +1,144 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.TransmissionException;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.ViewInternal;
+import de.shadowhunt.subversion.internal.operation.ContentLengthOperationHttpv1;
+import de.shadowhunt.subversion.internal.operation.DownloadRangeOperationHttpv1;
+import de.shadowhunt.subversion.internal.operation.Operation;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Downloads a file into a {@link FileChannel}: once the size of the file is known, it is split into segments (see {@link de.shadowhunt.subversion.RepositoryConfiguration#getDownloadSegmentSize()}) that are requested as byte ranges
+ * concurrently (see {@link de.shadowhunt.subversion.RepositoryConfiguration#getMaxRequestsInFlight()}). A failed segment is requested again on its own, the assembled file is verified against the MD5 checksum of the resource. The first segment is
+ * requested before all others: if the server ignores the range, the complete file is transferred by this single request.
+ */
+public class DownloadSegmentedActionHttpv1 implements Action<Void> {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final int VERIFY_BUFFER_SIZE = 64 * 1024;
+
+    private final ReadOnlyRepositoryInternal repository;
+
+    private final Resource resource;
+
+    private final Revision revision;
+
+    private final FileChannel target;
+
+    private final ViewInternal view;
+
+    public DownloadSegmentedActionHttpv1(final ReadOnlyRepositoryInternal repository, final ViewInternal view, final Resource resource, final Revision revision, final FileChannel target) {
+        this.repository = repository;
+        this.view = view;
+        this.resource = resource;
+        this.revision = revision;
+        this.target = target;
+    }
+
+    private String digest(final long size) throws IOException {
+        final MessageDigest digest = DigestUtils.getMd5Digest();
+        final ByteBuffer buffer = ByteBuffer.allocate(VERIFY_BUFFER_SIZE);
+        long position = 0L;
+        while (position < size) {
+            buffer.clear();
+            final int read = target.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            buffer.flip();
+            digest.update(buffer);
+            position += read;
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    @Override
+    public Void perform() {
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+        // size, checksum and all segments must belong to the same revision
+        final QualifiedResource resolvedQualifiedResource = Downloads.pin(repository, view, qualifiedResource, revision);
+        final String expected = Downloads.expectedMd5(repository, resolvedQualifiedResource, resource, revision);
+
+        final Operation<Long> lengthOperation = new ContentLengthOperationHttpv1(repository, resolvedQualifiedResource);
+        final long size = lengthOperation.execute();
+
+        // the first segment reveals whether the server supports ranges at all, if it does not, the complete file is transferred with it
+        final long segmentSize = repository.getConfiguration().getDownloadSegmentSize();
+        final long firstLength = (size < 0L) ? -1L : Math.min(segmentSize, size);
+        long total = (size == 0L) ? 0L : transfer(resolvedQualifiedResource, 0L, firstLength);
+
+        if (total < size) {
+            final List<Callable<Long>> tasks = new ArrayList<>();
+            for (long offset = total; offset < size; offset += segmentSize) {
+                final long segmentOffset = offset;
+                final long segmentLength = Math.min(segmentSize, size - offset);
+                tasks.add(() -> transfer(resolvedQualifiedResource, segmentOffset, segmentLength));
+            }
+            for (final Long transferred : ParallelTasks.invokeAll(repository, tasks, "download " + resource)) {
+                total += transferred;
+            }
+        }
+
+        try {
+            target.truncate(total);
+            final String actual = digest(total);
+            Downloads.verify(expected, actual, resource, revision);
+        } catch (final IOException e) {
+            throw new TransmissionException(e);
+        }
+        return null;
+    }
+
+    private long transfer(final QualifiedResource resolvedQualifiedResource, final long offset, final long length) {
+        TransmissionException failure = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            try {
+                final Operation<Long> rangeOperation = new DownloadRangeOperationHttpv1(repository, resolvedQualifiedResource, target, offset, length);
+                final long transferred = rangeOperation.execute();
+                // only the first segment can exceed its length, if the server ignores the range
+                if ((length >= 0L) && (transferred < length)) {
+                    throw new TransmissionException(new IOException("segment at " + offset + " is incomplete: expected " + length + " bytes but got " + transferred));
+                }
+                return transferred;
+            } catch (final TransmissionException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        throw failure;
+    }
+}
@@ -18,6 +18,8 @@
 package de.shadowhunt.subversion.internal.action;
 
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
@@ -25,8 +27,9 @@ import de.shadowhunt.subversion.SubversionException;
 import de.shadowhunt.subversion.internal.QualifiedResource;
 import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
 import de.shadowhunt.subversion.internal.ViewInternal;
+import org.apache.http.nio.client.HttpAsyncClient;
 
-public class DownloadUriActionHttpv1 implements Action<URI> {
+public class DownloadUriActionHttpv1 implements AsyncAction<URI> {
 
     private final ReadOnlyRepositoryInternal repository;
 
@@ -54,4 +57,17 @@ public class DownloadUriActionHttpv1 implements Action<URI> {
 
         return repository.getRequestUri(resolvedQualifiedResource);
     }
+
+    @Override
+    public CompletableFuture<URI> performAsync(final HttpAsyncClient client, final Executor executor) {
+        final AsyncAction<Boolean> existsAction = new ExistsActionHttpv1(repository, view, resource, revision);
+        return existsAction.performAsync(client, executor).thenCompose(exists -> {
+            if (!exists) {
+                throw new SubversionException("Can't resolve: " + resource + '@' + revision);
+            }
+            final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+            final AsyncAction<QualifiedResource> resolveAction = new ResolveActionHttpv1(repository, view, qualifiedResource, revision, true);
+            return resolveAction.performAsync(client, executor);
+        }).thenApply(repository::getRequestUri);
+    }
 }
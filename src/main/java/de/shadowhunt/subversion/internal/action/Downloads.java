@@ -0,0 +1,74 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.util.Optional;
+
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.ResourcePropertyUtils;
+import de.shadowhunt.subversion.internal.ViewInternal;
+import de.shadowhunt.subversion.internal.operation.Operation;
+import de.shadowhunt.subversion.internal.operation.SparseInfoOperationHttpv1;
+import org.apache.http.HttpStatus;
+
+/**
+ * Verifies downloaded file contents against the MD5 checksum of the resource, the checksum and the content are requested from the same (pinned) revision.
+ */
+final class Downloads {
+
+    static Operation<Info> createInfoOperation(final ReadOnlyRepositoryInternal repository, final QualifiedResource resolvedQualifiedResource) {
+        return new SparseInfoOperationHttpv1(repository, resolvedQualifiedResource, ResourcePropertyUtils.MD5_HASH, ResourcePropertyUtils.RESOURCE_TYPE);
+    }
+
+    static String expectedMd5(final ReadOnlyRepositoryInternal repository, final QualifiedResource resolvedQualifiedResource, final Resource resource, final Revision revision) {
+        final Operation<Info> infoOperation = createInfoOperation(repository, resolvedQualifiedResource);
+        final Info info = infoOperation.execute();
+        if (info == null) {
+            throw new SubversionException("Requested resource could not be found: " + resource + '@' + revision, HttpStatus.SC_NOT_FOUND);
+        }
+        final Optional<String> md5 = info.getMd5();
+        if (!md5.isPresent()) {
+            throw new SubversionException("Only files can be downloaded: " + resource + '@' + revision);
+        }
+        return md5.get();
+    }
+
+    static QualifiedResource pin(final ReadOnlyRepositoryInternal repository, final ViewInternal view, final QualifiedResource qualifiedResource, final Revision revision) {
+        if (Revision.HEAD.equals(revision)) {
+            // checksum and content must belong to the same revision
+            final Revision headRevision = view.getHeadRevision();
+            return repository.getQualifiedVersionedResource(qualifiedResource, headRevision);
+        }
+        return repository.resolve(view, qualifiedResource, revision, false);
+    }
+
+    static void verify(final String expected, final String actual, final Resource resource, final Revision revision) {
+        if (!expected.equals(actual)) {
+            throw new SubversionException("Checksum mismatch for " + resource + '@' + revision + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private Downloads() {
+        // prevent instantiation
+    }
+}
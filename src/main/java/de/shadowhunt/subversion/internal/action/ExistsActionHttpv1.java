@@ -17,6 +17,9 @@
  */
 package de.shadowhunt.subversion.internal.action;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.internal.QualifiedResource;
@@ -24,8 +27,9 @@ import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
 import de.shadowhunt.subversion.internal.ViewInternal;
 import de.shadowhunt.subversion.internal.operation.ExistsOperationHttpv1;
 import de.shadowhunt.subversion.internal.operation.Operation;
+import org.apache.http.nio.client.HttpAsyncClient;
 
-public class ExistsActionHttpv1 implements Action<Boolean> {
+public class ExistsActionHttpv1 implements AsyncAction<Boolean> {
 
     private final ReadOnlyRepositoryInternal repository;
 
@@ -42,11 +46,15 @@ public class ExistsActionHttpv1 implements Action<Boolean> {
         this.revision = revision;
     }
 
-    @Override
-    public Boolean perform() {
+    private boolean isTooNew() {
         final Revision concreteRevision = view.getConcreteRevision(revision);
         final Revision headRvision = view.getHeadRevision();
-        if (concreteRevision.compareTo(headRvision) > 0) {
+        return (concreteRevision.compareTo(headRvision) > 0);
+    }
+
+    @Override
+    public Boolean perform() {
+        if (isTooNew()) {
             // requested version is to new for this view
             return false;
         }
@@ -58,4 +66,18 @@ public class ExistsActionHttpv1 implements Action<Boolean> {
         return existsOperation.execute();
     }
 
+    @Override
+    public CompletableFuture<Boolean> performAsync(final HttpAsyncClient client, final Executor executor) {
+        if (isTooNew()) {
+            // requested version is to new for this view
+            return CompletableFuture.completedFuture(false);
+        }
+
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+        final QualifiedResource resolvedQualifiedResource = repository.resolve(view, qualifiedResource, revision, false);
+
+        final Operation<Boolean> existsOperation = new ExistsOperationHttpv1(repository, resolvedQualifiedResource);
+        return existsOperation.executeAsync(client);
+    }
+
 }
@@ -0,0 +1,62 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.ResourcePropertyUtils;
+import de.shadowhunt.subversion.internal.ViewInternal;
+
+public class ExistsAllActionHttpv1 implements Action<Map<Resource, Boolean>> {
+
+    private final ReadOnlyRepositoryInternal repository;
+
+    private final Collection<Resource> resources;
+
+    private final Revision revision;
+
+    private final ViewInternal view;
+
+    public ExistsAllActionHttpv1(final ReadOnlyRepositoryInternal repository, final ViewInternal view, final Collection<Resource> resources, final Revision revision) {
+        this.repository = repository;
+        this.view = view;
+        this.resources = resources;
+        this.revision = revision;
+    }
+
+    @Override
+    public Map<Resource, Boolean> perform() {
+        final Action<Map<Resource, Optional<Info>>> infoAllAction = new InfoAllActionHttpv1(repository, view, resources, revision, ResourcePropertyUtils.RESOURCE, ResourcePropertyUtils.RESOURCE_TYPE);
+
+        final Map<Resource, Boolean> result = new TreeMap<>();
+        for (final Entry<Resource, Optional<Info>> entry : infoAllAction.perform().entrySet()) {
+            final Optional<Info> info = entry.getValue();
+            result.put(entry.getKey(), info.isPresent());
+        }
+        return result;
+    }
+
+}
@@ -17,6 +17,9 @@
  */
 package de.shadowhunt.subversion.internal.action;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import de.shadowhunt.subversion.Info;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
@@ -25,8 +28,9 @@ import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
 import de.shadowhunt.subversion.internal.ViewInternal;
 import de.shadowhunt.subversion.internal.operation.InfoOperationHttpv1;
 import de.shadowhunt.subversion.internal.operation.Operation;
+import org.apache.http.nio.client.HttpAsyncClient;
 
-public class InfoActionHttpv1 implements Action<Info> {
+public class InfoActionHttpv1 implements AsyncAction<Info> {
 
     private final ReadOnlyRepositoryInternal repository;
 
@@ -52,4 +56,15 @@ public class InfoActionHttpv1 implements Action<Info> {
         return infoOperation.execute();
     }
 
+    @Override
+    public CompletableFuture<Info> performAsync(final HttpAsyncClient client, final Executor executor) {
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+        final AsyncAction<QualifiedResource> resolveAction = new ResolveActionHttpv1(repository, view, qualifiedResource, revision, true);
+
+        return resolveAction.performAsync(client, executor).thenCompose(resolvedQualifiedResource -> {
+            final Operation<Info> infoOperation = new InfoOperationHttpv1(repository, resolvedQualifiedResource);
+            return infoOperation.executeAsync(client);
+        });
+    }
+
 }
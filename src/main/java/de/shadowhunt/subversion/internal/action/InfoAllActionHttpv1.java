@@ -0,0 +1,141 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.ResourceProperty.Key;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.ViewInternal;
+import de.shadowhunt.subversion.internal.operation.InfoOperationHttpv1;
+import de.shadowhunt.subversion.internal.operation.Operation;
+import de.shadowhunt.subversion.internal.operation.SparseListOperationHttpv1;
+
+/**
+ * Retrieves {@link Info} for many resources at once: resources are grouped by their parent directory and each group is answered by a single PROPFIND request (depth 1 on the parent, or depth 0 if the group contains only one resource). Resources are looked up by their path in the
+ * requested revision, their history is not traced.
+ */
+public class InfoAllActionHttpv1 implements Action<Map<Resource, Optional<Info>>> {
+
+    private final Key[] keys;
+
+    private final ReadOnlyRepositoryInternal repository;
+
+    private final Collection<Resource> resources;
+
+    private final Revision revision;
+
+    private final ViewInternal view;
+
+    public InfoAllActionHttpv1(final ReadOnlyRepositoryInternal repository, final ViewInternal view, final Collection<Resource> resources, final Revision revision, final Key... keys) {
+        this.repository = repository;
+        this.view = view;
+        this.resources = resources;
+        this.revision = revision;
+        this.keys = Arrays.copyOf(keys, keys.length);
+    }
+
+    private List<Info> fetch(final Resource parent, final Set<Resource> members, final Revision concreteRevision) {
+        final Resource target;
+        final Depth depth;
+        if (members.size() == 1) {
+            target = members.iterator().next();
+            depth = Depth.EMPTY;
+        } else {
+            target = parent;
+            depth = Depth.IMMEDIATES;
+        }
+
+        final QualifiedResource versionedResource = resolve(target, concreteRevision);
+        final Operation<NavigableSet<Info>> listOperation = new SparseListOperationHttpv1(repository, versionedResource, depth, keys);
+
+        final List<Info> infos = new ArrayList<>();
+        for (final Info info : listOperation.execute()) {
+            final Resource resource = info.getResource();
+            if (!members.contains(resource)) {
+                continue;
+            }
+
+            if ((keys.length == 0) && info.isLocked()) {
+                // the lock owner is only reported for the requested resource itself
+                final Operation<Info> infoOperation = new InfoOperationHttpv1(repository, resolve(resource, concreteRevision));
+                infos.add(infoOperation.execute());
+            } else {
+                infos.add(info);
+            }
+        }
+        return infos;
+    }
+
+    @Override
+    public Map<Resource, Optional<Info>> perform() {
+        final Map<Resource, Optional<Info>> result = new TreeMap<>();
+        for (final Resource resource : resources) {
+            result.put(resource, Optional.empty());
+        }
+
+        final Revision concreteRevision = view.getConcreteRevision(revision);
+        final Revision headRevision = view.getHeadRevision();
+        if (result.isEmpty() || (concreteRevision.compareTo(headRevision) > 0)) {
+            // nothing requested or requested version is to new for this view
+            return result;
+        }
+
+        final Map<Resource, Set<Resource>> groups = new TreeMap<>();
+        for (final Resource resource : result.keySet()) {
+            final Resource parent = resource.getParent();
+            groups.computeIfAbsent(parent, x -> new HashSet<>()).add(resource);
+        }
+
+        final List<Callable<List<Info>>> tasks = new ArrayList<>(groups.size());
+        for (final Entry<Resource, Set<Resource>> group : groups.entrySet()) {
+            final Resource parent = group.getKey();
+            final Set<Resource> members = group.getValue();
+            tasks.add(() -> fetch(parent, members, concreteRevision));
+        }
+
+        for (final List<Info> infos : ParallelTasks.invokeAll(repository, tasks, "retrieve info for " + result.size() + " resources")) {
+            for (final Info info : infos) {
+                final Resource resource = info.getResource();
+                result.put(resource, Optional.of(info));
+            }
+        }
+        return result;
+    }
+
+    private QualifiedResource resolve(final Resource resource, final Revision concreteRevision) {
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+        return repository.getQualifiedVersionedResource(qualifiedResource, concreteRevision);
+    }
+}
@@ -17,20 +17,36 @@
  */
 package de.shadowhunt.subversion.internal.action;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.NavigableSet;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
 
 import de.shadowhunt.subversion.Depth;
 import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.RepositoryConfiguration;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.internal.QualifiedResource;
 import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
 import de.shadowhunt.subversion.internal.ViewInternal;
 import de.shadowhunt.subversion.internal.operation.ListOperationHttpv1;
+import de.shadowhunt.subversion.internal.operation.ListReportOperationHttpv1;
 import de.shadowhunt.subversion.internal.operation.Operation;
+import org.apache.http.nio.client.HttpAsyncClient;
 
-public class ListActionHttpv1 implements Action<NavigableSet<Info>> {
+public class ListActionHttpv1 implements AsyncAction<NavigableSet<Info>> {
 
     private final Depth depth;
 
@@ -57,31 +73,140 @@ public class ListActionHttpv1 implements Action<NavigableSet<Info>> {
         return listOperation.execute();
     }
 
-    private NavigableSet<Info> listRecursively(final QualifiedResource qualifiedResource, final NavigableSet<Info> result) {
-        for (final Info info : list(qualifiedResource, Depth.IMMEDIATES)) {
+    /**
+     * list the directory and add all found resources to the result
+     *
+     * @return all sub-directories of the listed directory that have not been seen before
+     */
+    private List<Resource> listDirectory(final QualifiedResource versionedResource, final Resource directory, final NavigableSet<Info> result) {
+        final Operation<NavigableSet<Info>> listOperation = new ListOperationHttpv1(repository, versionedResource, Depth.IMMEDIATES);
+
+        final List<Resource> directories = new ArrayList<>();
+        for (final Info info : listOperation.execute()) {
             if (!result.add(info)) {
                 continue;
             }
 
-            final Resource suffix = qualifiedResource.getSuffix();
             final Resource infoResource = info.getResource();
-            if (info.isDirectory() && !suffix.equals(infoResource)) {
-                final QualifiedResource qualifiedResourceNext = repository.getQualifiedResource(infoResource);
-                listRecursively(qualifiedResourceNext, result);
+            if (info.isDirectory() && !directory.equals(infoResource)) {
+                directories.add(infoResource);
+            }
+        }
+        return directories;
+    }
+
+    private void listParallel(final QualifiedResource resolvedQualifiedResource, final Revision concreteRevision, final NavigableSet<Info> result, final int maxRequestsInFlight) {
+        final CompletionService<List<Resource>> completionService = new ExecutorCompletionService<>(repository.getExecutor());
+        final Set<Future<List<Resource>>> running = new HashSet<>();
+        final Deque<Resource> pending = new ArrayDeque<>();
+
+        running.add(completionService.submit(() -> listDirectory(resolvedQualifiedResource, resource, result)));
+        try {
+            while (!running.isEmpty()) {
+                final Future<List<Resource>> future = completionService.take();
+                running.remove(future);
+                pending.addAll(future.get());
+
+                while (!pending.isEmpty() && (running.size() < maxRequestsInFlight)) {
+                    final Resource directory = pending.poll();
+                    final QualifiedResource versionedResource = resolveDirectory(directory, concreteRevision);
+                    running.add(completionService.submit(() -> listDirectory(versionedResource, directory, result)));
+                }
+            }
+        } catch (final InterruptedException e) {
+            throw ParallelTasks.interrupted(e, "list " + resource);
+        } catch (final ExecutionException e) {
+            throw ParallelTasks.unwrap(e, "list " + resource);
+        } finally {
+            for (final Future<List<Resource>> future : running) {
+                future.cancel(true);
             }
         }
+    }
+
+    private NavigableSet<Info> listRecursively(final QualifiedResource qualifiedResource) {
+        // only the start directory needs to be resolved, all sub-directories are located relative to it
+        final QualifiedResource resolvedQualifiedResource = repository.resolve(view, qualifiedResource, revision, true);
+        final Revision concreteRevision = view.getConcreteRevision(revision);
+
+        final int maxRequestsInFlight = repository.getConfiguration().getMaxRequestsInFlight();
+        if (maxRequestsInFlight > 1) {
+            final NavigableSet<Info> result = new ConcurrentSkipListSet<>(Info.RESOURCE_COMPARATOR);
+            listParallel(resolvedQualifiedResource, concreteRevision, result, maxRequestsInFlight);
+            return result;
+        }
+
+        final NavigableSet<Info> result = new TreeSet<>(Info.RESOURCE_COMPARATOR);
+        final Deque<Resource> pending = new ArrayDeque<>(listDirectory(resolvedQualifiedResource, resource, result));
+        while (!pending.isEmpty()) {
+            final Resource directory = pending.poll();
+            final QualifiedResource versionedResource = resolveDirectory(directory, concreteRevision);
+            pending.addAll(listDirectory(versionedResource, directory, result));
+        }
         return result;
     }
 
+    private NavigableSet<Info> listReport(final QualifiedResource qualifiedResource) {
+        final QualifiedResource resolvedQualifiedResource = repository.resolve(view, qualifiedResource, revision, true);
+        final Revision concreteRevision = view.getConcreteRevision(revision);
+
+        final Operation<NavigableSet<Info>> listOperation = new ListReportOperationHttpv1(repository, resolvedQualifiedResource, concreteRevision, depth);
+        return listOperation.execute();
+    }
+
     @Override
     public NavigableSet<Info> perform() {
         final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
 
+        if (useListReport()) {
+            return listReport(qualifiedResource);
+        }
+
         if (Depth.INFINITY == depth) {
-            final NavigableSet<Info> result = new TreeSet<>(Info.RESOURCE_COMPARATOR);
-            return listRecursively(qualifiedResource, result);
+            return listRecursively(qualifiedResource);
         }
 
         return list(qualifiedResource, depth);
     }
+
+    @Override
+    public CompletableFuture<NavigableSet<Info>> performAsync(final HttpAsyncClient client, final Executor executor) {
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+
+        if (useListReport()) {
+            final Revision concreteRevision = view.getConcreteRevision(revision);
+            return resolveAsync(client, executor, qualifiedResource).thenCompose(resolvedQualifiedResource -> {
+                final Operation<NavigableSet<Info>> listOperation = new ListReportOperationHttpv1(repository, resolvedQualifiedResource, concreteRevision, depth);
+                return listOperation.executeAsync(client);
+            });
+        }
+
+        if (Depth.INFINITY == depth) {
+            // every sub-directory is listed on its own, the traversal waits for each listing
+            return CompletableFuture.supplyAsync(this::perform, executor);
+        }
+
+        return resolveAsync(client, executor, qualifiedResource).thenCompose(resolvedQualifiedResource -> {
+            final Operation<NavigableSet<Info>> listOperation = new ListOperationHttpv1(repository, resolvedQualifiedResource, depth);
+            return listOperation.executeAsync(client);
+        });
+    }
+
+    private CompletableFuture<QualifiedResource> resolveAsync(final HttpAsyncClient client, final Executor executor, final QualifiedResource qualifiedResource) {
+        final AsyncAction<QualifiedResource> resolveAction = new ResolveActionHttpv1(repository, view, qualifiedResource, revision, true);
+        return resolveAction.performAsync(client, executor);
+    }
+
+    private QualifiedResource resolveDirectory(final Resource directory, final Revision concreteRevision) {
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(directory);
+        return repository.getQualifiedVersionedResource(qualifiedResource, concreteRevision);
+    }
+
+    private boolean useListReport() {
+        if ((Depth.INFINITY != depth) && (Depth.FILES != depth)) {
+            return false;
+        }
+        final RepositoryConfiguration configuration = repository.getConfiguration();
+        return configuration.isListReportEnabled() && repository.isListReportSupported();
+    }
 }
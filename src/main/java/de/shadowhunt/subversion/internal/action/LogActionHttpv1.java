@@ -17,7 +17,9 @@
  */
 package de.shadowhunt.subversion.internal.action;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 import de.shadowhunt.subversion.LogEntry;
 import de.shadowhunt.subversion.Resource;
@@ -27,12 +29,30 @@ import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
 import de.shadowhunt.subversion.internal.ViewInternal;
 import de.shadowhunt.subversion.internal.operation.LogOperationHttpv1;
 import de.shadowhunt.subversion.internal.operation.Operation;
+import org.apache.http.nio.client.HttpAsyncClient;
 
-public class LogActionHttpv1 implements Action<List<LogEntry>> {
+public class LogActionHttpv1 implements AsyncAction<Void> {
+
+    /**
+     * Restrictions of the retrieved log entries: the maximal number of entries and whether the history of copied resources is followed.
+     */
+    public static final class Options {
+
+        private final int limit;
+
+        private final boolean stopOnCopy;
+
+        public Options(final int limit, final boolean stopOnCopy) {
+            this.limit = limit;
+            this.stopOnCopy = stopOnCopy;
+        }
+    }
 
     private final Revision endRevision;
 
-    private final int limit;
+    private final Predicate<? super LogEntry> handler;
+
+    private final Options options;
 
     private final ReadOnlyRepositoryInternal repository;
 
@@ -40,22 +60,19 @@ public class LogActionHttpv1 implements Action<List<LogEntry>> {
 
     private final Revision startRevision;
 
-    private final boolean stopOnCopy;
-
     private final ViewInternal view;
 
-    public LogActionHttpv1(final ReadOnlyRepositoryInternal repository, final ViewInternal view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy) {
+    public LogActionHttpv1(final ReadOnlyRepositoryInternal repository, final ViewInternal view, final Resource resource, final Revision startRevision, final Revision endRevision, final Options options, final Predicate<? super LogEntry> handler) {
         this.repository = repository;
         this.view = view;
         this.resource = resource;
         this.startRevision = startRevision;
         this.endRevision = endRevision;
-        this.limit = limit;
-        this.stopOnCopy = stopOnCopy;
+        this.options = options;
+        this.handler = handler;
     }
 
-    @Override
-    public List<LogEntry> perform() {
+    private Operation<Void> createOperation() {
         final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
 
         final Revision concreteStartRevision = view.getConcreteRevision(startRevision);
@@ -70,8 +87,22 @@ public class LogActionHttpv1 implements Action<List<LogEntry>> {
 
         final QualifiedResource resolvedQualifiedResource = repository.resolve(view, qualifiedResource, resolvedRevision, false);
 
-        final Operation<List<LogEntry>> logOperation = new LogOperationHttpv1(repository, resolvedQualifiedResource, concreteStartRevision, concreteEndRevision, limit, stopOnCopy);
+        return new LogOperationHttpv1(repository, resolvedQualifiedResource, concreteStartRevision, concreteEndRevision, options.limit, options.stopOnCopy, handler);
+    }
+
+    @Override
+    public Void perform() {
+        final Operation<Void> logOperation = createOperation();
         return logOperation.execute();
     }
 
+    /**
+     * The handler is invoked on an I/O thread of the {@link HttpAsyncClient}, once the complete response has been received.
+     */
+    @Override
+    public CompletableFuture<Void> performAsync(final HttpAsyncClient client, final Executor executor) {
+        final Operation<Void> logOperation = createOperation();
+        return logOperation.executeAsync(client);
+    }
+
 }
@@ -17,6 +17,9 @@
  */
 package de.shadowhunt.subversion.internal.action;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 import javax.annotation.CheckForNull;
 
 import de.shadowhunt.subversion.Info;
@@ -62,21 +65,32 @@ public class MkdirActionHttpv1 implements Action<Void> {
     }
 
     private void createFolder(final Resource resource) {
-        final Info sparseInfo = getSparseInfo(resource);
-        if (sparseInfo == null) {
-            if (createMissingParents) {
-                final Resource parent = resource.getParent();
-                createFolder(parent);
+        // climb towards the root until a folder is found that is already part of the transaction or exists in the repository
+        final Deque<Resource> missing = new ArrayDeque<>();
+        Resource current = resource;
+        while (!transaction.isKnownFolder(current)) {
+            final Info sparseInfo = getSparseInfo(current);
+            if (sparseInfo != null) {
+                if (sparseInfo.isFile()) {
+                    throw new SubversionException("Can not create folder. File with same name already exists: " + current);
+                }
+                checkoutExisiting(current);
+                transaction.registerFolder(current);
+                markAsPartOfTransaction(current);
+                break;
             }
-            createSingleFolder(resource);
-            return;
+
+            missing.push(current);
+            if (!createMissingParents) {
+                break;
+            }
+            current = current.getParent();
         }
 
-        if (sparseInfo.isFile()) {
-            throw new SubversionException("Can not create folder. File with same name already exists: " + resource);
+        // create the missing chain top-down
+        while (!missing.isEmpty()) {
+            createSingleFolder(missing.pop());
         }
-        checkoutExisiting(resource);
-        markAsPartOfTransaction(resource);
     }
 
     private void createSingleFolder(final Resource resource) {
@@ -85,6 +99,7 @@ public class MkdirActionHttpv1 implements Action<Void> {
         final Operation<Boolean> mkdirOperation = new MkdirOperationHttpv1(repository, qualifiedWorkingResource);
         mkdirOperation.execute();
         transaction.register(resource, Status.ADDED);
+        transaction.registerFolder(resource);
     }
 
     @CheckForNull
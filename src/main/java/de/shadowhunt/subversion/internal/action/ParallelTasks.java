@@ -0,0 +1,107 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+
+/**
+ * Executes independent tasks on the worker pool of a repository without exceeding the configured number of requests in flight.
+ */
+final class ParallelTasks {
+
+    static <T> List<T> invokeAll(final ReadOnlyRepositoryInternal repository, final List<? extends Callable<T>> tasks, final String description) {
+        final int size = tasks.size();
+        final int maxRequestsInFlight = repository.getConfiguration().getMaxRequestsInFlight();
+        if ((maxRequestsInFlight <= 1) || (size <= 1)) {
+            return invokeSequentially(tasks, description);
+        }
+
+        final CompletionService<T> completionService = new ExecutorCompletionService<>(repository.getExecutor());
+        final Map<Future<T>, Integer> running = new HashMap<>();
+        final List<T> results = new ArrayList<>(Collections.nCopies(size, null));
+        int next = 0;
+        try {
+            while ((next < size) || !running.isEmpty()) {
+                while ((next < size) && (running.size() < maxRequestsInFlight)) {
+                    final Future<T> future = completionService.submit(tasks.get(next));
+                    running.put(future, next);
+                    next++;
+                }
+
+                final Future<T> future = completionService.take();
+                final int index = running.remove(future);
+                results.set(index, future.get());
+            }
+            return results;
+        } catch (final InterruptedException e) {
+            throw interrupted(e, description);
+        } catch (final ExecutionException e) {
+            throw unwrap(e, description);
+        } finally {
+            for (final Future<T> future : running.keySet()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static <T> List<T> invokeSequentially(final List<? extends Callable<T>> tasks, final String description) {
+        final List<T> results = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            try {
+                results.add(task.call());
+            } catch (final RuntimeException e) {
+                throw e;
+            } catch (final Exception e) {
+                throw new SubversionException("could not " + description, e);
+            }
+        }
+        return results;
+    }
+
+    static SubversionException interrupted(final InterruptedException e, final String description) {
+        Thread.currentThread().interrupt();
+        return new SubversionException("interrupted while trying to " + description, e);
+    }
+
+    static RuntimeException unwrap(final ExecutionException e, final String description) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new SubversionException("could not " + description, cause);
+    }
+
+    private ParallelTasks() {
+        // prevent instantiation
+    }
+}
@@ -86,6 +86,7 @@ public class PropertiesUpdateActionHttpv1 implements Action<Void> {
         operation.execute();
 
         transaction.register(resource, Status.MODIFIED);
+        transaction.registerLockToken(resource, lockToken);
         return null;
     }
 
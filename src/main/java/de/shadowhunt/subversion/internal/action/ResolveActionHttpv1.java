@@ -17,15 +17,21 @@
  */
 package de.shadowhunt.subversion.internal.action;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.SubversionException;
 import de.shadowhunt.subversion.internal.QualifiedResource;
 import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.ResolveCache;
 import de.shadowhunt.subversion.internal.ViewInternal;
 import de.shadowhunt.subversion.internal.operation.Operation;
 import de.shadowhunt.subversion.internal.operation.ResolveOperationHttpv1;
+import org.apache.http.nio.client.HttpAsyncClient;
 
-public class ResolveActionHttpv1 implements Action<QualifiedResource> {
+public class ResolveActionHttpv1 implements AsyncAction<QualifiedResource> {
 
     private final QualifiedResource qualifiedResource;
 
@@ -45,13 +51,19 @@ public class ResolveActionHttpv1 implements Action<QualifiedResource> {
         this.resolve = resolve;
     }
 
-    @Override
-    public QualifiedResource perform() {
+    private void checkRevision() {
         final Revision concreteRevision = view.getConcreteRevision(revision);
         final Revision headRevision = view.getHeadRevision();
         if (concreteRevision.compareTo(headRevision) > 0) {
             throw new SubversionException("requested version is to new for this view/transaction");
         }
+    }
+
+    @Override
+    public QualifiedResource perform() {
+        checkRevision();
+
+        final Revision headRevision = view.getHeadRevision();
 
         if (Revision.HEAD.equals(revision)) {
             if (resolve) {
@@ -60,11 +72,32 @@ public class ResolveActionHttpv1 implements Action<QualifiedResource> {
             return qualifiedResource;
         }
 
-        final QualifiedResource versionedResource = repository.getQualifiedVersionedResource(qualifiedResource, revision);
         if (resolve) {
-            final Operation<QualifiedResource> resolveOperation = new ResolveOperationHttpv1(repository, qualifiedResource, headRevision, revision);
-            return resolveOperation.execute();
+            final ResolveCache resolveCache = repository.getResolveCache();
+            final UUID repositoryId = repository.getRepositoryId();
+            return resolveCache.resolve(repositoryId, qualifiedResource, headRevision, revision, () -> {
+                final Operation<QualifiedResource> resolveOperation = new ResolveOperationHttpv1(repository, qualifiedResource, headRevision, revision);
+                return resolveOperation.execute();
+            });
+        }
+        return repository.getQualifiedVersionedResource(qualifiedResource, revision);
+    }
+
+    @Override
+    public CompletableFuture<QualifiedResource> performAsync(final HttpAsyncClient client, final Executor executor) {
+        if (!resolve || Revision.HEAD.equals(revision)) {
+            // no request has to be sent
+            return CompletableFuture.completedFuture(perform());
         }
-        return versionedResource;
+
+        checkRevision();
+
+        final Revision headRevision = view.getHeadRevision();
+        final ResolveCache resolveCache = repository.getResolveCache();
+        final UUID repositoryId = repository.getRepositoryId();
+        return resolveCache.resolveAsync(repositoryId, qualifiedResource, headRevision, revision, () -> {
+            final Operation<QualifiedResource> resolveOperation = new ResolveOperationHttpv1(repository, qualifiedResource, headRevision, revision);
+            return resolveOperation.executeAsync(client);
+        });
     }
 }
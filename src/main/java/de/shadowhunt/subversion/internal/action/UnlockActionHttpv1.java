@@ -47,7 +47,7 @@ public class UnlockActionHttpv1 implements Action<Void> {
     public Void perform() {
         final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
 
-        final View view = repository.createView();
+        final View view = repository.createView(true);
         final Revision headRevision = view.getHeadRevision();
         final Info info = repository.info(view, resource, headRevision);
         final Optional<LockToken> lockToken = info.getLockToken();
@@ -0,0 +1,173 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+
+import de.shadowhunt.subversion.LockToken;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction.Status;
+import de.shadowhunt.subversion.TransmissionException;
+import de.shadowhunt.subversion.internal.AbstractUploadContent;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.RepositoryInternal;
+import de.shadowhunt.subversion.internal.TransactionInternal;
+import de.shadowhunt.subversion.internal.operation.Operation;
+import de.shadowhunt.subversion.internal.operation.UploadDeltaOperationHttpv1;
+import de.shadowhunt.subversion.internal.operation.UploadOperationHttpv1;
+import de.shadowhunt.subversion.internal.svndiff.SvndiffEncoder;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
+
+/**
+ * Uploads the content of a file into a transaction. Modified files are sent as svndiff delta against their content in the base revision of the transaction, if enabled (see {@link RepositoryConfiguration#isDeltaUploadEnabled()}). The checksum
+ * of the content is sent along, if enabled (see {@link RepositoryConfiguration#isChecksumVerificationEnabled()}).
+ */
+final class Uploads {
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            // temporary file, removed by the operating system eventually
+        }
+    }
+
+    private static boolean isBasedOnHeadRevision(final TransactionInternal transaction, final Resource resource) {
+        // neither the resource nor one of its parents may have been replaced within the transaction, otherwise the content of the base revision is not the base of the delta
+        final Map<Resource, Status> changeSet = transaction.getChangeSet();
+        if (changeSet.containsKey(resource)) {
+            return false;
+        }
+
+        Resource current = resource;
+        do {
+            current = current.getParent();
+            final Status status = changeSet.get(current);
+            if ((status != null) && (Status.EXISTS != status)) {
+                return false;
+            }
+        } while (!Resource.ROOT.equals(current));
+        return true;
+    }
+
+    private static String md5(final AbstractUploadContent content) throws IOException {
+        try (final InputStream input = content.open()) {
+            return DigestUtils.md5Hex(input);
+        }
+    }
+
+    static void upload(final RepositoryInternal repository, final TransactionInternal transaction, final Resource resource, final Status status, final Optional<LockToken> lockToken, final AbstractUploadContent content) {
+        final QualifiedResource qualifiedResource = repository.getQualifiedResource(resource);
+        final QualifiedResource qualifiedWorkingResource = transaction.getQualifiedWorkingResource(qualifiedResource);
+
+        final RepositoryConfiguration configuration = repository.getConfiguration();
+        AbstractUploadContent repeatable = content;
+        try {
+            try {
+                if ((Status.MODIFIED == status) && configuration.isDeltaUploadEnabled() && isBasedOnHeadRevision(transaction, resource)) {
+                    uploadDelta(repository, transaction, resource, qualifiedWorkingResource, lockToken, content);
+                    return;
+                }
+
+                final boolean verify = configuration.isChecksumVerificationEnabled();
+                final Optional<String> resultMd5;
+                if (!content.isRepeatable() && (verify || configuration.isUploadSpoolingEnabled())) {
+                    // the checksum header precedes the content: a stream is digested while it is spooled, before the request is sent
+                    final MessageDigest digest = DigestUtils.getMd5Digest();
+                    repeatable = AbstractUploadContent.spool(content, digest);
+                    resultMd5 = verify ? Optional.of(Hex.encodeHexString(digest.digest())) : Optional.empty();
+                } else {
+                    resultMd5 = verify ? Optional.of(md5(content)) : Optional.empty();
+                }
+                final Operation<Void> uploadOperation = new UploadOperationHttpv1(repository, qualifiedWorkingResource, lockToken, resultMd5, repeatable);
+                uploadOperation.execute();
+            } finally {
+                content.close();
+                if (repeatable != content) {
+                    // removes the spooled copy
+                    repeatable.close();
+                }
+            }
+        } catch (final IOException e) {
+            throw new TransmissionException(e);
+        }
+    }
+
+    private static void uploadDelta(final RepositoryInternal repository, final TransactionInternal transaction, final Resource resource, final QualifiedResource qualifiedWorkingResource, final Optional<LockToken> lockToken, final AbstractUploadContent content)
+            throws IOException {
+        final Path fullText = Files.createTempFile("svn-fulltext-", ".tmp");
+        final Path delta = Files.createTempFile("svn-delta-", ".tmp");
+        try {
+            final MessageDigest baseDigest = DigestUtils.getMd5Digest();
+            final MessageDigest resultDigest = DigestUtils.getMd5Digest();
+            final long deltaSize;
+
+            // the new content is spooled while the delta is computed, so it is still available if the delta turns out to be larger
+            final Revision revision = transaction.getHeadRevision();
+            final RepositoryConfiguration configuration = repository.getConfiguration();
+            final int version;
+            if (repository.isSvndiff1Supported()) {
+                version = configuration.isCompressionEnabled() ? 1 : configuration.getSvndiffVersion();
+            } else {
+                version = 0;
+            }
+            final SvndiffEncoder encoder = new SvndiffEncoder(version);
+            try (final InputStream base = new DigestInputStream(repository.download(transaction, resource, revision), baseDigest);
+                    final OutputStream fullTextOutput = new BufferedOutputStream(Files.newOutputStream(fullText));
+                    final InputStream target = new DigestInputStream(new TeeInputStream(content.open(), fullTextOutput), resultDigest);
+                    final OutputStream deltaOutput = new BufferedOutputStream(Files.newOutputStream(delta))) {
+                deltaSize = encoder.encode(base, target, deltaOutput);
+                // the checksum has to cover the complete base content
+                IOUtils.skip(base, Long.MAX_VALUE);
+            }
+
+            final Operation<Void> uploadOperation;
+            final long fullTextSize = Files.size(fullText);
+            final String resultMd5 = Hex.encodeHexString(resultDigest.digest());
+            if (deltaSize < fullTextSize) {
+                final String baseMd5 = Hex.encodeHexString(baseDigest.digest());
+                uploadOperation = new UploadDeltaOperationHttpv1(repository, qualifiedWorkingResource, lockToken, delta, baseMd5, resultMd5, fullTextSize);
+            } else {
+                // the checksum is known anyway
+                uploadOperation = new UploadOperationHttpv1(repository, qualifiedWorkingResource, lockToken, Optional.of(resultMd5), AbstractUploadContent.of(fullText));
+            }
+            uploadOperation.execute();
+        } finally {
+            deleteQuietly(fullText);
+            deleteQuietly(delta);
+        }
+    }
+
+    private Uploads() {
+        // prevent instantiation
+    }
+}
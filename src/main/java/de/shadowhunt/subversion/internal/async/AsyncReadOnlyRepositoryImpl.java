@@ -0,0 +1,338 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.async;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import de.shadowhunt.subversion.AsyncReadOnlyRepository;
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.LogEntry;
+import de.shadowhunt.subversion.ReadOnlyRepository;
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.HeadRevisionTracker;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.ViewInternal;
+import de.shadowhunt.subversion.internal.action.AsyncAction;
+import de.shadowhunt.subversion.internal.action.CreateViewActionHttpv1;
+import de.shadowhunt.subversion.internal.action.DownloadActionHttpv1;
+import de.shadowhunt.subversion.internal.action.DownloadUriActionHttpv1;
+import de.shadowhunt.subversion.internal.action.ExistsActionHttpv1;
+import de.shadowhunt.subversion.internal.action.InfoActionHttpv1;
+import de.shadowhunt.subversion.internal.action.ListActionHttpv1;
+import de.shadowhunt.subversion.internal.action.LogActionHttpv1;
+import de.shadowhunt.subversion.internal.tracing.ActionRecorder;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.nio.client.HttpAsyncClient;
+
+/**
+ * Sends the requests of {@code createView}, {@code download} (as {@link InputStream}), {@code downloadURI}, {@code exists}, {@code info}, {@code list} and {@code log} (as {@link List}) through a {@link HttpAsyncClient}, all other operations
+ * are executed by the decorated repository on the {@link Executor}.
+ */
+public class AsyncReadOnlyRepositoryImpl<D extends ReadOnlyRepository> implements AsyncReadOnlyRepository {
+
+    /**
+     * The repository that sends the requests of the non-blocking operations, together with its decorated variant that executes all other operations.
+     */
+    public static final class Repositories<D extends ReadOnlyRepository> {
+
+        final D delegate;
+
+        final ActionRecorder recorder;
+
+        final ReadOnlyRepositoryInternal repository;
+
+        public Repositories(final ReadOnlyRepositoryInternal repository, final D delegate) {
+            this.repository = repository;
+            this.delegate = delegate;
+
+            final RepositoryConfiguration configuration = repository.getConfiguration();
+            recorder = new ActionRecorder(configuration.getMetricsRegistry(), configuration.getSpanExporter());
+        }
+
+        boolean isMetadataCached() {
+            // the metadata cache is only consulted by the decorated repository
+            return (repository.getConfiguration().getMetadataCacheWeight() > 0L);
+        }
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    // the same checks as in ValidatingReadOnlyRepository, which only guards the operations that are executed by the decorated repository
+    private static void validateRevision(final View view, final Revision revision) {
+        if (Revision.HEAD.equals(revision)) {
+            return;
+        }
+
+        final Revision headRevision = view.getHeadRevision();
+        if (headRevision.compareTo(revision) < 0) {
+            throw new SubversionException("revision " + revision + " is to new for Transaction/View with head revision " + headRevision);
+        }
+    }
+
+    private static void validateView(final ReadOnlyRepository repository, final View view) {
+        Validate.notNull(view, "view must not be null");
+
+        final UUID repositoryId = repository.getRepositoryId();
+        final UUID viewRepositoryId = view.getRepositoryId();
+        if (!repositoryId.equals(viewRepositoryId)) {
+            throw new SubversionException("View invalid: does not belong to this repository");
+        }
+    }
+
+    private final HttpAsyncClient client;
+
+    private final Executor executor;
+
+    private final Supplier<CompletableFuture<Repositories<D>>> repositories;
+
+    /**
+     * @param repositories
+     *            supplies the {@link Repositories} once the server has been probed
+     * @param client
+     *            {@link HttpAsyncClient} (already started) that sends the requests of the non-blocking operations
+     * @param executor
+     *            {@link Executor} that runs all other operations
+     */
+    public AsyncReadOnlyRepositoryImpl(final Supplier<CompletableFuture<Repositories<D>>> repositories, final HttpAsyncClient client, final Executor executor) {
+        this.repositories = repositories;
+        this.client = client;
+        this.executor = executor;
+    }
+
+    @Override
+    public final CompletableFuture<View> createView() {
+        return repositories.get().thenCompose(current -> {
+            final ReadOnlyRepositoryInternal repository = current.repository;
+            final AsyncAction<ViewInternal> action = new CreateViewActionHttpv1(repository);
+            final HeadRevisionTracker headRevisionTracker = repository.getHeadRevisionTracker();
+            return current.recorder.record("createView", () -> headRevisionTracker.createViewAsync(false, () -> action.performAsync(client, executor)));
+        }).thenApply(view -> view);
+    }
+
+    @Override
+    public final CompletableFuture<View> createView(final boolean fresh) {
+        return repositories.get().thenCompose(current -> {
+            final ReadOnlyRepositoryInternal repository = current.repository;
+            final AsyncAction<ViewInternal> action = new CreateViewActionHttpv1(repository);
+            final HeadRevisionTracker headRevisionTracker = repository.getHeadRevisionTracker();
+            return current.recorder.record("createView", () -> headRevisionTracker.createViewAsync(fresh, () -> action.performAsync(client, executor)), fresh);
+        }).thenApply(view -> view);
+    }
+
+    @Override
+    public final CompletableFuture<InputStream> download(final View view, final Resource resource, final Revision revision) {
+        return repositories.get().thenCompose(current -> {
+            validateView(current.repository, view);
+            Validate.notNull(resource, "resource must not be null");
+            Validate.notNull(revision, "revision must not be null");
+            validateRevision(view, revision);
+
+            final ViewInternal viewInternal = ViewInternal.from(view);
+            final AsyncAction<InputStream> action = new DownloadActionHttpv1(current.repository, viewInternal, resource, revision);
+            return performAsync(current, "download", action, view, resource, revision);
+        });
+    }
+
+    @Override
+    public final CompletableFuture<InputStream> download(final View view, final Resource resource, final Revision base, final Revision target, final InputStream baseContent) {
+        return supplyAsync(delegate -> delegate.download(view, resource, base, target, baseContent));
+    }
+
+    @Override
+    public final CompletableFuture<Void> download(final View view, final Resource resource, final Revision revision, final Path target) {
+        return runAsync(delegate -> delegate.download(view, resource, revision, target));
+    }
+
+    @Override
+    public final CompletableFuture<Void> download(final View view, final Resource resource, final Revision revision, final WritableByteChannel target) {
+        return runAsync(delegate -> delegate.download(view, resource, revision, target));
+    }
+
+    @Override
+    public final CompletableFuture<Void> downloadSegmented(final View view, final Resource resource, final Revision revision, final FileChannel target) {
+        return runAsync(delegate -> delegate.downloadSegmented(view, resource, revision, target));
+    }
+
+    @Override
+    public final CompletableFuture<URI> downloadURI(final View view, final Resource resource, final Revision revision) {
+        return repositories.get().thenCompose(current -> {
+            validateView(current.repository, view);
+            Validate.notNull(resource, "resource must not be null");
+            Validate.notNull(revision, "revision must not be null");
+            validateRevision(view, revision);
+
+            final ViewInternal viewInternal = ViewInternal.from(view);
+            final AsyncAction<URI> action = new DownloadUriActionHttpv1(current.repository, viewInternal, resource, revision);
+            return performAsync(current, "downloadURI", action, view, resource, revision);
+        });
+    }
+
+    @Override
+    public final CompletableFuture<Boolean> exists(final View view, final Resource resource, final Revision revision) {
+        return repositories.get().thenCompose(current -> {
+            if (current.isMetadataCached()) {
+                return CompletableFuture.supplyAsync(() -> current.delegate.exists(view, resource, revision), executor);
+            }
+
+            validateView(current.repository, view);
+            Validate.notNull(resource, "resource must not be null");
+            Validate.notNull(revision, "revision must not be null");
+            validateRevision(view, revision);
+
+            final ViewInternal viewInternal = ViewInternal.from(view);
+            final AsyncAction<Boolean> action = new ExistsActionHttpv1(current.repository, viewInternal, resource, revision);
+            return performAsync(current, "exists", action, view, resource, revision);
+        });
+    }
+
+    @Override
+    public final CompletableFuture<Map<Resource, Boolean>> existsAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        return supplyAsync(delegate -> delegate.existsAll(view, resources, revision));
+    }
+
+    @Override
+    public final Resource getBasePath() {
+        return join(repositories.get()).delegate.getBasePath();
+    }
+
+    @Override
+    public final URI getBaseUri() {
+        return join(repositories.get()).delegate.getBaseUri();
+    }
+
+    @Override
+    public final ProtocolVersion getProtocolVersion() {
+        return join(repositories.get()).delegate.getProtocolVersion();
+    }
+
+    @Override
+    public final UUID getRepositoryId() {
+        return join(repositories.get()).delegate.getRepositoryId();
+    }
+
+    @Override
+    public final CompletableFuture<Info> info(final View view, final Resource resource, final Revision revision) {
+        return repositories.get().thenCompose(current -> {
+            if (current.isMetadataCached()) {
+                return CompletableFuture.supplyAsync(() -> current.delegate.info(view, resource, revision), executor);
+            }
+
+            validateView(current.repository, view);
+            Validate.notNull(resource, "resource must not be null");
+            Validate.notNull(revision, "revision must not be null");
+            validateRevision(view, revision);
+
+            final ViewInternal viewInternal = ViewInternal.from(view);
+            final AsyncAction<Info> action = new InfoActionHttpv1(current.repository, viewInternal, resource, revision);
+            return performAsync(current, "info", action, view, resource, revision);
+        });
+    }
+
+    @Override
+    public final CompletableFuture<Map<Resource, Optional<Info>>> infoAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        return supplyAsync(delegate -> delegate.infoAll(view, resources, revision));
+    }
+
+    @Override
+    public final CompletableFuture<NavigableSet<Info>> list(final View view, final Resource resource, final Revision revision, final Depth depth) {
+        return repositories.get().thenCompose(current -> {
+            if (current.isMetadataCached()) {
+                return CompletableFuture.supplyAsync(() -> current.delegate.list(view, resource, revision, depth), executor);
+            }
+
+            validateView(current.repository, view);
+            Validate.notNull(resource, "resource must not be null");
+            Validate.notNull(revision, "revision must not be null");
+            Validate.notNull(depth, "depth must not be null");
+            validateRevision(view, revision);
+
+            final ViewInternal viewInternal = ViewInternal.from(view);
+            final AsyncAction<NavigableSet<Info>> action = new ListActionHttpv1(current.repository, viewInternal, resource, revision, depth);
+            return performAsync(current, "list", action, view, resource, revision, depth);
+        });
+    }
+
+    @Override
+    public final CompletableFuture<List<LogEntry>> log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy) {
+        return repositories.get().thenCompose(current -> {
+            validateView(current.repository, view);
+            Validate.notNull(resource, "resource must not be null");
+            Validate.notNull(startRevision, "startRevision must not be null");
+            Validate.notNull(endRevision, "endRevision must not be null");
+            validateRevision(view, startRevision);
+            validateRevision(view, endRevision);
+
+            final ViewInternal viewInternal = ViewInternal.from(view);
+            final List<LogEntry> entries = new ArrayList<>();
+            final AsyncAction<Void> action = new LogActionHttpv1(current.repository, viewInternal, resource, startRevision, endRevision, new LogActionHttpv1.Options(limit, stopOnCopy), entries::add);
+            return performAsync(current, "log", action, view, resource, startRevision, endRevision, limit, stopOnCopy).thenApply(ignored -> entries);
+        });
+    }
+
+    @Override
+    public final CompletableFuture<Void> log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy, final Predicate<? super LogEntry> handler) {
+        // the handler may block, it must not run on an I/O thread of the client
+        return runAsync(delegate -> delegate.log(view, resource, startRevision, endRevision, limit, stopOnCopy, handler));
+    }
+
+    private <T> CompletableFuture<T> performAsync(final Repositories<D> current, final String method, final AsyncAction<T> action, final Object... args) {
+        return current.recorder.record(method, () -> action.performAsync(client, executor), args);
+    }
+
+    protected final CompletableFuture<Void> runAsync(final Consumer<? super D> operation) {
+        return repositories.get().thenAcceptAsync(current -> operation.accept(current.delegate), executor);
+    }
+
+    protected final <T> CompletableFuture<T> supplyAsync(final Function<? super D, T> operation) {
+        return repositories.get().thenApplyAsync(current -> operation.apply(current.delegate), executor);
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.async;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import de.shadowhunt.subversion.AsyncRepository;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.ResourceProperty;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction;
+import org.apache.http.nio.client.HttpAsyncClient;
+
+/**
+ * All modifications are executed by the decorated repository on the {@link Executor}, see {@link AsyncReadOnlyRepositoryImpl} for the read operations.
+ */
+public class AsyncRepositoryImpl extends AsyncReadOnlyRepositoryImpl<Repository> implements AsyncRepository {
+
+    public AsyncRepositoryImpl(final Supplier<CompletableFuture<Repositories<Repository>>> repositories, final HttpAsyncClient client, final Executor executor) {
+        super(repositories, client, executor);
+    }
+
+    @Override
+    public final CompletableFuture<Void> add(final Transaction transaction, final Resource resource, final boolean parents, final InputStream content) {
+        return runAsync(delegate -> delegate.add(transaction, resource, parents, content));
+    }
+
+    @Override
+    public final CompletableFuture<Void> add(final Transaction transaction, final Resource resource, final boolean parents, final byte[] content) {
+        return runAsync(delegate -> delegate.add(transaction, resource, parents, content));
+    }
+
+    @Override
+    public final CompletableFuture<Void> add(final Transaction transaction, final Resource resource, final boolean parents, final ByteBuffer content) {
+        return runAsync(delegate -> delegate.add(transaction, resource, parents, content));
+    }
+
+    @Override
+    public final CompletableFuture<Void> add(final Transaction transaction, final Resource resource, final boolean parents, final Path content) {
+        return runAsync(delegate -> delegate.add(transaction, resource, parents, content));
+    }
+
+    @Override
+    public final CompletableFuture<Void> add(final Transaction transaction, final Resource resource, final boolean parents, final Supplier<InputStream> content, final long length) {
+        return runAsync(delegate -> delegate.add(transaction, resource, parents, content, length));
+    }
+
+    @Override
+    public final CompletableFuture<Void> addAll(final Transaction transaction, final Map<Resource, Supplier<InputStream>> contents, final boolean parents) {
+        return runAsync(delegate -> delegate.addAll(transaction, contents, parents));
+    }
+
+    @Override
+    public final CompletableFuture<Void> commit(final Transaction transaction, final String message, final boolean releaseLocks) {
+        return runAsync(delegate -> delegate.commit(transaction, message, releaseLocks));
+    }
+
+    @Override
+    public final CompletableFuture<Void> copy(final Transaction transaction, final Resource sourceResource, final Revision sourceRevision, final Resource targetResource, final boolean parents) {
+        return runAsync(delegate -> delegate.copy(transaction, sourceResource, sourceRevision, targetResource, parents));
+    }
+
+    @Override
+    public final CompletableFuture<Transaction> createTransaction() {
+        return supplyAsync(Repository::createTransaction);
+    }
+
+    @Override
+    public final CompletableFuture<Void> delete(final Transaction transaction, final Resource resource) {
+        return runAsync(delegate -> delegate.delete(transaction, resource));
+    }
+
+    @Override
+    public final CompletableFuture<Void> lock(final Resource resource, final boolean steal) {
+        return runAsync(delegate -> delegate.lock(resource, steal));
+    }
+
+    @Override
+    public final CompletableFuture<Void> mkdir(final Transaction transaction, final Resource resource, final boolean parents) {
+        return runAsync(delegate -> delegate.mkdir(transaction, resource, parents));
+    }
+
+    @Override
+    public final CompletableFuture<Void> move(final Transaction transaction, final Resource sourceResource, final Resource targetResource, final boolean parents) {
+        return runAsync(delegate -> delegate.move(transaction, sourceResource, targetResource, parents));
+    }
+
+    @Override
+    public final CompletableFuture<Void> propertiesDelete(final Transaction transaction, final Resource resource, final ResourceProperty... properties) {
+        return runAsync(delegate -> delegate.propertiesDelete(transaction, resource, properties));
+    }
+
+    @Override
+    public final CompletableFuture<Void> propertiesSet(final Transaction transaction, final Resource resource, final ResourceProperty... properties) {
+        return runAsync(delegate -> delegate.propertiesSet(transaction, resource, properties));
+    }
+
+    @Override
+    public final CompletableFuture<Void> rollback(final Transaction transaction) {
+        return runAsync(delegate -> delegate.rollback(transaction));
+    }
+
+    @Override
+    public final CompletableFuture<Void> rollbackIfNotCommitted(final Transaction transaction) {
+        return runAsync(delegate -> delegate.rollbackIfNotCommitted(transaction));
+    }
+
+    @Override
+    public final CompletableFuture<Void> unlock(final Resource resource, final boolean force) {
+        return runAsync(delegate -> delegate.unlock(resource, force));
+    }
+}
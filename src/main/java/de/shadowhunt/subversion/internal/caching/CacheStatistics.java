@@ -0,0 +1,82 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.caching;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Snapshot of the usage statistics of a {@link MetadataCache}.
+ */
+@Immutable
+public final class CacheStatistics {
+
+    private final long evictionCount;
+
+    private final long hitCount;
+
+    private final long maximumWeight;
+
+    private final long missCount;
+
+    private final long weight;
+
+    CacheStatistics(final long hitCount, final long missCount, final long evictionCount, final long weight, final long maximumWeight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.weight = weight;
+        this.maximumWeight = maximumWeight;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("CacheStatistics [hitCount=");
+        builder.append(hitCount);
+        builder.append(", missCount=");
+        builder.append(missCount);
+        builder.append(", evictionCount=");
+        builder.append(evictionCount);
+        builder.append(", weight=");
+        builder.append(weight);
+        builder.append(", maximumWeight=");
+        builder.append(maximumWeight);
+        builder.append(']');
+        return builder.toString();
+    }
+}
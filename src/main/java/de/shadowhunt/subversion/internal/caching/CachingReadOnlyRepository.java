@@ -0,0 +1,368 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.caching;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import javax.annotation.CheckForNull;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.LogEntry;
+import de.shadowhunt.subversion.ReadOnlyRepository;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.Transaction;
+import de.shadowhunt.subversion.View;
+import org.apache.http.HttpStatus;
+
+/**
+ * Caches the results of {@link #info(View, Resource, Revision)}, {@link #list(View, Resource, Revision, Depth)} and {@link #exists(View, Resource, Revision)} for revisions that are pinned by a {@link View}. {@code info} and {@code list} trace
+ * the history of a resource from the head revision of the {@link View}, so their results are cached per head revision. {@code exists} of {@link Revision#HEAD} addresses the unversioned resource and is never cached.
+ * <p>
+ * Cached {@link Info}s include the lock state of the resource, which changes without a new revision. {@link CachingRepository} therefore invalidates the affected entries when it locks, unlocks or commits.
+ */
+public class CachingReadOnlyRepository implements ReadOnlyRepository {
+
+    private static final class Key {
+
+        private final Depth depth;
+
+        private final Revision headRevision;
+
+        private final String operation;
+
+        private final Resource resource;
+
+        private final Revision revision;
+
+        Key(final String operation, final Resource resource, final Revision revision, @CheckForNull final Revision headRevision, @CheckForNull final Depth depth) {
+            this.operation = operation;
+            this.resource = resource;
+            this.revision = revision;
+            this.headRevision = headRevision;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return operation.equals(other.operation) && resource.equals(other.resource) && revision.equals(other.revision) && Objects.equals(headRevision, other.headRevision) && (depth == other.depth);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(depth, headRevision, operation, resource, revision);
+        }
+    }
+
+    private static final Object MISSING = new Object();
+
+    private static boolean containsLock(final Object value) {
+        if (value instanceof Info) {
+            return ((Info) value).isLocked();
+        }
+        if (value instanceof Collection) {
+            for (final Object element : (Collection<?>) value) {
+                if (containsLock(element)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAncestorOrSelf(final Resource ancestor, final Resource resource) {
+        if (Resource.ROOT.equals(ancestor) || ancestor.equals(resource)) {
+            return true;
+        }
+        return resource.getValue().startsWith(ancestor.getValue() + Resource.SEPARATOR);
+    }
+
+    private static boolean isNotFound(final SubversionException e) {
+        return (e.getHttpStatusCode() == HttpStatus.SC_NOT_FOUND);
+    }
+
+    private static SubversionException notFound() {
+        return new SubversionException("Requested resource could not be found", HttpStatus.SC_NOT_FOUND);
+    }
+
+    private static long weight(final Info info) {
+        return 1L + info.getProperties().length;
+    }
+
+    private final MetadataCache cache;
+
+    private final ReadOnlyRepository delegate;
+
+    public CachingReadOnlyRepository(final ReadOnlyRepository delegate, final long maximumWeight) {
+        this.delegate = delegate;
+        cache = new MetadataCache(maximumWeight);
+    }
+
+    @Override
+    public final View createView() {
+        return delegate.createView();
+    }
+
+    @Override
+    public final View createView(final boolean fresh) {
+        return delegate.createView(fresh);
+    }
+
+    @Override
+    public final InputStream download(final View view, final Resource resource, final Revision revision) {
+        return delegate.download(view, resource, revision);
+    }
+
+    @Override
+    public final InputStream download(final View view, final Resource resource, final Revision base, final Revision target, final InputStream baseContent) {
+        return delegate.download(view, resource, base, target, baseContent);
+    }
+
+    @Override
+    public final void download(final View view, final Resource resource, final Revision revision, final Path target) {
+        delegate.download(view, resource, revision, target);
+    }
+
+    @Override
+    public final void download(final View view, final Resource resource, final Revision revision, final WritableByteChannel target) {
+        delegate.download(view, resource, revision, target);
+    }
+
+    @Override
+    public final void downloadSegmented(final View view, final Resource resource, final Revision revision, final FileChannel target) {
+        delegate.downloadSegmented(view, resource, revision, target);
+    }
+
+    @Override
+    public final URI downloadURI(final View view, final Resource resource, final Revision revision) {
+        return delegate.downloadURI(view, resource, revision);
+    }
+
+    @Override
+    public final boolean exists(final View view, final Resource resource, final Revision revision) {
+        if ((view instanceof Transaction) || Revision.HEAD.equals(revision)) {
+            return delegate.exists(view, resource, revision);
+        }
+
+        final Key key = new Key("exists", resource, revision, null, null);
+        final Object cached = cache.get(key);
+        if (cached != null) {
+            return (Boolean) cached;
+        }
+
+        final Object listed = lookupChild(resource, revision, view.getHeadRevision(), false);
+        if (listed != null) {
+            return (listed != MISSING);
+        }
+
+        final boolean exists = delegate.exists(view, resource, revision);
+        cache.put(key, exists, 1L);
+        return exists;
+    }
+
+    @Override
+    public final Map<Resource, Boolean> existsAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        return delegate.existsAll(view, resources, revision);
+    }
+
+    @Override
+    public final Resource getBasePath() {
+        return delegate.getBasePath();
+    }
+
+    @Override
+    public final URI getBaseUri() {
+        return delegate.getBaseUri();
+    }
+
+    @Override
+    public final ProtocolVersion getProtocolVersion() {
+        return delegate.getProtocolVersion();
+    }
+
+    @Override
+    public final UUID getRepositoryId() {
+        return delegate.getRepositoryId();
+    }
+
+    public final CacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
+
+    @Override
+    public final Info info(final View view, final Resource resource, final Revision revision) {
+        if (view instanceof Transaction) {
+            return delegate.info(view, resource, revision);
+        }
+
+        final Revision headRevision = view.getHeadRevision();
+        final Revision concreteRevision = Revision.HEAD.equals(revision) ? headRevision : revision;
+        final Key key = new Key("info", resource, concreteRevision, headRevision, null);
+        Object cached = cache.get(key);
+        if ((cached == null) && concreteRevision.equals(headRevision)) {
+            // in the head revision of the view no history has to be traced, so a listing of the parent is as good as an info
+            cached = lookupChild(resource, concreteRevision, headRevision, true);
+        }
+        if (cached == MISSING) {
+            throw notFound();
+        }
+        if (cached != null) {
+            return (Info) cached;
+        }
+
+        try {
+            final Info info = delegate.info(view, resource, revision);
+            cache.put(key, info, weight(info));
+            return info;
+        } catch (final SubversionException e) {
+            if (isNotFound(e)) {
+                cache.put(key, MISSING, 1L);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public final Map<Resource, Optional<Info>> infoAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        return delegate.infoAll(view, resources, revision);
+    }
+
+    /**
+     * Drops all cached entries that could describe the lock state of the resource: its own {@code info} and {@code exists} entries and the listings of all its ancestors.
+     */
+    final void invalidateLockState(final Resource resource) {
+        cache.invalidate((key, value) -> isAncestorOrSelf(((Key) key).resource, resource));
+    }
+
+    /**
+     * Drops all cached entries that report a lock.
+     */
+    final void invalidateLocked() {
+        cache.invalidate((key, value) -> containsLock(value));
+    }
+
+    @Override
+    public final NavigableSet<Info> list(final View view, final Resource resource, final Revision revision, final Depth depth) {
+        if (view instanceof Transaction) {
+            return delegate.list(view, resource, revision, depth);
+        }
+
+        final Revision headRevision = view.getHeadRevision();
+        final Revision concreteRevision = Revision.HEAD.equals(revision) ? headRevision : revision;
+        final Key key = new Key("list", resource, concreteRevision, headRevision, depth);
+        final Object cached = cache.get(key);
+        if (cached == MISSING) {
+            throw notFound();
+        }
+        if (cached != null) {
+            @SuppressWarnings("unchecked")
+            final NavigableSet<Info> infos = (NavigableSet<Info>) cached;
+            return new TreeSet<>(infos);
+        }
+
+        try {
+            final NavigableSet<Info> infos = delegate.list(view, resource, revision, depth);
+            long weight = 1L;
+            for (final Info info : infos) {
+                weight += weight(info);
+            }
+            cache.put(key, new TreeSet<>(infos), weight);
+            return infos;
+        } catch (final SubversionException e) {
+            if (isNotFound(e)) {
+                cache.put(key, MISSING, 1L);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public final List<LogEntry> log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy) {
+        return delegate.log(view, resource, startRevision, endRevision, limit, stopOnCopy);
+    }
+
+    @Override
+    public final void log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy, final Predicate<? super LogEntry> handler) {
+        delegate.log(view, resource, startRevision, endRevision, limit, stopOnCopy, handler);
+    }
+
+    /**
+     * Search the resource in a cached {@link Depth#IMMEDIATES} listing of its parent. Only listings of the parent at its own path are considered, listings that had to be traced to a different location do not describe the path.
+     *
+     * @return the listed {@link Info}, {@code MISSING} if the parent has been listed without the resource, or {@code null} if the listing can not answer the query
+     */
+    @CheckForNull
+    private Object lookupChild(final Resource resource, final Revision revision, final Revision headRevision, final boolean requireLockOwner) {
+        if (Resource.ROOT.equals(resource)) {
+            return null;
+        }
+
+        final Resource parent = resource.getParent();
+        final Object listed = cache.peek(new Key("list", parent, revision, headRevision, Depth.IMMEDIATES));
+        if ((listed == null) || (listed == MISSING)) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        final NavigableSet<Info> infos = (NavigableSet<Info>) listed;
+        boolean parentListed = false;
+        Info child = null;
+        for (final Info info : infos) {
+            final Resource infoResource = info.getResource();
+            if (parent.equals(infoResource)) {
+                parentListed = true;
+            } else if (resource.equals(infoResource)) {
+                child = info;
+            }
+        }
+
+        if (!parentListed) {
+            return null;
+        }
+        if (child == null) {
+            return MISSING;
+        }
+        if (requireLockOwner && child.isLocked()) {
+            // listings do not report the lock owner
+            return null;
+        }
+        return child;
+    }
+}
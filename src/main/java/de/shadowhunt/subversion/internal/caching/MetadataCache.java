@@ -0,0 +1,138 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.caching;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Weight bounded least recently used cache.
+ */
+@ThreadSafe
+public final class MetadataCache {
+
+    private static final class Entry {
+
+        private final Object value;
+
+        private final long weight;
+
+        Entry(final Object value, final long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final long maximumWeight;
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private long weight;
+
+    public MetadataCache(final long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * @return the cached value or {@code null} if the key is not cached
+     */
+    @CheckForNull
+    public Object get(final Object key) {
+        final Object value = peek(key);
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    public CacheStatistics getStatistics() {
+        synchronized (entries) {
+            return new CacheStatistics(hits.get(), misses.get(), evictions.get(), weight, maximumWeight);
+        }
+    }
+
+    /**
+     * Removes all entries the predicate accepts, removed entries do not count as evictions.
+     *
+     * @param predicate
+     *            tested with the key and the value of each entry
+     */
+    public void invalidate(final BiPredicate<Object, Object> predicate) {
+        synchronized (entries) {
+            final Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<Object, Entry> entry = iterator.next();
+                final Entry value = entry.getValue();
+                if (predicate.test(entry.getKey(), value.value)) {
+                    iterator.remove();
+                    weight -= value.weight;
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #get(Object)} but does not count as hit or miss.
+     *
+     * @return the cached value or {@code null} if the key is not cached
+     */
+    @CheckForNull
+    public Object peek(final Object key) {
+        synchronized (entries) {
+            final Entry entry = entries.get(key);
+            return (entry == null) ? null : entry.value;
+        }
+    }
+
+    public void put(final Object key, final Object value, final long valueWeight) {
+        if (valueWeight > maximumWeight) {
+            // would evict everything else
+            return;
+        }
+
+        synchronized (entries) {
+            final Entry previous = entries.put(key, new Entry(value, valueWeight));
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += valueWeight;
+
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while ((weight > maximumWeight) && iterator.hasNext()) {
+                final Entry eldest = iterator.next();
+                iterator.remove();
+                weight -= eldest.weight;
+                evictions.incrementAndGet();
+            }
+        }
+    }
+}
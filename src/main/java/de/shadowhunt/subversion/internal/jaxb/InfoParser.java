@@ -20,27 +20,29 @@ package de.shadowhunt.subversion.internal.jaxb;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-import javax.xml.bind.annotation.XmlAccessType;
-import javax.xml.bind.annotation.XmlAccessorType;
-import javax.xml.bind.annotation.XmlAnyElement;
-import javax.xml.bind.annotation.XmlElement;
-import javax.xml.bind.annotation.XmlRootElement;
-import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
-import javax.xml.transform.stream.StreamSource;
+import javax.annotation.CheckForNull;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import de.shadowhunt.subversion.LockToken;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.ResourceProperty;
+import de.shadowhunt.subversion.ResourceProperty.Key;
+import de.shadowhunt.subversion.ResourceProperty.Type;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.SubversionException;
 import de.shadowhunt.subversion.internal.InfoImpl;
@@ -48,187 +50,297 @@ import de.shadowhunt.subversion.internal.ResourcePropertyUtils;
 import de.shadowhunt.subversion.internal.XmlConstants;
 import de.shadowhunt.subversion.internal.jaxb.converter.CreatedDateAdapter;
 import de.shadowhunt.subversion.internal.jaxb.converter.LastModifedDateAdapter;
-import de.shadowhunt.subversion.internal.jaxb.converter.LockTokenAdapter;
-import de.shadowhunt.subversion.internal.jaxb.converter.ResourceAdapter;
-import de.shadowhunt.subversion.internal.jaxb.converter.ResourcePropertyAdapter;
-import de.shadowhunt.subversion.internal.jaxb.converter.RevisionAdapter;
-import de.shadowhunt.subversion.internal.jaxb.converter.UuidAdapter;
 import org.apache.commons.lang3.StringUtils;
 
-@XmlRootElement(namespace = XmlConstants.DAV_NAMESPACE, name = "multistatus")
-@XmlAccessorType(XmlAccessType.FIELD)
-public class InfoParser {
+/**
+ * Single pass parser for PROPFIND multistatus responses. Subversion allows colons in property names, which
+ * results in element names like {@code C:foo:bar} that are not valid in namespace aware XML processing. The
+ * document is therefore read without namespace support, prefixes are resolved against the in-scope declarations
+ * and everything following the first colon is treated as local name.
+ */
+public final class InfoParser {
 
-    @XmlAccessorType(XmlAccessType.FIELD)
-    static class ActiveLock {
+    private static final class Properties {
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "locktoken")
-        Token token;
-    }
+        Date creationDate;
+
+        boolean directory;
+
+        Date lastModifiedDate;
+
+        LockToken lockToken;
+
+        String md5Hash;
 
-    @XmlAccessorType(XmlAccessType.FIELD)
-    static class LockDiscovery {
+        String relativeResource;
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "activelock")
-        ActiveLock activeLock;
+        UUID repositoryUuid;
+
+        final List<ResourceProperty> resourceProperties = new ArrayList<>();
+
+        Revision revision;
+
+        String status;
     }
 
-    @XmlAccessorType(XmlAccessType.FIELD)
-    static class Properties {
+    private static final QName BASELINE_RELATIVE_PATH = new QName(XmlConstants.SUBVERSION_DAV_NAMESPACE, "baseline-relative-path");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "creationdate")
-        @XmlJavaTypeAdapter(CreatedDateAdapter.class)
-        Date creationDate;
+    private static final QName COLLECTION = dav("collection");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "getlastmodified")
-        @XmlJavaTypeAdapter(LastModifedDateAdapter.class)
-        Date lastModifedDate;
+    private static final QName CREATION_DATE = dav("creationdate");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "lockdiscovery")
-        LockDiscovery lockDiscovery;
+    private static final XMLInputFactory FACTORY;
 
-        @XmlElement(namespace = XmlConstants.SUBVERSION_DAV_NAMESPACE, name = "md5-checksum")
-        String md5Hash;
+    private static final QName HREF = dav("href");
 
-        @XmlElement(namespace = XmlConstants.SUBVERSION_DAV_NAMESPACE, name = "baseline-relative-path")
-        @XmlJavaTypeAdapter(ResourceAdapter.class)
-        Resource relativeResource;
+    private static final QName LAST_MODIFIED_DATE = dav("getlastmodified");
 
-        @XmlElement(namespace = XmlConstants.SUBVERSION_DAV_NAMESPACE, name = "repository-uuid")
-        @XmlJavaTypeAdapter(UuidAdapter.class)
-        UUID repositoryUuid;
+    private static final QName LOCK_TOKEN = dav("locktoken");
 
-        @XmlAnyElement
-        @XmlJavaTypeAdapter(ResourcePropertyAdapter.class)
-        List<ResourceProperty> resourceProperties;
+    private static final QName MD5_CHECKSUM = new QName(XmlConstants.SUBVERSION_DAV_NAMESPACE, "md5-checksum");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "resourcetype")
-        ResourceType resourceType;
+    private static final QName PROP = dav("prop");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "version-name")
-        @XmlJavaTypeAdapter(RevisionAdapter.class)
-        Revision revision;
-    }
+    private static final QName PROPSTAT = dav("propstat");
 
-    @XmlAccessorType(XmlAccessType.FIELD)
-    static class Propstat {
+    private static final QName REPOSITORY_UUID = new QName(XmlConstants.SUBVERSION_DAV_NAMESPACE, "repository-uuid");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "prop")
-        Properties properties;
+    private static final QName RESOURCE_TYPE = dav("resourcetype");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "status", required = true)
-        String status;
-    }
+    private static final QName RESPONSE = dav("response");
 
-    @XmlAccessorType(XmlAccessType.FIELD)
-    static class ResourceType {
+    private static final QName STATUS = dav("status");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "collection")
-        String collection;
-    }
+    private static final String STATUS_OK = "HTTP/1.1 200 OK";
 
-    @XmlAccessorType(XmlAccessType.FIELD)
-    static class Response {
+    private static final QName VERSION_NAME = dav("version-name");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "propstat")
-        Propstat propstat;
-    }
+    private static final String XMLNS = "xmlns";
 
-    @XmlAccessorType(XmlAccessType.FIELD)
-    static class Token {
+    static {
+        FACTORY = XMLInputFactory.newInstance();
+        FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    }
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "href")
-        @XmlJavaTypeAdapter(LockTokenAdapter.class)
-        LockToken lockToken;
+    private static QName dav(final String localName) {
+        return new QName(XmlConstants.DAV_NAMESPACE, localName);
     }
 
-    private static final JAXBContext CONTEXT;
+    @CheckForNull
+    private static Type getType(final String namespaceURI) {
+        if (XmlConstants.SUBVERSION_CUSTOM_NAMESPACE.equals(namespaceURI)) {
+            return Type.SUBVERSION_CUSTOM;
+        }
+        if (XmlConstants.SUBVERSION_SVN_NAMESPACE.equals(namespaceURI)) {
+            return Type.SUBVERSION_SVN;
+        }
+        return null;
+    }
 
-    static {
-        try {
-            CONTEXT = JAXBContext.newInstance(InfoParser.class);
-        } catch (final JAXBException e) {
-            throw new SubversionException("can not create context", e);
+    private static String name(final String prefix, final String localName) {
+        if ((prefix == null) || prefix.isEmpty()) {
+            return localName;
         }
+        return prefix + ':' + localName;
     }
 
-    private static List<InfoImpl> convert(final List<Response> responses, final Resource basePath) throws ParseException {
-        final int size = responses.size();
-        final List<InfoImpl> result = new ArrayList<>(size);
-        for (final Response response : responses) {
-            final Propstat propstat = response.propstat;
-            if (!"HTTP/1.1 200 OK".equals(propstat.status)) {
-                throw new SubversionException("properties are missing");
+    public static List<InfoImpl> parse(final InputStream input, final Resource basePath) throws IOException {
+        final List<InfoImpl> result = new ArrayList<>();
+        parse(input, basePath, result::add);
+        return result;
+    }
+
+    /**
+     * Parses the multistatus response and hands every {@link InfoImpl} to the consumer as soon as its
+     * {@code response} element has been read completely.
+     */
+    public static void parse(final InputStream input, final Resource basePath, final Consumer<? super InfoImpl> consumer) throws IOException {
+        final InfoParser parser = new InfoParser(basePath, consumer);
+        try {
+            final XMLStreamReader reader = FACTORY.createXMLStreamReader(input);
+            try {
+                parser.read(reader);
+            } finally {
+                reader.close();
             }
-            final InfoImpl impl = convert(propstat.properties, basePath);
-            result.add(impl);
+        } catch (final XMLStreamException | ParseException | IllegalArgumentException e) {
+            throw new IOException("can not read input", e);
         }
-        return result;
     }
 
-    private static InfoImpl convert(final Properties properties, final Resource basePath) {
-        final InfoImpl impl = new InfoImpl();
-        if (properties.creationDate != null) {
-            impl.setCreationDate(properties.creationDate);
+    private final Resource basePath;
+
+    private final Consumer<? super InfoImpl> consumer;
+
+    private final List<QName> elements = new ArrayList<>();
+
+    private InfoImpl info;
+
+    private final Deque<Map<String, String>> namespaces = new ArrayDeque<>();
+
+    private Properties properties;
+
+    private boolean propertiesComplete;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private InfoParser(final Resource basePath, final Consumer<? super InfoImpl> consumer) {
+        this.basePath = basePath;
+        this.consumer = consumer;
+    }
+
+    private void apply(final Properties source) {
+        if (source.creationDate != null) {
+            info.setCreationDate(source.creationDate);
         }
-        if (properties.resourceType != null) {
-            impl.setDirectory(properties.resourceType.collection != null);
+        if (source.directory) {
+            info.setDirectory(true);
         }
-        if (properties.lastModifedDate != null) {
-            impl.setLastModifiedDate(properties.lastModifedDate);
+        if (source.lastModifiedDate != null) {
+            info.setLastModifiedDate(source.lastModifiedDate);
         }
-        if (properties.lockDiscovery != null) {
-            if (properties.lockDiscovery.activeLock != null) {
-                if (properties.lockDiscovery.activeLock.token != null) {
-                    impl.setLockToken(properties.lockDiscovery.activeLock.token.lockToken);
-                }
-            }
+        if (source.lockToken != null) {
+            info.setLockToken(source.lockToken);
         }
-        if (properties.md5Hash != null) {
-            impl.setMd5(properties.md5Hash);
+        if (source.md5Hash != null) {
+            info.setMd5(source.md5Hash);
         }
-        if (properties.resourceProperties != null) {
-            final List<ResourceProperty> propertiesList = properties.resourceProperties;
-            propertiesList.removeIf(Objects::isNull);
+        if (!source.resourceProperties.isEmpty()) {
+            final List<ResourceProperty> propertiesList = source.resourceProperties;
             propertiesList.sort(ResourcePropertyUtils.TYPE_NAME_COMPARATOR);
             final ResourceProperty[] resourceProperties = propertiesList.toArray(new ResourceProperty[0]);
-            impl.setProperties(resourceProperties);
+            info.setProperties(resourceProperties);
         }
-        if (properties.repositoryUuid != null) {
-            impl.setRepositoryId(properties.repositoryUuid);
+        if (source.repositoryUuid != null) {
+            info.setRepositoryId(source.repositoryUuid);
         }
-        if (properties.relativeResource != null) {
-            final Resource resource = convert(properties.relativeResource, basePath);
-            impl.setResource(resource);
+        if (source.relativeResource != null) {
+            final Resource relativeResource = Resource.create(source.relativeResource);
+            final String prefix = basePath.getValue();
+            final String resource = StringUtils.removeStart(relativeResource.getValue(), prefix);
+            info.setResource(Resource.create(resource));
         }
-        if (properties.revision != null) {
-            impl.setRevision(properties.revision);
+        if (source.revision != null) {
+            info.setRevision(source.revision);
         }
-        return impl;
     }
 
-    private static Resource convert(final Resource relativeResource, final Resource basePath) {
-        final String value = relativeResource.getValue();
-        final String prefix = basePath.getValue();
-        final String resource = StringUtils.removeStart(value, prefix);
-        return Resource.create(resource);
+    private void endElement(final QName name) throws ParseException {
+        final int size = elements.size();
+        final QName parent = (size > 1) ? elements.get(size - 2) : null;
+        final String value = text.toString();
+
+        if ((properties != null) && PROP.equals(parent)) {
+            property(name, value);
+        } else if ((properties != null) && HREF.equals(name) && LOCK_TOKEN.equals(parent)) {
+            properties.lockToken = new LockToken(value);
+        } else if ((properties != null) && STATUS.equals(name) && PROPSTAT.equals(parent)) {
+            properties.status = value;
+        } else if ((properties != null) && PROPSTAT.equals(name)) {
+            if (STATUS_OK.equals(properties.status)) {
+                apply(properties);
+                propertiesComplete = true;
+            }
+            properties = null;
+        } else if ((info != null) && RESPONSE.equals(name)) {
+            if (!propertiesComplete) {
+                throw new SubversionException("properties are missing");
+            }
+            consumer.accept(info);
+            info = null;
+        }
+
+        elements.remove(size - 1);
+        namespaces.pop();
+        text.setLength(0);
     }
 
-    public static List<InfoImpl> parse(final InputStream input, final Resource basePath) throws IOException {
-        try {
-            final Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
-            final InputStream escapedInputStream = ResourcePropertyUtils.escapedInputStream(input);
-            final StreamSource source = new StreamSource(escapedInputStream);
-            final InfoParser parser = (InfoParser) unmarshaller.unmarshal(source);
-            if (parser.responses == null) {
-                return Collections.emptyList();
+    private void property(final QName name, final String value) throws ParseException {
+        if (CREATION_DATE.equals(name)) {
+            properties.creationDate = CreatedDateAdapter.parseDate(value);
+        } else if (LAST_MODIFIED_DATE.equals(name)) {
+            properties.lastModifiedDate = LastModifedDateAdapter.parseDate(value);
+        } else if (MD5_CHECKSUM.equals(name)) {
+            properties.md5Hash = value;
+        } else if (BASELINE_RELATIVE_PATH.equals(name)) {
+            properties.relativeResource = value;
+        } else if (REPOSITORY_UUID.equals(name)) {
+            properties.repositoryUuid = UUID.fromString(value);
+        } else if (VERSION_NAME.equals(name)) {
+            final int revision = Integer.parseInt(value);
+            properties.revision = Revision.create(revision);
+        } else {
+            final Type type = getType(name.getNamespaceURI());
+            if (type != null) {
+                final Key key = new Key(type, name.getLocalPart());
+                properties.resourceProperties.add(new ResourceProperty(key, value));
+            }
+        }
+    }
+
+    private void read(final XMLStreamReader reader) throws ParseException, XMLStreamException {
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    startElement(reader);
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    endElement(elements.get(elements.size() - 1));
+                    break;
+                default:
+                    // nothing to do
             }
-            return convert(parser.responses, basePath);
-        } catch (final JAXBException | ParseException e) {
-            throw new IOException("can not read input", e);
         }
     }
 
-    @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "response")
-    private List<Response> responses;
+    private QName resolve(final String rawName) {
+        final int colon = rawName.indexOf(':');
+        final String prefix = (colon < 0) ? "" : rawName.substring(0, colon);
+        final String localName = rawName.substring(colon + 1);
+        for (final Map<String, String> scope : namespaces) {
+            final String namespaceURI = scope.get(prefix);
+            if (namespaceURI != null) {
+                return new QName(namespaceURI, localName, prefix);
+            }
+        }
+        return new QName("", localName, prefix);
+    }
+
+    private void startElement(final XMLStreamReader reader) {
+        Map<String, String> scope = Collections.emptyMap();
+        final int attributes = reader.getAttributeCount();
+        for (int i = 0; i < attributes; i++) {
+            final String attribute = name(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+            if (XMLNS.equals(attribute) || attribute.startsWith(XMLNS + ':')) {
+                if (scope.isEmpty()) {
+                    scope = new HashMap<>();
+                }
+                final String prefix = (attribute.length() == XMLNS.length()) ? "" : attribute.substring(XMLNS.length() + 1);
+                scope.put(prefix, reader.getAttributeValue(i));
+            }
+        }
+        namespaces.push(scope);
+
+        final QName name = resolve(name(reader.getPrefix(), reader.getLocalName()));
+        final int size = elements.size();
+        final QName parent = (size > 0) ? elements.get(size - 1) : null;
+        if (RESPONSE.equals(name)) {
+            info = new InfoImpl();
+            propertiesComplete = false;
+        } else if ((info != null) && PROPSTAT.equals(name)) {
+            properties = new Properties();
+        } else if ((properties != null) && COLLECTION.equals(name) && RESOURCE_TYPE.equals(parent)) {
+            properties.directory = true;
+        }
+        elements.add(name);
+        text.setLength(0);
+    }
 }
@@ -0,0 +1,127 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.jaxb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.internal.InfoImpl;
+import de.shadowhunt.subversion.internal.XmlConstants;
+import de.shadowhunt.subversion.internal.jaxb.converter.CreatedDateAdapter;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Incremental parser for {@code svn:list-report} responses (mod_dav_svn 1.10 and newer). Each {@code item} carries
+ * the path of the resource as text and its kind, revision and date as attributes.
+ */
+public final class ListReportParser {
+
+    private static final String DIRECTORY = "dir";
+
+    private static final XMLInputFactory FACTORY;
+
+    private static final QName ITEM = new QName(XmlConstants.SVN_NAMESPACE, "item");
+
+    static {
+        FACTORY = XMLInputFactory.newInstance();
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    }
+
+    private static InfoImpl createInfo(final XMLStreamReader reader, final UUID repositoryId) throws ParseException {
+        final InfoImpl info = new InfoImpl();
+        info.setRepositoryId(repositoryId);
+
+        final String kind = reader.getAttributeValue(null, "node-kind");
+        info.setDirectory(DIRECTORY.equals(kind));
+
+        final String createdRevision = reader.getAttributeValue(null, "created-rev");
+        if (createdRevision != null) {
+            final int revision = Integer.parseInt(createdRevision);
+            info.setRevision(Revision.create(revision));
+        }
+
+        final String date = reader.getAttributeValue(null, "date");
+        if (date != null) {
+            final Date created = CreatedDateAdapter.parseDate(date);
+            info.setCreationDate(created);
+            info.setLastModifiedDate(created);
+        }
+        return info;
+    }
+
+    /**
+     * Parses the {@code svn:list-report} and hands every {@link InfoImpl} to the consumer as soon as its {@code item} has been read.
+     *
+     * @param basePath
+     *            path of the repository root, absolute item paths are made relative to it
+     * @param listedResource
+     *            the listed {@link Resource} at its path in the listed revision, relative item paths are resolved against it
+     */
+    public static void parse(final InputStream input, final Resource basePath, final Resource listedResource, final UUID repositoryId, final Consumer<? super InfoImpl> consumer) throws IOException {
+        try {
+            final XMLStreamReader reader = FACTORY.createXMLStreamReader(input);
+            try {
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if ((event == XMLStreamConstants.START_ELEMENT) && ITEM.equals(reader.getName())) {
+                        // attributes are only available before the text has been read
+                        final InfoImpl info = createInfo(reader, repositoryId);
+                        final String path = reader.getElementText();
+                        final Resource resource = toResource(path, basePath, listedResource);
+                        info.setResource(resource);
+                        consumer.accept(info);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException | ParseException | IllegalArgumentException e) {
+            throw new IOException("can not read input", e);
+        }
+    }
+
+    private static Resource toResource(final String path, final Resource basePath, final Resource listedResource) {
+        if (path.startsWith(Resource.SEPARATOR)) {
+            final String prefix = basePath.getValue();
+            final String resource = StringUtils.removeStart(path, prefix);
+            return Resource.create(resource);
+        }
+        if (path.isEmpty()) {
+            return listedResource;
+        }
+        final Resource relative = Resource.create(path);
+        return listedResource.append(relative);
+    }
+
+    private ListReportParser() {
+        // prevent instantiation
+    }
+}
@@ -19,90 +19,132 @@ package de.shadowhunt.subversion.internal.jaxb;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Predicate;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-import javax.xml.bind.annotation.XmlAccessType;
-import javax.xml.bind.annotation.XmlAccessorType;
-import javax.xml.bind.annotation.XmlElement;
-import javax.xml.bind.annotation.XmlRootElement;
-import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
-import javax.xml.transform.stream.StreamSource;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import de.shadowhunt.subversion.LogEntry;
 import de.shadowhunt.subversion.Revision;
-import de.shadowhunt.subversion.SubversionException;
 import de.shadowhunt.subversion.internal.LogEntryImpl;
 import de.shadowhunt.subversion.internal.XmlConstants;
 import de.shadowhunt.subversion.internal.jaxb.converter.CreatedDateAdapter;
 import de.shadowhunt.subversion.internal.jaxb.converter.MessageAdapter;
-import de.shadowhunt.subversion.internal.jaxb.converter.RevisionAdapter;
 
-@XmlRootElement(namespace = XmlConstants.SVN_NAMESPACE, name = "log-report")
-@XmlAccessorType(XmlAccessType.FIELD)
+/**
+ * Incremental parser for {@code log-report} responses. Each {@link LogEntry} is handed over as soon as its
+ * {@code log-item} element has been read, so memory consumption does not depend on the number of entries.
+ */
 public final class LogEntryParser {
 
-    static class LogItemJaxb {
+    private static final QName AUTHOR = new QName(XmlConstants.DAV_NAMESPACE, "creator-displayname");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "creator-displayname", required = true)
-        String author;
+    private static final QName COMMENT = new QName(XmlConstants.DAV_NAMESPACE, "comment");
 
-        @XmlElement(namespace = XmlConstants.SVN_NAMESPACE, name = "date", required = true)
-        @XmlJavaTypeAdapter(CreatedDateAdapter.class)
-        Date date;
+    private static final QName DATE = new QName(XmlConstants.SVN_NAMESPACE, "date");
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "comment")
-        @XmlJavaTypeAdapter(MessageAdapter.class)
-        String message;
+    private static final XMLInputFactory FACTORY;
 
-        @XmlElement(namespace = XmlConstants.DAV_NAMESPACE, name = "version-name", required = true)
-        @XmlJavaTypeAdapter(RevisionAdapter.class)
-        Revision revision;
-    }
+    private static final QName LOG_ITEM = new QName(XmlConstants.SVN_NAMESPACE, "log-item");
 
-    private static final JAXBContext CONTEXT;
+    private static final QName VERSION_NAME = new QName(XmlConstants.DAV_NAMESPACE, "version-name");
 
     static {
-        try {
-            CONTEXT = JAXBContext.newInstance(LogEntryParser.class);
-        } catch (final JAXBException e) {
-            throw new SubversionException("can not create context", e);
-        }
+        FACTORY = XMLInputFactory.newInstance();
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
     }
 
-    private static List<LogEntry> convert(final List<LogItemJaxb> entries) {
-        final int size = entries.size();
-        final List<LogEntry> result = new ArrayList<>(size);
-        for (final LogItemJaxb entry : entries) {
-            final LogEntryImpl impl = new LogEntryImpl();
-            impl.setAuthor(entry.author);
-            impl.setDate(entry.date);
-            impl.setMessage(entry.message);
-            impl.setRevision(entry.revision);
-            result.add(impl);
-        }
+    public static List<LogEntry> parse(final InputStream input) throws IOException {
+        final List<LogEntry> result = new ArrayList<>();
+        parse(input, result::add);
         return result;
     }
 
-    public static List<LogEntry> parse(final InputStream input) throws IOException {
+    /**
+     * Parses the {@code log-report} and hands every {@link LogEntry} to the handler as soon as it is complete.
+     *
+     * @return {@code true} if the whole input has been processed, {@code false} if the handler requested to stop
+     */
+    public static boolean parse(final InputStream input, final Predicate<? super LogEntry> handler) throws IOException {
         try {
-            final Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
-            final StreamSource source = new StreamSource(input);
-            final LogEntryParser parser = (LogEntryParser) unmarshaller.unmarshal(source);
-            if (parser.logEntries == null) {
-                return Collections.emptyList();
+            final XMLStreamReader reader = FACTORY.createXMLStreamReader(input);
+            try {
+                return read(reader, handler);
+            } finally {
+                reader.close();
             }
-            return convert(parser.logEntries);
-        } catch (final JAXBException e) {
+        } catch (final XMLStreamException | ParseException | IllegalArgumentException e) {
             throw new IOException("can not read input", e);
         }
     }
 
-    @XmlElement(namespace = XmlConstants.SVN_NAMESPACE, name = "log-item")
-    private List<LogItemJaxb> logEntries;
+    private static boolean read(final XMLStreamReader reader, final Predicate<? super LogEntry> handler) throws ParseException, XMLStreamException {
+        final StringBuilder text = new StringBuilder();
+        LogEntryImpl entry = null;
+        int depth = 0;
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    text.setLength(0);
+                    if ((entry == null) && LOG_ITEM.equals(reader.getName())) {
+                        entry = new LogEntryImpl();
+                        depth = 0;
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (entry != null) {
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    if (entry == null) {
+                        break;
+                    }
+                    if (depth < 0) {
+                        if (!handler.test(entry)) {
+                            return false;
+                        }
+                        entry = null;
+                    } else if (depth == 0) {
+                        set(entry, reader.getName(), text.toString());
+                    }
+                    break;
+                default:
+                    // nothing to do
+            }
+        }
+        return true;
+    }
+
+    private static void set(final LogEntryImpl entry, final QName name, final String value) throws ParseException {
+        if (AUTHOR.equals(name)) {
+            entry.setAuthor(value);
+        } else if (COMMENT.equals(name)) {
+            final String message = MessageAdapter.parseMessage(value);
+            entry.setMessage(message);
+        } else if (DATE.equals(name)) {
+            final Date date = CreatedDateAdapter.parseDate(value);
+            entry.setDate(date);
+        } else if (VERSION_NAME.equals(name)) {
+            final int revision = Integer.parseInt(value);
+            entry.setRevision(Revision.create(revision));
+        }
+    }
+
+    private LogEntryParser() {
+        // prevent instantiation
+    }
 }
@@ -58,7 +58,7 @@ public class ProbeParser {
         }
     }
 
-    private static ProbeResult covert(final String path, final ProtocolVersion version) {
+    private static ProbeResult covert(final String path, final ProtocolVersion version, final boolean listReportSupported) {
         if ((ProtocolVersion.HTTP_V1 == version) || (ProtocolVersion.HTTP_V2 == version)) {
             // .../${svn}/act/
             // ____^^^^^^ <- prefix
@@ -74,17 +74,17 @@ public class ProbeParser {
             }
             final String value = sb.toString();
             final Resource basePath = Resource.create(value);
-            return new ProbeResult(version, basePath, prefix);
+            return new ProbeResult(version, basePath, prefix, listReportSupported);
         }
         throw new SubversionException("version not supported");
     }
 
-    public static ProbeResult parse(final InputStream input, final ProtocolVersion version) throws IOException {
+    public static ProbeResult parse(final InputStream input, final ProtocolVersion version, final boolean listReportSupported) throws IOException {
         try {
             final Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
             final StreamSource source = new StreamSource(input);
             final ProbeParser parser = (ProbeParser) unmarshaller.unmarshal(source);
-            return covert(parser.collection.href, version);
+            return covert(parser.collection.href, version, listReportSupported);
         } catch (final JAXBException e) {
             throw new IOException("can not read input", e);
         }
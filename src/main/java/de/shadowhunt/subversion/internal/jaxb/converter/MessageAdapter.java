@@ -35,6 +35,11 @@ public class MessageAdapter extends XmlAdapter<String, String> {
         UNMARSHALL_TRANSLATOR = new LookupTranslator(EntityArrays.JAVA_CTRL_CHARS_ESCAPE);
     }
 
+    public static String parseMessage(final String message) {
+        final String timmed = StringUtils.trimToEmpty(message);
+        return UNMARSHALL_TRANSLATOR.translate(timmed);
+    }
+
     @Override
     public String marshal(final String message) throws Exception {
         final String timmed = StringUtils.trimToEmpty(message);
@@ -43,8 +48,7 @@ public class MessageAdapter extends XmlAdapter<String, String> {
 
     @Override
     public String unmarshal(final String message) throws Exception {
-        final String timmed = StringUtils.trimToEmpty(message);
-        return UNMARSHALL_TRANSLATOR.translate(timmed);
+        return parseMessage(message);
     }
 
 }
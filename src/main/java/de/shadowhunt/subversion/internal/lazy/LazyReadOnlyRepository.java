@@ -0,0 +1,152 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.lazy;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.LogEntry;
+import de.shadowhunt.subversion.ReadOnlyRepository;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.View;
+
+/**
+ * Creates the delegate {@link ReadOnlyRepository} (which requires probing the server) in the background, every operation waits until the delegate is available.
+ */
+public class LazyReadOnlyRepository implements ReadOnlyRepository {
+
+    private final LazyReference<? extends ReadOnlyRepository> reference;
+
+    LazyReadOnlyRepository(final LazyReference<? extends ReadOnlyRepository> reference) {
+        this.reference = reference;
+    }
+
+    public LazyReadOnlyRepository(final Supplier<? extends ReadOnlyRepository> supplier, final Executor executor) {
+        this(new LazyReference<>(supplier, executor));
+    }
+
+    @Override
+    public final View createView() {
+        return reference.get().createView();
+    }
+
+    @Override
+    public final View createView(final boolean fresh) {
+        return reference.get().createView(fresh);
+    }
+
+    @Override
+    public final InputStream download(final View view, final Resource resource, final Revision revision) {
+        return reference.get().download(view, resource, revision);
+    }
+
+    @Override
+    public final InputStream download(final View view, final Resource resource, final Revision base, final Revision target, final InputStream baseContent) {
+        return reference.get().download(view, resource, base, target, baseContent);
+    }
+
+    @Override
+    public final void download(final View view, final Resource resource, final Revision revision, final Path target) {
+        reference.get().download(view, resource, revision, target);
+    }
+
+    @Override
+    public final void download(final View view, final Resource resource, final Revision revision, final WritableByteChannel target) {
+        reference.get().download(view, resource, revision, target);
+    }
+
+    @Override
+    public final void downloadSegmented(final View view, final Resource resource, final Revision revision, final FileChannel target) {
+        reference.get().downloadSegmented(view, resource, revision, target);
+    }
+
+    @Override
+    public final URI downloadURI(final View view, final Resource resource, final Revision revision) {
+        return reference.get().downloadURI(view, resource, revision);
+    }
+
+    @Override
+    public final boolean exists(final View view, final Resource resource, final Revision revision) {
+        return reference.get().exists(view, resource, revision);
+    }
+
+    @Override
+    public final Map<Resource, Boolean> existsAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        return reference.get().existsAll(view, resources, revision);
+    }
+
+    @Override
+    public final Resource getBasePath() {
+        return reference.get().getBasePath();
+    }
+
+    @Override
+    public final URI getBaseUri() {
+        return reference.get().getBaseUri();
+    }
+
+    @Override
+    public final ProtocolVersion getProtocolVersion() {
+        return reference.get().getProtocolVersion();
+    }
+
+    @Override
+    public final UUID getRepositoryId() {
+        return reference.get().getRepositoryId();
+    }
+
+    @Override
+    public final Info info(final View view, final Resource resource, final Revision revision) {
+        return reference.get().info(view, resource, revision);
+    }
+
+    @Override
+    public final Map<Resource, Optional<Info>> infoAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        return reference.get().infoAll(view, resources, revision);
+    }
+
+    @Override
+    public final NavigableSet<Info> list(final View view, final Resource resource, final Revision revision, final Depth depth) {
+        return reference.get().list(view, resource, revision, depth);
+    }
+
+    @Override
+    public final List<LogEntry> log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy) {
+        return reference.get().log(view, resource, startRevision, endRevision, limit, stopOnCopy);
+    }
+
+    @Override
+    public final void log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy, final Predicate<? super LogEntry> handler) {
+        reference.get().log(view, resource, startRevision, endRevision, limit, stopOnCopy, handler);
+    }
+}
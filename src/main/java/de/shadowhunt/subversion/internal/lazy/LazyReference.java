@@ -0,0 +1,101 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.lazy;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Value that is created in the background. Callers wait for the creation to complete; if it failed, the next caller creates the value again (in its own thread, or in the background if it does not want to wait).
+ */
+@ThreadSafe
+public final class LazyReference<T> {
+
+    private final Executor executor;
+
+    private final AtomicReference<CompletableFuture<T>> reference;
+
+    private final Supplier<T> supplier;
+
+    public LazyReference(final Supplier<T> supplier, final Executor executor) {
+        this.supplier = supplier;
+        this.executor = executor;
+        final CompletableFuture<T> future = CompletableFuture.supplyAsync(supplier, executor);
+        reference = new AtomicReference<>(future);
+    }
+
+    private void create(final CompletableFuture<T> future) {
+        try {
+            final T value = supplier.get();
+            future.complete(value);
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    T get() {
+        while (true) {
+            final CompletableFuture<T> current = reference.get();
+            try {
+                return current.join();
+            } catch (final CancellationException | CompletionException e) {
+                final CompletableFuture<T> retry = new CompletableFuture<>();
+                if (reference.compareAndSet(current, retry)) {
+                    return retry(retry);
+                }
+                // another caller is already retrying
+            }
+        }
+    }
+
+    /**
+     * @return {@link CompletableFuture} that completes with the value, if the creation failed before it is created again in the background
+     */
+    public CompletableFuture<T> getAsync() {
+        while (true) {
+            final CompletableFuture<T> current = reference.get();
+            if (!current.isCompletedExceptionally()) {
+                return current;
+            }
+
+            final CompletableFuture<T> retry = new CompletableFuture<>();
+            if (reference.compareAndSet(current, retry)) {
+                executor.execute(() -> create(retry));
+                return retry;
+            }
+            // another caller is already retrying
+        }
+    }
+
+    private T retry(final CompletableFuture<T> future) {
+        try {
+            final T value = supplier.get();
+            future.complete(value);
+            return value;
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.lazy;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.ResourceProperty;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction;
+
+public class LazyRepository extends LazyReadOnlyRepository implements Repository {
+
+    private final LazyReference<Repository> reference;
+
+    private LazyRepository(final LazyReference<Repository> reference) {
+        super(reference);
+        this.reference = reference;
+    }
+
+    public LazyRepository(final Supplier<Repository> supplier, final Executor executor) {
+        this(new LazyReference<>(supplier, executor));
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final InputStream content) {
+        reference.get().add(transaction, resource, parents, content);
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final byte[] content) {
+        reference.get().add(transaction, resource, parents, content);
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final ByteBuffer content) {
+        reference.get().add(transaction, resource, parents, content);
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final Path content) {
+        reference.get().add(transaction, resource, parents, content);
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final Supplier<InputStream> content, final long length) {
+        reference.get().add(transaction, resource, parents, content, length);
+    }
+
+    @Override
+    public final void addAll(final Transaction transaction, final Map<Resource, Supplier<InputStream>> contents, final boolean parents) {
+        reference.get().addAll(transaction, contents, parents);
+    }
+
+    @Override
+    public final void commit(final Transaction transaction, final String message, final boolean releaseLocks) {
+        reference.get().commit(transaction, message, releaseLocks);
+    }
+
+    @Override
+    public final void copy(final Transaction transaction, final Resource sourceResource, final Revision sourceRevision, final Resource targetResource, final boolean parents) {
+        reference.get().copy(transaction, sourceResource, sourceRevision, targetResource, parents);
+    }
+
+    @Override
+    public final Transaction createTransaction() {
+        return reference.get().createTransaction();
+    }
+
+    @Override
+    public final void delete(final Transaction transaction, final Resource resource) {
+        reference.get().delete(transaction, resource);
+    }
+
+    @Override
+    public final void lock(final Resource resource, final boolean steal) {
+        reference.get().lock(resource, steal);
+    }
+
+    @Override
+    public final void mkdir(final Transaction transaction, final Resource resource, final boolean parents) {
+        reference.get().mkdir(transaction, resource, parents);
+    }
+
+    @Override
+    public final void move(final Transaction transaction, final Resource sourceResource, final Resource targetResource, final boolean parents) {
+        reference.get().move(transaction, sourceResource, targetResource, parents);
+    }
+
+    @Override
+    public final void propertiesDelete(final Transaction transaction, final Resource resource, final ResourceProperty... properties) {
+        reference.get().propertiesDelete(transaction, resource, properties);
+    }
+
+    @Override
+    public final void propertiesSet(final Transaction transaction, final Resource resource, final ResourceProperty... properties) {
+        reference.get().propertiesSet(transaction, resource, properties);
+    }
+
+    @Override
+    public final void rollback(final Transaction transaction) {
+        reference.get().rollback(transaction);
+    }
+
+    @Override
+    public final void rollbackIfNotCommitted(final Transaction transaction) {
+        reference.get().rollbackIfNotCommitted(transaction);
+    }
+
+    @Override
+    public final void unlock(final Resource resource, final boolean force) {
+        reference.get().unlock(resource, force);
+    }
+}
@@ -20,22 +20,45 @@ package de.shadowhunt.subversion.internal.operation;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 
 import de.shadowhunt.subversion.SubversionException;
 import de.shadowhunt.subversion.TransmissionException;
+import de.shadowhunt.subversion.internal.TransferStatistics;
+import de.shadowhunt.subversion.metrics.MetricsRegistry;
+import de.shadowhunt.subversion.metrics.NoopMetricsRegistry;
+import de.shadowhunt.subversion.tracing.NoopSpanExporter;
+import de.shadowhunt.subversion.tracing.SpanExporter;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.client.RedirectLocations;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.protocol.HttpContext;
 
 public abstract class AbstractBaseOperation<E> implements Operation<E> {
 
+    private static void release(final HttpAsyncResponseConsumer<?> consumer, final Exception cause) {
+        try {
+            consumer.close();
+        } catch (final IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
     protected final HttpClient client;
 
     protected final HttpContext context;
@@ -92,18 +115,118 @@ public abstract class AbstractBaseOperation<E> implements Operation<E> {
         clearRedirects();
         try {
             final HttpUriRequest request = createRequest();
-            return client.execute(request, this, context);
+            prepare(request);
+
+            final OperationRecorder recorder = OperationRecorder.start(getMetricsRegistry(), getSpanExporter(), request, context);
+            try {
+                return client.execute(request, response -> {
+                    recorder.received(response);
+                    return handleResponse(response);
+                }, context);
+            } catch (final IOException | RuntimeException e) {
+                recorder.failed(e);
+                throw e;
+            } finally {
+                recorder.stop();
+            }
         } catch (final IOException e) {
             throw new TransmissionException(e);
         }
     }
 
+    @Override
+    public CompletableFuture<E> executeAsync(final HttpAsyncClient asyncClient) {
+        // the response is small enough to be buffered completely
+        return executeAsync(asyncClient, HttpAsyncMethods.createConsumer());
+    }
+
+    protected final CompletableFuture<E> executeAsync(final HttpAsyncClient asyncClient, final HttpAsyncResponseConsumer<HttpResponse> consumer) {
+        final CompletableFuture<E> future = new CompletableFuture<>();
+        final HttpUriRequest request;
+        try {
+            request = createRequest();
+        } catch (final IOException e) {
+            release(consumer, e);
+            future.completeExceptionally(new TransmissionException(e));
+            return future;
+        } catch (final RuntimeException e) {
+            release(consumer, e);
+            future.completeExceptionally(e);
+            return future;
+        }
+        prepare(request);
+
+        // requests are sent concurrently: each one gets its own child context and redirect history
+        final HttpContext requestContext = new BasicHttpContext(context);
+        requestContext.setAttribute(HttpClientContext.REDIRECT_LOCATIONS, new RedirectLocations());
+
+        final OperationRecorder recorder = OperationRecorder.start(getMetricsRegistry(), getSpanExporter(), request, requestContext);
+        // the span is finished on the I/O thread of the client
+        recorder.detach();
+        final FutureCallback<HttpResponse> callback = new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void cancelled() {
+                recorder.stop();
+                future.cancel(false);
+            }
+
+            @Override
+            public void completed(final HttpResponse response) {
+                try {
+                    recorder.received(response);
+                    final E result = handleResponse(response);
+                    recorder.stop();
+                    future.complete(result);
+                } catch (final IOException | RuntimeException e) {
+                    failed(e);
+                }
+            }
+
+            @Override
+            public void failed(final Exception e) {
+                recorder.failed(e);
+                recorder.stop();
+                if (e instanceof RuntimeException) {
+                    future.completeExceptionally(e);
+                } else if (e instanceof IOException) {
+                    future.completeExceptionally(new TransmissionException((IOException) e));
+                } else {
+                    future.completeExceptionally(new TransmissionException(new IOException(e)));
+                }
+            }
+        };
+
+        try {
+            asyncClient.execute(HttpAsyncMethods.create(request), consumer, requestContext, callback);
+        } catch (final RuntimeException e) {
+            // e.g. the client has not been started or has already been closed
+            release(consumer, e);
+            callback.failed(e);
+        }
+        return future;
+    }
+
     protected final InputStream getContent(final HttpResponse response) throws IOException {
         final HttpEntity entity = response.getEntity();
         if (entity == null) {
             throw new IOException("Invalid server response: entity is missing");
         }
-        return entity.getContent();
+        return TransferEncoding.decode(entity, getTransferStatistics());
+    }
+
+    /**
+     * @return the {@link MetricsRegistry} that records the metrics of the request
+     */
+    protected MetricsRegistry getMetricsRegistry() {
+        return NoopMetricsRegistry.INSTANCE;
+    }
+
+    /**
+     * @return the {@link SpanExporter} that receives the tracing span of the request
+     */
+    protected SpanExporter getSpanExporter() {
+        return NoopSpanExporter.INSTANCE;
     }
 
     protected final int getStatusCode(final HttpResponse response) {
@@ -114,12 +237,24 @@ public abstract class AbstractBaseOperation<E> implements Operation<E> {
         return statusLine.getStatusCode();
     }
 
+    /**
+     * @return the {@link TransferStatistics} that count the transferred bytes or {@code null} if they are not counted
+     */
+    @CheckForNull
+    protected TransferStatistics getTransferStatistics() {
+        return null;
+    }
+
     @Override
     public E handleResponse(final HttpResponse response) throws IOException {
         check(response);
         return processResponse(response);
     }
 
+    protected boolean isCompressionEnabled() {
+        return false;
+    }
+
     private boolean isExpectedStatusCode(final int statusCode) {
         for (final int expectedStatusCode : expectedStatusCodes) {
             if (statusCode == expectedStatusCode) {
@@ -129,6 +264,25 @@ public abstract class AbstractBaseOperation<E> implements Operation<E> {
         return false;
     }
 
+    /**
+     * Negotiates the compression of the response and counts the bytes of the request body, must be invoked before the request is sent.
+     */
+    protected final void prepare(final HttpUriRequest request) {
+        if (!request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            // an explicit header also keeps the client from negotiating a compression on its own
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, isCompressionEnabled() ? TransferEncoding.ACCEPTED_ENCODINGS : TransferEncoding.IDENTITY);
+        }
+
+        final TransferStatistics statistics = getTransferStatistics();
+        if ((statistics != null) && (request instanceof HttpEntityEnclosingRequest)) {
+            final HttpEntityEnclosingRequest enclosingRequest = (HttpEntityEnclosingRequest) request;
+            final HttpEntity entity = enclosingRequest.getEntity();
+            if (entity != null) {
+                enclosingRequest.setEntity(TransferEncoding.meter(entity, statistics));
+            }
+        }
+    }
+
     @Nullable
     protected abstract E processResponse(HttpResponse response) throws IOException;
 }
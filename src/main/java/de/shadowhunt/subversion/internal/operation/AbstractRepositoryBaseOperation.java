@@ -18,6 +18,9 @@
 package de.shadowhunt.subversion.internal.operation;
 
 import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.TransferStatistics;
+import de.shadowhunt.subversion.metrics.MetricsRegistry;
+import de.shadowhunt.subversion.tracing.SpanExporter;
 
 public abstract class AbstractRepositoryBaseOperation<R extends ReadOnlyRepositoryInternal, E> extends AbstractBaseOperation<E> {
 
@@ -27,4 +30,24 @@ public abstract class AbstractRepositoryBaseOperation<R extends ReadOnlyReposito
         super(repository.getClient(), repository.getContext(), expectedStatusCodes);
         this.repository = repository;
     }
+
+    @Override
+    protected MetricsRegistry getMetricsRegistry() {
+        return repository.getConfiguration().getMetricsRegistry();
+    }
+
+    @Override
+    protected SpanExporter getSpanExporter() {
+        return repository.getConfiguration().getSpanExporter();
+    }
+
+    @Override
+    protected TransferStatistics getTransferStatistics() {
+        return repository.getTransferStatistics();
+    }
+
+    @Override
+    protected boolean isCompressionEnabled() {
+        return repository.getConfiguration().isCompressionEnabled();
+    }
 }
@@ -0,0 +1,62 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.net.URI;
+
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+
+public class ContentLengthOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnlyRepositoryInternal, Long> {
+
+    private final QualifiedResource qualifiedResource;
+
+    public ContentLengthOperationHttpv1(final ReadOnlyRepositoryInternal repository, final QualifiedResource qualifiedResource) {
+        super(repository, HttpStatus.SC_OK);
+        this.qualifiedResource = qualifiedResource;
+    }
+
+    @Override
+    protected HttpUriRequest createRequest() {
+        final URI uri = repository.getRequestUri(qualifiedResource);
+        final DavTemplateRequest request = new DavTemplateRequest("HEAD", uri);
+        // length of the content itself, not of a compressed representation
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "identity");
+        return request;
+    }
+
+    @Override
+    protected Long processResponse(final HttpResponse response) throws IOException {
+        final Header header = response.getFirstHeader(HttpHeaders.CONTENT_LENGTH);
+        if (header == null) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(header.getValue().trim());
+        } catch (final NumberFormatException e) {
+            throw new IOException("Invalid server response: illegal content length " + header.getValue(), e);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Streams the content of a file into a {@link WritableByteChannel} and calculates the MD5 checksum of the content in the same pass. The content arrives as {@link InputStream}, so it is read into a heap buffer: a direct buffer would only add
+ * another copy. The response is consumed completely inside the response handler, so the connection is returned to the pool as soon as the content has been transferred.
+ */
+public class DownloadChannelOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnlyRepositoryInternal, String> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final QualifiedResource qualifiedResource;
+
+    private final WritableByteChannel target;
+
+    public DownloadChannelOperationHttpv1(final ReadOnlyRepositoryInternal repository, final QualifiedResource qualifiedResource, final WritableByteChannel target) {
+        super(repository, HttpStatus.SC_OK);
+        this.qualifiedResource = qualifiedResource;
+        this.target = target;
+    }
+
+    @Override
+    protected HttpUriRequest createRequest() {
+        final URI uri = repository.getRequestUri(qualifiedResource);
+        return new DavTemplateRequest("GET", uri);
+    }
+
+    /**
+     * @return the MD5 checksum of the transferred content (hex encoded)
+     */
+    @Override
+    protected String processResponse(final HttpResponse response) throws IOException {
+        final MessageDigest digest = DigestUtils.getMd5Digest();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (final InputStream content = getContent(response)) {
+            int read;
+            while ((read = content.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+                final ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                while (data.hasRemaining()) {
+                    target.write(data);
+                }
+            }
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import de.shadowhunt.subversion.TransmissionException;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.svndiff.SvndiffInputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.protocol.HttpContext;
+
+public class DownloadDeltaOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnlyRepositoryInternal, InputStream> {
+
+    private static final String ACCEPTED_DELTA_ENCODINGS = "svndiff1;q=0.9,svndiff;q=0.8";
+
+    private static final String DELTA_BASE_HEADER = "X-SVN-VR-Base";
+
+    private static boolean isDelta(final HttpEntity entity) {
+        final ContentType contentType = ContentType.get(entity);
+        return (contentType != null) && CONTENT_TYPE_SVNDIFF.getMimeType().equals(contentType.getMimeType());
+    }
+
+    private final InputStream baseContent;
+
+    private final QualifiedResource deltaBase;
+
+    private final QualifiedResource qualifiedResource;
+
+    public DownloadDeltaOperationHttpv1(final ReadOnlyRepositoryInternal repository, final QualifiedResource qualifiedResource, final QualifiedResource deltaBase, final InputStream baseContent) {
+        super(repository, HttpStatus.SC_OK);
+        this.qualifiedResource = qualifiedResource;
+        this.deltaBase = deltaBase;
+        this.baseContent = baseContent;
+    }
+
+    @Override
+    protected HttpUriRequest createRequest() {
+        final URI uri = repository.getRequestUri(qualifiedResource);
+        final DavTemplateRequest request = new DavTemplateRequest("GET", uri);
+        final URI baseUri = repository.getRequestUri(deltaBase);
+        request.addHeader(DELTA_BASE_HEADER, baseUri.getRawPath());
+        // svndiff is negotiated as content encoding, it replaces any transfer compression
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_DELTA_ENCODINGS);
+        return request;
+    }
+
+    @Override
+    public InputStream execute() {
+        clearRedirects();
+        try {
+            final HttpUriRequest request = createRequest();
+            prepare(request);
+
+            final HttpClient client = repository.getClient();
+            final HttpContext context = repository.getContext();
+            final OperationRecorder recorder = OperationRecorder.start(getMetricsRegistry(), getSpanExporter(), request, context);
+            try {
+                // do not use ResponseHandler feature, as it will close the InputStream
+                final HttpResponse response = client.execute(request, context);
+                recorder.received(response);
+                // the body is read by the caller: the recorder stops once the content has been read or closed
+                return recorder.track(handleResponse(response));
+            } catch (final IOException | RuntimeException e) {
+                recorder.failed(e);
+                recorder.stop();
+                throw e;
+            }
+        } catch (final IOException e) {
+            throw new TransmissionException(e);
+        }
+    }
+
+    @Override
+    protected InputStream processResponse(final HttpResponse response) throws IOException {
+        final HttpEntity entity = response.getEntity();
+        final InputStream content = getContent(response);
+        if (isDelta(entity)) {
+            return new SvndiffInputStream(baseContent, content);
+        }
+
+        // server ignored the delta base and sent the full text
+        baseContent.close();
+        return content;
+    }
+}
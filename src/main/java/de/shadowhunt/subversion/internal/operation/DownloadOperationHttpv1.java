@@ -17,21 +17,105 @@
  */
 package de.shadowhunt.subversion.internal.operation;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
 
 import de.shadowhunt.subversion.TransmissionException;
 import de.shadowhunt.subversion.internal.QualifiedResource;
 import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.nio.client.methods.ZeroCopyConsumer;
 import org.apache.http.protocol.HttpContext;
 
 public class DownloadOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnlyRepositoryInternal, InputStream> {
 
+    /**
+     * Body that has been written into a file, the file is removed once its content has been read and closed.
+     */
+    private static final class SpooledEntity extends AbstractHttpEntity {
+
+        private final Path spool;
+
+        SpooledEntity(final Path spool) {
+            this.spool = spool;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return Files.newInputStream(spool, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        @Override
+        public long getContentLength() {
+            return spool.toFile().length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            try (final InputStream content = getContent()) {
+                IOUtils.copy(content, output);
+            }
+        }
+    }
+
+    /**
+     * Writes the body into a file while it is received, so the I/O thread of the client never waits for the caller to read the content.
+     */
+    private static final class SpoolingConsumer extends ZeroCopyConsumer<HttpResponse> {
+
+        private final Path spool;
+
+        SpoolingConsumer(final Path spool) throws IOException {
+            super(spool.toFile());
+            this.spool = spool;
+        }
+
+        @Override
+        protected HttpResponse process(final HttpResponse response, final File file, final ContentType contentType) {
+            final SpooledEntity entity = new SpooledEntity(spool);
+            if (contentType != null) {
+                entity.setContentType(contentType.toString());
+            }
+            // the body is written as received, a compressed body is decoded while it is read
+            entity.setContentEncoding(response.getFirstHeader(HttpHeaders.CONTENT_ENCODING));
+            response.setEntity(entity);
+            return response;
+        }
+    }
+
+    private static void delete(final Path spool, final Throwable cause) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (final IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
     private final QualifiedResource qualifiedResource;
 
     public DownloadOperationHttpv1(final ReadOnlyRepositoryInternal repository, final QualifiedResource qualifiedResource) {
@@ -50,17 +134,56 @@ public class DownloadOperationHttpv1 extends AbstractRepositoryBaseOperation<Rea
         clearRedirects();
         try {
             final HttpUriRequest request = createRequest();
+            prepare(request);
 
             final HttpClient client = repository.getClient();
             final HttpContext context = repository.getContext();
-            // do not use ResponseHandler feature, as it will close the InputStream
-            final HttpResponse response = client.execute(request, context);
-            return handleResponse(response);
+            final OperationRecorder recorder = OperationRecorder.start(getMetricsRegistry(), getSpanExporter(), request, context);
+            try {
+                // do not use ResponseHandler feature, as it will close the InputStream
+                final HttpResponse response = client.execute(request, context);
+                recorder.received(response);
+                // the body is read by the caller: the recorder stops once the content has been read or closed
+                return recorder.track(handleResponse(response));
+            } catch (final IOException | RuntimeException e) {
+                recorder.failed(e);
+                recorder.stop();
+                throw e;
+            }
         } catch (final IOException e) {
             throw new TransmissionException(e);
         }
     }
 
+    @Override
+    public CompletableFuture<InputStream> executeAsync(final HttpAsyncClient asyncClient) {
+        final Path spool;
+        try {
+            spool = Files.createTempFile("svn-download-", ".tmp");
+        } catch (final IOException e) {
+            final CompletableFuture<InputStream> future = new CompletableFuture<>();
+            future.completeExceptionally(new TransmissionException(e));
+            return future;
+        }
+
+        final SpoolingConsumer consumer;
+        try {
+            consumer = new SpoolingConsumer(spool);
+        } catch (final IOException e) {
+            delete(spool, e);
+            final CompletableFuture<InputStream> future = new CompletableFuture<>();
+            future.completeExceptionally(new TransmissionException(e));
+            return future;
+        }
+
+        // on success the spooled file is removed once the caller closes the content
+        return executeAsync(asyncClient, consumer).whenComplete((content, e) -> {
+            if (e != null) {
+                delete(spool, e);
+            }
+        });
+    }
+
     @Override
     protected InputStream processResponse(final HttpResponse response) throws IOException {
         return getContent(response);
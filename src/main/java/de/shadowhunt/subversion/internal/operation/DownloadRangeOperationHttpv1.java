@@ -0,0 +1,111 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Downloads a byte range of a file and writes it at the same position into a {@link FileChannel}. Positional writes do not modify the position of the {@link FileChannel}, so several ranges can be written concurrently.
+ * <p>
+ * Only the range at offset {@code 0} accepts a server that ignores the range: the complete file is written then and its size is returned, so the caller can skip all further ranges.
+ */
+public class DownloadRangeOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnlyRepositoryInternal, Long> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long length;
+
+    private final long offset;
+
+    private final QualifiedResource qualifiedResource;
+
+    private final FileChannel target;
+
+    /**
+     * @param length
+     *            number of bytes to download, a negative value downloads everything from offset to the end of the file
+     */
+    public DownloadRangeOperationHttpv1(final ReadOnlyRepositoryInternal repository, final QualifiedResource qualifiedResource, final FileChannel target, final long offset, final long length) {
+        super(repository, (offset == 0L) ? new int[] { HttpStatus.SC_OK, HttpStatus.SC_PARTIAL_CONTENT } : new int[] { HttpStatus.SC_PARTIAL_CONTENT });
+        this.qualifiedResource = qualifiedResource;
+        this.target = target;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    private long copy(final InputStream content, final long limit) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long copied = 0L;
+        while (copied < limit) {
+            final int read = content.read(buffer, 0, (int) Math.min(buffer.length, limit - copied));
+            if (read < 0) {
+                break;
+            }
+            final ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+            while (data.hasRemaining()) {
+                target.write(data, offset + copied + data.position());
+            }
+            copied += read;
+        }
+        return copied;
+    }
+
+    @Override
+    protected HttpUriRequest createRequest() {
+        final URI uri = repository.getRequestUri(qualifiedResource);
+        final DavTemplateRequest request = new DavTemplateRequest("GET", uri);
+        if (length < 0L) {
+            request.addHeader(HttpHeaders.RANGE, "bytes=" + offset + '-');
+        } else {
+            request.addHeader(HttpHeaders.RANGE, "bytes=" + offset + '-' + ((offset + length) - 1L));
+        }
+        // ranges must address the content itself, not a compressed representation
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "identity");
+        return request;
+    }
+
+    @Override
+    protected Long processResponse(final HttpResponse response) throws IOException {
+        final int statusCode = getStatusCode(response);
+        try (final InputStream content = getContent(response)) {
+            if (statusCode == HttpStatus.SC_PARTIAL_CONTENT) {
+                final Header header = response.getFirstHeader(HttpHeaders.CONTENT_RANGE);
+                if ((header == null) || !header.getValue().trim().startsWith("bytes " + offset + '-')) {
+                    throw new IOException("Invalid server response: unexpected content range " + ((header == null) ? null : header.getValue()));
+                }
+                return copy(content, (length < 0L) ? Long.MAX_VALUE : length);
+            }
+
+            // server ignored the range and sends the complete file (only accepted at offset 0)
+            return copy(content, Long.MAX_VALUE);
+        }
+    }
+
+}
@@ -19,14 +19,12 @@ package de.shadowhunt.subversion.internal.operation;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
 import java.util.NavigableSet;
 import java.util.TreeSet;
 
 import de.shadowhunt.subversion.Depth;
 import de.shadowhunt.subversion.Info;
 import de.shadowhunt.subversion.Resource;
-import de.shadowhunt.subversion.internal.InfoImpl;
 import de.shadowhunt.subversion.internal.QualifiedResource;
 import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
 import de.shadowhunt.subversion.internal.jaxb.InfoParser;
@@ -43,9 +41,8 @@ public class ListOperationHttpv1 extends AbstractPropfindOperationHttpv1<Navigab
     protected NavigableSet<Info> processResponse(final HttpResponse response) throws IOException {
         try (final InputStream content = getContent(response)) {
             final Resource basePath = repository.getBasePath();
-            final List<InfoImpl> infoList = InfoParser.parse(content, basePath);
             final NavigableSet<Info> result = new TreeSet<>(Info.RESOURCE_COMPARATOR);
-            result.addAll(infoList);
+            InfoParser.parse(content, basePath, result::add);
             return result;
         }
     }
@@ -0,0 +1,125 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.ReadOnlyRepositoryInternal;
+import de.shadowhunt.subversion.internal.XmlConstants;
+import de.shadowhunt.subversion.internal.jaxb.ListReportParser;
+import org.apache.commons.io.output.StringBuilderWriter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
+
+public class ListReportOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnlyRepositoryInternal, NavigableSet<Info>> {
+
+    private static final String[] PROPERTIES = { "DAV:resourcetype", "DAV:version-name", "DAV:creationdate" };
+
+    private final Depth depth;
+
+    private final QualifiedResource qualifiedResource;
+
+    private final Revision revision;
+
+    /**
+     * @param qualifiedResource
+     *            resolved {@link QualifiedResource} of the listed directory, its suffix is the path of the directory in the listed revision
+     */
+    public ListReportOperationHttpv1(final ReadOnlyRepositoryInternal repository, final QualifiedResource qualifiedResource, final Revision revision, final Depth depth) {
+        super(repository, HttpStatus.SC_OK);
+        this.qualifiedResource = qualifiedResource;
+        this.revision = revision;
+        this.depth = depth;
+    }
+
+    @Override
+    protected HttpUriRequest createRequest() throws IOException {
+        final URI uri = repository.getRequestUri(qualifiedResource);
+        final DavTemplateRequest request = new DavTemplateRequest("REPORT", uri);
+
+        final HttpEntity entity = createRequestBody();
+        request.setEntity(entity);
+        return request;
+    }
+
+    protected HttpEntity createRequestBody() throws IOException {
+        try (final Writer body = new StringBuilderWriter()) {
+            try {
+                final XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(body);
+                writer.writeStartDocument(XmlConstants.ENCODING, XmlConstants.VERSION_1_0);
+                writer.writeStartElement("list-report");
+                writer.writeDefaultNamespace(XmlConstants.SVN_NAMESPACE);
+                writer.writeEmptyElement("path");
+                writer.writeStartElement("revision");
+                final String revisionValue = revision.toString();
+                writer.writeCharacters(revisionValue);
+                writer.writeEndElement(); // revision
+                writer.writeStartElement("depth");
+                final String depthValue = depth.name().toLowerCase(Locale.US);
+                writer.writeCharacters(depthValue);
+                writer.writeEndElement(); // depth
+                for (final String property : PROPERTIES) {
+                    writer.writeStartElement("prop");
+                    writer.writeCharacters(property);
+                    writer.writeEndElement(); // prop
+                }
+                writer.writeEndElement(); // list-report
+                writer.writeEndDocument();
+                writer.close();
+            } catch (final XMLStreamException e) {
+                throw new IOException("could not create request body", e);
+            }
+
+            final String payload = body.toString();
+            return new StringEntity(payload, CONTENT_TYPE_XML);
+        }
+    }
+
+    @Override
+    protected NavigableSet<Info> processResponse(final HttpResponse response) throws IOException {
+        try (final InputStream content = getContent(response)) {
+            final Resource basePath = repository.getBasePath();
+            // relative items are located below the listed directory as it was named in the listed revision (it may have been moved or copied since), as the PROPFIND listing reports them
+            final String listedPath = StringUtils.removeStart(qualifiedResource.getSuffix().getValue(), basePath.getValue());
+            final Resource listedResource = Resource.create(listedPath);
+            final UUID repositoryId = repository.getRepositoryId();
+            final NavigableSet<Info> result = new TreeSet<>(Info.RESOURCE_COMPARATOR);
+            ListReportParser.parse(content, basePath, listedResource, repositoryId, result::add);
+            return result;
+        }
+    }
+}
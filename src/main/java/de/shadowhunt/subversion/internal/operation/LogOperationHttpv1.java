@@ -21,7 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
 import java.net.URI;
-import java.util.List;
+import java.util.function.Predicate;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
@@ -37,12 +37,15 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectionReleaseTrigger;
 import org.apache.http.entity.StringEntity;
 
-public class LogOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnlyRepositoryInternal, List<LogEntry>> {
+public class LogOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnlyRepositoryInternal, Void> {
 
     private final Revision endRevision;
 
+    private final Predicate<? super LogEntry> handler;
+
     private final int limit;
 
     private final QualifiedResource qualifiedResource;
@@ -51,13 +54,14 @@ public class LogOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnly
 
     private final boolean stopOnCopy;
 
-    public LogOperationHttpv1(final ReadOnlyRepositoryInternal repository, final QualifiedResource qualifiedResource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy) {
+    public LogOperationHttpv1(final ReadOnlyRepositoryInternal repository, final QualifiedResource qualifiedResource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy, final Predicate<? super LogEntry> handler) {
         super(repository, HttpStatus.SC_OK);
         this.qualifiedResource = qualifiedResource;
         this.startRevision = startRevision;
         this.endRevision = endRevision;
         this.limit = limit;
         this.stopOnCopy = stopOnCopy;
+        this.handler = handler;
     }
 
     @Override
@@ -110,10 +114,15 @@ public class LogOperationHttpv1 extends AbstractRepositoryBaseOperation<ReadOnly
     }
 
     @Override
-    protected List<LogEntry> processResponse(final HttpResponse response) throws IOException {
+    protected Void processResponse(final HttpResponse response) throws IOException {
         try (final InputStream content = getContent(response)) {
-            return LogEntryParser.parse(content);
+            final boolean complete = LogEntryParser.parse(content, handler);
+            if (!complete && (content instanceof ConnectionReleaseTrigger)) {
+                // closing the stream would read the remaining entries, drop the connection instead
+                ((ConnectionReleaseTrigger) content).abortConnection();
+            }
         }
+        return null;
     }
 
 }
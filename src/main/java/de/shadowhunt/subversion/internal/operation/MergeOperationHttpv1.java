@@ -20,13 +20,11 @@ package de.shadowhunt.subversion.internal.operation;
 import java.io.IOException;
 import java.io.Writer;
 import java.net.URI;
-import java.util.Optional;
-import java.util.Set;
+import java.util.Map;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
-import de.shadowhunt.subversion.Info;
 import de.shadowhunt.subversion.LockToken;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.internal.QualifiedResource;
@@ -41,16 +39,16 @@ import org.apache.http.entity.StringEntity;
 
 public class MergeOperationHttpv1 extends AbstractRepositoryBaseOperation<RepositoryInternal, Void> {
 
-    private final Set<Info> infos;
+    private final Map<Resource, LockToken> lockTokens;
 
     private final QualifiedResource qualifiedResource;
 
     private final boolean releaseLocks;
 
-    public MergeOperationHttpv1(final RepositoryInternal repository, final QualifiedResource qualifiedResource, final Set<Info> infos, final boolean releaseLocks) {
+    public MergeOperationHttpv1(final RepositoryInternal repository, final QualifiedResource qualifiedResource, final Map<Resource, LockToken> lockTokens, final boolean releaseLocks) {
         super(repository, HttpStatus.SC_OK);
         this.qualifiedResource = qualifiedResource;
-        this.infos = infos;
+        this.lockTokens = lockTokens;
         this.releaseLocks = releaseLocks;
     }
 
@@ -91,34 +89,31 @@ public class MergeOperationHttpv1 extends AbstractRepositoryBaseOperation<Reposi
                 writer.writeEmptyElement("creationdate");
                 writer.writeEmptyElement("creator-displayname");
                 writer.writeEndElement(); // prop
-                if (!infos.isEmpty()) {
+                if (!lockTokens.isEmpty()) {
                     writer.setPrefix(XmlConstants.SVN_PREFIX, XmlConstants.SVN_NAMESPACE);
                     writer.writeStartElement(XmlConstants.SVN_NAMESPACE, "lock-token-list");
                     writer.writeNamespace(XmlConstants.SVN_PREFIX, XmlConstants.SVN_NAMESPACE);
                     final Resource basePath = repository.getBasePath();
-                    for (final Info info : infos) {
-                        final Optional<LockToken> lockToken = info.getLockToken();
-                        if (lockToken.isPresent()) {
-                            final Resource infoResource = info.getResource();
+                    for (final Map.Entry<Resource, LockToken> entry : lockTokens.entrySet()) {
+                        final Resource resource = entry.getKey();
 
-                            writer.writeStartElement(XmlConstants.SVN_NAMESPACE, "lock");
-                            writer.writeStartElement(XmlConstants.SVN_NAMESPACE, "lock-path");
-                            if (Resource.ROOT.equals(basePath)) {
-                                final String valueWithoutLeadingSeparator = infoResource.getValueWithoutLeadingSeparator();
-                                writer.writeCData(valueWithoutLeadingSeparator);
-                            } else {
-                                final String valueWithoutLeadingSeparator = basePath.getValueWithoutLeadingSeparator();
-                                final String value = infoResource.getValue();
-                                writer.writeCData(valueWithoutLeadingSeparator + value);
-                            }
-                            writer.writeEndElement(); // lock-path
-                            writer.writeStartElement(XmlConstants.SVN_NAMESPACE, "lock-token");
-                            final LockToken token = lockToken.get();
-                            final String tokenValue = token.toString();
-                            writer.writeCharacters(tokenValue);
-                            writer.writeEndElement(); // lock-token
-                            writer.writeEndElement(); // lock
+                        writer.writeStartElement(XmlConstants.SVN_NAMESPACE, "lock");
+                        writer.writeStartElement(XmlConstants.SVN_NAMESPACE, "lock-path");
+                        if (Resource.ROOT.equals(basePath)) {
+                            final String valueWithoutLeadingSeparator = resource.getValueWithoutLeadingSeparator();
+                            writer.writeCData(valueWithoutLeadingSeparator);
+                        } else {
+                            final String valueWithoutLeadingSeparator = basePath.getValueWithoutLeadingSeparator();
+                            final String value = resource.getValue();
+                            writer.writeCData(valueWithoutLeadingSeparator + value);
                         }
+                        writer.writeEndElement(); // lock-path
+                        writer.writeStartElement(XmlConstants.SVN_NAMESPACE, "lock-token");
+                        final LockToken token = entry.getValue();
+                        final String tokenValue = token.toString();
+                        writer.writeCharacters(tokenValue);
+                        writer.writeEndElement(); // lock-token
+                        writer.writeEndElement(); // lock
                     }
                     writer.writeEndElement(); // lock-token-list
                 }
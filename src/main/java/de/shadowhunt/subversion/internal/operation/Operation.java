@@ -17,18 +17,23 @@
  */
 package de.shadowhunt.subversion.internal.operation;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.annotation.Nullable;
 import javax.xml.stream.XMLOutputFactory;
 
 import de.shadowhunt.subversion.internal.XmlConstants;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.entity.ContentType;
+import org.apache.http.nio.client.HttpAsyncClient;
 
 /**
  * An {@code Operation} represents a single HTTP request/response pair
  */
 public interface Operation<E> extends ResponseHandler<E> {
 
+    ContentType CONTENT_TYPE_SVNDIFF = ContentType.create("application/vnd.svn-svndiff");
+
     ContentType CONTENT_TYPE_XML = ContentType.create("text/xml", XmlConstants.ENCODING);
 
     XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
@@ -40,4 +45,14 @@ public interface Operation<E> extends ResponseHandler<E> {
      */
     @Nullable
     E execute();
+
+    /**
+     * Send the current {@code Operation} to the Subversion server without blocking the calling thread, the response is processed on an I/O thread of the {@link HttpAsyncClient}
+     *
+     * @param client
+     *            {@link HttpAsyncClient} (already started) that sends the request
+     *
+     * @return {@link CompletableFuture} that completes with the processed response
+     */
+    CompletableFuture<E> executeAsync(HttpAsyncClient client);
 }
@@ -0,0 +1,256 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.shadowhunt.subversion.http.client.SubversionRequestExecutor;
+import de.shadowhunt.subversion.http.client.SubversionRequestRetryHandler;
+import de.shadowhunt.subversion.internal.tracing.ActiveSpan;
+import de.shadowhunt.subversion.metrics.MetricsRegistry;
+import de.shadowhunt.subversion.tracing.SpanExporter;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Records the metrics and the tracing span of a single request/response pair.
+ */
+final class OperationRecorder {
+
+    /**
+     * Stops the recorder once the content has been read completely, has been closed or could not be read.
+     */
+    private static final class TrackedInputStream extends ProxyInputStream {
+
+        private final OperationRecorder recorder;
+
+        TrackedInputStream(final InputStream content, final OperationRecorder recorder) {
+            super(content);
+            this.recorder = recorder;
+        }
+
+        @Override
+        protected void afterRead(final int n) {
+            if (n < 0) {
+                recorder.stop();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                recorder.stop();
+            }
+        }
+
+        @Override
+        protected void handleIOException(final IOException e) throws IOException {
+            recorder.failed(e);
+            recorder.stop();
+            throw e;
+        }
+    }
+
+    private static final String PREFIX = "subversion.operation.";
+
+    static OperationRecorder start(final MetricsRegistry registry, final SpanExporter exporter, final HttpUriRequest request, final HttpContext context) {
+        final String method = request.getMethod();
+        final ActiveSpan span = ActiveSpan.start(exporter, method);
+        span.attribute("http.method", method);
+        span.attribute("http.uri", request.getURI());
+
+        final String name = PREFIX + method;
+        final OperationRecorder recorder = new OperationRecorder(registry, span, name, context);
+        if (request instanceof HttpEntityEnclosingRequest) {
+            final HttpEntityEnclosingRequest enclosingRequest = (HttpEntityEnclosingRequest) request;
+            final HttpEntity entity = enclosingRequest.getEntity();
+            if (entity != null) {
+                enclosingRequest.setEntity(TransferEncoding.count(entity, recorder.requestBytes::addAndGet));
+                recorder.requestBody = true;
+            }
+        }
+        return recorder;
+    }
+
+    private static long timestamp(final HttpContext context, final String attribute) {
+        final Object value = context.getAttribute(attribute);
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        return -1L;
+    }
+
+    private long connected = -1L;
+
+    private final HttpContext context;
+
+    private final String name;
+
+    private long received = -1L;
+
+    private final MetricsRegistry registry;
+
+    private boolean released = false;
+
+    private boolean requestBody = false;
+
+    private final AtomicLong requestBytes = new AtomicLong();
+
+    private long requestSent = -1L;
+
+    private boolean responseBody = false;
+
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    private long responseReceived = -1L;
+
+    private final AtomicInteger retries = new AtomicInteger();
+
+    private final ActiveSpan span;
+
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    private OperationRecorder(final MetricsRegistry registry, final ActiveSpan span, final String name, final HttpContext context) {
+        this.registry = registry;
+        this.span = span;
+        this.name = name;
+        this.context = context;
+
+        context.setAttribute(SubversionRequestRetryHandler.RETRY_COUNTER, retries);
+        // the context is reused for subsequent requests
+        context.removeAttribute(SubversionRequestExecutor.CONNECTED);
+        context.removeAttribute(SubversionRequestExecutor.REQUEST_SENT);
+        context.removeAttribute(SubversionRequestExecutor.RESPONSE_RECEIVED);
+    }
+
+    /**
+     * Keeps the recorder running while the calling thread continues, it has to be stopped explicitly on any thread.
+     */
+    void detach() {
+        span.detach();
+    }
+
+    void failed(final Throwable cause) {
+        registry.counter(name + ".errors").increment();
+        span.failed(cause);
+    }
+
+    void received(final HttpResponse response) {
+        received = System.nanoTime();
+        release();
+
+        final StatusLine statusLine = response.getStatusLine();
+        if (statusLine != null) {
+            final int statusCode = statusLine.getStatusCode();
+            registry.counter(name + ".status." + statusCode).increment();
+            span.attribute("http.status", statusCode);
+        }
+
+        final HttpEntity entity = response.getEntity();
+        if (entity != null) {
+            response.setEntity(TransferEncoding.count(entity, responseBytes::addAndGet));
+            responseBody = true;
+        }
+    }
+
+    private void recordBytes(final String direction, final long bytes) {
+        registry.histogram(name + "." + direction + ".bytes").record(bytes);
+        span.attribute("http." + direction + ".bytes", bytes);
+    }
+
+    private void recordPhases(final long end) {
+        final long start = span.getStartNanos();
+        if ((connected >= 0L) && (requestSent >= 0L) && (responseReceived >= 0L)) {
+            span.phase("connection", connected - start);
+            span.phase("request", requestSent - connected);
+            span.phase("ttfb", responseReceived - requestSent);
+        } else if (received >= 0L) {
+            span.phase("ttfb", received - start);
+        }
+
+        if (received >= 0L) {
+            span.phase("body", end - received);
+        }
+    }
+
+    /**
+     * Takes the timestamps of the request out of the context, which is reused by the next request while the content of this one may still be read.
+     */
+    private void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+
+        connected = timestamp(context, SubversionRequestExecutor.CONNECTED);
+        requestSent = timestamp(context, SubversionRequestExecutor.REQUEST_SENT);
+        responseReceived = timestamp(context, SubversionRequestExecutor.RESPONSE_RECEIVED);
+        context.removeAttribute(SubversionRequestRetryHandler.RETRY_COUNTER);
+    }
+
+    /**
+     * Finishes the span, only the first invocation has an effect.
+     */
+    void stop() {
+        if (!stopped.compareAndSet(false, true)) {
+            return;
+        }
+
+        release();
+        final int retried = retries.get();
+        if (retried > 0) {
+            registry.counter(name + ".retries").increment(retried);
+            span.attribute("http.retries", retried);
+        }
+
+        // the bytes that have actually been transferred: chunked bodies don't declare their length and the body may be read only partially
+        if (requestBody) {
+            recordBytes("request", requestBytes.get());
+        }
+        if (responseBody) {
+            recordBytes("response", responseBytes.get());
+        }
+
+        if (span.isRecording()) {
+            recordPhases(System.nanoTime());
+        }
+        final long nanoseconds = span.finish();
+        registry.histogram(name).record(nanoseconds);
+    }
+
+    /**
+     * Keeps the recorder running while the caller reads the content outside of the response handler, it is stopped once the content has been read completely, has been closed or could not be read.
+     *
+     * @return the content, that stops the recorder
+     */
+    InputStream track(final InputStream content) {
+        span.detach();
+        return new TrackedInputStream(content, this);
+    }
+}
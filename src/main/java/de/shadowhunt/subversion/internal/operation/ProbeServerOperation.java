@@ -31,6 +31,7 @@ import de.shadowhunt.subversion.internal.XmlConstants;
 import de.shadowhunt.subversion.internal.jaxb.ProbeParser;
 import org.apache.commons.io.output.StringBuilderWriter;
 import org.apache.http.Header;
+import org.apache.http.HeaderElement;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
@@ -41,6 +42,8 @@ import org.apache.http.protocol.HttpContext;
 
 public class ProbeServerOperation extends AbstractBaseOperation<ProbeResult> {
 
+    private static final String LIST_CAPABILITY = "http://subversion.tigris.org/xmlns/dav/svn/list";
+
     private final URI uri;
 
     public ProbeServerOperation(final URI uri, final HttpClient client, final HttpContext context) {
@@ -77,6 +80,18 @@ public class ProbeServerOperation extends AbstractBaseOperation<ProbeResult> {
         }
     }
 
+    private boolean determineListReportSupport(final Header... headers) {
+        for (final Header header : headers) {
+            for (final HeaderElement element : header.getElements()) {
+                final String name = element.getName();
+                if (LIST_CAPABILITY.equals(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private ProtocolVersion determineVersion(final Header... headers) {
         for (final Header header : headers) {
             final String name = header.getName();
@@ -92,7 +107,9 @@ public class ProbeServerOperation extends AbstractBaseOperation<ProbeResult> {
         try (final InputStream content = getContent(response)) {
             final Header[] headers = response.getAllHeaders();
             final ProtocolVersion version = determineVersion(headers);
-            return ProbeParser.parse(content, version);
+            final Header[] davHeaders = response.getHeaders("DAV");
+            final boolean listReportSupported = determineListReportSupport(davHeaders);
+            return ProbeParser.parse(content, version, listReportSupported);
         }
     }
 }
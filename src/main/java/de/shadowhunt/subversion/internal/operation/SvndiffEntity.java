@@ -0,0 +1,124 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.CheckForNull;
+
+import de.shadowhunt.subversion.internal.AbstractUploadContent;
+import de.shadowhunt.subversion.internal.svndiff.SvndiffEncoder;
+import org.apache.commons.io.input.ClosedInputStream;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.http.entity.AbstractHttpEntity;
+
+/**
+ * Request body in svndiff format: either a precomputed delta or a full text that is encoded (against an empty source) while it is sent, the latter is repeatable if its {@link AbstractUploadContent} is. Only
+ * {@link #getContent()} spools the encoded full text into a temporary file.
+ */
+final class SvndiffEntity extends AbstractHttpEntity {
+
+    static SvndiffEntity delta(final Path delta, final long resultLength) {
+        return new SvndiffEntity(delta, null, 0, resultLength);
+    }
+
+    static SvndiffEntity fullText(final AbstractUploadContent content, final int version) {
+        return new SvndiffEntity(null, content, version, 0L);
+    }
+
+    @CheckForNull
+    private final AbstractUploadContent content;
+
+    @CheckForNull
+    private final Path delta;
+
+    private volatile long rawLength;
+
+    private final int version;
+
+    private SvndiffEntity(@CheckForNull final Path delta, @CheckForNull final AbstractUploadContent content, final int version, final long rawLength) {
+        this.delta = delta;
+        this.content = content;
+        this.version = version;
+        this.rawLength = rawLength;
+        setContentType(Operation.CONTENT_TYPE_SVNDIFF.toString());
+        setChunked(delta == null);
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        if (delta != null) {
+            return Files.newInputStream(delta);
+        }
+
+        // the full text is encoded into a temporary file, that is removed once the returned stream is closed
+        final Path encoded = Files.createTempFile("svn-svndiff-", ".tmp");
+        try {
+            try (final OutputStream output = Files.newOutputStream(encoded)) {
+                writeTo(output);
+            }
+            return Files.newInputStream(encoded, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(encoded);
+            throw e;
+        }
+    }
+
+    @Override
+    public long getContentLength() {
+        if (delta == null) {
+            return -1L;
+        }
+        return delta.toFile().length();
+    }
+
+    /**
+     * @return number of bytes of the full text, for encoded full texts only known after the content has been sent
+     */
+    long getRawLength() {
+        return rawLength;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return (delta != null) || content.isRepeatable();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return !isRepeatable();
+    }
+
+    @Override
+    public void writeTo(final OutputStream output) throws IOException {
+        if (delta != null) {
+            Files.copy(delta, output);
+            return;
+        }
+
+        try (final CountingInputStream counting = new CountingInputStream(content.open())) {
+            new SvndiffEncoder(version).encode(ClosedInputStream.CLOSED_INPUT_STREAM, counting, output);
+            rawLength = counting.getByteCount();
+        }
+    }
+}
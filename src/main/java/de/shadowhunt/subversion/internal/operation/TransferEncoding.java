@@ -0,0 +1,207 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+
+import javax.annotation.CheckForNull;
+
+import de.shadowhunt.subversion.internal.TransferStatistics;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.DecompressingEntity;
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.http.conn.ConnectionReleaseTrigger;
+import org.apache.http.entity.HttpEntityWrapper;
+
+/**
+ * Decompresses response bodies while they are read and counts the bytes of requests and responses.
+ */
+final class TransferEncoding {
+
+    /**
+     * Counts the bytes of the body that are actually read or written, regardless of the declared length.
+     */
+    private static final class CountedEntity extends HttpEntityWrapper {
+
+        private final LongConsumer counter;
+
+        CountedEntity(final HttpEntity entity, final LongConsumer counter) {
+            super(entity);
+            this.counter = counter;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            final InputStream content = wrappedEntity.getContent();
+            if (content == null) {
+                return null;
+            }
+            final ConnectionReleaseTrigger trigger = (content instanceof ConnectionReleaseTrigger) ? (ConnectionReleaseTrigger) content : null;
+            return new MeteredInputStream(content, trigger, counter);
+        }
+
+        boolean isDecompressed() {
+            return TransferEncoding.isDecompressed(wrappedEntity);
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            final CountingOutputStream counting = new CountingOutputStream(output);
+            try {
+                wrappedEntity.writeTo(counting);
+            } finally {
+                counter.accept(counting.getByteCount());
+            }
+        }
+    }
+
+    private static final class MeteredEntity extends HttpEntityWrapper {
+
+        private final TransferStatistics statistics;
+
+        MeteredEntity(final HttpEntity entity, final TransferStatistics statistics) {
+            super(entity);
+            this.statistics = statistics;
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            final CountingOutputStream counting = new CountingOutputStream(output);
+            wrappedEntity.writeTo(counting);
+
+            final long wireBytes = counting.getByteCount();
+            final long rawBytes = (wrappedEntity instanceof SvndiffEntity) ? ((SvndiffEntity) wrappedEntity).getRawLength() : wireBytes;
+            statistics.sent(rawBytes, wireBytes);
+        }
+    }
+
+    /**
+     * Counts the bytes read from the wrapped stream. The connection of the original response can still be released or aborted through the decorated stream.
+     */
+    private static final class MeteredInputStream extends ProxyInputStream implements ConnectionReleaseTrigger {
+
+        private final LongConsumer counter;
+
+        @CheckForNull
+        private final ConnectionReleaseTrigger trigger;
+
+        MeteredInputStream(final InputStream input, @CheckForNull final ConnectionReleaseTrigger trigger, final LongConsumer counter) {
+            super(input);
+            this.trigger = trigger;
+            this.counter = counter;
+        }
+
+        @Override
+        public void abortConnection() throws IOException {
+            if (trigger == null) {
+                close();
+            } else {
+                trigger.abortConnection();
+            }
+        }
+
+        @Override
+        protected void afterRead(final int n) {
+            if (n > 0) {
+                counter.accept(n);
+            }
+        }
+
+        @Override
+        public void releaseConnection() throws IOException {
+            if (trigger == null) {
+                close();
+            } else {
+                trigger.releaseConnection();
+            }
+        }
+    }
+
+    static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+    static final String IDENTITY = "identity";
+
+    private static final LongConsumer IGNORE = n -> {
+        // not metered
+    };
+
+    static HttpEntity count(final HttpEntity entity, final LongConsumer counter) {
+        return new CountedEntity(entity, counter);
+    }
+
+    static InputStream decode(final HttpEntity entity, @CheckForNull final TransferStatistics statistics) throws IOException {
+        final InputStream wire = entity.getContent();
+        final ConnectionReleaseTrigger trigger = (wire instanceof ConnectionReleaseTrigger) ? (ConnectionReleaseTrigger) wire : null;
+
+        if (isDecompressed(entity)) {
+            // the client has negotiated the encoding on its own (see HttpClientBuilder#disableContentCompression()) and already decompresses the body: the compressed size is not available anymore
+            if (statistics == null) {
+                return wire;
+            }
+            return new MeteredInputStream(wire, trigger, n -> statistics.received(n, 0L));
+        }
+
+        final Header contentEncoding = entity.getContentEncoding();
+        final String encoding = (contentEncoding == null) ? IDENTITY : contentEncoding.getValue().trim().toLowerCase(Locale.ENGLISH);
+        if (IDENTITY.equals(encoding) || encoding.isEmpty()) {
+            if (statistics == null) {
+                return wire;
+            }
+            return new MeteredInputStream(wire, trigger, n -> statistics.received(n, n));
+        }
+
+        final InputStream counted = new MeteredInputStream(wire, trigger, (statistics == null) ? IGNORE : n -> statistics.received(0L, n));
+        final InputStream decoded;
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                decoded = new GZIPInputStream(counted);
+                break;
+            case "deflate":
+                decoded = new DeflateInputStream(counted);
+                break;
+            default:
+                counted.close();
+                throw new IOException("Unsupported content encoding: " + encoding);
+        }
+        return new MeteredInputStream(decoded, trigger, (statistics == null) ? IGNORE : n -> statistics.received(n, 0L));
+    }
+
+    private static boolean isDecompressed(final HttpEntity entity) {
+        if (entity instanceof CountedEntity) {
+            return ((CountedEntity) entity).isDecompressed();
+        }
+        return (entity instanceof DecompressingEntity);
+    }
+
+    static HttpEntity meter(final HttpEntity entity, final TransferStatistics statistics) {
+        return new MeteredEntity(entity, statistics);
+    }
+
+    private TransferEncoding() {
+        // prevent instantiation
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import de.shadowhunt.subversion.internal.AbstractUploadContent;
+import org.apache.http.entity.AbstractHttpEntity;
+
+/**
+ * Request body with the content of a file, the request is repeatable if the {@link AbstractUploadContent} is.
+ */
+final class UploadContentEntity extends AbstractHttpEntity {
+
+    private final AbstractUploadContent content;
+
+    UploadContentEntity(final AbstractUploadContent content) {
+        this.content = content;
+        setChunked(content.getLength() < 0L);
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return content.open();
+    }
+
+    @Override
+    public long getContentLength() {
+        return content.getLength();
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return content.isRepeatable();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return !content.isRepeatable();
+    }
+
+    @Override
+    public void writeTo(final OutputStream output) throws IOException {
+        content.writeTo(output);
+    }
+}
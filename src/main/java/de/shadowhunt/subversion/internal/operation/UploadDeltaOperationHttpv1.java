@@ -0,0 +1,84 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import de.shadowhunt.subversion.LockToken;
+import de.shadowhunt.subversion.internal.QualifiedResource;
+import de.shadowhunt.subversion.internal.RepositoryInternal;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Uploads the content of a file as svndiff delta against its content in the base revision of the transaction.
+ */
+public class UploadDeltaOperationHttpv1 extends AbstractRepositoryBaseOperation<RepositoryInternal, Void> {
+
+    private static final String BASE_MD5_HEADER = "X-SVN-Base-Fulltext-MD5";
+
+    private static final String RESULT_MD5_HEADER = "X-SVN-Result-Fulltext-MD5";
+
+    private final String baseMd5;
+
+    private final Path delta;
+
+    private final Optional<LockToken> lockToken;
+
+    private final QualifiedResource qualifiedResource;
+
+    private final long resultLength;
+
+    private final String resultMd5;
+
+    public UploadDeltaOperationHttpv1(final RepositoryInternal repository, final QualifiedResource qualifiedResource, final Optional<LockToken> lockToken, final Path delta, final String baseMd5, final String resultMd5, final long resultLength) {
+        super(repository, HttpStatus.SC_CREATED, HttpStatus.SC_NO_CONTENT);
+        this.qualifiedResource = qualifiedResource;
+        this.lockToken = lockToken;
+        this.delta = delta;
+        this.baseMd5 = baseMd5;
+        this.resultMd5 = resultMd5;
+        this.resultLength = resultLength;
+    }
+
+    @Override
+    protected HttpUriRequest createRequest() throws IOException {
+        final URI uri = repository.getRequestUri(qualifiedResource);
+        final DavTemplateRequest request = new DavTemplateRequest("PUT", uri);
+
+        lockToken.ifPresent(x -> request.addHeader("If", "<" + uri + "> (<" + x + ">)"));
+        request.addHeader(BASE_MD5_HEADER, baseMd5);
+        request.addHeader(RESULT_MD5_HEADER, resultMd5);
+
+        final HttpEntity entity = SvndiffEntity.delta(delta, resultLength);
+        request.setEntity(entity);
+        return request;
+    }
+
+    @Override
+    protected Void processResponse(final HttpResponse response) throws IOException {
+        // nothing to do
+        return null;
+    }
+
+}
@@ -18,33 +18,39 @@
 package de.shadowhunt.subversion.internal.operation;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.util.Optional;
 
 import de.shadowhunt.subversion.LockToken;
+import de.shadowhunt.subversion.internal.AbstractUploadContent;
 import de.shadowhunt.subversion.internal.QualifiedResource;
 import de.shadowhunt.subversion.internal.RepositoryInternal;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.entity.InputStreamEntity;
 
 public class UploadOperationHttpv1 extends AbstractRepositoryBaseOperation<RepositoryInternal, Void> {
 
-    private static final long STREAM_WHOLE_CONTENT = -1L;
+    private static final String RESULT_MD5_HEADER = "X-SVN-Result-Fulltext-MD5";
 
-    private final InputStream content;
+    private final AbstractUploadContent content;
 
     private final Optional<LockToken> lockToken;
 
     private final QualifiedResource qualifiedResource;
 
-    public UploadOperationHttpv1(final RepositoryInternal repository, final QualifiedResource qualifiedResource, final Optional<LockToken> lockToken, final InputStream content) {
+    private final Optional<String> resultMd5;
+
+    /**
+     * @param resultMd5
+     *            MD5 checksum of the content, if present the server rejects the content if it does not match
+     */
+    public UploadOperationHttpv1(final RepositoryInternal repository, final QualifiedResource qualifiedResource, final Optional<LockToken> lockToken, final Optional<String> resultMd5, final AbstractUploadContent content) {
         super(repository, HttpStatus.SC_CREATED, HttpStatus.SC_NO_CONTENT);
         this.qualifiedResource = qualifiedResource;
         this.lockToken = lockToken;
+        this.resultMd5 = resultMd5;
         this.content = content;
     }
 
@@ -54,8 +60,14 @@ public class UploadOperationHttpv1 extends AbstractRepositoryBaseOperation<Repos
         final DavTemplateRequest request = new DavTemplateRequest("PUT", uri);
 
         lockToken.ifPresent(x -> request.addHeader("If", "<" + uri + "> (<" + x + ">)"));
+        resultMd5.ifPresent(x -> request.addHeader(RESULT_MD5_HEADER, x));
 
-        final HttpEntity entity = new InputStreamEntity(content, STREAM_WHOLE_CONTENT);
+        final HttpEntity entity;
+        if (repository.getConfiguration().isCompressionEnabled() && repository.isSvndiff1Supported()) {
+            entity = SvndiffEntity.fullText(content, 1);
+        } else {
+            entity = new UploadContentEntity(content);
+        }
         request.setEntity(entity);
         return request;
     }
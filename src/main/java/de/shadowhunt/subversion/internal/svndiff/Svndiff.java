@@ -0,0 +1,114 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.svndiff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Constants and primitives of the svndiff format shared by encoder and decoder.
+ */
+final class Svndiff {
+
+    static final byte[] HEADER = { 'S', 'V', 'N' };
+
+    /**
+     * copy from the new data section.
+     */
+    static final int INSTRUCTION_NEW = 2;
+
+    /**
+     * copy from the source view.
+     */
+    static final int INSTRUCTION_SOURCE = 0;
+
+    /**
+     * copy from the already constructed part of the target view.
+     */
+    static final int INSTRUCTION_TARGET = 1;
+
+    /**
+     * sections smaller than this are never compressed in svndiff1.
+     */
+    static final int MIN_COMPRESS_SIZE = 512;
+
+    /**
+     * maximal size of source and target views accepted by subversion.
+     */
+    static final int WINDOW_SIZE = 102400;
+
+    private static long checkedShift(final long value) throws IOException {
+        if ((value >>> 56) != 0) {
+            throw new IOException("Invalid svndiff: integer overflow");
+        }
+        return value << 7;
+    }
+
+    static long readInt(final ByteBuffer input) throws IOException {
+        try {
+            long value = 0L;
+            int current;
+            do {
+                current = input.get();
+                value = checkedShift(value) | (current & 0x7F);
+            } while ((current & 0x80) != 0);
+            return value;
+        } catch (final BufferUnderflowException e) {
+            throw new IOException("Invalid svndiff: truncated instruction", e);
+        }
+    }
+
+    /**
+     * @return the value or {@code -1} if the stream ended before the first byte
+     */
+    static long readInt(final InputStream input) throws IOException {
+        long value = 0L;
+        int current = input.read();
+        if (current < 0) {
+            return -1L;
+        }
+        while (true) {
+            value = checkedShift(value) | (current & 0x7F);
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+            current = input.read();
+            if (current < 0) {
+                throw new IOException("Invalid svndiff: unexpected end of delta");
+            }
+        }
+    }
+
+    static void writeInt(final ByteArrayOutputStream output, final long value) {
+        int groups = 1;
+        for (long remainder = value >>> 7; remainder > 0; remainder >>>= 7) {
+            groups++;
+        }
+        while (--groups >= 1) {
+            output.write((int) (((value >>> (groups * 7)) | 0x80) & 0xFF));
+        }
+        output.write((int) (value & 0x7F));
+    }
+
+    private Svndiff() {
+        // prevent instantiation
+    }
+}
@@ -0,0 +1,290 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.svndiff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Encodes the difference between a source and a target stream in the svndiff format (version 0 or 1). Both streams are read exactly once: the target is split into windows of 50 KiB and every window is matched
+ * against a twice as large window of the source that follows the alignment of the previous matches, so inserted or removed bytes do not spoil the remaining delta.
+ */
+@Immutable
+public final class SvndiffEncoder {
+
+    /**
+     * Sliding part of the source stream, only moves forward.
+     */
+    private static final class SourceView {
+
+        private final byte[] buffer = new byte[Svndiff.WINDOW_SIZE];
+
+        private boolean eof;
+
+        private final InputStream input;
+
+        private int length;
+
+        private long offset;
+
+        SourceView(final InputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * @param newOffset
+         *            must be inside or directly behind the current view
+         */
+        void slide(final long newOffset) throws IOException {
+            final int discard = (int) (newOffset - offset);
+            System.arraycopy(buffer, discard, buffer, 0, length - discard);
+            length -= discard;
+            offset = newOffset;
+
+            while (!eof && (length < buffer.length)) {
+                final int read = input.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    length += read;
+                }
+            }
+        }
+    }
+
+    /**
+     * Instructions and new data of a single window.
+     */
+    private static final class Window {
+
+        private final ByteArrayOutputStream instructions = new ByteArrayOutputStream();
+
+        private final ByteArrayOutputStream newData = new ByteArrayOutputStream();
+
+        private int sourceEnd = -1;
+
+        private int targetEnd = -1;
+
+        void copy(final int sourcePosition, final int targetPosition, final int length) {
+            writeInstruction(Svndiff.INSTRUCTION_SOURCE, length);
+            Svndiff.writeInt(instructions, sourcePosition);
+            sourceEnd = sourcePosition + length;
+            targetEnd = targetPosition + length;
+        }
+
+        void insert(final byte[] target, final int position, final int length) {
+            if (length > 0) {
+                writeInstruction(Svndiff.INSTRUCTION_NEW, length);
+                newData.write(target, position, length);
+            }
+        }
+
+        private void writeInstruction(final int instruction, final int length) {
+            if (length < 0x40) {
+                instructions.write((instruction << 6) | length);
+            } else {
+                instructions.write(instruction << 6);
+                Svndiff.writeInt(instructions, length);
+            }
+        }
+    }
+
+    private static final int BLOCK_SIZE = 64;
+
+    private static final int COMPRESSION_LEVEL = 5;
+
+    private static final int HASH_MULTIPLIER = 257;
+
+    private static final int TARGET_WINDOW_SIZE = Svndiff.WINDOW_SIZE / 2;
+
+    private static int hash(final byte[] data, final int position) {
+        int hash = 0;
+        for (int i = position; i < (position + BLOCK_SIZE); i++) {
+            hash = (hash * HASH_MULTIPLIER) + (data[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static int[] index(final byte[] source, final int sourceLength, final int mask) {
+        final int[] index = new int[mask + 1];
+        for (int position = 0; (position + BLOCK_SIZE) <= sourceLength; position += BLOCK_SIZE) {
+            final int slot = hash(source, position) & mask;
+            if (index[slot] == 0) {
+                index[slot] = position + 1; // 0 marks an empty slot
+            }
+        }
+        return index;
+    }
+
+    private static void match(final byte[] source, final int sourceLength, final byte[] target, final int targetLength, final Window window) {
+        int mask = 1;
+        while (mask < ((sourceLength / BLOCK_SIZE) * 2)) {
+            mask <<= 1;
+        }
+        mask--;
+        final int[] index = index(source, sourceLength, mask);
+
+        final int outFactor = power(HASH_MULTIPLIER, BLOCK_SIZE - 1);
+        int pending = 0;
+        int position = 0;
+        int hash = (targetLength >= BLOCK_SIZE) ? hash(target, 0) : 0;
+        while ((position + BLOCK_SIZE) <= targetLength) {
+            final int candidate = index[hash & mask] - 1;
+            if ((candidate >= 0) && matches(source, candidate, target, position)) {
+                int sourceStart = candidate;
+                int targetStart = position;
+                while ((targetStart > pending) && (sourceStart > 0) && (source[sourceStart - 1] == target[targetStart - 1])) {
+                    sourceStart--;
+                    targetStart--;
+                }
+                int length = (position + BLOCK_SIZE) - targetStart;
+                while (((targetStart + length) < targetLength) && ((sourceStart + length) < sourceLength) && (source[sourceStart + length] == target[targetStart + length])) {
+                    length++;
+                }
+
+                window.insert(target, pending, targetStart - pending);
+                window.copy(sourceStart, targetStart, length);
+                position = targetStart + length;
+                pending = position;
+                if ((position + BLOCK_SIZE) <= targetLength) {
+                    hash = hash(target, position);
+                }
+                continue;
+            }
+
+            if ((position + BLOCK_SIZE) < targetLength) {
+                hash = ((hash - ((target[position] & 0xFF) * outFactor)) * HASH_MULTIPLIER) + (target[position + BLOCK_SIZE] & 0xFF);
+            }
+            position++;
+        }
+        window.insert(target, pending, targetLength - pending);
+    }
+
+    private static boolean matches(final byte[] source, final int sourcePosition, final byte[] target, final int targetPosition) {
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            if (source[sourcePosition + i] != target[targetPosition + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int power(final int base, final int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+
+    private final int version;
+
+    public SvndiffEncoder(final int version) {
+        Validate.isTrue((version == 0) || (version == 1), "version must be 0 or 1, was %d", version);
+        this.version = version;
+    }
+
+    /**
+     * Writes the delta that transforms the source into the target. Neither stream is read beyond the end of the target, streams are not closed.
+     *
+     * @return number of bytes written to the delta
+     */
+    public long encode(final InputStream source, final InputStream target, final OutputStream delta) throws IOException {
+        delta.write(Svndiff.HEADER);
+        delta.write(version);
+        long written = Svndiff.HEADER.length + 1;
+
+        final SourceView sourceView = new SourceView(source);
+        final byte[] targetBuffer = new byte[TARGET_WINDOW_SIZE];
+        long targetOffset = 0L;
+        // distance between the source and the target position of the last match
+        long drift = 0L;
+        int targetLength;
+        while ((targetLength = IOUtils.read(target, targetBuffer)) > 0) {
+            // the source view is centered around the expected position of the target window, it must neither slide backwards nor leave
+            // gaps, as the source is read sequentially when the delta is applied
+            final long expected = (targetOffset + drift) - (TARGET_WINDOW_SIZE / 2);
+            final long sourceOffset = Math.min(Math.max(sourceView.offset, expected), sourceView.offset + sourceView.length);
+            sourceView.slide(sourceOffset);
+
+            final Window window = new Window();
+            match(sourceView.buffer, sourceView.length, targetBuffer, targetLength, window);
+            if (window.sourceEnd >= 0) {
+                drift = (sourceOffset + window.sourceEnd) - (targetOffset + window.targetEnd);
+            }
+            written += writeWindow(delta, sourceOffset, sourceView.length, targetLength, window);
+            targetOffset += targetLength;
+        }
+        return written;
+    }
+
+    private byte[] section(final ByteArrayOutputStream data) {
+        if (version == 0) {
+            return data.toByteArray();
+        }
+
+        final byte[] raw = data.toByteArray();
+        final ByteArrayOutputStream section = new ByteArrayOutputStream(raw.length + 8);
+        Svndiff.writeInt(section, raw.length);
+        if (raw.length >= Svndiff.MIN_COMPRESS_SIZE) {
+            final Deflater deflater = new Deflater(COMPRESSION_LEVEL);
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+                final byte[] compressed = new byte[raw.length];
+                int length = 0;
+                while (!deflater.finished() && (length < compressed.length)) {
+                    length += deflater.deflate(compressed, length, compressed.length - length);
+                }
+                if (deflater.finished() && (length < raw.length)) {
+                    section.write(compressed, 0, length);
+                    return section.toByteArray();
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+        // incompressible: stored as is
+        section.write(raw, 0, raw.length);
+        return section.toByteArray();
+    }
+
+    private long writeWindow(final OutputStream delta, final long sourceOffset, final int sourceLength, final int targetLength, final Window window) throws IOException {
+        final byte[] instructions = section(window.instructions);
+        final byte[] newData = section(window.newData);
+
+        final ByteArrayOutputStream header = new ByteArrayOutputStream(32);
+        Svndiff.writeInt(header, sourceOffset);
+        Svndiff.writeInt(header, sourceLength);
+        Svndiff.writeInt(header, targetLength);
+        Svndiff.writeInt(header, instructions.length);
+        Svndiff.writeInt(header, newData.length);
+        header.writeTo(delta);
+        delta.write(instructions);
+        delta.write(newData);
+        return (long) header.size() + instructions.length + newData.length;
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.svndiff;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Applies a delta in svndiff format (version 0 or 1) to a source stream, reading from this stream yields the target. Delta and source are read window by window while the target is consumed, so only the current source and target view are
+ * kept in memory. Closing this stream closes delta and source.
+ */
+public final class SvndiffInputStream extends InputStream {
+
+    /**
+     * upper bound for views and sections to protect against corrupted deltas, subversion itself never exceeds {@value Svndiff#WINDOW_SIZE} bytes.
+     */
+    private static final int MAXIMUM_SIZE = 64 * Svndiff.WINDOW_SIZE;
+
+    private static int checkSize(final long size) throws IOException {
+        if ((size < 0L) || (size > MAXIMUM_SIZE)) {
+            throw new IOException("Invalid svndiff: window too large (" + size + " bytes)");
+        }
+        return (int) size;
+    }
+
+    private static byte[] decompress(final byte[] section) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(section);
+        final int length = checkSize(Svndiff.readInt(buffer));
+        final byte[] data = new byte[length];
+        if (buffer.remaining() == length) {
+            // section was not compressible
+            buffer.get(data);
+            return data;
+        }
+
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(section, buffer.position(), buffer.remaining());
+            int inflated = 0;
+            while ((inflated < length) && !inflater.finished()) {
+                final int n = inflater.inflate(data, inflated, length - inflated);
+                if ((n == 0) && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != length) {
+                throw new IOException("Invalid svndiff: compressed section has wrong length");
+            }
+            return data;
+        } catch (final DataFormatException e) {
+            throw new IOException("Invalid svndiff: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private final InputStream delta;
+
+    private boolean eof;
+
+    private int position;
+
+    private final InputStream source;
+
+    private byte[] sourceBuffer = new byte[0];
+
+    private int sourceLength;
+
+    private long sourceOffset;
+
+    private byte[] target = new byte[0];
+
+    private int targetLength;
+
+    private int version = -1;
+
+    public SvndiffInputStream(final InputStream source, final InputStream delta) {
+        this.source = source;
+        this.delta = delta;
+    }
+
+    private void apply(final byte[] instructions, final byte[] newData) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(instructions);
+        int targetPosition = 0;
+        int newDataPosition = 0;
+        while (buffer.hasRemaining()) {
+            final int first = buffer.get() & 0xFF;
+            final int instruction = first >> 6;
+            long length = first & 0x3F;
+            if (length == 0) {
+                length = Svndiff.readInt(buffer);
+            }
+            if ((length <= 0) || ((targetPosition + length) > targetLength)) {
+                throw new IOException("Invalid svndiff: instruction exceeds target view");
+            }
+
+            final int n = (int) length;
+            switch (instruction) {
+                case Svndiff.INSTRUCTION_SOURCE: {
+                    final long offset = Svndiff.readInt(buffer);
+                    if ((offset + n) > sourceLength) {
+                        throw new IOException("Invalid svndiff: instruction exceeds source view");
+                    }
+                    System.arraycopy(sourceBuffer, (int) offset, target, targetPosition, n);
+                    break;
+                }
+                case Svndiff.INSTRUCTION_TARGET: {
+                    final long offset = Svndiff.readInt(buffer);
+                    if (offset >= targetPosition) {
+                        throw new IOException("Invalid svndiff: instruction exceeds constructed target");
+                    }
+                    // source and destination may overlap: copy byte by byte to repeat patterns
+                    for (int i = 0; i < n; i++) {
+                        target[targetPosition + i] = target[(int) offset + i];
+                    }
+                    break;
+                }
+                case Svndiff.INSTRUCTION_NEW:
+                    if ((newDataPosition + n) > newData.length) {
+                        throw new IOException("Invalid svndiff: instruction exceeds new data");
+                    }
+                    System.arraycopy(newData, newDataPosition, target, targetPosition, n);
+                    newDataPosition += n;
+                    break;
+                default:
+                    throw new IOException("Invalid svndiff: unknown instruction " + instruction);
+            }
+            targetPosition += n;
+        }
+
+        if (targetPosition != targetLength) {
+            throw new IOException("Invalid svndiff: instructions do not fill the target view");
+        }
+    }
+
+    @Override
+    public int available() {
+        return targetLength - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            delta.close();
+        } finally {
+            source.close();
+        }
+    }
+
+    private boolean fill() throws IOException {
+        while (position >= targetLength) {
+            if (eof) {
+                return false;
+            }
+            if (version < 0) {
+                readHeader();
+            }
+            if (!readWindow()) {
+                eof = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return target[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int n = Math.min(length, targetLength - position);
+        System.arraycopy(target, position, buffer, offset, n);
+        position += n;
+        return n;
+    }
+
+    private void readHeader() throws IOException {
+        final byte[] header = new byte[Svndiff.HEADER.length + 1];
+        IOUtils.readFully(delta, header);
+        for (int i = 0; i < Svndiff.HEADER.length; i++) {
+            if (header[i] != Svndiff.HEADER[i]) {
+                throw new IOException("Invalid svndiff: header is missing");
+            }
+        }
+        version = header[Svndiff.HEADER.length];
+        if ((version != 0) && (version != 1)) {
+            throw new IOException("Unsupported svndiff version: " + version);
+        }
+    }
+
+    private byte[] readSection(final int length) throws IOException {
+        final byte[] section = new byte[length];
+        IOUtils.readFully(delta, section);
+        if (version == 0) {
+            return section;
+        }
+        return decompress(section);
+    }
+
+    private boolean readWindow() throws IOException {
+        final long viewOffset = Svndiff.readInt(delta);
+        if (viewOffset < 0L) {
+            return false;
+        }
+        final int viewLength = checkSize(readWindowInt());
+        final int newTargetLength = checkSize(readWindowInt());
+        final int instructionsLength = checkSize(readWindowInt());
+        final int newDataLength = checkSize(readWindowInt());
+
+        final byte[] instructions = readSection(instructionsLength);
+        final byte[] newData = readSection(newDataLength);
+
+        slide(viewOffset, viewLength);
+        if (target.length < newTargetLength) {
+            target = new byte[newTargetLength];
+        }
+        targetLength = newTargetLength;
+        position = 0;
+        apply(instructions, newData);
+        return true;
+    }
+
+    private long readWindowInt() throws IOException {
+        final long value = Svndiff.readInt(delta);
+        if (value < 0L) {
+            throw new IOException("Invalid svndiff: unexpected end of delta");
+        }
+        return value;
+    }
+
+    private void slide(final long viewOffset, final int viewLength) throws IOException {
+        if (viewLength == 0) {
+            return;
+        }
+        final long end = sourceOffset + sourceLength;
+        if ((viewOffset < sourceOffset) || ((viewOffset + viewLength) < end)) {
+            throw new IOException("Invalid svndiff: source view slides backwards");
+        }
+
+        if (sourceBuffer.length < viewLength) {
+            final byte[] buffer = new byte[viewLength];
+            System.arraycopy(sourceBuffer, 0, buffer, 0, sourceLength);
+            sourceBuffer = buffer;
+        }
+
+        if (viewOffset < end) {
+            // keep the overlap of both views
+            final int keep = (int) (end - viewOffset);
+            System.arraycopy(sourceBuffer, sourceLength - keep, sourceBuffer, 0, keep);
+            sourceLength = keep;
+        } else {
+            IOUtils.skipFully(source, viewOffset - end);
+            sourceLength = 0;
+        }
+        sourceOffset = viewOffset;
+
+        final int read = IOUtils.read(source, sourceBuffer, sourceLength, viewLength - sourceLength);
+        if (read != (viewLength - sourceLength)) {
+            throw new IOException("Invalid svndiff: source ended unexpectedly");
+        }
+        sourceLength = viewLength;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.tracing;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import de.shadowhunt.subversion.metrics.MetricsRegistry;
+import de.shadowhunt.subversion.tracing.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the metrics and the tracing span of a single repository operation.
+ */
+public final class ActionRecorder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("de.shadowhunt.subversion.tracing");
+
+    private static final String PREFIX = "subversion.action.";
+
+    private final SpanExporter exporter;
+
+    private final MetricsRegistry registry;
+
+    public ActionRecorder(final MetricsRegistry registry, final SpanExporter exporter) {
+        this.registry = registry;
+        this.exporter = exporter;
+    }
+
+    /**
+     * Record an operation that completes asynchronously, the recording is stopped once the returned {@link CompletableFuture} completes. Requests that are sent before the operation returns become children of its span.
+     *
+     * @return {@link CompletableFuture} of the operation
+     */
+    public <T> CompletableFuture<T> record(final String method, final Supplier<CompletableFuture<T>> operation, final Object... args) {
+        final ActiveSpan span = start(method, args);
+        final CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (final RuntimeException e) {
+            stop(method, span);
+            throw e;
+        }
+        // the span is stopped on the thread that completes the operation
+        span.detach();
+        return future.whenComplete((result, e) -> stop(method, span));
+    }
+
+    public ActiveSpan start(final String method, final Object... args) {
+        if (LOGGER.isTraceEnabled()) {
+            if (args.length > 0) {
+                final String argumentsString = Arrays.toString(args);
+                LOGGER.trace("starting {} with arguments: {}", method, argumentsString);
+            } else {
+                LOGGER.trace("starting {}", method);
+            }
+        }
+        return ActiveSpan.start(exporter, method);
+    }
+
+    public void stop(final String method, final ActiveSpan span) {
+        final long nanoseconds = span.finish();
+        registry.histogram(PREFIX + method).record(nanoseconds);
+
+        if (LOGGER.isTraceEnabled()) {
+            final long milliseconds = TimeUnit.NANOSECONDS.toMillis(nanoseconds);
+            LOGGER.trace("completed {} in {}ms", method, milliseconds);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.tracing;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.annotation.CheckForNull;
+
+import de.shadowhunt.subversion.tracing.NoopSpanExporter;
+import de.shadowhunt.subversion.tracing.Span;
+import de.shadowhunt.subversion.tracing.SpanExporter;
+
+/**
+ * A {@link Span} in progress. A recording {@link ActiveSpan} is the current span of its thread until it is finished, spans that are started in the meantime (on the same thread or on a worker thread, see
+ * {@link #propagate(Runnable)}) become its children. Spans must be finished on the thread that started them, in reverse order, unless they have been detached (see {@link #detach()}).
+ */
+public final class ActiveSpan {
+
+    private static final ThreadLocal<ActiveSpan> CURRENT = new ThreadLocal<>();
+
+    private static String newId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Make the current span of the calling thread the current span while the given {@link Runnable} is executed, so spans started by it on another thread become children of the calling span.
+     *
+     * @return the wrapped {@link Runnable} or the given {@link Runnable} if the calling thread has no current span
+     */
+    public static Runnable propagate(final Runnable runnable) {
+        final ActiveSpan parent = CURRENT.get();
+        if (parent == null) {
+            return runnable;
+        }
+        return () -> {
+            final ActiveSpan previous = CURRENT.get();
+            CURRENT.set(parent);
+            try {
+                runnable.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(@CheckForNull final ActiveSpan previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Start a new {@link ActiveSpan}, which is a child of the current span of the calling thread (if any). The {@link ActiveSpan} is only recorded if the {@link SpanExporter} is not the {@link NoopSpanExporter}.
+     *
+     * @return the new {@link ActiveSpan}
+     */
+    public static ActiveSpan start(final SpanExporter exporter, final String name) {
+        if (exporter == NoopSpanExporter.INSTANCE) {
+            return new ActiveSpan(null, name, null);
+        }
+
+        final ActiveSpan parent = CURRENT.get();
+        final ActiveSpan span = new ActiveSpan(exporter, name, parent);
+        CURRENT.set(span);
+        return span;
+    }
+
+    private final Map<String, Object> attributes;
+
+    private boolean detached = false;
+
+    private final SpanExporter exporter;
+
+    private final String name;
+
+    private final ActiveSpan parent;
+
+    private final Map<String, Long> phases;
+
+    private final String spanId;
+
+    private final long startNanos;
+
+    private final Instant startTime;
+
+    private final String traceId;
+
+    private ActiveSpan(@CheckForNull final SpanExporter exporter, final String name, @CheckForNull final ActiveSpan parent) {
+        this.exporter = exporter;
+        this.name = name;
+        this.parent = parent;
+
+        if (exporter == null) {
+            attributes = Collections.emptyMap();
+            phases = Collections.emptyMap();
+            spanId = null;
+            startTime = null;
+            traceId = null;
+        } else {
+            attributes = new LinkedHashMap<>();
+            phases = new LinkedHashMap<>();
+            spanId = newId();
+            startTime = Instant.now();
+            traceId = (parent == null) ? newId() : parent.traceId;
+        }
+        startNanos = System.nanoTime();
+    }
+
+    public void attribute(final String key, final Object value) {
+        if (exporter != null) {
+            attributes.put(key, value);
+        }
+    }
+
+    /**
+     * Make the parent the current span of the calling thread again, while this {@link ActiveSpan} keeps running: it can be finished later on any thread (e.g. once the caller has consumed a stream) and spans started in the meantime do not
+     * become its children.
+     */
+    public void detach() {
+        if ((exporter != null) && !detached) {
+            detached = true;
+            restore(parent);
+        }
+    }
+
+    public void failed(final Throwable cause) {
+        attribute("error", cause.getClass().getName() + ": " + cause.getMessage());
+    }
+
+    /**
+     * Finish the {@link ActiveSpan} and export it (if it is recorded).
+     *
+     * @return the duration of the {@link ActiveSpan} in nanoseconds
+     */
+    public long finish() {
+        final long durationNanos = System.nanoTime() - startNanos;
+        if (exporter != null) {
+            if (!detached) {
+                restore(parent);
+            }
+            final String parentSpanId = (parent == null) ? null : parent.spanId;
+            final Span span = new Span.Builder(traceId, spanId, name) //
+                    .withParentSpanId(parentSpanId) //
+                    .withTiming(startTime, durationNanos) //
+                    .withAttributes(attributes) //
+                    .withPhases(phases) //
+                    .build();
+            exporter.export(span);
+        }
+        return durationNanos;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public boolean isRecording() {
+        return (exporter != null);
+    }
+
+    public void phase(final String phase, final long nanoseconds) {
+        if (exporter != null) {
+            phases.put(phase, nanoseconds);
+        }
+    }
+}
@@ -19,9 +19,16 @@ package de.shadowhunt.subversion.internal.tracing;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 import de.shadowhunt.subversion.Depth;
 import de.shadowhunt.subversion.Info;
@@ -30,51 +37,127 @@ import de.shadowhunt.subversion.ReadOnlyRepository;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.View;
-import org.apache.commons.lang3.time.StopWatch;
+import de.shadowhunt.subversion.metrics.MetricsRegistry;
+import de.shadowhunt.subversion.tracing.SpanExporter;
 
 public class TracingReadOnlyRepository implements ReadOnlyRepository {
 
     private final ReadOnlyRepository delegate;
 
-    public TracingReadOnlyRepository(final ReadOnlyRepository delegate) {
+    private final ActionRecorder recorder;
+
+    public TracingReadOnlyRepository(final ReadOnlyRepository delegate, final MetricsRegistry registry, final SpanExporter exporter) {
         this.delegate = delegate;
+        recorder = new ActionRecorder(registry, exporter);
     }
 
     @Override
     public final View createView() {
-        return delegate.createView();
+        final String method = "createView";
+        final ActiveSpan span = recorder.start(method);
+        try {
+            return delegate.createView();
+        } finally {
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final View createView(final boolean fresh) {
+        final String method = "createView";
+        final ActiveSpan span = recorder.start(method, fresh);
+        try {
+            return delegate.createView(fresh);
+        } finally {
+            recorder.stop(method, span);
+        }
     }
 
     @Override
     public final InputStream download(final View view, final Resource resource, final Revision revision) {
         final String method = "download";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, view, resource, revision);
+        final ActiveSpan span = recorder.start(method, view, resource, revision);
         try {
             return delegate.download(view, resource, revision);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final InputStream download(final View view, final Resource resource, final Revision base, final Revision target, final InputStream baseContent) {
+        final String method = "download";
+        final ActiveSpan span = recorder.start(method, view, resource, base, target);
+        try {
+            return delegate.download(view, resource, base, target, baseContent);
+        } finally {
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final void download(final View view, final Resource resource, final Revision revision, final Path target) {
+        final String method = "download";
+        final ActiveSpan span = recorder.start(method, view, resource, revision, target);
+        try {
+            delegate.download(view, resource, revision, target);
+        } finally {
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final void download(final View view, final Resource resource, final Revision revision, final WritableByteChannel target) {
+        final String method = "download";
+        final ActiveSpan span = recorder.start(method, view, resource, revision);
+        try {
+            delegate.download(view, resource, revision, target);
+        } finally {
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final void downloadSegmented(final View view, final Resource resource, final Revision revision, final FileChannel target) {
+        final String method = "downloadSegmented";
+        final ActiveSpan span = recorder.start(method, view, resource, revision);
+        try {
+            delegate.downloadSegmented(view, resource, revision, target);
+        } finally {
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final URI downloadURI(final View view, final Resource resource, final Revision revision) {
         final String method = "downloadURI";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, view, resource, revision);
+        final ActiveSpan span = recorder.start(method, view, resource, revision);
         try {
             return delegate.downloadURI(view, resource, revision);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final boolean exists(final View view, final Resource resource, final Revision revision) {
         final String method = "exists";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, view, resource, revision);
+        final ActiveSpan span = recorder.start(method, view, resource, revision);
         try {
             return delegate.exists(view, resource, revision);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final Map<Resource, Boolean> existsAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        final String method = "existsAll";
+        final ActiveSpan span = recorder.start(method, view, resources, revision);
+        try {
+            return delegate.existsAll(view, resources, revision);
+        } finally {
+            recorder.stop(method, span);
         }
     }
 
@@ -101,33 +184,55 @@ public class TracingReadOnlyRepository implements ReadOnlyRepository {
     @Override
     public final Info info(final View view, final Resource resource, final Revision revision) {
         final String method = "info";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, view, resource, revision);
+        final ActiveSpan span = recorder.start(method, view, resource, revision);
         try {
             return delegate.info(view, resource, revision);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final Map<Resource, Optional<Info>> infoAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        final String method = "infoAll";
+        final ActiveSpan span = recorder.start(method, view, resources, revision);
+        try {
+            return delegate.infoAll(view, resources, revision);
+        } finally {
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final NavigableSet<Info> list(final View view, final Resource resource, final Revision revision, final Depth depth) {
         final String method = "list";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, view, resource, revision, depth);
+        final ActiveSpan span = recorder.start(method, view, resource, revision, depth);
         try {
             return delegate.list(view, resource, revision, depth);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final List<LogEntry> log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy) {
         final String method = "log";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, view, resource, startRevision, endRevision, limit, stopOnCopy);
+        final ActiveSpan span = recorder.start(method, view, resource, startRevision, endRevision, limit, stopOnCopy);
         try {
             return delegate.log(view, resource, startRevision, endRevision, limit, stopOnCopy);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final void log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy, final Predicate<? super LogEntry> handler) {
+        final String method = "log";
+        final ActiveSpan span = recorder.start(method, view, resource, startRevision, endRevision, limit, stopOnCopy);
+        try {
+            delegate.log(view, resource, startRevision, endRevision, limit, stopOnCopy, handler);
+        } finally {
+            recorder.stop(method, span);
         }
     }
 }
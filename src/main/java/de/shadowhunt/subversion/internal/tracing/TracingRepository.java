@@ -18,54 +18,118 @@
 package de.shadowhunt.subversion.internal.tracing;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import de.shadowhunt.subversion.Repository;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.ResourceProperty;
 import de.shadowhunt.subversion.Revision;
 import de.shadowhunt.subversion.Transaction;
-import org.apache.commons.lang3.time.StopWatch;
+import de.shadowhunt.subversion.metrics.MetricsRegistry;
+import de.shadowhunt.subversion.tracing.SpanExporter;
 
 public class TracingRepository extends TracingReadOnlyRepository implements Repository {
 
     private final Repository delegate;
 
-    public TracingRepository(final Repository delegate) {
-        super(delegate);
+    private final ActionRecorder recorder;
+
+    public TracingRepository(final Repository delegate, final MetricsRegistry registry, final SpanExporter exporter) {
+        super(delegate, registry, exporter);
         this.delegate = delegate;
+        recorder = new ActionRecorder(registry, exporter);
     }
 
     @Override
     public final void add(final Transaction transaction, final Resource resource, final boolean parents, final InputStream content) {
         final String method = "add";
         final Class<? extends InputStream> contentClass = content.getClass();
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction, resource, parents, contentClass);
+        final ActiveSpan span = recorder.start(method, transaction, resource, parents, contentClass);
+        try {
+            delegate.add(transaction, resource, parents, content);
+        } finally {
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final byte[] content) {
+        final String method = "add";
+        final ActiveSpan span = recorder.start(method, transaction, resource, parents, content.length);
+        try {
+            delegate.add(transaction, resource, parents, content);
+        } finally {
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final ByteBuffer content) {
+        final String method = "add";
+        final ActiveSpan span = recorder.start(method, transaction, resource, parents, content.remaining());
+        try {
+            delegate.add(transaction, resource, parents, content);
+        } finally {
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final Path content) {
+        final String method = "add";
+        final ActiveSpan span = recorder.start(method, transaction, resource, parents, content);
         try {
             delegate.add(transaction, resource, parents, content);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final Supplier<InputStream> content, final long length) {
+        final String method = "add";
+        final ActiveSpan span = recorder.start(method, transaction, resource, parents, length);
+        try {
+            delegate.add(transaction, resource, parents, content, length);
+        } finally {
+            recorder.stop(method, span);
+        }
+    }
+
+    @Override
+    public final void addAll(final Transaction transaction, final Map<Resource, Supplier<InputStream>> contents, final boolean parents) {
+        final String method = "addAll";
+        final int size = contents.size();
+        final ActiveSpan span = recorder.start(method, transaction, size, parents);
+        try {
+            delegate.addAll(transaction, contents, parents);
+        } finally {
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void commit(final Transaction transaction, final String message, final boolean releaseLocks) {
         final String method = "commit";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction, message, releaseLocks);
+        final ActiveSpan span = recorder.start(method, transaction, message, releaseLocks);
         try {
             delegate.commit(transaction, message, releaseLocks);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void copy(final Transaction transaction, final Resource sourceResource, final Revision sourceRevision, final Resource targetResource, final boolean parents) {
         final String method = "copy";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction, sourceResource, sourceRevision, targetResource, parents);
+        final ActiveSpan span = recorder.start(method, transaction, sourceResource, sourceRevision, targetResource, parents);
         try {
             delegate.copy(transaction, sourceResource, sourceRevision, targetResource, parents);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
@@ -77,99 +141,99 @@ public class TracingRepository extends TracingReadOnlyRepository implements Repo
     @Override
     public final void delete(final Transaction transaction, final Resource resource) {
         final String method = "delete";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction, resource);
+        final ActiveSpan span = recorder.start(method, transaction, resource);
         try {
             delegate.delete(transaction, resource);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void lock(final Resource resource, final boolean steal) {
         final String method = "lock";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, resource, steal);
+        final ActiveSpan span = recorder.start(method, resource, steal);
         try {
             delegate.lock(resource, steal);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void mkdir(final Transaction transaction, final Resource resource, final boolean parents) {
         final String method = "mkdir";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction, resource, parents);
+        final ActiveSpan span = recorder.start(method, transaction, resource, parents);
         try {
             delegate.mkdir(transaction, resource, parents);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void move(final Transaction transaction, final Resource sourceResource, final Resource targetResource, final boolean parents) {
         final String method = "move";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction, sourceResource, targetResource, parents);
+        final ActiveSpan span = recorder.start(method, transaction, sourceResource, targetResource, parents);
         try {
             delegate.move(transaction, sourceResource, targetResource, parents);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void propertiesDelete(final Transaction transaction, final Resource resource, final ResourceProperty... properties) {
         final String method = "propertiesDelete";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction, resource, properties);
+        final ActiveSpan span = recorder.start(method, transaction, resource, properties);
         try {
             delegate.propertiesDelete(transaction, resource, properties);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void propertiesSet(final Transaction transaction, final Resource resource, final ResourceProperty... properties) {
         final String method = "propertiesSet";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction, resource, properties);
+        final ActiveSpan span = recorder.start(method, transaction, resource, properties);
         try {
             delegate.propertiesSet(transaction, resource, properties);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void rollback(final Transaction transaction) {
         final String method = "rollback";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction);
+        final ActiveSpan span = recorder.start(method, transaction);
         try {
             delegate.rollback(transaction);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void rollbackIfNotCommitted(final Transaction transaction) {
         final String method = "rollbackIfNotCommitted";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, transaction);
+        final ActiveSpan span = recorder.start(method, transaction);
         try {
             delegate.rollbackIfNotCommitted(transaction);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 
     @Override
     public final void unlock(final Resource resource, final boolean force) {
         final String method = "unlock";
-        final StopWatch stopWatch = StopWatchLogger.INSTANCE.logStart(method, resource, force);
+        final ActiveSpan span = recorder.start(method, resource, force);
         try {
             delegate.unlock(resource, force);
         } finally {
-            StopWatchLogger.INSTANCE.logStop(method, stopWatch);
+            recorder.stop(method, span);
         }
     }
 }
@@ -19,9 +19,16 @@ package de.shadowhunt.subversion.internal.validate;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 import de.shadowhunt.subversion.Depth;
 import de.shadowhunt.subversion.Info;
@@ -46,6 +53,11 @@ public class ValidatingReadOnlyRepository implements ReadOnlyRepository {
         return delegate.createView();
     }
 
+    @Override
+    public final View createView(final boolean fresh) {
+        return delegate.createView(fresh);
+    }
+
     @Override
     public final InputStream download(final View view, final Resource resource, final Revision revision) {
         validateView(view);
@@ -55,6 +67,48 @@ public class ValidatingReadOnlyRepository implements ReadOnlyRepository {
         return delegate.download(view, resource, revision);
     }
 
+    @Override
+    public final InputStream download(final View view, final Resource resource, final Revision base, final Revision target, final InputStream baseContent) {
+        validateView(view);
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(base, "base must not be null");
+        Validate.notNull(target, "target must not be null");
+        Validate.notNull(baseContent, "baseContent must not be null");
+        validateRevision(view, base);
+        validateRevision(view, target);
+        return delegate.download(view, resource, base, target, baseContent);
+    }
+
+    @Override
+    public final void download(final View view, final Resource resource, final Revision revision, final Path target) {
+        validateView(view);
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(revision, "revision must not be null");
+        Validate.notNull(target, "target must not be null");
+        validateRevision(view, revision);
+        delegate.download(view, resource, revision, target);
+    }
+
+    @Override
+    public final void download(final View view, final Resource resource, final Revision revision, final WritableByteChannel target) {
+        validateView(view);
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(revision, "revision must not be null");
+        Validate.notNull(target, "target must not be null");
+        validateRevision(view, revision);
+        delegate.download(view, resource, revision, target);
+    }
+
+    @Override
+    public final void downloadSegmented(final View view, final Resource resource, final Revision revision, final FileChannel target) {
+        validateView(view);
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(revision, "revision must not be null");
+        Validate.notNull(target, "target must not be null");
+        validateRevision(view, revision);
+        delegate.downloadSegmented(view, resource, revision, target);
+    }
+
     @Override
     public final URI downloadURI(final View view, final Resource resource, final Revision revision) {
         validateView(view);
@@ -73,6 +127,15 @@ public class ValidatingReadOnlyRepository implements ReadOnlyRepository {
         return delegate.exists(view, resource, revision);
     }
 
+    @Override
+    public final Map<Resource, Boolean> existsAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        validateView(view);
+        validateResources(resources);
+        Validate.notNull(revision, "revision must not be null");
+        validateRevision(view, revision);
+        return delegate.existsAll(view, resources, revision);
+    }
+
     @Override
     public final Resource getBasePath() {
         return delegate.getBasePath();
@@ -102,6 +165,15 @@ public class ValidatingReadOnlyRepository implements ReadOnlyRepository {
         return delegate.info(view, resource, revision);
     }
 
+    @Override
+    public final Map<Resource, Optional<Info>> infoAll(final View view, final Collection<Resource> resources, final Revision revision) {
+        validateView(view);
+        validateResources(resources);
+        Validate.notNull(revision, "revision must not be null");
+        validateRevision(view, revision);
+        return delegate.infoAll(view, resources, revision);
+    }
+
     @Override
     public final NavigableSet<Info> list(final View view, final Resource resource, final Revision revision, final Depth depth) {
         validateView(view);
@@ -123,6 +195,25 @@ public class ValidatingReadOnlyRepository implements ReadOnlyRepository {
         return delegate.log(view, resource, startRevision, endRevision, limit, stopOnCopy);
     }
 
+    @Override
+    public final void log(final View view, final Resource resource, final Revision startRevision, final Revision endRevision, final int limit, final boolean stopOnCopy, final Predicate<? super LogEntry> handler) {
+        validateView(view);
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(startRevision, "startRevision must not be null");
+        Validate.notNull(endRevision, "endRevision must not be null");
+        Validate.notNull(handler, "handler must not be null");
+        validateRevision(view, startRevision);
+        validateRevision(view, endRevision);
+        delegate.log(view, resource, startRevision, endRevision, limit, stopOnCopy, handler);
+    }
+
+    protected void validateResources(final Collection<Resource> resources) {
+        Validate.notNull(resources, "resources must not be null");
+        for (final Resource resource : resources) {
+            Validate.notNull(resource, "resources must not contain null");
+        }
+    }
+
     protected void validateRevision(final View view, final Revision revision) {
         if (Revision.HEAD.equals(revision)) {
             return;
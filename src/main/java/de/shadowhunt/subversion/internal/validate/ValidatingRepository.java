@@ -18,6 +18,11 @@
 package de.shadowhunt.subversion.internal.validate;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Supplier;
 
 import de.shadowhunt.subversion.Repository;
 import de.shadowhunt.subversion.Resource;
@@ -46,6 +51,50 @@ public class ValidatingRepository extends ValidatingReadOnlyRepository implement
         delegate.add(transaction, resource, parents, content);
     }
 
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final byte[] content) {
+        validateTransaction(transaction);
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(content, "content must not be null");
+        delegate.add(transaction, resource, parents, content);
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final ByteBuffer content) {
+        validateTransaction(transaction);
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(content, "content must not be null");
+        delegate.add(transaction, resource, parents, content);
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final Path content) {
+        validateTransaction(transaction);
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(content, "content must not be null");
+        delegate.add(transaction, resource, parents, content);
+    }
+
+    @Override
+    public final void add(final Transaction transaction, final Resource resource, final boolean parents, final Supplier<InputStream> content, final long length) {
+        validateTransaction(transaction);
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(content, "content must not be null");
+        Validate.isTrue((length >= 0), "length must be greater or equal than 0, was %d", length);
+        delegate.add(transaction, resource, parents, content, length);
+    }
+
+    @Override
+    public final void addAll(final Transaction transaction, final Map<Resource, Supplier<InputStream>> contents, final boolean parents) {
+        validateTransaction(transaction);
+        Validate.notNull(contents, "contents must not be null");
+        for (final Entry<Resource, Supplier<InputStream>> entry : contents.entrySet()) {
+            Validate.notNull(entry.getKey(), "contents must not contain null resources");
+            Validate.notNull(entry.getValue(), "contents must not contain null suppliers");
+        }
+        delegate.addAll(transaction, contents, parents);
+    }
+
     @Override
     public final void commit(final Transaction transaction, final String message, final boolean releaseLocks) {
         delegate.commit(transaction, message, releaseLocks);
@@ -15,28 +15,25 @@
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-package de.shadowhunt.subversion.internal.jaxb.converter;
+package de.shadowhunt.subversion.metrics;
 
-import java.util.UUID;
-
-import javax.xml.bind.annotation.adapters.XmlAdapter;
-
-public class UuidAdapter extends XmlAdapter<String, UUID> {
-
-    @Override
-    public String marshal(final UUID id) throws Exception {
-        if (id == null) {
-            return null;
-        }
-        return id.toString();
-    }
+/**
+ * Monotonically increasing count of events.
+ */
+public interface Counter {
 
-    @Override
-    public UUID unmarshal(final String id) throws Exception {
-        if (id == null) {
-            return null;
-        }
-        return UUID.fromString(id);
+    /**
+     * Increment the count by one.
+     */
+    default void increment() {
+        increment(1L);
     }
 
+    /**
+     * Increment the count by the given amount.
+     *
+     * @param amount
+     *            number of events that occurred
+     */
+    void increment(long amount);
 }
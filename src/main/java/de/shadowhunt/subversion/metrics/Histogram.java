@@ -15,28 +15,18 @@
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-package de.shadowhunt.subversion.internal.jaxb.converter;
+package de.shadowhunt.subversion.metrics;
 
-import javax.xml.bind.annotation.adapters.XmlAdapter;
-
-import de.shadowhunt.subversion.Resource;
-
-public class ResourceAdapter extends XmlAdapter<String, Resource> {
-
-    @Override
-    public String marshal(final Resource resource) throws Exception {
-        if (resource == null) {
-            return null;
-        }
-        return resource.toString();
-    }
-
-    @Override
-    public Resource unmarshal(final String resource) throws Exception {
-        if (resource == null) {
-            return null;
-        }
-        return Resource.create(resource);
-    }
+/**
+ * Distribution of recorded values. Durations are always recorded in nanoseconds, sizes in bytes.
+ */
+public interface Histogram {
 
+    /**
+     * Record a single value, negative values are treated as {@code 0}.
+     *
+     * @param value
+     *            the value to record
+     */
+    void record(long value);
 }
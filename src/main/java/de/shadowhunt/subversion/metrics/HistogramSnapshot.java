@@ -0,0 +1,169 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.metrics;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Snapshot of a {@link Histogram}. Values are counted in buckets, each power of two is split into eight buckets, so the values returned by {@link #getValueAtPercentile(double)} are at most 12.5% larger than the recorded values.
+ */
+@Immutable
+public final class HistogramSnapshot {
+
+    static final int BUCKETS = 488;
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    static int bucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0L, value);
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS) + subBucket;
+    }
+
+    private static long upperBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket / SUB_BUCKETS) - 1;
+        final long lowerBound = (long) (SUB_BUCKETS + (bucket % SUB_BUCKETS)) << shift;
+        return lowerBound + ((1L << shift) - 1L);
+    }
+
+    private final long[] buckets;
+
+    private final long count;
+
+    private final long maximum;
+
+    private final long minimum;
+
+    private final long sum;
+
+    HistogramSnapshot(final long[] buckets, final long sum, final long minimum, final long maximum) {
+        this.buckets = Arrays.copyOf(buckets, buckets.length);
+        this.sum = sum;
+        this.minimum = minimum;
+        this.maximum = maximum;
+
+        long total = 0L;
+        for (final long bucket : buckets) {
+            total += bucket;
+        }
+        count = total;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the largest recorded value or {@code 0} if no value was recorded
+     */
+    public long getMaximum() {
+        return (count == 0L) ? 0L : maximum;
+    }
+
+    /**
+     * Returns the arithmetic mean of the recorded values.
+     *
+     * @return the arithmetic mean of the recorded values or {@code 0} if no value was recorded
+     */
+    public double getMean() {
+        return (count == 0L) ? 0.0 : ((double) sum / count);
+    }
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return the smallest recorded value or {@code 0} if no value was recorded
+     */
+    public long getMinimum() {
+        return (count == 0L) ? 0L : minimum;
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return the sum of the recorded values
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the value below or equal to which the given percentage of the recorded values fall. The {@code 0}th percentile is the smallest, the {@code 100}th percentile the largest recorded value.
+     *
+     * @param percentile
+     *            percentage between {@code 0} and {@code 100}
+     *
+     * @return the value at the given percentile or {@code 0} if no value was recorded
+     *
+     * @throws IllegalArgumentException
+     *             if the percentile is not between {@code 0} and {@code 100}
+     */
+    public long getValueAtPercentile(final double percentile) {
+        Validate.inclusiveBetween(0.0, 100.0, percentile, "percentile must be between 0 and 100: %s", percentile);
+        if (count == 0L) {
+            return 0L;
+        }
+        if (percentile == 0.0) {
+            return minimum;
+        }
+
+        final long rank = (long) Math.ceil((percentile / 100.0) * count);
+        long seen = 0L;
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank) {
+                return Math.max(minimum, Math.min(maximum, upperBound(bucket)));
+            }
+        }
+        return maximum;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("HistogramSnapshot [count=");
+        builder.append(count);
+        builder.append(", sum=");
+        builder.append(sum);
+        builder.append(", minimum=");
+        builder.append(getMinimum());
+        builder.append(", maximum=");
+        builder.append(getMaximum());
+        builder.append(']');
+        return builder.toString();
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * {@link MetricsRegistry} that keeps all metrics in memory. Recording never blocks: counters and histograms are based on {@link LongAdder}s and atomic buckets, the current state can be read at any time with {@link #snapshot()}.
+ */
+@ThreadSafe
+public final class InMemoryMetricsRegistry implements MetricsRegistry {
+
+    private static final class InMemoryCounter implements Counter {
+
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public void increment(final long amount) {
+            count.add(amount);
+        }
+
+        long snapshot() {
+            return count.sum();
+        }
+    }
+
+    private static final class InMemoryHistogram implements Histogram {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(HistogramSnapshot.BUCKETS);
+
+        private final LongAccumulator maximum = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        private final LongAccumulator minimum = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+        private final LongAdder sum = new LongAdder();
+
+        @Override
+        public void record(final long value) {
+            final long sane = Math.max(0L, value);
+            buckets.incrementAndGet(HistogramSnapshot.bucket(sane));
+            sum.add(sane);
+            minimum.accumulate(sane);
+            maximum.accumulate(sane);
+        }
+
+        HistogramSnapshot snapshot() {
+            final long[] counts = new long[buckets.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+            }
+            return new HistogramSnapshot(counts, sum.sum(), minimum.get(), maximum.get());
+        }
+    }
+
+    private final ConcurrentMap<String, InMemoryCounter> counters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, InMemoryHistogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public Counter counter(final String name) {
+        // lookup first: computeIfAbsent locks even if the counter exists
+        final InMemoryCounter counter = counters.get(name);
+        if (counter != null) {
+            return counter;
+        }
+        return counters.computeIfAbsent(name, n -> new InMemoryCounter());
+    }
+
+    @Override
+    public void gauge(final String name, final LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    @Override
+    public Histogram histogram(final String name) {
+        // lookup first: computeIfAbsent locks even if the histogram exists
+        final InMemoryHistogram histogram = histograms.get(name);
+        if (histogram != null) {
+            return histogram;
+        }
+        return histograms.computeIfAbsent(name, n -> new InMemoryHistogram());
+    }
+
+    /**
+     * Returns the current state of all metrics, gauges are evaluated during the call.
+     *
+     * @return the current state of all metrics
+     */
+    public MetricsSnapshot snapshot() {
+        final Map<String, Long> counterValues = new HashMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.snapshot()));
+
+        final Map<String, Long> gaugeValues = new HashMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.getAsLong()));
+
+        final Map<String, HistogramSnapshot> histogramValues = new HashMap<>();
+        histograms.forEach((name, histogram) -> histogramValues.put(name, histogram.snapshot()));
+
+        return new MetricsSnapshot(counterValues, gaugeValues, histogramValues);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("InMemoryMetricsRegistry [counters=");
+        builder.append(counters.size());
+        builder.append(", gauges=");
+        builder.append(gauges.size());
+        builder.append(", histograms=");
+        builder.append(histograms.size());
+        builder.append(']');
+        return builder.toString();
+    }
+}
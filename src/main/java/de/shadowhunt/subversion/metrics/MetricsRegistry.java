@@ -0,0 +1,70 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Service provider interface for collecting metrics of a repository. Implementations must be thread safe and should not block, as metrics are recorded on every request.
+ * <p>
+ * The following metrics are recorded:
+ * <ul>
+ * <li>{@code subversion.action.<method>}: histogram of the duration of each public repository method</li>
+ * <li>{@code subversion.operation.<HTTP method>}: histogram of the duration of each request until its response has been processed; the content of a download is read by the caller, so for these requests the duration lasts until the content has been read completely or has been closed</li>
+ * <li>{@code subversion.operation.<HTTP method>.status.<code>}: counter of the received status codes</li>
+ * <li>{@code subversion.operation.<HTTP method>.errors}: counter of the failed requests</li>
+ * <li>{@code subversion.operation.<HTTP method>.retries}: counter of the requests retried by the {@link de.shadowhunt.subversion.http.client.SubversionRequestRetryHandler}</li>
+ * <li>{@code subversion.operation.<HTTP method>.request.bytes} and {@code subversion.operation.<HTTP method>.response.bytes}: histogram of the body sizes, counting the bytes that have actually been transferred</li>
+ * <li>{@code subversion.transfer.*}, {@code subversion.cache.resolve.*}, {@code subversion.cache.download.*} and {@code subversion.cache.metadata.*}: gauges of the transfer and cache statistics, summed over all repositories that share the registry</li>
+ * </ul>
+ *
+ * @see NoopMetricsRegistry
+ * @see InMemoryMetricsRegistry
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Returns the {@link Counter} with the given name, the {@link Counter} is created if it does not exist yet.
+     *
+     * @param name
+     *            name of the {@link Counter}
+     *
+     * @return the {@link Counter} with the given name
+     */
+    Counter counter(String name);
+
+    /**
+     * Register a gauge that is evaluated every time the metrics are read. Registering a gauge with an existing name replaces the previous gauge.
+     *
+     * @param name
+     *            name of the gauge
+     * @param value
+     *            supplies the current value of the gauge, must be cheap and thread safe
+     */
+    void gauge(String name, LongSupplier value);
+
+    /**
+     * Returns the {@link Histogram} with the given name, the {@link Histogram} is created if it does not exist yet.
+     *
+     * @param name
+     *            name of the {@link Histogram}
+     *
+     * @return the {@link Histogram} with the given name
+     */
+    Histogram histogram(String name);
+}
@@ -0,0 +1,109 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Snapshot of all metrics of an {@link InMemoryMetricsRegistry}. Each value is consistent in itself, but the values are not captured atomically as a whole.
+ */
+@Immutable
+public final class MetricsSnapshot {
+
+    private final Map<String, Long> counters;
+
+    private final Map<String, Long> gauges;
+
+    private final Map<String, HistogramSnapshot> histograms;
+
+    MetricsSnapshot(final Map<String, Long> counters, final Map<String, Long> gauges, final Map<String, HistogramSnapshot> histograms) {
+        this.counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+        this.gauges = Collections.unmodifiableMap(new TreeMap<>(gauges));
+        this.histograms = Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    /**
+     * Returns the value of the counter with the given name.
+     *
+     * @param name
+     *            name of the counter
+     *
+     * @return the value of the counter or {@code 0} if there is no such counter
+     */
+    public long getCounter(final String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Returns the values of all counters sorted by name.
+     *
+     * @return the values of all counters
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Returns the values of all gauges sorted by name.
+     *
+     * @return the values of all gauges
+     */
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    /**
+     * Returns the snapshot of the histogram with the given name.
+     *
+     * @param name
+     *            name of the histogram
+     *
+     * @return the snapshot of the histogram or {@code null} if there is no such histogram
+     */
+    @CheckForNull
+    public HistogramSnapshot getHistogram(final String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * Returns the snapshots of all histograms sorted by name.
+     *
+     * @return the snapshots of all histograms
+     */
+    public Map<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("MetricsSnapshot [counters=");
+        builder.append(counters);
+        builder.append(", gauges=");
+        builder.append(gauges);
+        builder.append(", histograms=");
+        builder.append(histograms);
+        builder.append(']');
+        return builder.toString();
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.metrics;
+
+import java.util.function.LongSupplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * {@link MetricsRegistry} that discards all metrics.
+ */
+@ThreadSafe
+public final class NoopMetricsRegistry implements MetricsRegistry {
+
+    public static final NoopMetricsRegistry INSTANCE = new NoopMetricsRegistry();
+
+    private static final Counter NOOP_COUNTER = amount -> {
+        // discard
+    };
+
+    private static final Histogram NOOP_HISTOGRAM = value -> {
+        // discard
+    };
+
+    private NoopMetricsRegistry() {
+        // prevent instantiation
+    }
+
+    @Override
+    public Counter counter(final String name) {
+        return NOOP_COUNTER;
+    }
+
+    @Override
+    public void gauge(final String name, final LongSupplier value) {
+        // discard
+    }
+
+    @Override
+    public Histogram histogram(final String name) {
+        return NOOP_HISTOGRAM;
+    }
+
+    @Override
+    public String toString() {
+        return "NoopMetricsRegistry";
+    }
+}
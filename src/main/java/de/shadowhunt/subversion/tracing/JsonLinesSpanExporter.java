@@ -0,0 +1,178 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.tracing;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link SpanExporter} that appends each {@link Span} as a single line JSON object to a file, for example:
+ *
+ * <pre>
+ * {"traceId":"5f0c6a3e1b2d4c7a","spanId":"0a1b2c3d4e5f6a7b","parentSpanId":"9e8d7c6b5a4f3e2d","name":"PROPFIND","start":"2019-01-01T00:00:00Z","durationNanos":1234567,"attributes":{"http.method":"PROPFIND","http.status":207},"phases":{"ttfb":1000000,"body":234567}}
+ * </pre>
+ *
+ * Failures to write a {@link Span} are logged and don't affect the traced repository.
+ */
+@ThreadSafe
+public final class JsonLinesSpanExporter implements SpanExporter, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonLinesSpanExporter.class);
+
+    private static void appendObject(final StringBuilder builder, final Map<String, ?> values) {
+        builder.append('{');
+        boolean first = true;
+        for (final Map.Entry<String, ?> entry : values.entrySet()) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            appendString(builder, entry.getKey());
+            builder.append(':');
+            appendValue(builder, entry.getValue());
+        }
+        builder.append('}');
+    }
+
+    private static void appendString(final StringBuilder builder, final String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                    break;
+            }
+        }
+        builder.append('"');
+    }
+
+    private static void appendValue(final StringBuilder builder, final Object value) {
+        if (value == null) {
+            builder.append("null");
+        } else if ((value instanceof Number) || (value instanceof Boolean)) {
+            builder.append(value);
+        } else {
+            appendString(builder, value.toString());
+        }
+    }
+
+    static String toJson(final Span span) {
+        final StringBuilder builder = new StringBuilder(256);
+        builder.append("{\"traceId\":");
+        appendString(builder, span.getTraceId());
+        builder.append(",\"spanId\":");
+        appendString(builder, span.getSpanId());
+        final String parentSpanId = span.getParentSpanId();
+        if (parentSpanId != null) {
+            builder.append(",\"parentSpanId\":");
+            appendString(builder, parentSpanId);
+        }
+        builder.append(",\"name\":");
+        appendString(builder, span.getName());
+        builder.append(",\"start\":");
+        appendString(builder, span.getStartTime().toString());
+        builder.append(",\"durationNanos\":");
+        builder.append(span.getDurationNanos());
+        builder.append(",\"attributes\":");
+        appendObject(builder, span.getAttributes());
+        builder.append(",\"phases\":");
+        appendObject(builder, span.getPhases());
+        builder.append('}');
+        return builder.toString();
+    }
+
+    private final Path file;
+
+    private final BufferedWriter writer;
+
+    /**
+     * Create a new {@link JsonLinesSpanExporter} that appends to the given file.
+     *
+     * @param file
+     *            the file to append the spans to, will be created if it does not exist
+     *
+     * @throws IOException
+     *             if the file can not be opened
+     */
+    public JsonLinesSpanExporter(final Path file) throws IOException {
+        this.file = file;
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+
+    @Override
+    public void export(final Span span) {
+        final String json = toJson(span);
+        synchronized (writer) {
+            try {
+                writer.write(json);
+                writer.write('\n');
+                // every line must be complete even if the JVM is terminated abruptly
+                writer.flush();
+            } catch (final IOException e) {
+                LOGGER.warn("could not export span to {}", file, e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("JsonLinesSpanExporter [file=");
+        builder.append(file);
+        builder.append(']');
+        return builder.toString();
+    }
+}
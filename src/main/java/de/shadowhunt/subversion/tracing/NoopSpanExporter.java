@@ -15,28 +15,29 @@
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-package de.shadowhunt.subversion.internal.jaxb.converter;
+package de.shadowhunt.subversion.tracing;
 
-import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.annotation.concurrent.ThreadSafe;
 
-import de.shadowhunt.subversion.LockToken;
+/**
+ * {@link SpanExporter} that discards all spans. Spans are not even recorded if a repository is configured with this {@link SpanExporter}.
+ */
+@ThreadSafe
+public final class NoopSpanExporter implements SpanExporter {
 
-public class LockTokenAdapter extends XmlAdapter<String, LockToken> {
+    public static final NoopSpanExporter INSTANCE = new NoopSpanExporter();
 
-    @Override
-    public String marshal(final LockToken token) throws Exception {
-        if (token == null) {
-            return null;
-        }
-        return token.toString();
+    private NoopSpanExporter() {
+        // prevent instantiation
     }
 
     @Override
-    public LockToken unmarshal(final String token) throws Exception {
-        if (token == null) {
-            return null;
-        }
-        return new LockToken(token);
+    public void export(final Span span) {
+        // discard
     }
 
+    @Override
+    public String toString() {
+        return "NoopSpanExporter";
+    }
 }
@@ -0,0 +1,255 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.tracing;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A finished unit of work: either a call of a public repository method or a single HTTP request that was sent to fulfill such a call. All spans of one call share the same trace id, the span of a HTTP request references the
+ * span of the repository method as its parent.
+ * <p>
+ * Spans of HTTP requests carry the following attributes: {@code http.method}, {@code http.uri}, {@code http.status}, {@code http.request.bytes} and {@code http.response.bytes} (the bytes of the body that have actually been transferred, if the request or response has a body), {@code http.retries}
+ * (if the request was retried) and {@code error} (if the request failed). Their phases are {@code connection} (connection lease and establishment), {@code request} (sending the request), {@code ttfb} (waiting for the response
+ * headers) and {@code body} (reading the response body). The {@code connection} and {@code request} phases are only available if the {@link org.apache.http.client.HttpClient} uses a
+ * {@link de.shadowhunt.subversion.http.client.SubversionRequestExecutor}, otherwise {@code ttfb} covers all three.
+ */
+@Immutable
+public final class Span {
+
+    /**
+     * Collects the values of a {@link Span}, the id of the trace and the span as well as the name are mandatory.
+     */
+    public static final class Builder {
+
+        private Map<String, Object> attributes = Collections.emptyMap();
+
+        private long durationNanos;
+
+        private final String name;
+
+        private String parentSpanId;
+
+        private Map<String, Long> phases = Collections.emptyMap();
+
+        private final String spanId;
+
+        private Instant startTime = Instant.EPOCH;
+
+        private final String traceId;
+
+        public Builder(final String traceId, final String spanId, final String name) {
+            this.traceId = traceId;
+            this.spanId = spanId;
+            this.name = name;
+        }
+
+        /**
+         * Create the {@link Span} from the collected values.
+         *
+         * @return the new {@link Span} instance
+         */
+        public Span build() {
+            return new Span(this);
+        }
+
+        /**
+         * Set the attributes of the {@link Span}, see {@link Span#getAttributes()}.
+         *
+         * @param values
+         *            the attributes of the {@link Span}
+         *
+         * @return this {@link Builder}
+         */
+        public Builder withAttributes(final Map<String, Object> values) {
+            attributes = values;
+            return this;
+        }
+
+        /**
+         * Set the id of the parent {@link Span}, see {@link Span#getParentSpanId()}.
+         *
+         * @param id
+         *            the id of the parent {@link Span} or {@code null} if the {@link Span} has no parent
+         *
+         * @return this {@link Builder}
+         */
+        public Builder withParentSpanId(@Nullable final String id) {
+            parentSpanId = id;
+            return this;
+        }
+
+        /**
+         * Set the durations of the phases of the {@link Span}, see {@link Span#getPhases()}.
+         *
+         * @param values
+         *            the durations of the phases in nanoseconds
+         *
+         * @return this {@link Builder}
+         */
+        public Builder withPhases(final Map<String, Long> values) {
+            phases = values;
+            return this;
+        }
+
+        /**
+         * Set the timing of the {@link Span}, see {@link Span#getStartTime()} and {@link Span#getDurationNanos()}.
+         *
+         * @param start
+         *            the point in time the {@link Span} started
+         * @param duration
+         *            the duration of the {@link Span} in nanoseconds
+         *
+         * @return this {@link Builder}
+         */
+        public Builder withTiming(final Instant start, final long duration) {
+            startTime = start;
+            durationNanos = duration;
+            return this;
+        }
+    }
+
+    private final Map<String, Object> attributes;
+
+    private final long durationNanos;
+
+    private final String name;
+
+    private final String parentSpanId;
+
+    private final Map<String, Long> phases;
+
+    private final String spanId;
+
+    private final Instant startTime;
+
+    private final String traceId;
+
+    Span(final Builder builder) {
+        traceId = builder.traceId;
+        spanId = builder.spanId;
+        parentSpanId = builder.parentSpanId;
+        name = builder.name;
+        startTime = builder.startTime;
+        durationNanos = builder.durationNanos;
+        attributes = Collections.unmodifiableMap(new LinkedHashMap<>(builder.attributes));
+        phases = Collections.unmodifiableMap(new LinkedHashMap<>(builder.phases));
+    }
+
+    /**
+     * Returns the attributes of the {@link Span} in the order they were recorded.
+     *
+     * @return the attributes of the {@link Span}
+     */
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Returns the duration of the {@link Span}.
+     *
+     * @return the duration of the {@link Span} in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Returns the name of the {@link Span}: the name of the repository method or the HTTP method of the request.
+     *
+     * @return the name of the {@link Span}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the id of the parent {@link Span}.
+     *
+     * @return the id of the parent {@link Span} or {@code null} if the {@link Span} has no parent
+     */
+    @CheckForNull
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    /**
+     * Returns the durations of the phases of the {@link Span} in the order they occurred.
+     *
+     * @return the durations of the phases in nanoseconds
+     */
+    public Map<String, Long> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Returns the id of the {@link Span}.
+     *
+     * @return the id of the {@link Span}
+     */
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Returns the point in time the {@link Span} started.
+     *
+     * @return the point in time the {@link Span} started
+     */
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the id of the trace, which is shared by all spans of one call of a repository method.
+     *
+     * @return the id of the trace
+     */
+    public String getTraceId() {
+        return traceId;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Span [traceId=");
+        builder.append(traceId);
+        builder.append(", spanId=");
+        builder.append(spanId);
+        builder.append(", parentSpanId=");
+        builder.append(parentSpanId);
+        builder.append(", name=");
+        builder.append(name);
+        builder.append(", startTime=");
+        builder.append(startTime);
+        builder.append(", durationNanos=");
+        builder.append(durationNanos);
+        builder.append(", attributes=");
+        builder.append(attributes);
+        builder.append(", phases=");
+        builder.append(phases);
+        builder.append(']');
+        return builder.toString();
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.tracing;
+
+/**
+ * Receives every finished {@link Span}. Implementations must be thread safe, as spans are finished concurrently, and should not block the calling thread for long.
+ *
+ * @see NoopSpanExporter
+ * @see JsonLinesSpanExporter
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+    /**
+     * Export a finished {@link Span}. Child spans are exported before their parent, except the span of a request whose content is read by the caller (e.g.
+     * {@link de.shadowhunt.subversion.ReadOnlyRepository#download(de.shadowhunt.subversion.View, de.shadowhunt.subversion.Resource, de.shadowhunt.subversion.Revision)}):
+     * it ends when the content has been read completely or has been closed.
+     *
+     * @param span
+     *            the finished {@link Span}
+     */
+    void export(Span span);
+}
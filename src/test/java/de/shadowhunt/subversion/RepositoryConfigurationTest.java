@@ -0,0 +1,118 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion;
+
+import de.shadowhunt.subversion.metrics.NoopMetricsRegistry;
+import de.shadowhunt.subversion.tracing.NoopSpanExporter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RepositoryConfigurationTest {
+
+    @Test
+    public void defaultConfiguration() {
+        final RepositoryConfiguration configuration = RepositoryConfiguration.DEFAULT;
+        Assert.assertFalse("list report is disabled by default", configuration.isListReportEnabled());
+        Assert.assertEquals("requests are sequential by default", 1, configuration.getMaxRequestsInFlight());
+        Assert.assertTrue("worker pool must not be empty", (configuration.getWorkerThreads() >= 1));
+        Assert.assertTrue("resolve cache is enabled by default", (configuration.getResolveCacheSize() > 0));
+        Assert.assertNull("download cache is disabled by default", configuration.getDownloadCacheDirectory());
+        Assert.assertEquals("metadata cache is disabled by default", 0L, configuration.getMetadataCacheWeight());
+        Assert.assertFalse("head revision tracking is disabled by default", configuration.isHeadRevisionTracking());
+        Assert.assertFalse("server is probed eagerly by default", configuration.isLazyProbing());
+        Assert.assertFalse("recorded lock tokens are used by default", configuration.isLockTokenRefreshEnabled());
+        Assert.assertFalse("full text is uploaded by default", configuration.isDeltaUploadEnabled());
+        Assert.assertEquals("uncompressed svndiff by default", 0, configuration.getSvndiffVersion());
+        Assert.assertFalse("transfer is not compressed by default", configuration.isCompressionEnabled());
+        Assert.assertTrue("download segments must not be empty", (configuration.getDownloadSegmentSize() > 0L));
+        Assert.assertFalse("checksums are not verified by default", configuration.isChecksumVerificationEnabled());
+        Assert.assertFalse("uploads are not spooled by default", configuration.isUploadSpoolingEnabled());
+        Assert.assertSame("metrics are discarded by default", NoopMetricsRegistry.INSTANCE, configuration.getMetricsRegistry());
+        Assert.assertSame("spans are not recorded by default", NoopSpanExporter.INSTANCE, configuration.getSpanExporter());
+    }
+
+    @Test
+    public void equalsConfiguration() {
+        final RepositoryConfiguration configuration = RepositoryConfiguration.DEFAULT.withMaxRequestsInFlight(8);
+        final RepositoryConfiguration same = RepositoryConfiguration.DEFAULT.withMaxRequestsInFlight(8);
+        Assert.assertNotSame("configuration and same are different object", configuration, same);
+        Assert.assertEquals("configuration equals same", configuration, same);
+        Assert.assertEquals("configuration has same hashCode as same", configuration.hashCode(), same.hashCode());
+        Assert.assertNotEquals("configuration doesn't equal default", RepositoryConfiguration.DEFAULT, configuration);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalDownloadCacheSize() {
+        RepositoryConfiguration.DEFAULT.withDownloadCacheSize(-1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalDownloadSegmentSize() {
+        RepositoryConfiguration.DEFAULT.withDownloadSegmentSize(0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalHeadRevisionMaximumAge() {
+        RepositoryConfiguration.DEFAULT.withHeadRevisionMaximumAge(-1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalMaxRequestsInFlight() {
+        RepositoryConfiguration.DEFAULT.withMaxRequestsInFlight(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalMetadataCacheWeight() {
+        RepositoryConfiguration.DEFAULT.withMetadataCacheWeight(-1L);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void illegalMetricsRegistry() {
+        RepositoryConfiguration.DEFAULT.withMetricsRegistry(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalResolveCacheSize() {
+        RepositoryConfiguration.DEFAULT.withResolveCacheSize(-1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void illegalSpanExporter() {
+        RepositoryConfiguration.DEFAULT.withSpanExporter(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalSvndiffVersion() {
+        RepositoryConfiguration.DEFAULT.withSvndiffVersion(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalWorkerThreads() {
+        RepositoryConfiguration.DEFAULT.withWorkerThreads(0);
+    }
+
+    @Test
+    public void withValues() {
+        final RepositoryConfiguration configuration = RepositoryConfiguration.DEFAULT.withMaxRequestsInFlight(8).withWorkerThreads(16);
+        Assert.assertEquals("maxRequestsInFlight", 8, configuration.getMaxRequestsInFlight());
+        Assert.assertEquals("workerThreads", 16, configuration.getWorkerThreads());
+        Assert.assertEquals("default is unchanged", 1, RepositoryConfiguration.DEFAULT.getMaxRequestsInFlight());
+
+        Assert.assertEquals("resolveCacheSize", 0, RepositoryConfiguration.DEFAULT.withResolveCacheSize(0).getResolveCacheSize());
+    }
+}
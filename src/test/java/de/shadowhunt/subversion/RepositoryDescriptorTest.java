@@ -0,0 +1,62 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.util.Properties;
+import java.util.UUID;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RepositoryDescriptorTest {
+
+    private static final RepositoryDescriptor DESCRIPTOR = RepositoryDescriptor.create(URI.create("http://repository.example.net/svn/test"), Resource.create("/trunk"), UUID.fromString("01234567-89ab-cdef-0123-456789abcdef"), ProtocolVersion.HTTP_V2, "/svn/test/!svn", true);
+
+    @Test
+    public void exportProperties() {
+        final Properties properties = DESCRIPTOR.toProperties();
+        Assert.assertEquals("restored descriptor", DESCRIPTOR, RepositoryDescriptor.fromProperties(properties));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void incompleteProperties() {
+        final Properties properties = DESCRIPTOR.toProperties();
+        properties.remove("repositoryId");
+        RepositoryDescriptor.fromProperties(properties);
+    }
+
+    @Test
+    public void serialize() throws Exception {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(buffer)) {
+            output.writeObject(DESCRIPTOR);
+        }
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+            final Object restored = input.readObject();
+            Assert.assertEquals("restored descriptor", DESCRIPTOR, restored);
+            Assert.assertEquals("restored hashCode", DESCRIPTOR.hashCode(), restored.hashCode());
+        }
+    }
+}
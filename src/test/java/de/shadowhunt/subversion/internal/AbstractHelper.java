@@ -34,6 +34,7 @@ import java.util.zip.ZipFile;
 import de.shadowhunt.subversion.Repository;
 import de.shadowhunt.subversion.RepositoryFactory;
 import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.http.client.SubversionRequestExecutor;
 import de.shadowhunt.subversion.http.client.SubversionRequestRetryHandler;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
@@ -185,6 +186,7 @@ public abstract class AbstractHelper {
         }
 
         builder.setRetryHandler(new SubversionRequestRetryHandler());
+        builder.setRequestExecutor(new SubversionRequestExecutor());
         return builder.build();
     }
 
@@ -19,7 +19,11 @@ package de.shadowhunt.subversion.internal;
 
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import de.shadowhunt.subversion.Repository;
 import de.shadowhunt.subversion.Resource;
@@ -135,4 +139,37 @@ public abstract class AbstractRepositoryAddIT {
         file(repository, resource, "A", true);
         file(repository, resource, "B", false);
     }
+
+    @Test
+    public void test03_addAll() throws Exception {
+        final Map<Resource, String> expected = new TreeMap<>();
+        expected.put(prefix.append(Resource.create("all/a.txt")), "A");
+        expected.put(prefix.append(Resource.create("all/b.txt")), "B");
+        expected.put(prefix.append(Resource.create("all/sub/c.txt")), "C");
+        expected.put(prefix.append(Resource.create("all/sub/deep/d.txt")), "D");
+        expected.put(prefix.append(Resource.create("all/other/e.txt")), "E");
+
+        final Map<Resource, Supplier<InputStream>> contents = new TreeMap<>();
+        for (final Entry<Resource, String> entry : expected.entrySet()) {
+            final String content = entry.getValue();
+            contents.put(entry.getKey(), () -> IOUtils.toInputStream(content, StandardCharsets.UTF_8));
+        }
+
+        final Transaction transaction = repository.createTransaction();
+        try {
+            repository.addAll(transaction, contents, true);
+            for (final Resource resource : expected.keySet()) {
+                Assert.assertEquals("change set must contain: " + resource, Status.ADDED, transaction.getChangeSet().get(resource));
+            }
+            repository.commit(transaction, "addAll " + prefix, true);
+        } finally {
+            repository.rollbackIfNotCommitted(transaction);
+        }
+
+        for (final Entry<Resource, String> entry : expected.entrySet()) {
+            final Resource resource = entry.getKey();
+            final InputStream content = IOUtils.toInputStream(entry.getValue(), StandardCharsets.UTF_8);
+            AbstractRepositoryDownloadIT.assertEquals("content must match", content, repository.download(transaction, resource, Revision.HEAD));
+        }
+    }
 }
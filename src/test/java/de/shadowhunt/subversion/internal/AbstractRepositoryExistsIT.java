@@ -17,6 +17,9 @@
  */
 package de.shadowhunt.subversion.internal;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import de.shadowhunt.subversion.ReadOnlyRepository;
 import de.shadowhunt.subversion.Resource;
 import de.shadowhunt.subversion.Revision;
@@ -140,4 +143,20 @@ public abstract class AbstractRepositoryExistsIT {
         final String message = createMessage(resource, revision);
         Assert.assertTrue(message, repository.exists(view, resource, revision));
     }
+
+    @Test
+    public void test03_Bulk() throws Exception {
+        final Resource file = PREFIX.append(Resource.create("/file.txt"));
+        final Resource folder = PREFIX.append(Resource.create("/folder"));
+        final Resource missing = PREFIX.append(Resource.create("/non_existing.txt"));
+        final Resource nested = PREFIX.append(Resource.create("/non_existing/file.txt"));
+        final Revision revision = Revision.HEAD;
+
+        final Map<Resource, Boolean> exists = repository.existsAll(view, Arrays.asList(file, folder, missing, nested), revision);
+        Assert.assertEquals(4, exists.size());
+        Assert.assertTrue(createMessage(file, revision), exists.get(file));
+        Assert.assertTrue(createMessage(folder, revision), exists.get(folder));
+        Assert.assertFalse(createMessage(missing, revision), exists.get(missing));
+        Assert.assertFalse(createMessage(nested, revision), exists.get(nested));
+    }
 }
@@ -17,8 +17,21 @@
  */
 package de.shadowhunt.subversion.internal;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import de.shadowhunt.subversion.AsyncReadOnlyRepository;
 import de.shadowhunt.subversion.ReadOnlyRepository;
 import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.RepositoryDescriptor;
+import de.shadowhunt.subversion.RepositoryFactory;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.View;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
 import org.junit.Assert;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
@@ -77,4 +90,55 @@ public abstract class AbstractRepositoryFactoryIT {
         Assert.assertNotNull("protocol must not be null", repository.getProtocolVersion());
         Assert.assertNotNull("repository must not be null", repository.getRepositoryId());
     }
+
+    @Test
+    public void test04_createAsync() throws Exception {
+        final RepositoryFactory factory = RepositoryFactory.getInstance();
+        final HttpClient client = helper.getHttpClient(null);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (final CloseableHttpAsyncClient asyncClient = HttpAsyncClients.createDefault()) {
+            asyncClient.start();
+            final AsyncReadOnlyRepository repository = factory.createAsyncReadOnlyRepository(helper.getRepositoryReadOnlyUri(), client, asyncClient, helper.getHttpContext(), executor);
+            Assert.assertNotNull("repository must not be null", repository);
+
+            Assert.assertEquals("base uri must match", helper.getRepositoryReadOnlyBaseUri(), repository.getBaseUri());
+            Assert.assertEquals("base path must match", AbstractHelper.BASE_PATH, repository.getBasePath());
+
+            final View view = repository.createView().get();
+            Assert.assertTrue("root must exist", repository.exists(view, Resource.ROOT, Revision.HEAD).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test05_createFromDescriptor() {
+        final RepositoryFactory factory = RepositoryFactory.getInstance();
+        final HttpClient client = helper.getHttpClient(null);
+        final RepositoryDescriptor descriptor = factory.probe(helper.getRepositoryReadOnlyUri(), client, helper.getHttpContext());
+        Assert.assertEquals("descriptor must survive export", descriptor, RepositoryDescriptor.fromProperties(descriptor.toProperties()));
+
+        final ReadOnlyRepository repository = factory.createReadOnlyRepository(descriptor, client, helper.getHttpContext());
+        Assert.assertEquals("base uri must match", helper.getRepositoryReadOnlyBaseUri(), repository.getBaseUri());
+        Assert.assertEquals("base path must match", AbstractHelper.BASE_PATH, repository.getBasePath());
+        Assert.assertEquals("repository id must match", helper.getRepositoryReadOnly().getRepositoryId(), repository.getRepositoryId());
+
+        final View view = repository.createView();
+        Assert.assertTrue("root must exist", repository.exists(view, Resource.ROOT, Revision.HEAD));
+    }
+
+    @Test
+    public void test06_createLazy() {
+        final RepositoryFactory factory = RepositoryFactory.getInstance();
+        final HttpClient client = helper.getHttpClient(null);
+        final RepositoryConfiguration configuration = RepositoryConfiguration.DEFAULT.withLazyProbing(true);
+        final ReadOnlyRepository repository = factory.createReadOnlyRepository(helper.getRepositoryReadOnlyUri(), client, helper.getHttpContext(), configuration);
+        Assert.assertNotNull("repository must not be null", repository);
+
+        Assert.assertEquals("base uri must match", helper.getRepositoryReadOnlyBaseUri(), repository.getBaseUri());
+        Assert.assertEquals("base path must match", AbstractHelper.BASE_PATH, repository.getBasePath());
+
+        final View view = repository.createView();
+        Assert.assertTrue("root must exist", repository.exists(view, Resource.ROOT, Revision.HEAD));
+    }
 }
@@ -18,6 +18,9 @@
 package de.shadowhunt.subversion.internal;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
 
 import de.shadowhunt.subversion.Info;
 import de.shadowhunt.subversion.ReadOnlyRepository;
@@ -169,4 +172,18 @@ public abstract class AbstractRepositoryInfoIT {
         final String message = createMessage(resource, revision);
         assertInfoEquals(message, expected, repository.info(view, resource, revision));
     }
+
+    @Test
+    public void test03_Bulk() throws Exception {
+        final Resource file = PREFIX.append(Resource.create("/file.txt"));
+        final Resource folder = PREFIX.append(Resource.create("/folder"));
+        final Resource missing = PREFIX.append(Resource.create("/non_existing.txt"));
+        final Revision revision = Revision.HEAD;
+
+        final Map<Resource, Optional<Info>> infos = repository.infoAll(view, Arrays.asList(file, folder, missing), revision);
+        Assert.assertEquals(3, infos.size());
+        assertInfoEquals(createMessage(file, revision), infoLoader.load(file, revision), infos.get(file).get());
+        assertInfoEquals(createMessage(folder, revision), infoLoader.load(folder, revision), infos.get(folder).get());
+        Assert.assertFalse(createMessage(missing, revision), infos.get(missing).isPresent());
+    }
 }
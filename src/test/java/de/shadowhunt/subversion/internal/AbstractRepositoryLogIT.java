@@ -18,6 +18,7 @@
 package de.shadowhunt.subversion.internal;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 import de.shadowhunt.subversion.LogEntry;
@@ -194,4 +195,38 @@ public abstract class AbstractRepositoryLogIT {
         final String message = createMessage(resource, start, end, limit);
         Assert.assertEquals(message, expected, repository.log(view, resource, start, end, limit, false));
     }
+
+    @Test
+    public void test03_FileStreamed() throws Exception {
+        final Resource resource = PREFIX.append(Resource.create("/file.txt"));
+        final Revision start = Revision.INITIAL;
+        final Revision end = Revision.HEAD;
+        final int limit = UNLIMITED;
+
+        final List<LogEntry> expected = logLoader.load(resource, start, end, limit);
+        final String message = createMessage(resource, start, end, limit);
+        final List<LogEntry> actual = new ArrayList<>();
+        repository.log(view, resource, start, end, limit, false, actual::add);
+        Assert.assertEquals(message, expected, actual);
+    }
+
+    @Test
+    public void test03_FileStreamedAbort() throws Exception {
+        final Resource resource = PREFIX.append(Resource.create("/file.txt"));
+        final Revision start = Revision.INITIAL;
+        final Revision end = Revision.HEAD;
+        final int limit = UNLIMITED;
+
+        final List<LogEntry> expected = logLoader.load(resource, start, end, 2);
+        final String message = createMessage(resource, start, end, limit);
+        final List<LogEntry> actual = new ArrayList<>();
+        repository.log(view, resource, start, end, limit, false, entry -> {
+            actual.add(entry);
+            return actual.size() < 2;
+        });
+        Assert.assertEquals(message, expected, actual);
+
+        // connection must still be usable after aborting
+        Assert.assertEquals(message, expected, repository.log(view, resource, start, end, 2, false));
+    }
 }
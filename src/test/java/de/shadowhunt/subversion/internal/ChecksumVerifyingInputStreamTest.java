@@ -0,0 +1,74 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChecksumVerifyingInputStreamTest {
+
+    private static final byte[] CONTENT = "checksum verifying content".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void matching() throws Exception {
+        try (final InputStream input = new ChecksumVerifyingInputStream(new ByteArrayInputStream(CONTENT), DigestUtils.md5Hex(CONTENT))) {
+            Assert.assertArrayEquals("content must not be modified", CONTENT, IOUtils.toByteArray(input));
+            Assert.assertEquals("end of content is reported again", -1, input.read());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void mismatching() throws Exception {
+        try (final InputStream input = new ChecksumVerifyingInputStream(new ByteArrayInputStream(CONTENT), DigestUtils.md5Hex("other"))) {
+            IOUtils.toByteArray(input);
+        }
+    }
+
+    @Test
+    public void mismatchingIsReportedAgain() throws Exception {
+        try (final InputStream input = new ChecksumVerifyingInputStream(new ByteArrayInputStream(CONTENT), DigestUtils.md5Hex("other"))) {
+            try {
+                IOUtils.toByteArray(input);
+                Assert.fail("mismatch must be reported");
+            } catch (final IOException e) {
+                // expected
+            }
+            try {
+                input.read();
+                Assert.fail("mismatch must be reported again");
+            } catch (final IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void skipped() throws Exception {
+        try (final InputStream input = new ChecksumVerifyingInputStream(new ByteArrayInputStream(CONTENT), DigestUtils.md5Hex(CONTENT))) {
+            Assert.assertEquals("skipped bytes", 9L, input.skip(9L));
+            IOUtils.toByteArray(input);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DownloadCacheTest {
+
+    private static final UUID REPOSITORY_ID = UUID.fromString("00000000-0000-0000-0000-000000000000");
+
+    private static final Resource RESOURCE = Resource.create("/file.txt");
+
+    private static final Revision REVISION = Revision.create(5);
+
+    private static long count(final Path directory) throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static String read(final InputStream content) throws IOException {
+        try (final InputStream input = content) {
+            return IOUtils.toString(input, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static InputStream stream(final String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path directory;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void before() throws Exception {
+        directory = folder.newFolder("cache").toPath();
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws Exception {
+        final DownloadCache cache = new DownloadCache(directory, 10);
+        read(cache.store(REPOSITORY_ID, Resource.create("/a.txt"), REVISION, DigestUtils.md5Hex("aaaaaa"), stream("aaaaaa")));
+        read(cache.store(REPOSITORY_ID, Resource.create("/b.txt"), REVISION, DigestUtils.md5Hex("bbbbbb"), stream("bbbbbb")));
+
+        Assert.assertNull("a.txt has been evicted", cache.get(REPOSITORY_ID, Resource.create("/a.txt"), REVISION));
+        Assert.assertEquals("b.txt is still cached", "bbbbbb", read(cache.get(REPOSITORY_ID, Resource.create("/b.txt"), REVISION)));
+    }
+
+    @Test
+    public void evictIndex() throws Exception {
+        final DownloadCache cache = new DownloadCache(directory, 10);
+        read(cache.store(REPOSITORY_ID, Resource.create("/a.txt"), REVISION, DigestUtils.md5Hex("aaaaaa"), stream("aaaaaa")));
+        read(cache.link(REPOSITORY_ID, Resource.create("/copy.txt"), REVISION, DigestUtils.md5Hex("aaaaaa")));
+        Assert.assertEquals("index files", 2, count(directory.resolve("index")));
+
+        read(cache.store(REPOSITORY_ID, Resource.create("/b.txt"), REVISION, DigestUtils.md5Hex("bbbbbb"), stream("bbbbbb")));
+        Assert.assertEquals("index files of the evicted content must be removed", 1, count(directory.resolve("index")));
+        Assert.assertEquals("objects", 1, count(directory.resolve("objects")));
+        Assert.assertEquals("size", 6L, cache.getSize());
+    }
+
+    @Test
+    public void evictLoadedContent() throws Exception {
+        final DownloadCache cache = new DownloadCache(directory, 14);
+        read(cache.store(REPOSITORY_ID, Resource.create("/a.txt"), REVISION, DigestUtils.md5Hex("aaaaaa"), stream("aaaaaa")));
+        read(cache.store(REPOSITORY_ID, Resource.create("/b.txt"), REVISION, DigestUtils.md5Hex("bbbbbb"), stream("bbbbbb")));
+
+        final DownloadCache restarted = new DownloadCache(directory, 14);
+        Assert.assertEquals("size is read from the directory", 12L, restarted.getSize());
+        read(restarted.store(REPOSITORY_ID, Resource.create("/c.txt"), REVISION, DigestUtils.md5Hex("cccccc"), stream("cccccc")));
+        Assert.assertEquals("size", 12L, restarted.getSize());
+        Assert.assertEquals("index files", 2, count(directory.resolve("index")));
+        Assert.assertEquals("c.txt is cached", "cccccc", read(restarted.get(REPOSITORY_ID, Resource.create("/c.txt"), REVISION)));
+    }
+
+    @Test
+    public void linkSameContent() throws Exception {
+        final DownloadCache cache = new DownloadCache(directory, 1024);
+        final String md5 = DigestUtils.md5Hex("content");
+        Assert.assertNull("nothing cached yet", cache.link(REPOSITORY_ID, RESOURCE, REVISION, md5));
+
+        read(cache.store(REPOSITORY_ID, RESOURCE, REVISION, md5, stream("content")));
+        final Resource copy = Resource.create("/copy.txt");
+        Assert.assertEquals("content is shared", "content", read(cache.link(REPOSITORY_ID, copy, REVISION, md5)));
+        Assert.assertEquals("copy is cached", "content", read(cache.get(REPOSITORY_ID, copy, REVISION)));
+    }
+
+    @Test
+    public void missingEntry() throws Exception {
+        final DownloadCache cache = new DownloadCache(directory, 1024);
+        Assert.assertNull("nothing cached", cache.get(REPOSITORY_ID, RESOURCE, REVISION));
+        Assert.assertEquals("misses", 1, cache.getMissCount());
+    }
+
+    @Test
+    public void storeAndGet() throws Exception {
+        final DownloadCache cache = new DownloadCache(directory, 1024);
+        final String md5 = DigestUtils.md5Hex("content");
+        Assert.assertEquals("stored content", "content", read(cache.store(REPOSITORY_ID, RESOURCE, REVISION, md5, stream("content"))));
+
+        Assert.assertEquals("cached content", "content", read(cache.get(REPOSITORY_ID, RESOURCE, REVISION)));
+        Assert.assertNull("other revision is not cached", cache.get(REPOSITORY_ID, RESOURCE, Revision.create(6)));
+        Assert.assertEquals("hits", 1, cache.getHitCount());
+
+        final DownloadCache shared = new DownloadCache(directory, 1024);
+        Assert.assertEquals("cache directory can be shared", "content", read(shared.get(REPOSITORY_ID, RESOURCE, REVISION)));
+    }
+
+    @Test(expected = IOException.class)
+    public void storeChecksumMismatch() throws Exception {
+        final DownloadCache cache = new DownloadCache(directory, 1024);
+        cache.store(REPOSITORY_ID, RESOURCE, REVISION, DigestUtils.md5Hex("expected"), stream("content"));
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import de.shadowhunt.subversion.Revision;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeadRevisionTrackerTest {
+
+    private static final UUID REPOSITORY_ID = UUID.fromString("00000000-0000-0000-0000-000000000000");
+
+    private static Supplier<ViewInternal> counting(final AtomicInteger calls) {
+        return () -> new ViewImpl(REPOSITORY_ID, Revision.create(calls.incrementAndGet()));
+    }
+
+    @Test
+    public void coalesceConcurrentRequests() throws Exception {
+        final HeadRevisionTracker tracker = new HeadRevisionTracker(true, 0L);
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Supplier<ViewInternal> loader = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return new ViewImpl(REPOSITORY_ID, Revision.create(calls.incrementAndGet()));
+        };
+
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<ViewInternal>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> tracker.createView(false, loader)));
+            started.await();
+            for (int i = 1; i < threads; i++) {
+                futures.add(executor.submit(() -> tracker.createView(false, loader)));
+            }
+            // give the followers a chance to join the request in flight
+            Thread.sleep(100L);
+            release.countDown();
+
+            for (final Future<ViewInternal> future : futures) {
+                Assert.assertEquals("shared head revision", Revision.create(1), future.get().getHeadRevision());
+            }
+            Assert.assertEquals("single request", 1, calls.get());
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1L, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void disabledTracker() {
+        final HeadRevisionTracker tracker = new HeadRevisionTracker(false, TimeUnit.HOURS.toMillis(1L));
+        final AtomicInteger calls = new AtomicInteger();
+        tracker.createView(false, counting(calls));
+        tracker.createView(false, counting(calls));
+        Assert.assertEquals("every call is passed to the server", 2, calls.get());
+    }
+
+    @Test
+    public void freshView() {
+        final HeadRevisionTracker tracker = new HeadRevisionTracker(true, TimeUnit.HOURS.toMillis(1L));
+        final AtomicInteger calls = new AtomicInteger();
+        tracker.createView(false, counting(calls));
+        final ViewInternal view = tracker.createView(true, counting(calls));
+        Assert.assertEquals("fresh view", Revision.create(2), view.getHeadRevision());
+        Assert.assertEquals("fresh view is tracked", Revision.create(2), tracker.createView(false, counting(calls)).getHeadRevision());
+    }
+
+    @Test
+    public void invalidate() {
+        final HeadRevisionTracker tracker = new HeadRevisionTracker(true, TimeUnit.HOURS.toMillis(1L));
+        final AtomicInteger calls = new AtomicInteger();
+        tracker.createView(false, counting(calls));
+        tracker.invalidate();
+        Assert.assertEquals("server is asked again", Revision.create(2), tracker.createView(false, counting(calls)).getHeadRevision());
+    }
+
+    @Test
+    public void propagateFailure() {
+        final HeadRevisionTracker tracker = new HeadRevisionTracker(true, TimeUnit.HOURS.toMillis(1L));
+        try {
+            tracker.createView(false, () -> {
+                throw new IllegalStateException("failed");
+            });
+            Assert.fail("failure must be propagated");
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals("message", "failed", e.getMessage());
+        }
+
+        final AtomicInteger calls = new AtomicInteger();
+        Assert.assertEquals("failures are not tracked", Revision.create(1), tracker.createView(false, counting(calls)).getHeadRevision());
+    }
+
+    @Test
+    public void trackedView() {
+        final HeadRevisionTracker tracker = new HeadRevisionTracker(true, TimeUnit.HOURS.toMillis(1L));
+        final AtomicInteger calls = new AtomicInteger();
+        final ViewInternal first = tracker.createView(false, counting(calls));
+        final ViewInternal second = tracker.createView(false, counting(calls));
+        Assert.assertSame("tracked view", first, second);
+        Assert.assertEquals("single request", 1, calls.get());
+    }
+
+    @Test
+    public void withoutMaximumAge() {
+        final HeadRevisionTracker tracker = new HeadRevisionTracker(true, 0L);
+        final AtomicInteger calls = new AtomicInteger();
+        tracker.createView(false, counting(calls));
+        tracker.createView(false, counting(calls));
+        Assert.assertEquals("sequential calls are passed to the server", 2, calls.get());
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import de.shadowhunt.subversion.internal.fake.Helper;
+import de.shadowhunt.subversion.metrics.InMemoryMetricsRegistry;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RepositoryMetricsTest {
+
+    private static final byte[] CONTENT = new byte[16 * 1024];
+
+    private static final String RECEIVED = "subversion.transfer.received.raw.bytes";
+
+    private static final Resource RESOURCE = Resource.create("/metrics/file.bin");
+
+    private final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() {
+        server.close();
+    }
+
+    @Before
+    public void before() throws IOException {
+        server = new FakeSubversionServer(ProtocolVersion.HTTP_V2);
+        server.add(RESOURCE, CONTENT);
+    }
+
+    private Repository connect() {
+        return Helper.connect(server, RepositoryConfiguration.DEFAULT.withMetricsRegistry(registry));
+    }
+
+    private void download(final Repository repository) throws IOException {
+        final View view = repository.createView();
+        try (final InputStream content = repository.download(view, RESOURCE, Revision.HEAD)) {
+            Assert.assertEquals("content length", CONTENT.length, IOUtils.toByteArray(content).length);
+        }
+    }
+
+    private long getReceived() {
+        final Long received = registry.snapshot().getGauges().get(RECEIVED);
+        Assert.assertNotNull("gauge must be registered", received);
+        return received;
+    }
+
+    @Test
+    public void probeIsNotRegistered() {
+        final Repository repository = connect();
+        Assert.assertNotNull("repository", repository);
+        Assert.assertEquals("probe requests must not be published", 0L, getReceived());
+    }
+
+    @Test
+    public void sumOverRepositories() throws IOException {
+        final Repository first = connect();
+        download(first);
+        final long received = getReceived();
+        Assert.assertTrue("first download: " + received, received >= CONTENT.length);
+
+        final Repository second = connect();
+        download(second);
+        Assert.assertTrue("second repository must not replace the first one", getReceived() >= (received + CONTENT.length));
+
+        // keep both repositories reachable until the gauge has been read
+        Assert.assertNotSame("repositories", first, second);
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResolveCacheTest {
+
+    private static final Resource BASE = Resource.create("/base");
+
+    private static final UUID REPOSITORY_ID = UUID.fromString("00000000-0000-0000-0000-000000000000");
+
+    private static QualifiedResource qualified(final String path) {
+        return new QualifiedResource(BASE, Resource.create(path));
+    }
+
+    @Test
+    public void cacheResolvedLocation() {
+        final ResolveCache cache = new ResolveCache(10);
+        final AtomicInteger calls = new AtomicInteger();
+        final QualifiedResource expected = qualified("/old.txt");
+
+        for (int i = 0; i < 3; i++) {
+            final QualifiedResource actual = cache.resolve(REPOSITORY_ID, qualified("/new.txt"), Revision.create(10), Revision.create(5), () -> {
+                calls.incrementAndGet();
+                return expected;
+            });
+            Assert.assertEquals("resolved location", expected, actual);
+        }
+        Assert.assertEquals("resolver is called only once", 1, calls.get());
+        Assert.assertEquals("hits", 2, cache.getHitCount());
+        Assert.assertEquals("misses", 1, cache.getMissCount());
+    }
+
+    @Test
+    public void differentRevisionsAreDifferentEntries() {
+        final ResolveCache cache = new ResolveCache(10);
+        final QualifiedResource resource = qualified("/file.txt");
+
+        cache.resolve(REPOSITORY_ID, resource, Revision.create(10), Revision.create(5), () -> qualified("/a.txt"));
+        cache.resolve(REPOSITORY_ID, resource, Revision.create(11), Revision.create(5), () -> qualified("/b.txt"));
+        cache.resolve(REPOSITORY_ID, resource, Revision.create(10), Revision.create(6), () -> qualified("/c.txt"));
+        Assert.assertEquals("size", 3, cache.size());
+        Assert.assertEquals("misses", 3, cache.getMissCount());
+        Assert.assertEquals("hits", 0, cache.getHitCount());
+    }
+
+    @Test
+    public void disabledCache() {
+        final ResolveCache cache = new ResolveCache(0);
+        final AtomicInteger calls = new AtomicInteger();
+
+        cache.resolve(REPOSITORY_ID, qualified("/file.txt"), Revision.create(10), Revision.create(5), () -> qualified("/" + calls.incrementAndGet()));
+        cache.resolve(REPOSITORY_ID, qualified("/file.txt"), Revision.create(10), Revision.create(5), () -> qualified("/" + calls.incrementAndGet()));
+        Assert.assertEquals("resolver is called every time", 2, calls.get());
+        Assert.assertEquals("size", 0, cache.size());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        final ResolveCache cache = new ResolveCache(2);
+        final AtomicInteger calls = new AtomicInteger();
+
+        cache.resolve(REPOSITORY_ID, qualified("/a.txt"), Revision.create(10), Revision.create(5), () -> qualified("/" + calls.incrementAndGet()));
+        cache.resolve(REPOSITORY_ID, qualified("/b.txt"), Revision.create(10), Revision.create(5), () -> qualified("/" + calls.incrementAndGet()));
+        // use a.txt so b.txt becomes the least recently used entry
+        cache.resolve(REPOSITORY_ID, qualified("/a.txt"), Revision.create(10), Revision.create(5), () -> qualified("/" + calls.incrementAndGet()));
+        cache.resolve(REPOSITORY_ID, qualified("/c.txt"), Revision.create(10), Revision.create(5), () -> qualified("/" + calls.incrementAndGet()));
+        Assert.assertEquals("size", 2, cache.size());
+        Assert.assertEquals("evictions", 1, cache.getEvictionCount());
+
+        cache.resolve(REPOSITORY_ID, qualified("/a.txt"), Revision.create(10), Revision.create(5), () -> qualified("/" + calls.incrementAndGet()));
+        Assert.assertEquals("a.txt is still cached", 3, calls.get());
+        cache.resolve(REPOSITORY_ID, qualified("/b.txt"), Revision.create(10), Revision.create(5), () -> qualified("/" + calls.incrementAndGet()));
+        Assert.assertEquals("b.txt has been evicted", 4, calls.get());
+    }
+}
@@ -17,10 +17,6 @@
  */
 package de.shadowhunt.subversion.internal;
 
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-
-import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -28,54 +24,6 @@ public class ResourcePropertyUtilsTest {
 
     private static final String MARKER = ResourcePropertyUtils.MARKER;
 
-    @Test
-    public void testEscapedInputStream_emptyTag() throws Exception {
-        final String xml = "<C:foo:bar/>";
-        final String expected = "<C:foo" + MARKER + "bar/>";
-        final InputStream stream = IOUtils.toInputStream(xml, StandardCharsets.UTF_8);
-
-        final InputStream escapedStream = ResourcePropertyUtils.escapedInputStream(stream);
-        final String escapedXml = IOUtils.toString(escapedStream, StandardCharsets.UTF_8);
-
-        Assert.assertEquals(expected, escapedXml);
-    }
-
-    @Test
-    public void testEscapedInputStream_emptyTagInHierarchy() throws Exception {
-        final String xml = "<A><svn:B><C:foo:bar/></svn:B></A>";
-        final String expected = "<A><svn:B><C:foo" + MARKER + "bar/></svn:B></A>";
-        final InputStream stream = IOUtils.toInputStream(xml, StandardCharsets.UTF_8);
-
-        final InputStream escapedStream = ResourcePropertyUtils.escapedInputStream(stream);
-        final String escapedXml = IOUtils.toString(escapedStream, StandardCharsets.UTF_8);
-
-        Assert.assertEquals(expected, escapedXml);
-    }
-
-    @Test
-    public void testEscapedInputStream_tagWithTagText() throws Exception {
-        final String xml = "<C:foo:bar>text >/C:foo:bar</C:foo:bar>";
-        final String expected = "<C:foo" + MARKER + "bar>text >/C:foo:bar</C:foo" + MARKER + "bar>";
-        final InputStream stream = IOUtils.toInputStream(xml, StandardCharsets.UTF_8);
-
-        final InputStream escapedStream = ResourcePropertyUtils.escapedInputStream(stream);
-        final String escapedXml = IOUtils.toString(escapedStream, StandardCharsets.UTF_8);
-
-        Assert.assertEquals(expected, escapedXml);
-    }
-
-    @Test
-    public void testEscapedInputStream_tagWithText() throws Exception {
-        final String xml = "<C:foo:bar>text</C:foo:bar>";
-        final String expected = "<C:foo" + MARKER + "bar>text</C:foo" + MARKER + "bar>";
-        final InputStream stream = IOUtils.toInputStream(xml, StandardCharsets.UTF_8);
-
-        final InputStream escapedStream = ResourcePropertyUtils.escapedInputStream(stream);
-        final String escapedXml = IOUtils.toString(escapedStream, StandardCharsets.UTF_8);
-
-        Assert.assertEquals(expected, escapedXml);
-    }
-
     @Test
     public void testEscapedKeyNameXml() throws Exception {
         final String expectedNoEscaped = "foo_bar";
@@ -85,15 +33,6 @@ public class ResourcePropertyUtilsTest {
         Assert.assertEquals(expectedEscaped, ResourcePropertyUtils.escapedKeyNameXml("foo:bar"));
     }
 
-    @Test
-    public void testFilterMarker() throws Exception {
-        final String expectedNoEscaped = "foo_bar:foobar";
-        Assert.assertEquals(expectedNoEscaped, ResourcePropertyUtils.filterMarker(expectedNoEscaped));
-
-        final String expectedEscaped = "foo:bar:foobar";
-        Assert.assertEquals(expectedEscaped, ResourcePropertyUtils.unescapedKeyNameXml("foo" + MARKER + "bar:foobar"));
-    }
-
     @Test
     public void testUnescapedKeyNameXml() throws Exception {
         final String expectedNoEscaped = "foo_bar";
@@ -0,0 +1,94 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import de.shadowhunt.subversion.LockToken;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction.Status;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TransactionMemoTest {
+
+    private static TransactionInternal createTransaction() {
+        return new TransactionHttpv2("1-1", UUID.fromString("00000000-0000-0000-0000-000000000000"), Revision.INITIAL, Resource.create("/!svn"));
+    }
+
+    @Test
+    public void deleteForgetsFolders() {
+        final TransactionInternal transaction = createTransaction();
+        final Resource folder = Resource.create("/a");
+        final Resource child = Resource.create("/a/b");
+        final Resource sibling = Resource.create("/ab");
+        transaction.registerFolder(folder);
+        transaction.registerFolder(child);
+        transaction.registerFolder(sibling);
+
+        transaction.register(folder, Status.DELETED);
+        Assert.assertFalse("deleted folder is forgotten", transaction.isKnownFolder(folder));
+        Assert.assertFalse("child of deleted folder is forgotten", transaction.isKnownFolder(child));
+        Assert.assertTrue("sibling is still known", transaction.isKnownFolder(sibling));
+    }
+
+    @Test
+    public void invalidateForgetsFolders() {
+        final TransactionInternal transaction = createTransaction();
+        final Resource folder = Resource.create("/a");
+        transaction.registerFolder(folder);
+        Assert.assertTrue("folder is known", transaction.isKnownFolder(folder));
+
+        transaction.invalidate();
+        Assert.assertFalse("folder is forgotten", transaction.isKnownFolder(folder));
+    }
+
+    @Test
+    public void knownFolders() {
+        final TransactionInternal transaction = createTransaction();
+        final Resource folder = Resource.create("/a/b");
+        Assert.assertFalse("folder is unknown", transaction.isKnownFolder(folder));
+
+        transaction.registerFolder(folder);
+        Assert.assertTrue("folder is known", transaction.isKnownFolder(folder));
+        Assert.assertFalse("parent is unknown", transaction.isKnownFolder(folder.getParent()));
+        Assert.assertTrue("registering folders does not modify the change set", transaction.isChangeSetEmpty());
+    }
+
+    @Test
+    public void lockTokens() {
+        final TransactionInternal transaction = createTransaction();
+        final Resource locked = Resource.create("/locked.txt");
+        final Resource unlocked = Resource.create("/unlocked.txt");
+        final LockToken lockToken = new LockToken("opaquelocktoken:00000000-0000-0000-0000-000000000001");
+        transaction.registerLockToken(locked, Optional.of(lockToken));
+        transaction.registerLockToken(unlocked, Optional.empty());
+
+        final Map<Resource, Optional<LockToken>> lockTokens = transaction.getLockTokens();
+        Assert.assertEquals("both resources are known", 2, lockTokens.size());
+        Assert.assertEquals("lock token of locked resource", Optional.of(lockToken), lockTokens.get(locked));
+        Assert.assertEquals("unlocked resource has no lock token", Optional.empty(), lockTokens.get(unlocked));
+        Assert.assertNull("other resources are unknown", lockTokens.get(Resource.create("/other.txt")));
+
+        transaction.invalidate();
+        Assert.assertTrue("lock tokens are forgotten", transaction.getLockTokens().isEmpty());
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UploadContentTest {
+
+    private static final byte[] CONTENT = "upload content".getBytes(StandardCharsets.UTF_8);
+
+    private static void assertContent(final AbstractUploadContent content) throws IOException {
+        Assert.assertEquals("length", CONTENT.length, content.getLength());
+        Assert.assertTrue("content must be repeatable", content.isRepeatable());
+        for (int i = 0; i < 2; i++) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            content.writeTo(output);
+            Assert.assertArrayEquals("written content", CONTENT, output.toByteArray());
+            try (final InputStream input = content.open()) {
+                Assert.assertArrayEquals("read content", CONTENT, IOUtils.toByteArray(input));
+            }
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void buffer() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(CONTENT.length + 2);
+        buffer.put((byte) 0).put(CONTENT).flip().position(1);
+        buffer.limit(CONTENT.length + 1);
+        assertContent(AbstractUploadContent.of(buffer));
+        Assert.assertEquals("position must not be modified", 1, buffer.position());
+    }
+
+    @Test
+    public void bufferStream() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap(CONTENT);
+        try (final InputStream input = AbstractUploadContent.of(buffer).open()) {
+            Assert.assertEquals("available", CONTENT.length, input.available());
+            Assert.assertEquals("first byte", CONTENT[0] & 0xFF, input.read());
+            Assert.assertEquals("skipped", CONTENT.length - 2, input.skip(CONTENT.length - 2));
+            Assert.assertEquals("last byte", CONTENT[CONTENT.length - 1] & 0xFF, input.read());
+            Assert.assertEquals("end of content", -1, input.read());
+            Assert.assertEquals("end of content", -1, input.read(new byte[1], 0, 1));
+        }
+        Assert.assertEquals("position must not be modified", 0, buffer.position());
+    }
+
+    @Test
+    public void bytes() throws Exception {
+        assertContent(AbstractUploadContent.of(CONTENT));
+    }
+
+    @Test
+    public void path() throws Exception {
+        final Path path = folder.newFile().toPath();
+        Files.write(path, CONTENT);
+        try (final AbstractUploadContent content = AbstractUploadContent.of(path)) {
+            assertContent(content);
+        }
+        Assert.assertTrue("file must not be deleted", Files.exists(path));
+    }
+
+    @Test
+    public void spool() throws Exception {
+        final AbstractUploadContent stream = AbstractUploadContent.of(new ByteArrayInputStream(CONTENT));
+        Assert.assertEquals("length of stream is unknown", -1L, stream.getLength());
+        Assert.assertFalse("stream is not repeatable", stream.isRepeatable());
+
+        try (final AbstractUploadContent content = AbstractUploadContent.spool(stream)) {
+            assertContent(content);
+        }
+    }
+
+    @Test
+    public void spoolDigest() throws Exception {
+        final MessageDigest digest = DigestUtils.getMd5Digest();
+        try (final AbstractUploadContent content = AbstractUploadContent.spool(AbstractUploadContent.of(new ByteArrayInputStream(CONTENT)), digest)) {
+            Assert.assertEquals("checksum must be computed while spooling", DigestUtils.md5Hex(CONTENT), Hex.encodeHexString(digest.digest()));
+            assertContent(content);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void streamReadTwice() throws Exception {
+        final AbstractUploadContent content = AbstractUploadContent.of(new ByteArrayInputStream(CONTENT));
+        content.open().close();
+        content.open();
+    }
+
+    @Test
+    public void supplier() throws Exception {
+        assertContent(AbstractUploadContent.of(() -> new ByteArrayInputStream(CONTENT), CONTENT.length));
+    }
+
+    @Test(expected = IOException.class)
+    public void supplierWrongLength() throws Exception {
+        final AbstractUploadContent content = AbstractUploadContent.of(() -> new ByteArrayInputStream(CONTENT), CONTENT.length + 1);
+        content.writeTo(new ByteArrayOutputStream());
+    }
+}
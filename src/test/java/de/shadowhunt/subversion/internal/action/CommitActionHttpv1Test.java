@@ -0,0 +1,103 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import de.shadowhunt.subversion.internal.fake.Helper;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CommitActionHttpv1Test {
+
+    private static final byte[] CHANGED = "changed".getBytes(StandardCharsets.UTF_8);
+
+    private static final Resource RESOURCE = Resource.create("/commit/locked.txt");
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void commitLocked(final ProtocolVersion version, final boolean lockTokenRefresh, final boolean foreignLock) throws IOException {
+        server = new FakeSubversionServer(version);
+        server.add(RESOURCE, "content".getBytes(StandardCharsets.UTF_8));
+        final RepositoryConfiguration configuration = RepositoryConfiguration.DEFAULT.withLockTokenRefreshEnabled(lockTokenRefresh);
+        final Repository repository = Helper.connect(server, configuration);
+
+        // a lock of another repository instance is not recorded by the transaction
+        final Repository locking = foreignLock ? Helper.connect(server, configuration) : repository;
+        locking.lock(RESOURCE, false);
+
+        final Transaction transaction = repository.createTransaction();
+        repository.add(transaction, RESOURCE, false, CHANGED);
+        repository.commit(transaction, "change locked", true);
+
+        final Info info = repository.info(repository.createView(), RESOURCE, Revision.HEAD);
+        Assert.assertFalse("commit must release the lock", info.isLocked());
+        try (final InputStream content = repository.download(repository.createView(), RESOURCE, Revision.HEAD)) {
+            Assert.assertArrayEquals("content must be committed", CHANGED, IOUtils.toByteArray(content));
+        }
+    }
+
+    @Test
+    public void commitForeignLockHttpv1() throws IOException {
+        commitLocked(ProtocolVersion.HTTP_V1, false, true);
+    }
+
+    @Test
+    public void commitForeignLockHttpv2() throws IOException {
+        commitLocked(ProtocolVersion.HTTP_V2, false, true);
+    }
+
+    @Test
+    public void commitLockedHttpv1() throws IOException {
+        commitLocked(ProtocolVersion.HTTP_V1, false, false);
+    }
+
+    @Test
+    public void commitLockedHttpv2() throws IOException {
+        commitLocked(ProtocolVersion.HTTP_V2, false, false);
+    }
+
+    @Test
+    public void commitLockedWithLockTokenRefreshHttpv1() throws IOException {
+        commitLocked(ProtocolVersion.HTTP_V1, true, false);
+    }
+
+    @Test
+    public void commitLockedWithLockTokenRefreshHttpv2() throws IOException {
+        commitLocked(ProtocolVersion.HTTP_V2, true, false);
+    }
+}
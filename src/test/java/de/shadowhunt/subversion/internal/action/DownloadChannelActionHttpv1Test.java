@@ -0,0 +1,92 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import de.shadowhunt.subversion.internal.fake.Helper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DownloadChannelActionHttpv1Test {
+
+    // larger than the transfer buffer
+    private static final byte[] CONTENT = new byte[200 * 1024];
+
+    private static final Resource RESOURCE = Resource.create("/channel/file.bin");
+
+    static {
+        new Random(42L).nextBytes(CONTENT);
+    }
+
+    private Repository repository;
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() {
+        server.close();
+    }
+
+    @Before
+    public void before() throws IOException {
+        server = new FakeSubversionServer(ProtocolVersion.HTTP_V2);
+        server.add(RESOURCE, CONTENT);
+        repository = Helper.connect(server, RepositoryConfiguration.DEFAULT);
+    }
+
+    @Test
+    public void checksumMismatch() throws IOException {
+        server.corruptContents(1);
+        try {
+            download(new ByteArrayOutputStream());
+            Assert.fail("corrupted content must be detected");
+        } catch (final SubversionException e) {
+            Assert.assertTrue("checksum mismatch: " + e.getMessage(), e.getMessage().startsWith("Checksum mismatch"));
+        }
+    }
+
+    @Test
+    public void download() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        download(output);
+        Assert.assertArrayEquals("content must match", CONTENT, output.toByteArray());
+    }
+
+    private void download(final ByteArrayOutputStream output) throws IOException {
+        final View view = repository.createView();
+        try (final WritableByteChannel channel = Channels.newChannel(output)) {
+            repository.download(view, RESOURCE, Revision.HEAD, channel);
+            Assert.assertTrue("channel must not be closed", channel.isOpen());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import de.shadowhunt.subversion.internal.fake.Helper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DownloadFileActionHttpv1Test {
+
+    private static final byte[] CONTENT = "new content".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] PREVIOUS = "previous content".getBytes(StandardCharsets.UTF_8);
+
+    private static final Resource RESOURCE = Resource.create("/file/file.txt");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Repository repository;
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() {
+        server.close();
+    }
+
+    private void assertOnlyTarget(final Path target) {
+        final File[] files = folder.getRoot().listFiles();
+        Assert.assertNotNull("folder must exist", files);
+        Assert.assertEquals("temporary file must be removed", 1, files.length);
+        Assert.assertEquals("target must remain", target.toFile(), files[0]);
+    }
+
+    private void assumePosix() throws IOException {
+        Assume.assumeTrue("posix permissions", Files.getFileStore(folder.getRoot().toPath()).supportsFileAttributeView(PosixFileAttributeView.class));
+    }
+
+    @Before
+    public void before() throws IOException {
+        server = new FakeSubversionServer(ProtocolVersion.HTTP_V2);
+        server.add(RESOURCE, CONTENT);
+        repository = Helper.connect(server, RepositoryConfiguration.DEFAULT);
+    }
+
+    @Test
+    public void checksumMismatchKeepsTarget() throws IOException {
+        final Path target = folder.newFile().toPath();
+        Files.write(target, PREVIOUS);
+
+        server.corruptContents(1);
+        try {
+            download(target);
+            Assert.fail("corrupted content must be detected");
+        } catch (final SubversionException e) {
+            Assert.assertTrue("checksum mismatch: " + e.getMessage(), e.getMessage().startsWith("Checksum mismatch"));
+        }
+        Assert.assertArrayEquals("target must be untouched", PREVIOUS, Files.readAllBytes(target));
+        assertOnlyTarget(target);
+    }
+
+    @Test
+    public void createsTarget() throws IOException {
+        final Path target = folder.getRoot().toPath().resolve("target.txt");
+        download(target);
+        Assert.assertArrayEquals("content must match", CONTENT, Files.readAllBytes(target));
+        assertOnlyTarget(target);
+    }
+
+    @Test
+    public void createsTargetWithDefaultPermissions() throws IOException {
+        assumePosix();
+        final Path reference = Files.createFile(folder.getRoot().toPath().resolve("reference.txt"));
+        final Path target = folder.getRoot().toPath().resolve("target.txt");
+        download(target);
+        Assert.assertEquals("permissions must match a newly created file", Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(target));
+    }
+
+    private void download(final Path target) {
+        final View view = repository.createView();
+        repository.download(view, RESOURCE, Revision.HEAD, target);
+    }
+
+    @Test
+    public void replacesTarget() throws IOException {
+        final Path target = folder.newFile().toPath();
+        Files.write(target, PREVIOUS);
+        download(target);
+        Assert.assertArrayEquals("content must match", CONTENT, Files.readAllBytes(target));
+        assertOnlyTarget(target);
+    }
+
+    @Test
+    public void replacesTargetWithItsPermissions() throws IOException {
+        assumePosix();
+        final Path target = folder.newFile().toPath();
+        final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(target, permissions);
+        download(target);
+        Assert.assertEquals("permissions must be kept", permissions, Files.getPosixFilePermissions(target));
+    }
+}
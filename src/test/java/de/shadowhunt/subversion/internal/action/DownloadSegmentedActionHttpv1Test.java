@@ -0,0 +1,155 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.TransmissionException;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import de.shadowhunt.subversion.internal.fake.Helper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DownloadSegmentedActionHttpv1Test {
+
+    private static final byte[] CONTENT = new byte[100 * 1024];
+
+    private static final Resource RESOURCE = Resource.create("/segmented/file.bin");
+
+    private static final int SEGMENT_SIZE = 16 * 1024;
+
+    private static final int SEGMENTS = 7;
+
+    static {
+        new Random(42L).nextBytes(CONTENT);
+    }
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Repository repository;
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() {
+        server.close();
+    }
+
+    private void assertDownloaded(final long expectedRequests) throws IOException {
+        final Path target = folder.newFile().toPath();
+        download(target);
+        Assert.assertArrayEquals("content must match", CONTENT, Files.readAllBytes(target));
+        Assert.assertEquals("GET requests", expectedRequests, server.getRequestCount("GET"));
+    }
+
+    @Before
+    public void before() throws IOException {
+        server = new FakeSubversionServer(ProtocolVersion.HTTP_V2);
+        server.add(RESOURCE, CONTENT);
+        final RepositoryConfiguration configuration = RepositoryConfiguration.DEFAULT.withDownloadSegmentSize(SEGMENT_SIZE);
+        repository = Helper.connect(server, configuration);
+    }
+
+    @Test
+    public void brokenSegmentIsRequestedAgain() throws IOException {
+        server.breakRanges(1);
+        assertDownloaded(SEGMENTS + 1);
+    }
+
+    @Test
+    public void concurrentCommitIsNotMixedIn() throws IOException {
+        // the content is changed after the size has been looked up, before the first segment is requested
+        final byte[] changed = new byte[CONTENT.length + SEGMENT_SIZE];
+        server.beforeNext("GET", () -> server.add(RESOURCE, changed));
+        assertDownloaded(SEGMENTS);
+    }
+
+    @Test
+    public void corruptedSegmentFailsChecksum() throws IOException {
+        server.corruptContents(1);
+        try {
+            download(folder.newFile().toPath());
+            Assert.fail("corrupted content must be detected");
+        } catch (final SubversionException e) {
+            Assert.assertTrue("checksum mismatch: " + e.getMessage(), e.getMessage().startsWith("Checksum mismatch"));
+        }
+    }
+
+    private void download(final Path target) throws IOException {
+        final View view = repository.createView();
+        server.resetRequestCounts();
+        try (final FileChannel channel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            repository.downloadSegmented(view, RESOURCE, Revision.HEAD, channel);
+            Assert.assertEquals("position must not be modified", 0L, channel.position());
+        }
+    }
+
+    @Test
+    public void failedSegmentGivesUp() throws IOException {
+        server.breakRanges(3);
+        try {
+            download(folder.newFile().toPath());
+            Assert.fail("broken segment must fail after all attempts");
+        } catch (final TransmissionException e) {
+            Assert.assertEquals("suppressed attempts", 2, e.getSuppressed().length);
+        }
+        Assert.assertEquals("each attempt is a request", 3L, server.getRequestCount("GET"));
+    }
+
+    @Test
+    public void segmented() throws IOException {
+        assertDownloaded(SEGMENTS);
+    }
+
+    @Test
+    public void serverIgnoresRange() throws IOException {
+        server.setRangeSupported(false);
+        assertDownloaded(1);
+    }
+
+    @Test
+    public void shortSegmentIsRequestedAgain() throws IOException {
+        server.shortenRanges(1);
+        assertDownloaded(SEGMENTS + 1);
+    }
+
+    @Test
+    public void truncatesLargerTarget() throws IOException {
+        final Path target = folder.newFile().toPath();
+        Files.write(target, new byte[CONTENT.length + 1024]);
+        download(target);
+        Assert.assertArrayEquals("content must match", CONTENT, Files.readAllBytes(target));
+    }
+}
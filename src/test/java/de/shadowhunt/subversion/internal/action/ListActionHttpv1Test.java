@@ -0,0 +1,94 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.action;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.stream.Collectors;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import de.shadowhunt.subversion.internal.fake.Helper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ListActionHttpv1Test {
+
+    private static final Resource MOVED = Resource.create("/list/moved");
+
+    private static final Resource ORIGINAL = Resource.create("/list/original");
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private List<Resource> list(final ProtocolVersion version, final boolean listReport) throws IOException {
+        server = new FakeSubversionServer(version);
+        final Repository repository = Helper.connect(server, RepositoryConfiguration.DEFAULT.withListReportEnabled(listReport));
+
+        final Transaction add = repository.createTransaction();
+        repository.add(add, ORIGINAL.append(Resource.create("/file.txt")), true, "file".getBytes(StandardCharsets.UTF_8));
+        repository.add(add, ORIGINAL.append(Resource.create("/sub/nested.txt")), true, "nested".getBytes(StandardCharsets.UTF_8));
+        repository.commit(add, "add", true);
+        final Revision added = repository.createView().getHeadRevision();
+
+        final Transaction move = repository.createTransaction();
+        repository.move(move, ORIGINAL, MOVED, false);
+        repository.commit(move, "move", true);
+
+        // the moved folder as it was named in the listed revision
+        final View view = repository.createView();
+        final NavigableSet<Info> infos = repository.list(view, MOVED, added, Depth.INFINITY);
+        return infos.stream().map(Info::getResource).collect(Collectors.toList());
+    }
+
+    private void listMovedFolder(final ProtocolVersion version) throws IOException {
+        final List<Resource> crawled = list(version, false);
+        server.close();
+        final List<Resource> reported = list(version, true);
+
+        Assert.assertTrue("listing must contain the original path: " + crawled, crawled.contains(ORIGINAL.append(Resource.create("/sub/nested.txt"))));
+        Assert.assertEquals("report and crawler must return the same resources", crawled, reported);
+    }
+
+    @Test
+    public void listMovedFolderHttpv1() throws IOException {
+        listMovedFolder(ProtocolVersion.HTTP_V1);
+    }
+
+    @Test
+    public void listMovedFolderHttpv2() throws IOException {
+        listMovedFolder(ProtocolVersion.HTTP_V2);
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.shadowhunt.subversion.AsyncRepository;
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.LogEntry;
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.RepositoryFactory;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.http.client.SubversionRequestExecutor;
+import de.shadowhunt.subversion.http.client.SubversionRequestRetryHandler;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncRepositoryImplTest {
+
+    private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+
+    private static final Resource DIRECTORY = Resource.create("/async");
+
+    private static final Resource RESOURCE = DIRECTORY.append(Resource.create("/file.txt"));
+
+    private CloseableHttpAsyncClient asyncClient;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private ExecutorService pool;
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+        if (asyncClient != null) {
+            asyncClient.close();
+        }
+        pool.shutdownNow();
+    }
+
+    @Before
+    public void before() {
+        pool = Executors.newSingleThreadExecutor();
+        asyncClient = HttpAsyncClients.createDefault();
+        asyncClient.start();
+    }
+
+    private AsyncRepository connect(final ProtocolVersion version, final RepositoryConfiguration configuration) throws IOException {
+        server = new FakeSubversionServer(version);
+        server.add(RESOURCE, CONTENT);
+
+        final HttpClientBuilder builder = HttpClientBuilder.create();
+        builder.setRetryHandler(new SubversionRequestRetryHandler());
+        builder.setRequestExecutor(new SubversionRequestExecutor());
+        final HttpClient client = builder.build();
+
+        // counts the operations that occupy a thread of the executor
+        final Executor executor = command -> {
+            executions.incrementAndGet();
+            pool.execute(command);
+        };
+
+        final RepositoryFactory factory = RepositoryFactory.getInstance();
+        return factory.createAsyncRepository(server.getRepositoryUri(), client, asyncClient, new BasicHttpContext(), executor, configuration);
+    }
+
+    @Test
+    public void invalidArgument() throws IOException, InterruptedException {
+        final AsyncRepository repository = connect(ProtocolVersion.HTTP_V2, RepositoryConfiguration.DEFAULT);
+        try {
+            repository.exists(null, RESOURCE, Revision.HEAD).get();
+            Assert.fail("view must be validated");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue("cause must be a NullPointerException", (e.getCause() instanceof NullPointerException));
+        }
+    }
+
+    @Test
+    public void lazyProbing() throws Exception {
+        final AsyncRepository repository = connect(ProtocolVersion.HTTP_V2, RepositoryConfiguration.DEFAULT.withLazyProbing(true));
+
+        final View view = repository.createView().get();
+        Assert.assertTrue("resource must exist", repository.exists(view, RESOURCE, Revision.HEAD).get());
+        Assert.assertEquals("only the probe may occupy the executor", 1, executions.get());
+    }
+
+    @Test
+    public void modification() throws Exception {
+        final AsyncRepository repository = connect(ProtocolVersion.HTTP_V2, RepositoryConfiguration.DEFAULT);
+
+        final Transaction transaction = repository.createTransaction().get();
+        repository.add(transaction, RESOURCE, false, "changed".getBytes(StandardCharsets.UTF_8)).get();
+        repository.commit(transaction, "change", true).get();
+        Assert.assertEquals("modifications must be executed on the executor", 3, executions.get());
+
+        final View view = repository.createView().get();
+        try (final InputStream download = repository.download(view, RESOURCE, Revision.HEAD).get()) {
+            Assert.assertEquals("content must match", "changed", IOUtils.toString(download, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void readHttpv1() throws Exception {
+        read(connect(ProtocolVersion.HTTP_V1, RepositoryConfiguration.DEFAULT));
+    }
+
+    @Test
+    public void readHttpv2() throws Exception {
+        read(connect(ProtocolVersion.HTTP_V2, RepositoryConfiguration.DEFAULT));
+    }
+
+    private void read(final AsyncRepository repository) throws Exception {
+        final View view = repository.createView().get();
+        Assert.assertTrue("resource must exist", repository.exists(view, RESOURCE, Revision.HEAD).get());
+
+        try (final InputStream download = repository.download(view, RESOURCE, Revision.HEAD).get()) {
+            Assert.assertArrayEquals("content must match", CONTENT, IOUtils.toByteArray(download));
+        }
+
+        final Info info = repository.info(view, RESOURCE, view.getHeadRevision()).get();
+        Assert.assertEquals("resource must match", RESOURCE, info.getResource());
+
+        final NavigableSet<Info> list = repository.list(view, DIRECTORY, Revision.HEAD, Depth.IMMEDIATES).get();
+        Assert.assertEquals("directory and file must be listed", 2, list.size());
+
+        final List<LogEntry> log = repository.log(view, RESOURCE, Revision.INITIAL, Revision.HEAD, 0, false).get();
+        Assert.assertEquals("log must contain the commit of the resource", 1, log.size());
+
+        Assert.assertEquals("reads must not occupy the executor", 0, executions.get());
+    }
+}
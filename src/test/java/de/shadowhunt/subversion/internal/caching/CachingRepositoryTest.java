@@ -0,0 +1,111 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.caching;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.NavigableSet;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import de.shadowhunt.subversion.internal.fake.Helper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingRepositoryTest {
+
+    private static final Resource FOLDER = Resource.create("/caching");
+
+    private static final Resource RESOURCE = FOLDER.append(Resource.create("/file.txt"));
+
+    private static Info child(final NavigableSet<Info> infos, final Resource resource) {
+        for (final Info info : infos) {
+            if (resource.equals(info.getResource())) {
+                return info;
+            }
+        }
+        throw new AssertionError(resource + " is not listed");
+    }
+
+    private Repository repository;
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() {
+        server.close();
+    }
+
+    @Before
+    public void before() throws IOException {
+        server = new FakeSubversionServer(ProtocolVersion.HTTP_V2);
+        server.add(RESOURCE, "content".getBytes(StandardCharsets.UTF_8));
+        repository = Helper.connect(server, RepositoryConfiguration.DEFAULT.withMetadataCacheWeight(1024L));
+    }
+
+    @Test
+    public void commitReleasesLock() {
+        final View view = repository.createView();
+        repository.lock(RESOURCE, false);
+        Assert.assertTrue("resource must be locked", repository.info(view, RESOURCE, Revision.HEAD).isLocked());
+
+        final Transaction transaction = repository.createTransaction();
+        repository.add(transaction, RESOURCE, false, "changed".getBytes(StandardCharsets.UTF_8));
+        repository.commit(transaction, "release lock", true);
+
+        Assert.assertFalse("commit must release the lock", repository.info(view, RESOURCE, Revision.HEAD).isLocked());
+    }
+
+    @Test
+    public void lockAndUnlockInfo() {
+        final View view = repository.createView();
+        Assert.assertFalse("resource must not be locked", repository.info(view, RESOURCE, Revision.HEAD).isLocked());
+
+        repository.lock(RESOURCE, false);
+        final Info locked = repository.info(view, RESOURCE, Revision.HEAD);
+        Assert.assertTrue("resource must be locked", locked.isLocked());
+        Assert.assertTrue("lock owner must be known", locked.getLockOwner().isPresent());
+
+        repository.unlock(RESOURCE, false);
+        Assert.assertFalse("resource must be unlocked", repository.info(view, RESOURCE, Revision.HEAD).isLocked());
+    }
+
+    @Test
+    public void lockAndUnlockList() {
+        final View view = repository.createView();
+        Assert.assertFalse("resource must not be locked", child(repository.list(view, FOLDER, Revision.HEAD, Depth.IMMEDIATES), RESOURCE).isLocked());
+
+        repository.lock(RESOURCE, false);
+        Assert.assertTrue("resource must be locked", child(repository.list(view, FOLDER, Revision.HEAD, Depth.IMMEDIATES), RESOURCE).isLocked());
+        Assert.assertTrue("resource must be locked", child(repository.list(view, Resource.ROOT, Revision.HEAD, Depth.INFINITY), RESOURCE).isLocked());
+
+        repository.unlock(RESOURCE, false);
+        Assert.assertFalse("resource must be unlocked", child(repository.list(view, FOLDER, Revision.HEAD, Depth.IMMEDIATES), RESOURCE).isLocked());
+        Assert.assertFalse("resource must be unlocked", child(repository.list(view, Resource.ROOT, Revision.HEAD, Depth.INFINITY), RESOURCE).isLocked());
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.caching;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetadataCacheTest {
+
+    @Test
+    public void disabledCache() {
+        final MetadataCache cache = new MetadataCache(0L);
+        cache.put("a", "A", 1L);
+        Assert.assertNull("nothing is cached", cache.get("a"));
+        Assert.assertEquals("weight", 0L, cache.getStatistics().getWeight());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        final MetadataCache cache = new MetadataCache(3L);
+        cache.put("a", "A", 1L);
+        cache.put("b", "B", 1L);
+        cache.put("c", "C", 1L);
+        Assert.assertEquals("a is cached", "A", cache.get("a"));
+
+        cache.put("d", "D", 1L);
+        Assert.assertNull("b is evicted", cache.peek("b"));
+
+        cache.put("e", "E", 2L);
+        Assert.assertNull("c is evicted", cache.peek("c"));
+        Assert.assertNull("a is evicted", cache.peek("a"));
+        Assert.assertEquals("d is still cached", "D", cache.peek("d"));
+
+        final CacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals("evictions", 3L, statistics.getEvictionCount());
+        Assert.assertEquals("weight", 3L, statistics.getWeight());
+    }
+
+    @Test
+    public void hitsAndMisses() {
+        final MetadataCache cache = new MetadataCache(10L);
+        Assert.assertNull("empty cache", cache.get("a"));
+        cache.put("a", "A", 2L);
+        Assert.assertEquals("cached value", "A", cache.get("a"));
+        Assert.assertEquals("peek", "A", cache.peek("a"));
+
+        final CacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals("hits", 1L, statistics.getHitCount());
+        Assert.assertEquals("misses", 1L, statistics.getMissCount());
+        Assert.assertEquals("weight", 2L, statistics.getWeight());
+        Assert.assertEquals("maximum weight", 10L, statistics.getMaximumWeight());
+    }
+
+    @Test
+    public void replaceValue() {
+        final MetadataCache cache = new MetadataCache(10L);
+        cache.put("a", "A", 4L);
+        cache.put("a", "B", 2L);
+        Assert.assertEquals("replaced value", "B", cache.peek("a"));
+        Assert.assertEquals("weight", 2L, cache.getStatistics().getWeight());
+    }
+
+    @Test
+    public void skipTooHeavyValues() {
+        final MetadataCache cache = new MetadataCache(2L);
+        cache.put("a", "A", 1L);
+        cache.put("b", "B", 3L);
+        Assert.assertNull("b is too heavy", cache.peek("b"));
+        Assert.assertEquals("a is still cached", "A", cache.peek("a"));
+    }
+}
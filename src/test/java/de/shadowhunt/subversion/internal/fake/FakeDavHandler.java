@@ -0,0 +1,845 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.fake;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+import javax.annotation.CheckForNull;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.ResourceProperty.Key;
+import de.shadowhunt.subversion.ResourceProperty.Type;
+import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.internal.ResourcePropertyUtils;
+import de.shadowhunt.subversion.internal.XmlConstants;
+import de.shadowhunt.subversion.internal.fake.FakeRepository.Commit;
+import de.shadowhunt.subversion.internal.fake.FakeRepository.Lock;
+import de.shadowhunt.subversion.internal.fake.FakeRepository.Node;
+import de.shadowhunt.subversion.internal.svndiff.SvndiffInputStream;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
+import org.apache.commons.text.StringEscapeUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.ContentType;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestHandler;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+/**
+ * Answers the WebDAV/DeltaV requests of the library from a {@link FakeRepository}, modelled after the responses of mod_dav_svn 1.9.
+ */
+final class FakeDavHandler implements HttpRequestHandler {
+
+    /**
+     * Decoded request path: either a public path in HEAD ({@link #PUBLIC}) or one of the special {@code !svn} resources.
+     */
+    private static final class Target {
+
+        final String id;
+
+        final String kind;
+
+        final Resource resource;
+
+        final int revision;
+
+        Target(final String kind, final String id, final int revision, final Resource resource) {
+            this.kind = kind;
+            this.id = id;
+            this.revision = revision;
+            this.resource = resource;
+        }
+
+        boolean isReadable() {
+            return PUBLIC.equals(kind) || "bc".equals(kind) || "rvr".equals(kind);
+        }
+
+        boolean isWorking() {
+            return "wrk".equals(kind) || "txr".equals(kind);
+        }
+    }
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private static final FastDateFormat CREATION_DATE = FastDateFormat.getInstance("yyyy-MM-dd'T'HH:mm:ss.SSS'000Z'", TimeZone.getTimeZone("UTC"), Locale.US);
+
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY;
+
+    private static final Set<String> HTTPV2_KINDS = new HashSet<>(Arrays.asList("me", "rvr", "txn", "txr"));
+
+    private static final FastDateFormat LAST_MODIFIED = FastDateFormat.getInstance("EEE, dd MMM yyyy HH:mm:ss 'GMT'", TimeZone.getTimeZone("GMT"), Locale.US);
+
+    private static final String LIST_CAPABILITY = "http://subversion.tigris.org/xmlns/dav/svn/list";
+
+    private static final String PUBLIC = "";
+
+    private static final String SPECIAL = "!svn";
+
+    private static final String STATUS_OK = "<D:status>HTTP/1.1 200 OK</D:status>";
+
+    private static final ContentType TEXT_PLAIN = ContentType.create("text/plain", StandardCharsets.UTF_8);
+
+    private static final ContentType TEXT_XML = ContentType.create("text/xml", StandardCharsets.UTF_8);
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n";
+
+    static {
+        DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+        // property names may contain colons, namespaces are resolved manually
+        DOCUMENT_BUILDER_FACTORY.setNamespaceAware(false);
+        DOCUMENT_BUILDER_FACTORY.setExpandEntityReferences(false);
+    }
+
+    @CheckForNull
+    private static Element child(final Element parent, final String localName) {
+        for (final Element element : children(parent)) {
+            if (localName.equals(localName(element))) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static List<Element> children(final Element parent) {
+        final List<Element> children = new ArrayList<>();
+        for (org.w3c.dom.Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element) {
+                children.add((Element) node);
+            }
+        }
+        return children;
+    }
+
+    private static String childText(final Element parent, final String localName, final String defaultValue) {
+        final Element element = child(parent, localName);
+        return (element == null) ? defaultValue : element.getTextContent().trim();
+    }
+
+    private static String escape(final String text) {
+        return StringEscapeUtils.escapeXml10(text);
+    }
+
+    private static String href(final String path) {
+        try {
+            return new URI(null, null, path, null).toASCIIString();
+        } catch (final URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static boolean isWanted(@CheckForNull final Set<String> wanted, final String namespace, final String name) {
+        return (wanted == null) || wanted.contains(namespace + name);
+    }
+
+    private static String localName(final Element element) {
+        final String name = element.getTagName();
+        return name.substring(name.indexOf(':') + 1);
+    }
+
+    private static String namespace(final Element element) {
+        final String name = element.getTagName();
+        final int colon = name.indexOf(':');
+        final String attribute = (colon < 0) ? "xmlns" : ("xmlns:" + name.substring(0, colon));
+        for (org.w3c.dom.Node node = element; node instanceof Element; node = node.getParentNode()) {
+            final Element current = (Element) node;
+            if (current.hasAttribute(attribute)) {
+                return current.getAttribute(attribute);
+            }
+        }
+        return "";
+    }
+
+    private static Element parse(final byte[] body) throws IOException {
+        try {
+            final DocumentBuilder builder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+            final Document document = builder.parse(new ByteArrayInputStream(body));
+            return document.getDocumentElement();
+        } catch (final ParserConfigurationException | SAXException e) {
+            throw new SubversionException("malformed request body: " + e.getMessage(), HttpStatus.SC_BAD_REQUEST);
+        }
+    }
+
+    private static int parseRevision(final String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            throw new SubversionException("invalid revision: " + value, HttpStatus.SC_BAD_REQUEST);
+        }
+    }
+
+    private static String prefix(final Type type) {
+        if (Type.SUBVERSION_CUSTOM == type) {
+            return XmlConstants.SUBVERSION_CUSTOM_PREFIX;
+        }
+        return XmlConstants.SUBVERSION_SVN_PREFIX;
+    }
+
+    @CheckForNull
+    private static Type propertyType(final String namespace) {
+        for (final Type type : Type.values()) {
+            if (type.getNamespace().equals(namespace)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private final FakeRepository repository;
+
+    private final FakeSubversionServer server;
+
+    private final ProtocolVersion version;
+
+    FakeDavHandler(final FakeSubversionServer server, final FakeRepository repository, final ProtocolVersion version) {
+        this.server = server;
+        this.repository = repository;
+        this.version = version;
+    }
+
+    private void appendLockDiscovery(final StringBuilder xml, @CheckForNull final Lock lock) {
+        if (lock == null) {
+            xml.append("<D:lockdiscovery/>");
+            return;
+        }
+        xml.append("<D:lockdiscovery><D:activelock>");
+        xml.append("<D:locktype><D:write/></D:locktype><D:lockscope><D:exclusive/></D:lockscope><D:depth>0</D:depth>");
+        xml.append("<D:owner>").append(escape(lock.owner)).append("</D:owner>");
+        xml.append("<D:timeout>Infinite</D:timeout>");
+        xml.append("<D:locktoken><D:href>").append(escape(lock.token)).append("</D:href></D:locktoken>");
+        xml.append("</D:activelock></D:lockdiscovery>");
+    }
+
+    private void appendProperties(final StringBuilder xml, final Resource resource, final Node node, @CheckForNull final Set<String> wanted) {
+        final Commit created = repository.getCommit(node.createdRevision);
+        if (isWanted(wanted, XmlConstants.DAV_NAMESPACE, "resourcetype")) {
+            xml.append(node.isDirectory() ? "<D:resourcetype><D:collection/></D:resourcetype>" : "<D:resourcetype/>");
+        }
+        if (isWanted(wanted, XmlConstants.DAV_NAMESPACE, "version-name")) {
+            xml.append("<D:version-name>").append(node.createdRevision).append("</D:version-name>");
+        }
+        if (isWanted(wanted, XmlConstants.DAV_NAMESPACE, "creationdate")) {
+            xml.append("<D:creationdate>").append(CREATION_DATE.format(created.date)).append("</D:creationdate>");
+        }
+        if (isWanted(wanted, XmlConstants.DAV_NAMESPACE, "getlastmodified")) {
+            xml.append("<D:getlastmodified>").append(LAST_MODIFIED.format(created.date)).append("</D:getlastmodified>");
+        }
+        if ((created.author != null) && isWanted(wanted, XmlConstants.DAV_NAMESPACE, "creator-displayname")) {
+            xml.append("<D:creator-displayname>").append(escape(created.author)).append("</D:creator-displayname>");
+        }
+        if (!node.isDirectory() && isWanted(wanted, XmlConstants.DAV_NAMESPACE, "getcontentlength")) {
+            xml.append("<D:getcontentlength>").append(node.content.length).append("</D:getcontentlength>");
+        }
+        if (isWanted(wanted, XmlConstants.SUBVERSION_DAV_NAMESPACE, "baseline-relative-path")) {
+            xml.append("<V:baseline-relative-path>").append(escape(resource.getValueWithoutLeadingSeparator())).append("</V:baseline-relative-path>");
+        }
+        if (!node.isDirectory() && isWanted(wanted, XmlConstants.SUBVERSION_DAV_NAMESPACE, "md5-checksum")) {
+            xml.append("<V:md5-checksum>").append(node.md5).append("</V:md5-checksum>");
+        }
+        if (isWanted(wanted, XmlConstants.SUBVERSION_DAV_NAMESPACE, "repository-uuid")) {
+            xml.append("<V:repository-uuid>").append(repository.getUuid()).append("</V:repository-uuid>");
+        }
+        if (isWanted(wanted, XmlConstants.DAV_NAMESPACE, "lockdiscovery")) {
+            // locks belong to the path, not to a revision of it
+            appendLockDiscovery(xml, repository.getLock(resource));
+        }
+        for (final Map.Entry<Key, String> property : node.properties.entrySet()) {
+            final Key key = property.getKey();
+            final Type type = key.getType();
+            if (isWanted(wanted, type.getNamespace(), key.getName())) {
+                final String name = prefix(type) + ':' + key.getName();
+                xml.append('<').append(name).append('>').append(escape(property.getValue())).append("</").append(name).append('>');
+            }
+        }
+    }
+
+    private String author(final HttpRequest request) {
+        final Header header = request.getFirstHeader("Authorization");
+        if ((header == null) || !header.getValue().startsWith("Basic ")) {
+            return ANONYMOUS;
+        }
+        final byte[] decoded = Base64.getDecoder().decode(header.getValue().substring(6).trim());
+        final String credentials = new String(decoded, StandardCharsets.UTF_8);
+        return StringUtils.substringBefore(credentials, ":");
+    }
+
+    private void checkout(final HttpRequest request, final HttpResponse response, final Target target) throws IOException {
+        if (!"vcc".equals(target.kind) && !"ver".equals(target.kind)) {
+            throw new SubversionException("resource can not be checked out", HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+        final Element checkout = parse(server.readEntity(request));
+        final Element activitySet = child(checkout, "activity-set");
+        final String href = (activitySet == null) ? "" : childText(activitySet, "href", "");
+        final String id = StringUtils.substringAfterLast(StringUtils.removeEnd(href, Resource.SEPARATOR), Resource.SEPARATOR);
+        if (!repository.hasTransaction(id)) {
+            throw new SubversionException("unknown activity: " + href, HttpStatus.SC_CONFLICT);
+        }
+
+        final String location;
+        if ("vcc".equals(target.kind)) {
+            location = special("wbl", id, Integer.toString(repository.getYoungestRevision()));
+        } else {
+            location = special("wrk", id, target.resource.getValueWithoutLeadingSeparator());
+        }
+        response.setStatusCode(HttpStatus.SC_CREATED);
+        response.addHeader("Location", href(location));
+        response.addHeader("Cache-Control", "no-cache");
+    }
+
+    private void copy(final HttpRequest request, final HttpResponse response, final Target target) {
+        final Header destination = request.getFirstHeader("Destination");
+        if (!target.isReadable() || (destination == null)) {
+            throw new SubversionException("copy source must be a versioned resource", HttpStatus.SC_BAD_REQUEST);
+        }
+        final Target working = parseTarget(URI.create(destination.getValue()).getRawPath());
+        if (!working.isWorking()) {
+            throw new SubversionException("copy destination must be a working resource", HttpStatus.SC_FORBIDDEN);
+        }
+
+        final boolean replaced = repository.copy(working.id, target.resource, target.revision, working.resource);
+        response.setStatusCode(replaced ? HttpStatus.SC_NO_CONTENT : HttpStatus.SC_CREATED);
+    }
+
+    private byte[] corrupt(final HttpRequest request, final byte[] content) {
+        // a HEAD response has no content that could be corrupted
+        if ((content.length == 0) || "HEAD".equals(request.getRequestLine().getMethod()) || !server.takeCorruptedContent()) {
+            return content;
+        }
+        final byte[] corrupted = content.clone();
+        corrupted[0] ^= (byte) 0xFF;
+        return corrupted;
+    }
+
+    private void delete(final HttpResponse response, final Target target) {
+        if ("act".equals(target.kind) || "txn".equals(target.kind)) {
+            repository.abortTransaction(target.id);
+        } else if (target.isWorking()) {
+            repository.delete(target.id, target.resource);
+        } else {
+            throw new SubversionException("resource can not be deleted", HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+        response.setStatusCode(HttpStatus.SC_NO_CONTENT);
+    }
+
+    private void get(final HttpRequest request, final HttpResponse response, final Target target) {
+        final Node node = readableNode(target);
+        if (node.isDirectory()) {
+            final StringBuilder listing = new StringBuilder();
+            for (final Resource child : repository.list(target.revision, target.resource, Depth.IMMEDIATES).keySet()) {
+                if (!child.equals(target.resource)) {
+                    listing.append(StringUtils.substringAfterLast(child.getValue(), Resource.SEPARATOR)).append('\n');
+                }
+            }
+            response.setStatusCode(HttpStatus.SC_OK);
+            response.setEntity(server.createEntity(listing.toString().getBytes(StandardCharsets.UTF_8), TEXT_PLAIN));
+            return;
+        }
+
+        final String mimeType = node.properties.get(new Key(Type.SUBVERSION_SVN, "mime-type"));
+        final ContentType contentType = (mimeType == null) ? ContentType.TEXT_PLAIN : ContentType.parse(mimeType);
+        response.addHeader("ETag", "\"" + node.createdRevision + "//" + target.resource.getValueWithoutLeadingSeparator() + "\"");
+
+        final byte[] content = node.content;
+        final Header range = request.getFirstHeader("Range");
+        if ((range != null) && range.getValue().startsWith("bytes=") && (content.length > 0) && server.isRangeSupported()) {
+            final String[] bounds = range.getValue().substring(6).split("-", 2);
+            final int first = Integer.parseInt(bounds[0].trim());
+            int last = bounds[1].trim().isEmpty() ? (content.length - 1) : Math.min(Integer.parseInt(bounds[1].trim()), content.length - 1);
+            if (server.takeShortenedRange()) {
+                last = first + ((last - first) / 2);
+            }
+            if (first >= content.length) {
+                response.setStatusCode(HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.addHeader("Content-Range", "bytes */" + content.length);
+                return;
+            }
+            response.setStatusCode(HttpStatus.SC_PARTIAL_CONTENT);
+            response.addHeader("Content-Range", "bytes " + first + '-' + last + '/' + content.length);
+            response.setEntity(server.createRangeEntity(corrupt(request, Arrays.copyOfRange(content, first, last + 1)), contentType));
+            return;
+        }
+        response.setStatusCode(HttpStatus.SC_OK);
+        response.setEntity(server.createEntity(corrupt(request, content), contentType));
+    }
+
+    @Override
+    public void handle(final HttpRequest request, final HttpResponse response, final HttpContext context) throws IOException {
+        try {
+            final String method = request.getRequestLine().getMethod().toUpperCase(Locale.US);
+            final Target target = parseTarget(request.getRequestLine().getUri());
+            switch (method) {
+                case "CHECKOUT":
+                    checkout(request, response, target);
+                    break;
+                case "COPY":
+                    copy(request, response, target);
+                    break;
+                case "DELETE":
+                    delete(response, target);
+                    break;
+                case "GET":
+                case "HEAD":
+                    get(request, response, target);
+                    break;
+                case "LOCK":
+                    lock(request, response, target);
+                    break;
+                case "MERGE":
+                    merge(request, response);
+                    break;
+                case "MKACTIVITY":
+                    mkactivity(response, target);
+                    break;
+                case "MKCOL":
+                    mkcol(response, target);
+                    break;
+                case "OPTIONS":
+                    options(response);
+                    break;
+                case "POST":
+                    post(request, response, target);
+                    break;
+                case "PROPFIND":
+                    propfind(request, response, target);
+                    break;
+                case "PROPPATCH":
+                    proppatch(request, response, target);
+                    break;
+                case "PUT":
+                    put(request, response, target);
+                    break;
+                case "REPORT":
+                    report(request, response, target);
+                    break;
+                case "UNLOCK":
+                    unlock(request, response, target);
+                    break;
+                default:
+                    throw new SubversionException("method not supported: " + method, HttpStatus.SC_METHOD_NOT_ALLOWED);
+            }
+        } catch (final SubversionException e) {
+            response.setStatusCode(e.getHttpStatusCode());
+            response.setEntity(server.createEntity(String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8), TEXT_PLAIN));
+        }
+    }
+
+    private boolean hasOption(final HttpRequest request, final String option) {
+        for (final Header header : request.getHeaders("X-SVN-Options")) {
+            if (header.getValue().contains(option)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void lock(final HttpRequest request, final HttpResponse response, final Target target) throws IOException {
+        if (!PUBLIC.equals(target.kind)) {
+            throw new SubversionException("only resources in HEAD can be locked", HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+        server.readEntity(request);
+        final boolean steal = hasOption(request, "lock-steal");
+        final Lock lock = repository.lock(target.resource, author(request), steal);
+
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<D:prop xmlns:D=\"DAV:\">");
+        appendLockDiscovery(xml, lock);
+        xml.append("</D:prop>\n");
+        response.setStatusCode(HttpStatus.SC_OK);
+        response.addHeader("Lock-Token", '<' + lock.token + '>');
+        response.setEntity(xml(xml));
+    }
+
+    private void merge(final HttpRequest request, final HttpResponse response) throws IOException {
+        final Element merge = parse(server.readEntity(request));
+        final Element source = child(merge, "source");
+        final String href = (source == null) ? "" : childText(source, "href", "");
+        final Target transaction = parseTarget(href);
+        if (!"act".equals(transaction.kind) && !"txn".equals(transaction.kind)) {
+            throw new SubversionException("merge source must be an activity or transaction: " + href, HttpStatus.SC_CONFLICT);
+        }
+
+        final Map<Resource, String> lockTokens = new HashMap<>();
+        final Element lockTokenList = child(merge, "lock-token-list");
+        if (lockTokenList != null) {
+            for (final Element lock : children(lockTokenList)) {
+                final Resource path = Resource.create(childText(lock, "lock-path", ""));
+                lockTokens.put(path, childText(lock, "lock-token", ""));
+            }
+        }
+
+        final int revision = repository.merge(transaction.id, author(request), lockTokens, hasOption(request, "release-locks"));
+        final Commit commit = repository.getCommit(revision);
+
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<D:merge-response xmlns:D=\"DAV:\"><D:updated-set><D:response>");
+        xml.append("<D:href>").append(escape(href(special("vcc", "default")))).append("</D:href>");
+        xml.append("<D:propstat><D:prop><D:resourcetype><D:baseline/></D:resourcetype>");
+        xml.append("<D:version-name>").append(revision).append("</D:version-name>");
+        xml.append("<D:creationdate>").append(CREATION_DATE.format(commit.date)).append("</D:creationdate>");
+        xml.append("<D:creator-displayname>").append(escape(commit.author)).append("</D:creator-displayname>");
+        xml.append("</D:prop>").append(STATUS_OK).append("</D:propstat>");
+        xml.append("</D:response></D:updated-set></D:merge-response>\n");
+        response.setStatusCode(HttpStatus.SC_OK);
+        response.setEntity(xml(xml));
+    }
+
+    private void mkactivity(final HttpResponse response, final Target target) {
+        if (!"act".equals(target.kind)) {
+            throw new SubversionException("activities must be created in the activity collection", HttpStatus.SC_FORBIDDEN);
+        }
+        repository.beginTransaction(target.id);
+        response.setStatusCode(HttpStatus.SC_CREATED);
+    }
+
+    private void mkcol(final HttpResponse response, final Target target) {
+        if (!target.isWorking()) {
+            throw new SubversionException("collections can only be created within a transaction", HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+        repository.mkdir(target.id, target.resource);
+        response.setStatusCode(HttpStatus.SC_CREATED);
+    }
+
+    private void options(final HttpResponse response) {
+        response.addHeader("DAV", "1,2");
+        response.addHeader("DAV", "version-control,checkout,working-resource");
+        response.addHeader("DAV", "merge,baseline,activity,version-controlled-collection");
+        response.addHeader("DAV", "http://subversion.tigris.org/xmlns/dav/svn/depth");
+        response.addHeader("DAV", "http://subversion.tigris.org/xmlns/dav/svn/log-revprops");
+        if (server.isListReportSupported()) {
+            response.addHeader("DAV", LIST_CAPABILITY);
+        }
+        response.addHeader("MS-Author-Via", "DAV");
+        response.addHeader("Allow", "OPTIONS,GET,HEAD,POST,DELETE,TRACE,PROPFIND,PROPPATCH,COPY,MOVE,LOCK,UNLOCK,CHECKOUT");
+
+        if (ProtocolVersion.HTTP_V2 == version) {
+            response.addHeader("SVN-Youngest-Rev", Integer.toString(repository.getYoungestRevision()));
+            response.addHeader("SVN-Repository-UUID", repository.getUuid().toString());
+            response.addHeader("SVN-Repository-Root", FakeSubversionServer.MOUNT.getValue());
+            response.addHeader("SVN-Me-Resource", special("me"));
+            response.addHeader("SVN-Rev-Root-Stub", special("rvr"));
+            response.addHeader("SVN-Rev-Stub", special("rev"));
+            response.addHeader("SVN-Txn-Root-Stub", special("txr"));
+            response.addHeader("SVN-Txn-Stub", special("txn"));
+            response.addHeader("SVN-VTxn-Root-Stub", special("vtxr"));
+            response.addHeader("SVN-VTxn-Stub", special("vtxn"));
+            response.addHeader("SVN-Allow-Bulk-Updates", "Prefer");
+        }
+
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<D:options-response xmlns:D=\"DAV:\"><D:activity-collection-set>");
+        xml.append("<D:href>").append(escape(href(special("act") + Resource.SEPARATOR))).append("</D:href>");
+        xml.append("</D:activity-collection-set></D:options-response>\n");
+        response.setStatusCode(HttpStatus.SC_OK);
+        response.setEntity(xml(xml));
+    }
+
+    private Target parseTarget(final String requestUri) {
+        final String path = URI.create(requestUri).getPath();
+        final String mount = FakeSubversionServer.MOUNT.getValue();
+        if (!path.equals(mount) && !path.startsWith(mount + Resource.SEPARATOR)) {
+            throw new SubversionException("no repository at " + path, HttpStatus.SC_NOT_FOUND);
+        }
+
+        final String[] segments = StringUtils.split(path.substring(mount.length()), Resource.SEPARATOR_CHAR);
+        if ((segments.length == 0) || !SPECIAL.equals(segments[0])) {
+            return new Target(PUBLIC, null, repository.getYoungestRevision(), Resource.create(path.substring(mount.length())));
+        }
+        if (segments.length < 2) {
+            throw new SubversionException("unknown special resource: " + path, HttpStatus.SC_NOT_FOUND);
+        }
+
+        final String kind = segments[1];
+        if ((ProtocolVersion.HTTP_V1 == version) && HTTPV2_KINDS.contains(kind)) {
+            throw new SubversionException("HTTPv2 is not supported: " + path, HttpStatus.SC_NOT_FOUND);
+        }
+        final String id = (segments.length > 2) ? segments[2] : null;
+        final Resource rest = Resource.create(StringUtils.join(segments, Resource.SEPARATOR_CHAR, 3, segments.length));
+        switch (kind) {
+            case "bc":
+            case "rvr":
+            case "ver":
+                final int revision = parseRevision(id);
+                repository.getCommit(revision); // fail early for revisions that do not exist yet
+                return new Target(kind, null, revision, rest);
+            case "wbl":
+                return new Target(kind, id, -1, Resource.ROOT);
+            case "act":
+            case "me":
+            case "txn":
+            case "txr":
+            case "vcc":
+            case "wrk":
+                return new Target(kind, id, -1, rest);
+            default:
+                throw new SubversionException("unknown special resource: " + path, HttpStatus.SC_NOT_FOUND);
+        }
+    }
+
+    private void post(final HttpRequest request, final HttpResponse response, final Target target) throws IOException {
+        final String body = new String(server.readEntity(request), StandardCharsets.UTF_8);
+        if (!"me".equals(target.kind) || !body.contains("create-txn")) {
+            throw new SubversionException("only transactions can be created", HttpStatus.SC_BAD_REQUEST);
+        }
+        final String id = repository.beginTransaction();
+        response.setStatusCode(HttpStatus.SC_CREATED);
+        response.addHeader("SVN-Txn-Name", id);
+    }
+
+    private void propfind(final HttpRequest request, final HttpResponse response, final Target target) throws IOException {
+        final Node node = readableNode(target);
+        final Header depthHeader = request.getFirstHeader("Depth");
+        final String depthValue = (depthHeader == null) ? "infinity" : depthHeader.getValue().trim();
+        final Depth depth;
+        if ("0".equals(depthValue)) {
+            depth = Depth.EMPTY;
+        } else if ("1".equals(depthValue)) {
+            depth = Depth.IMMEDIATES;
+        } else {
+            depth = Depth.INFINITY;
+        }
+
+        // null: all properties
+        Set<String> wanted = null;
+        final byte[] body = server.readEntity(request);
+        if (body.length > 0) {
+            final Element prop = child(parse(body), "prop");
+            if (prop != null) {
+                wanted = new HashSet<>();
+                for (final Element property : children(prop)) {
+                    wanted.add(namespace(property) + ResourcePropertyUtils.unescapedKeyNameXml(localName(property)));
+                }
+            }
+        }
+
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<D:multistatus xmlns:D=\"DAV:\" xmlns:V=\"").append(XmlConstants.SUBVERSION_DAV_NAMESPACE);
+        xml.append("\" xmlns:C=\"").append(XmlConstants.SUBVERSION_CUSTOM_NAMESPACE);
+        xml.append("\" xmlns:S=\"").append(XmlConstants.SUBVERSION_SVN_NAMESPACE).append("\">\n");
+        for (final Map.Entry<Resource, Node> entry : repository.list(target.revision, target.resource, depth).entrySet()) {
+            final Resource resource = entry.getKey();
+            final String path = PUBLIC.equals(target.kind) ? (FakeSubversionServer.MOUNT.getValue() + resource.getValue()) : (special(target.kind, Integer.toString(target.revision)) + resource.getValue());
+            xml.append("<D:response><D:href>").append(escape(href(path))).append("</D:href>");
+            xml.append("<D:propstat><D:prop>");
+            appendProperties(xml, resource, entry.getValue(), wanted);
+            xml.append("</D:prop>").append(STATUS_OK).append("</D:propstat></D:response>\n");
+        }
+        xml.append("</D:multistatus>\n");
+
+        final Lock lock = repository.getLock(target.resource);
+        if ((lock != null) && !node.isDirectory()) {
+            response.addHeader("X-SVN-Lock-Owner", lock.owner);
+        }
+        response.setStatusCode(HttpStatus.SC_MULTI_STATUS);
+        response.setEntity(xml(xml));
+    }
+
+    private void proppatch(final HttpRequest request, final HttpResponse response, final Target target) throws IOException {
+        final Map<Key, String> set = new HashMap<>();
+        final List<Key> remove = new ArrayList<>();
+        String message = null;
+        for (final Element action : children(parse(server.readEntity(request)))) {
+            final boolean setAction = "set".equals(localName(action));
+            final Element prop = child(action, "prop");
+            if (prop == null) {
+                continue;
+            }
+            for (final Element property : children(prop)) {
+                final Type type = propertyType(namespace(property));
+                final String name = ResourcePropertyUtils.unescapedKeyNameXml(localName(property));
+                if ((Type.SUBVERSION_SVN == type) && "log".equals(name) && setAction) {
+                    message = property.getTextContent();
+                }
+                if ((Type.SUBVERSION_CUSTOM != type) && (Type.SUBVERSION_SVN != type)) {
+                    continue;
+                }
+                final Key key = new Key(type, name);
+                if (setAction) {
+                    set.put(key, property.getTextContent());
+                } else {
+                    remove.add(key);
+                }
+            }
+        }
+
+        if ("wbl".equals(target.kind) || "txn".equals(target.kind)) {
+            if (message != null) {
+                repository.setMessage(target.id, message);
+            }
+        } else if (target.isWorking()) {
+            repository.propertiesUpdate(target.id, target.resource, set, remove);
+        } else {
+            throw new SubversionException("properties can only be changed within a transaction", HttpStatus.SC_FORBIDDEN);
+        }
+
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<D:multistatus xmlns:D=\"DAV:\"><D:response>");
+        xml.append("<D:href>").append(escape(URI.create(request.getRequestLine().getUri()).getRawPath())).append("</D:href>");
+        xml.append("<D:propstat><D:prop/>").append(STATUS_OK).append("</D:propstat>");
+        xml.append("</D:response></D:multistatus>\n");
+        response.setStatusCode(HttpStatus.SC_MULTI_STATUS);
+        response.setEntity(xml(xml));
+    }
+
+    private void put(final HttpRequest request, final HttpResponse response, final Target target) throws IOException {
+        if (!target.isWorking()) {
+            throw new SubversionException("content can only be changed within a transaction", HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+
+        final byte[] existing = repository.getContent(target.id, target.resource);
+        final byte[] body = server.readEntity(request);
+        final Header contentType = request.getFirstHeader("Content-Type");
+        final byte[] content;
+        if ((contentType != null) && contentType.getValue().startsWith("application/vnd.svn-svndiff")) {
+            final byte[] base = (existing == null) ? new byte[0] : existing;
+            verifyChecksum(request, "X-SVN-Base-Fulltext-MD5", base);
+            try (final InputStream delta = new SvndiffInputStream(new ByteArrayInputStream(base), new ByteArrayInputStream(body))) {
+                content = IOUtils.toByteArray(delta);
+            }
+        } else {
+            content = body;
+        }
+        verifyChecksum(request, "X-SVN-Result-Fulltext-MD5", content);
+
+        repository.put(target.id, target.resource, content);
+        response.setStatusCode((existing == null) ? HttpStatus.SC_CREATED : HttpStatus.SC_NO_CONTENT);
+    }
+
+    private Node readableNode(final Target target) {
+        if (!target.isReadable()) {
+            throw new SubversionException("resource can not be read", HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+        final Node node = repository.getNode(target.revision, target.resource);
+        if (node == null) {
+            throw new SubversionException("resource does not exist: " + target.resource + '@' + target.revision, HttpStatus.SC_NOT_FOUND);
+        }
+        return node;
+    }
+
+    private void report(final HttpRequest request, final HttpResponse response, final Target target) throws IOException {
+        final Element report = parse(server.readEntity(request));
+        final String name = localName(report);
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        if ("log-report".equals(name)) {
+            readableNode(target);
+            final int start = parseRevision(childText(report, "start-revision", Integer.toString(target.revision)));
+            final int end = parseRevision(childText(report, "end-revision", "0"));
+            final int limit = Integer.parseInt(childText(report, "limit", "0"));
+            final boolean stopOnCopy = (child(report, "strict-node-history") != null);
+
+            xml.append("<S:log-report xmlns:S=\"svn:\" xmlns:D=\"DAV:\">\n");
+            for (final Commit commit : repository.log(target.resource, start, end, limit, stopOnCopy)) {
+                xml.append("<S:log-item>");
+                xml.append("<D:version-name>").append(commit.revision).append("</D:version-name>");
+                if (commit.author != null) {
+                    xml.append("<D:creator-displayname>").append(escape(commit.author)).append("</D:creator-displayname>");
+                }
+                xml.append("<S:date>").append(CREATION_DATE.format(commit.date)).append("</S:date>");
+                if (!commit.message.isEmpty()) {
+                    xml.append("<D:comment>").append(escape(commit.message)).append("</D:comment>");
+                }
+                xml.append("</S:log-item>\n");
+            }
+            xml.append("</S:log-report>\n");
+        } else if ("get-locations".equals(name)) {
+            final int peg = parseRevision(childText(report, "peg-revision", Integer.toString(target.revision)));
+            final int location = parseRevision(childText(report, "location-revision", Integer.toString(peg)));
+            final Resource located = repository.locate(target.resource, peg, location);
+            if (located == null) {
+                throw new SubversionException("no location for " + target.resource + '@' + location, HttpStatus.SC_NOT_FOUND);
+            }
+            xml.append("<S:get-locations-report xmlns:S=\"svn:\" xmlns:D=\"DAV:\">\n");
+            xml.append("<S:location rev=\"").append(location).append("\" path=\"").append(escape(Resource.ROOT.equals(located) ? Resource.SEPARATOR : located.getValue())).append("\"/>\n");
+            xml.append("</S:get-locations-report>\n");
+        } else if ("list-report".equals(name) && server.isListReportSupported()) {
+            final int revision = parseRevision(childText(report, "revision", Integer.toString(target.revision)));
+            final Depth depth = Depth.valueOf(childText(report, "depth", "immediates").toUpperCase(Locale.US));
+            final String base = target.resource.getValue();
+
+            xml.append("<S:list-report xmlns:S=\"svn:\" xmlns:D=\"DAV:\">\n");
+            for (final Map.Entry<Resource, Node> entry : repository.list(revision, target.resource, depth).entrySet()) {
+                final Node node = entry.getValue();
+                final Commit created = repository.getCommit(node.createdRevision);
+                final String relative = StringUtils.removeStart(entry.getKey().getValue().substring(base.length()), Resource.SEPARATOR);
+                xml.append("<S:item node-kind=\"").append(node.isDirectory() ? "dir" : "file");
+                xml.append("\" created-rev=\"").append(node.createdRevision);
+                xml.append("\" date=\"").append(CREATION_DATE.format(created.date));
+                if (!node.isDirectory()) {
+                    xml.append("\" size=\"").append(node.content.length);
+                }
+                xml.append("\">").append(escape(relative)).append("</S:item>\n");
+            }
+            xml.append("</S:list-report>\n");
+        } else {
+            throw new SubversionException("report not supported: " + name, HttpStatus.SC_NOT_IMPLEMENTED);
+        }
+        response.setStatusCode(HttpStatus.SC_OK);
+        response.setEntity(xml(xml));
+    }
+
+    private String special(final String... segments) {
+        return FakeSubversionServer.MOUNT.getValue() + Resource.SEPARATOR + SPECIAL + Resource.SEPARATOR + StringUtils.join(segments, Resource.SEPARATOR_CHAR);
+    }
+
+    private void unlock(final HttpRequest request, final HttpResponse response, final Target target) {
+        final Header header = request.getFirstHeader("Lock-Token");
+        if (!PUBLIC.equals(target.kind) || (header == null)) {
+            throw new SubversionException("only resources in HEAD can be unlocked", HttpStatus.SC_BAD_REQUEST);
+        }
+        final String token = StringUtils.strip(header.getValue().trim(), "<>");
+        repository.unlock(target.resource, token, hasOption(request, "lock-break"));
+        response.setStatusCode(HttpStatus.SC_NO_CONTENT);
+    }
+
+    private void verifyChecksum(final HttpRequest request, final String name, final byte[] content) {
+        final Header header = request.getFirstHeader(name);
+        if ((header != null) && !header.getValue().trim().equalsIgnoreCase(DigestUtils.md5Hex(content))) {
+            throw new SubversionException("checksum mismatch (" + name + ')', HttpStatus.SC_CONFLICT);
+        }
+    }
+
+    private HttpEntity xml(final StringBuilder xml) {
+        return server.createEntity(xml.toString().getBytes(StandardCharsets.UTF_8), TEXT_XML);
+    }
+}
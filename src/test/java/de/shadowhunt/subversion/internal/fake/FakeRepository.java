@@ -0,0 +1,569 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.fake;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import javax.annotation.CheckForNull;
+
+import de.shadowhunt.subversion.Depth;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.ResourceProperty.Key;
+import de.shadowhunt.subversion.SubversionException;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.HttpStatus;
+
+/**
+ * In-memory versioned tree behind {@link FakeSubversionServer}. Every revision keeps a complete snapshot of the tree, transactions work on their own copy and are merged
+ * into a new revision on commit. Failures are reported as {@link SubversionException} carrying the http status code mod_dav_svn would answer with.
+ */
+final class FakeRepository {
+
+    static final class Commit {
+
+        final String author;
+
+        final Map<Resource, Character> changes;
+
+        final Map<Resource, Copy> copies;
+
+        final Date date;
+
+        final String message;
+
+        final int revision;
+
+        final NavigableMap<Resource, Node> tree;
+
+        Commit(final int revision, final String author, final Date date, final String message, final Map<Resource, Character> changes, final Map<Resource, Copy> copies, final NavigableMap<Resource, Node> tree) {
+            this.revision = revision;
+            this.author = author;
+            this.date = date;
+            this.message = message;
+            this.changes = Collections.unmodifiableMap(changes);
+            this.copies = Collections.unmodifiableMap(copies);
+            this.tree = Collections.unmodifiableNavigableMap(tree);
+        }
+    }
+
+    static final class Copy {
+
+        final int revision;
+
+        final Resource source;
+
+        Copy(final Resource source, final int revision) {
+            this.source = source;
+            this.revision = revision;
+        }
+    }
+
+    static final class Lock {
+
+        final String owner;
+
+        final String token;
+
+        Lock(final String owner, final String token) {
+            this.owner = owner;
+            this.token = token;
+        }
+    }
+
+    static final class Node {
+
+        @CheckForNull
+        final byte[] content;
+
+        final int createdRevision;
+
+        @CheckForNull
+        final String md5;
+
+        final SortedMap<Key, String> properties;
+
+        Node(@CheckForNull final byte[] content, final int createdRevision, final SortedMap<Key, String> properties) {
+            this.content = content;
+            this.createdRevision = createdRevision;
+            this.properties = Collections.unmodifiableSortedMap(properties);
+            md5 = (content == null) ? null : DigestUtils.md5Hex(content);
+        }
+
+        boolean isDirectory() {
+            return (content == null);
+        }
+
+        Node withCreatedRevision(final int revision) {
+            return new Node(content, revision, new TreeMap<>(properties));
+        }
+
+        Node withProperties(final SortedMap<Key, String> newProperties) {
+            return new Node(content, PENDING, newProperties);
+        }
+    }
+
+    private static final class Transaction {
+
+        final int baseRevision;
+
+        final Map<Resource, Character> changes = new TreeMap<>();
+
+        final Map<Resource, Copy> copies = new HashMap<>();
+
+        String message = "";
+
+        final NavigableMap<Resource, Node> tree;
+
+        Transaction(final int baseRevision, final NavigableMap<Resource, Node> tree) {
+            this.baseRevision = baseRevision;
+            this.tree = new TreeMap<>(tree);
+        }
+
+        void change(final Resource resource, final char kind) {
+            final Character previous = changes.get(resource);
+            if ((previous != null) && ((previous == 'A') || (previous == 'R'))) {
+                return; // still an addition, no matter what happens afterwards
+            }
+            changes.put(resource, kind);
+        }
+    }
+
+    private static final int PENDING = -1;
+
+    private static Resource findOrigin(final Commit commit, final Resource resource) {
+        Resource current = resource;
+        while (true) {
+            final Character kind = commit.changes.get(current);
+            if ((kind != null) && ((kind == 'A') || (kind == 'R'))) {
+                return current;
+            }
+            if (Resource.ROOT.equals(current)) {
+                return null;
+            }
+            current = current.getParent();
+        }
+    }
+
+    static boolean isAncestorOrSelf(final Resource ancestor, final Resource resource) {
+        if (Resource.ROOT.equals(ancestor) || ancestor.equals(resource)) {
+            return true;
+        }
+        return resource.getValue().startsWith(ancestor.getValue() + Resource.SEPARATOR);
+    }
+
+    private static Resource rebase(final Resource resource, final Resource from, final Resource to) {
+        final String remainder = resource.getValue().substring(from.getValue().length());
+        return Resource.create(to.getValue() + remainder);
+    }
+
+    private static void removeSubtree(final NavigableMap<Resource, Node> tree, final Resource resource) {
+        tree.keySet().removeAll(subtree(tree, resource).keySet());
+    }
+
+    private static NavigableMap<Resource, Node> subtree(final NavigableMap<Resource, Node> tree, final Resource resource) {
+        // all descendants share the path as string prefix, but not everything with that prefix is a descendant (e.g. /a and /a-b)
+        final NavigableMap<Resource, Node> candidates = tree.tailMap(resource, true);
+        final NavigableMap<Resource, Node> result = new TreeMap<>();
+        for (final Map.Entry<Resource, Node> entry : candidates.entrySet()) {
+            final Resource candidate = entry.getKey();
+            if (!candidate.getValue().startsWith(resource.getValue())) {
+                break;
+            }
+            if (isAncestorOrSelf(resource, candidate)) {
+                result.put(candidate, entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private final List<Commit> commits = new ArrayList<>();
+
+    private final Map<Resource, Lock> locks = new HashMap<>();
+
+    private int transactionSequence = 0;
+
+    private final Map<String, Transaction> transactions = new HashMap<>();
+
+    private final UUID uuid = UUID.randomUUID();
+
+    FakeRepository() {
+        final NavigableMap<Resource, Node> tree = new TreeMap<>();
+        tree.put(Resource.ROOT, new Node(null, 0, new TreeMap<>()));
+        final Map<Resource, Character> changes = Collections.singletonMap(Resource.ROOT, 'A');
+        commits.add(new Commit(0, null, new Date(), "", changes, Collections.emptyMap(), tree));
+    }
+
+    synchronized void abortTransaction(final String id) {
+        if (transactions.remove(id) == null) {
+            throw new SubversionException("unknown transaction: " + id, HttpStatus.SC_NOT_FOUND);
+        }
+    }
+
+    synchronized void beginTransaction(final String id) {
+        if (transactions.containsKey(id)) {
+            throw new SubversionException("transaction already exists: " + id, HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+        final Commit head = getHead();
+        transactions.put(id, new Transaction(head.revision, head.tree));
+    }
+
+    synchronized String beginTransaction() {
+        final String id = getYoungestRevision() + "-" + (++transactionSequence);
+        beginTransaction(id);
+        return id;
+    }
+
+    private void checkLocks(final Transaction transaction, final Map<Resource, String> lockTokens) {
+        for (final Map.Entry<Resource, Character> change : transaction.changes.entrySet()) {
+            final Resource resource = change.getKey();
+            for (final Map.Entry<Resource, Lock> lock : locks.entrySet()) {
+                final Resource locked = lock.getKey();
+                final boolean affected = locked.equals(resource) || ((change.getValue() != 'M') && isAncestorOrSelf(resource, locked));
+                if (affected && !lock.getValue().token.equals(lockTokens.get(locked))) {
+                    throw new SubversionException("resource is locked: " + locked, HttpStatus.SC_LOCKED);
+                }
+            }
+        }
+    }
+
+    synchronized boolean copy(final String id, final Resource source, final int revision, final Resource target) {
+        final Transaction transaction = getTransaction(id);
+        final NavigableMap<Resource, Node> sourceTree = getCommit(revision).tree;
+        if (!sourceTree.containsKey(source)) {
+            throw new SubversionException("copy source does not exist: " + source + '@' + revision, HttpStatus.SC_NOT_FOUND);
+        }
+        requireParentDirectory(transaction, target);
+
+        final boolean replace = transaction.tree.containsKey(target);
+        removeSubtree(transaction.tree, target);
+        for (final Map.Entry<Resource, Node> entry : subtree(sourceTree, source).entrySet()) {
+            final Resource resource = rebase(entry.getKey(), source, target);
+            transaction.tree.put(resource, entry.getValue());
+        }
+        transaction.tree.put(target, transaction.tree.get(target).withCreatedRevision(PENDING));
+        transaction.change(target, replace ? 'R' : 'A');
+        transaction.copies.put(target, new Copy(source, revision));
+        return replace;
+    }
+
+    synchronized void delete(final String id, final Resource resource) {
+        final Transaction transaction = getTransaction(id);
+        if (Resource.ROOT.equals(resource) || !transaction.tree.containsKey(resource)) {
+            throw new SubversionException("resource does not exist: " + resource, HttpStatus.SC_NOT_FOUND);
+        }
+        removeSubtree(transaction.tree, resource);
+        transaction.changes.keySet().removeIf(changed -> isAncestorOrSelf(resource, changed) && !changed.equals(resource));
+        transaction.copies.keySet().removeIf(copied -> isAncestorOrSelf(resource, copied));
+        final Character previous = transaction.changes.get(resource);
+        if ((previous != null) && (previous == 'A')) {
+            transaction.changes.remove(resource);
+        } else {
+            transaction.changes.put(resource, 'D');
+        }
+    }
+
+    synchronized Commit getCommit(final int revision) {
+        if ((revision < 0) || (revision >= commits.size())) {
+            throw new SubversionException("no such revision: " + revision, HttpStatus.SC_NOT_FOUND);
+        }
+        return commits.get(revision);
+    }
+
+    @CheckForNull
+    synchronized byte[] getContent(final String id, final Resource resource) {
+        final Node node = getTransaction(id).tree.get(resource);
+        return (node == null) ? null : node.content;
+    }
+
+    synchronized Commit getHead() {
+        return commits.get(commits.size() - 1);
+    }
+
+    @CheckForNull
+    synchronized Lock getLock(final Resource resource) {
+        return locks.get(resource);
+    }
+
+    @CheckForNull
+    synchronized Node getNode(final int revision, final Resource resource) {
+        return getCommit(revision).tree.get(resource);
+    }
+
+    private Transaction getTransaction(final String id) {
+        final Transaction transaction = transactions.get(id);
+        if (transaction == null) {
+            throw new SubversionException("unknown transaction: " + id, HttpStatus.SC_NOT_FOUND);
+        }
+        return transaction;
+    }
+
+    UUID getUuid() {
+        return uuid;
+    }
+
+    synchronized int getYoungestRevision() {
+        return commits.size() - 1;
+    }
+
+    synchronized boolean hasTransaction(final String id) {
+        return transactions.containsKey(id);
+    }
+
+    /**
+     * Returns the revisions that changed the resource or one of its descendants, newest first, following copies unless {@code stopOnCopy} is set.
+     */
+    private List<Commit> history(final Resource resource, final int pegRevision, final boolean stopOnCopy) {
+        final List<Commit> history = new ArrayList<>();
+        Resource current = resource;
+        int revision = pegRevision;
+        while (revision >= 0) {
+            final Commit commit = commits.get(revision);
+            if (touches(commit, current)) {
+                history.add(commit);
+            }
+            final Resource origin = findOrigin(commit, current);
+            if (origin != null) {
+                final Copy copy = commit.copies.get(origin);
+                if ((copy == null) || stopOnCopy) {
+                    break;
+                }
+                current = rebase(current, origin, copy.source);
+                revision = copy.revision;
+                continue;
+            }
+            revision--;
+        }
+        return history;
+    }
+
+    synchronized NavigableMap<Resource, Node> list(final int revision, final Resource resource, final Depth depth) {
+        final NavigableMap<Resource, Node> tree = getCommit(revision).tree;
+        final Node node = tree.get(resource);
+        if (node == null) {
+            throw new SubversionException("resource does not exist: " + resource + '@' + revision, HttpStatus.SC_NOT_FOUND);
+        }
+
+        final NavigableMap<Resource, Node> result = new TreeMap<>();
+        result.put(resource, node);
+        if ((Depth.EMPTY == depth) || !node.isDirectory()) {
+            return result;
+        }
+        for (final Map.Entry<Resource, Node> entry : subtree(tree, resource).entrySet()) {
+            final Resource candidate = entry.getKey();
+            if (candidate.equals(resource)) {
+                continue;
+            }
+            final boolean child = candidate.getParent().equals(resource);
+            if ((Depth.INFINITY == depth) || (child && ((Depth.IMMEDIATES == depth) || !entry.getValue().isDirectory()))) {
+                result.put(candidate, entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the path the resource (as seen in pegRevision) had in the given revision, or {@code null} if it did not exist back then.
+     */
+    @CheckForNull
+    synchronized Resource locate(final Resource resource, final int pegRevision, final int revision) {
+        if ((revision > pegRevision) || (getNode(pegRevision, resource) == null)) {
+            return null;
+        }
+
+        Resource current = resource;
+        int position = pegRevision;
+        while (position > revision) {
+            final Commit commit = commits.get(position);
+            final Resource origin = findOrigin(commit, current);
+            if (origin != null) {
+                final Copy copy = commit.copies.get(origin);
+                if (copy == null) {
+                    return null; // resource was created after the requested revision
+                }
+                current = rebase(current, origin, copy.source);
+                position = Math.max(copy.revision, revision);
+                continue;
+            }
+            position--;
+        }
+        return (getNode(revision, current) == null) ? null : current;
+    }
+
+    synchronized Lock lock(final Resource resource, final String owner, final boolean steal) {
+        final Node node = getHead().tree.get(resource);
+        if (node == null) {
+            throw new SubversionException("resource does not exist: " + resource, HttpStatus.SC_NOT_FOUND);
+        }
+        if (node.isDirectory()) {
+            throw new SubversionException("directories can not be locked: " + resource, HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+        if (locks.containsKey(resource) && !steal) {
+            throw new SubversionException("resource is already locked: " + resource, HttpStatus.SC_LOCKED);
+        }
+        final Lock lock = new Lock(owner, "opaquelocktoken:" + UUID.randomUUID());
+        locks.put(resource, lock);
+        return lock;
+    }
+
+    synchronized List<Commit> log(final Resource resource, final int startRevision, final int endRevision, final int limit, final boolean stopOnCopy) {
+        final int pegRevision = Math.max(startRevision, endRevision);
+        final int lowest = Math.min(startRevision, endRevision);
+        if (getNode(pegRevision, resource) == null) {
+            throw new SubversionException("resource does not exist: " + resource + '@' + pegRevision, HttpStatus.SC_NOT_FOUND);
+        }
+
+        final List<Commit> entries = new ArrayList<>();
+        for (final Commit commit : history(resource, pegRevision, stopOnCopy)) {
+            if (commit.revision >= lowest) {
+                entries.add(commit);
+            }
+        }
+        if (startRevision < endRevision) {
+            Collections.reverse(entries);
+        }
+        if ((limit > 0) && (entries.size() > limit)) {
+            return new ArrayList<>(entries.subList(0, limit));
+        }
+        return entries;
+    }
+
+    synchronized int merge(final String id, final String author, final Map<Resource, String> lockTokens, final boolean releaseLocks) {
+        final Transaction transaction = getTransaction(id);
+        checkLocks(transaction, lockTokens);
+
+        final Commit head = getHead();
+        final int revision = head.revision + 1;
+        final NavigableMap<Resource, Node> tree = new TreeMap<>(head.tree);
+        for (final Map.Entry<Resource, Character> change : transaction.changes.entrySet()) {
+            final Resource resource = change.getKey();
+            final char kind = change.getValue();
+            if ((kind == 'M') && (head.tree.containsKey(resource)) && (head.tree.get(resource).createdRevision > transaction.baseRevision)) {
+                throw new SubversionException("resource is out of date: " + resource, HttpStatus.SC_CONFLICT);
+            }
+            if (!tree.containsKey(resource.getParent())) {
+                throw new SubversionException("parent of resource does not exist anymore: " + resource, HttpStatus.SC_CONFLICT);
+            }
+
+            if (kind == 'M') {
+                tree.put(resource, transaction.tree.get(resource).withCreatedRevision(revision));
+            } else {
+                removeSubtree(tree, resource);
+                if (kind != 'D') {
+                    for (final Map.Entry<Resource, Node> entry : subtree(transaction.tree, resource).entrySet()) {
+                        final Node node = entry.getValue();
+                        tree.put(entry.getKey(), (node.createdRevision == PENDING) ? node.withCreatedRevision(revision) : node);
+                    }
+                }
+            }
+
+            Resource ancestor = resource;
+            while (!Resource.ROOT.equals(ancestor)) {
+                ancestor = ancestor.getParent();
+                tree.put(ancestor, tree.get(ancestor).withCreatedRevision(revision));
+            }
+        }
+
+        transactions.remove(id);
+        commits.add(new Commit(revision, author, new Date(), transaction.message, transaction.changes, transaction.copies, tree));
+        if (releaseLocks) {
+            for (final Map.Entry<Resource, String> lockToken : lockTokens.entrySet()) {
+                final Lock lock = locks.get(lockToken.getKey());
+                if ((lock != null) && lock.token.equals(lockToken.getValue())) {
+                    locks.remove(lockToken.getKey());
+                }
+            }
+        }
+        return revision;
+    }
+
+    synchronized void mkdir(final String id, final Resource resource) {
+        final Transaction transaction = getTransaction(id);
+        if (transaction.tree.containsKey(resource)) {
+            throw new SubversionException("resource already exists: " + resource, HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+        requireParentDirectory(transaction, resource);
+        transaction.tree.put(resource, new Node(null, PENDING, new TreeMap<>()));
+        transaction.change(resource, 'A');
+    }
+
+    synchronized void propertiesUpdate(final String id, final Resource resource, final Map<Key, String> set, final Collection<Key> remove) {
+        final Transaction transaction = getTransaction(id);
+        final Node node = transaction.tree.get(resource);
+        if (node == null) {
+            throw new SubversionException("resource does not exist: " + resource, HttpStatus.SC_NOT_FOUND);
+        }
+        final SortedMap<Key, String> properties = new TreeMap<>(node.properties);
+        properties.putAll(set);
+        properties.keySet().removeAll(remove);
+        transaction.tree.put(resource, node.withProperties(properties));
+        transaction.change(resource, 'M');
+    }
+
+    synchronized void put(final String id, final Resource resource, final byte[] content) {
+        final Transaction transaction = getTransaction(id);
+        final Node node = transaction.tree.get(resource);
+        if ((node != null) && node.isDirectory()) {
+            throw new SubversionException("directory can not be overwritten with a file: " + resource, HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+        requireParentDirectory(transaction, resource);
+        final SortedMap<Key, String> properties = (node == null) ? new TreeMap<>() : new TreeMap<>(node.properties);
+        transaction.tree.put(resource, new Node(content, PENDING, properties));
+        transaction.change(resource, (node == null) ? 'A' : 'M');
+    }
+
+    private void requireParentDirectory(final Transaction transaction, final Resource resource) {
+        final Node parent = transaction.tree.get(resource.getParent());
+        if ((parent == null) || !parent.isDirectory() || Resource.ROOT.equals(resource)) {
+            throw new SubversionException("parent directory does not exist: " + resource, HttpStatus.SC_CONFLICT);
+        }
+    }
+
+    synchronized void setMessage(final String id, final String message) {
+        getTransaction(id).message = message;
+    }
+
+    private boolean touches(final Commit commit, final Resource resource) {
+        for (final Resource changed : commit.changes.keySet()) {
+            if (isAncestorOrSelf(resource, changed)) {
+                return true;
+            }
+        }
+        return (findOrigin(commit, resource) != null);
+    }
+
+    synchronized void unlock(final Resource resource, final String token, final boolean force) {
+        final Lock lock = locks.get(resource);
+        if (lock == null) {
+            throw new SubversionException("resource is not locked: " + resource, HttpStatus.SC_CONFLICT);
+        }
+        if (!lock.token.equals(token) && !force) {
+            throw new SubversionException("lock token does not match: " + resource, HttpStatus.SC_FORBIDDEN);
+        }
+        locks.remove(resource);
+    }
+}
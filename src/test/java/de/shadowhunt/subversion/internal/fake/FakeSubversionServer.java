@@ -0,0 +1,473 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.fake;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Resource;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestFactory;
+import org.apache.http.RequestLine;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.DefaultBHttpServerConnectionFactory;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.apache.http.impl.io.DefaultHttpRequestParserFactory;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+
+/**
+ * In-process stand-in for an Apache httpd with mod_dav_svn, serving a single in-memory repository below {@link #getRepositoryUri()}. It speaks enough WebDAV/DeltaV
+ * (HTTPv1) and the HTTPv2 extensions to run all operations of the library offline, and can simulate slow networks with a per request latency and a bandwidth limit as well as servers and proxies that
+ * corrupt file contents or ignore, break off or shorten range responses.
+ * <p>
+ * Not supported: authentication, svndiff responses (delta downloads are answered with the full text) and any report the library does not use.
+ */
+public final class FakeSubversionServer implements Closeable {
+
+    /**
+     * The default {@link HttpRequestFactory} rejects all WebDAV/DeltaV methods, here every request may carry a body.
+     */
+    private static final class AnyMethodRequestFactory implements HttpRequestFactory {
+
+        @Override
+        public HttpRequest newHttpRequest(final RequestLine requestline) {
+            return new BasicHttpEntityEnclosingRequest(requestline);
+        }
+
+        @Override
+        public HttpRequest newHttpRequest(final String method, final String uri) {
+            return new BasicHttpEntityEnclosingRequest(method, uri);
+        }
+    }
+
+    /**
+     * Declares the complete content but breaks off the connection after half of it, like a connection that is reset while the response is transferred.
+     */
+    private final class BrokenEntity extends ThrottledEntity {
+
+        BrokenEntity(final byte[] content, final ContentType contentType) {
+            super(content, contentType);
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            final int length = content.length / 2;
+            throttle(length);
+            output.write(content, 0, length);
+            output.flush();
+            throw new IOException("connection broken off by the fake server");
+        }
+    }
+
+    private class ThrottledEntity extends AbstractHttpEntity {
+
+        protected final byte[] content;
+
+        ThrottledEntity(final byte[] content, final ContentType contentType) {
+            this.content = content;
+            setContentType(contentType.toString());
+        }
+
+        @Override
+        public InputStream getContent() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public long getContentLength() {
+            return content.length;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            for (int offset = 0; offset < content.length; offset += CHUNK_SIZE) {
+                final int length = Math.min(CHUNK_SIZE, content.length - offset);
+                throttle(length);
+                output.write(content, offset, length);
+            }
+        }
+    }
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    static final Resource MOUNT = Resource.create("/svn/test");
+
+    private static boolean take(final AtomicInteger remaining) {
+        return remaining.getAndUpdate(n -> (n > 0) ? (n - 1) : 0) > 0;
+    }
+
+    private volatile long bandwidth = 0L;
+
+    private final Map<String, Runnable> beforeNext = new ConcurrentHashMap<>();
+
+    private final AtomicInteger brokenRanges = new AtomicInteger();
+
+    private final AtomicInteger corruptedContents = new AtomicInteger();
+
+    private volatile long latency = 0L;
+
+    private volatile boolean listReportSupported = true;
+
+    private volatile boolean rangeSupported = true;
+
+    private final FakeRepository repository = new FakeRepository();
+
+    private final URI repositoryUri;
+
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+
+    private final HttpServer server;
+
+    private final AtomicInteger shortenedRanges = new AtomicInteger();
+
+    /**
+     * Starts a new server on a random local port, the repository only contains the empty root directory.
+     *
+     * @param version
+     *            protocol the server announces: {@link ProtocolVersion#HTTP_V1} servers reject all HTTPv2 resources, {@link ProtocolVersion#HTTP_V2} servers support both
+     *
+     * @throws IOException
+     *             if the server can not be started
+     */
+    public FakeSubversionServer(final ProtocolVersion version) throws IOException {
+        Validate.notNull(version, "version must not be null");
+
+        final FakeDavHandler handler = new FakeDavHandler(this, repository, version);
+        final DefaultHttpRequestParserFactory parserFactory = new DefaultHttpRequestParserFactory(null, new AnyMethodRequestFactory());
+        final InetAddress loopback = InetAddress.getLoopbackAddress();
+        server = ServerBootstrap.bootstrap() //
+                .setLocalAddress(loopback) //
+                .setListenerPort(0) //
+                .setServerInfo("Apache/2.4 (fake) SVN/1.9") //
+                .setSocketConfig(SocketConfig.custom().setSoTimeout(60_000).setTcpNoDelay(true).build()) //
+                .setConnectionFactory(new DefaultBHttpServerConnectionFactory(ConnectionConfig.DEFAULT, parserFactory, null)) //
+                .registerHandler("*", (request, response, context) -> {
+                    final String method = request.getRequestLine().getMethod().toUpperCase(Locale.US);
+                    requestCounts.computeIfAbsent(method, m -> new LongAdder()).increment();
+                    final Runnable action = beforeNext.remove(method);
+                    if (action != null) {
+                        action.run();
+                    }
+                    delay();
+                    handler.handle(request, response, context);
+                }) //
+                .create();
+        server.start();
+        repositoryUri = URI.create("http://" + loopback.getHostAddress() + ':' + server.getLocalPort() + MOUNT.getValue());
+    }
+
+    /**
+     * Commits a new file (and all missing parent directories) directly into the repository, without any request being counted.
+     *
+     * @param resource
+     *            absolute path of the file inside the repository
+     * @param content
+     *            content of the file
+     */
+    public void add(final Resource resource, final byte[] content) {
+        Validate.notNull(resource, "resource must not be null");
+        Validate.notNull(content, "content must not be null");
+
+        final String id = repository.beginTransaction();
+        createParents(id, resource.getParent());
+        repository.put(id, resource, content.clone());
+        repository.setMessage(id, "add " + resource);
+        repository.merge(id, null, Collections.emptyMap(), false);
+    }
+
+    /**
+     * Runs the action once, right before the next request with the given method is processed, e.g. to commit a concurrent change between two requests of the library.
+     *
+     * @param method
+     *            http method (e.g. {@code GET})
+     * @param action
+     *            action to run before the request is processed
+     */
+    public void beforeNext(final String method, final Runnable action) {
+        Validate.notNull(method, "method must not be null");
+        Validate.notNull(action, "action must not be null");
+        beforeNext.put(method.toUpperCase(Locale.US), action);
+    }
+
+    /**
+     * Breaks off the connection in the middle of the next range responses, the response headers have already been sent then.
+     *
+     * @param count
+     *            number of range responses to break off
+     */
+    public void breakRanges(final int count) {
+        Validate.isTrue(count >= 0, "count must not be negative: {0}", count);
+        brokenRanges.set(count);
+    }
+
+    @Override
+    public void close() {
+        server.shutdown(1L, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Flips the bits of the first byte of the next file contents (complete or range), like a broken proxy that damages the transferred content.
+     *
+     * @param count
+     *            number of file contents to corrupt
+     */
+    public void corruptContents(final int count) {
+        Validate.isTrue(count >= 0, "count must not be negative: {0}", count);
+        corruptedContents.set(count);
+    }
+
+    HttpEntity createEntity(final byte[] content, final ContentType contentType) {
+        return new ThrottledEntity(content, contentType);
+    }
+
+    HttpEntity createRangeEntity(final byte[] content, final ContentType contentType) {
+        if (take(brokenRanges)) {
+            return new BrokenEntity(content, contentType);
+        }
+        return new ThrottledEntity(content, contentType);
+    }
+
+    private void createParents(final String id, final Resource resource) {
+        if (Resource.ROOT.equals(resource)) {
+            return;
+        }
+        createParents(id, resource.getParent());
+        final FakeRepository.Node node = repository.getNode(repository.getYoungestRevision(), resource);
+        if (node == null) {
+            repository.mkdir(id, resource);
+        }
+    }
+
+    private void delay() throws InterruptedIOException {
+        final long nanos = latency;
+        if (nanos > 0L) {
+            sleep(nanos);
+        }
+    }
+
+    /**
+     * Returns the {@link URI} of the repository root, append a path to use a base path within the repository.
+     *
+     * @return the {@link URI} of the repository root
+     */
+    public URI getRepositoryUri() {
+        return repositoryUri;
+    }
+
+    /**
+     * Returns the number of requests the server has answered since it was started or {@link #resetRequestCounts()} has been called.
+     *
+     * @return the number of answered requests
+     */
+    public long getRequestCount() {
+        long count = 0L;
+        for (final LongAdder adder : requestCounts.values()) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of requests with the given method the server has answered since it was started or {@link #resetRequestCounts()} has been called.
+     *
+     * @param method
+     *            http method (e.g. {@code PROPFIND})
+     *
+     * @return the number of answered requests with the given method
+     */
+    public long getRequestCount(final String method) {
+        final LongAdder adder = requestCounts.get(method.toUpperCase(Locale.US));
+        return (adder == null) ? 0L : adder.sum();
+    }
+
+    boolean isListReportSupported() {
+        return listReportSupported;
+    }
+
+    boolean isRangeSupported() {
+        return rangeSupported;
+    }
+
+    /**
+     * Commits a new directory (and all missing parent directories) directly into the repository, without any request being counted.
+     *
+     * @param resource
+     *            absolute path of the directory inside the repository
+     */
+    public void mkdir(final Resource resource) {
+        Validate.notNull(resource, "resource must not be null");
+
+        final String id = repository.beginTransaction();
+        createParents(id, resource);
+        repository.setMessage(id, "mkdir " + resource);
+        repository.merge(id, null, Collections.emptyMap(), false);
+    }
+
+    byte[] readEntity(final HttpRequest request) throws IOException {
+        if (!(request instanceof HttpEntityEnclosingRequest)) {
+            return new byte[0];
+        }
+        final HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+        if (entity == null) {
+            return new byte[0];
+        }
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (final InputStream content = entity.getContent()) {
+            final byte[] chunk = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = content.read(chunk)) >= 0) {
+                throttle(read);
+                buffer.write(chunk, 0, read);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Sets all request counters back to zero.
+     */
+    public void resetRequestCounts() {
+        requestCounts.clear();
+    }
+
+    /**
+     * Limits the transfer rate of request and response bodies, each direction is throttled on its own.
+     *
+     * @param bytesPerSecond
+     *            maximal transfer rate, {@code 0} for unlimited
+     */
+    public void setBandwidth(final long bytesPerSecond) {
+        Validate.isTrue(bytesPerSecond >= 0L, "bytesPerSecond must not be negative: {0}", bytesPerSecond);
+        bandwidth = bytesPerSecond;
+    }
+
+    /**
+     * Delays every request before it is processed, simulating the round trip time to a remote server.
+     *
+     * @param duration
+     *            delay per request, {@code 0} for none
+     * @param unit
+     *            {@link TimeUnit} of the duration
+     */
+    public void setLatency(final long duration, final TimeUnit unit) {
+        Validate.isTrue(duration >= 0L, "duration must not be negative: {0}", duration);
+        Validate.notNull(unit, "unit must not be null");
+        latency = unit.toNanos(duration);
+    }
+
+    /**
+     * Controls whether the server announces and answers the {@code svn:list-report} (mod_dav_svn 1.10 and newer), enabled by default.
+     *
+     * @param supported
+     *            {@code true} to announce and answer the report
+     */
+    public void setListReportSupported(final boolean supported) {
+        listReportSupported = supported;
+    }
+
+    /**
+     * Controls whether the server answers range requests with the requested byte range, enabled by default. Otherwise the complete file is sent, like most proxies and static file servers do for unknown range units.
+     *
+     * @param supported
+     *            {@code true} to answer range requests with partial content
+     */
+    public void setRangeSupported(final boolean supported) {
+        rangeSupported = supported;
+    }
+
+    /**
+     * Answers the next range requests with only the first half of the requested range (but a valid content range), like a server that limits the size of partial responses.
+     *
+     * @param count
+     *            number of range responses to shorten
+     */
+    public void shortenRanges(final int count) {
+        Validate.isTrue(count >= 0, "count must not be negative: {0}", count);
+        shortenedRanges.set(count);
+    }
+
+    private void sleep(final long nanos) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while simulating a slow network");
+        }
+    }
+
+    private void throttle(final int bytes) throws InterruptedIOException {
+        final long bytesPerSecond = bandwidth;
+        if (bytesPerSecond > 0L) {
+            sleep((bytes * TimeUnit.SECONDS.toNanos(1L)) / bytesPerSecond);
+        }
+    }
+
+    boolean takeCorruptedContent() {
+        return take(corruptedContents);
+    }
+
+    boolean takeShortenedRange() {
+        return take(shortenedRanges);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("FakeSubversionServer [repositoryUri=");
+        builder.append(repositoryUri);
+        builder.append(", latency=");
+        builder.append(TimeUnit.NANOSECONDS.toMillis(latency));
+        builder.append("ms, bandwidth=");
+        builder.append(bandwidth);
+        builder.append("B/s]");
+        return builder.toString();
+    }
+}
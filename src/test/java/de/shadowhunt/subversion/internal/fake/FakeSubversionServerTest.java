@@ -0,0 +1,161 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.fake;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import de.shadowhunt.subversion.Info;
+import de.shadowhunt.subversion.LogEntry;
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.ResourceProperty;
+import de.shadowhunt.subversion.ResourceProperty.Key;
+import de.shadowhunt.subversion.ResourceProperty.Type;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction;
+import de.shadowhunt.subversion.View;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FakeSubversionServerTest {
+
+    private static final Resource PREFIX = Resource.create("/fake");
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void bandwidth() throws IOException {
+        final Repository repository = connect(ProtocolVersion.HTTP_V2);
+        final Resource resource = PREFIX.append(Resource.create("/large.bin"));
+        server.add(resource, new byte[16 * 1024]);
+        final View view = repository.createView();
+
+        server.setBandwidth(32 * 1024);
+        final long start = System.nanoTime();
+        try (final InputStream download = repository.download(view, resource, Revision.HEAD)) {
+            Assert.assertEquals("content length must match", 16 * 1024, IOUtils.toByteArray(download).length);
+        }
+        final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertTrue("download must be throttled: " + duration + "ms", (duration >= 400L));
+    }
+
+    private Repository connect(final ProtocolVersion version) throws IOException {
+        server = new FakeSubversionServer(version);
+        return Helper.connect(server, RepositoryConfiguration.DEFAULT);
+    }
+
+    @Test
+    public void latency() throws IOException {
+        final Repository repository = connect(ProtocolVersion.HTTP_V2);
+        server.setLatency(50L, TimeUnit.MILLISECONDS);
+        server.resetRequestCounts();
+
+        final long start = System.nanoTime();
+        repository.createView(true);
+        final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertEquals("number of requests must match", 1L, server.getRequestCount());
+        Assert.assertEquals("number of PROPFIND requests must match", 1L, server.getRequestCount("propfind"));
+        Assert.assertTrue("request must be delayed: " + duration + "ms", (duration >= 50L));
+    }
+
+    @Test
+    public void locking() throws IOException {
+        final Repository repository = connect(ProtocolVersion.HTTP_V2);
+        final Resource resource = PREFIX.append(Resource.create("/locked.txt"));
+        server.add(resource, "content".getBytes(StandardCharsets.UTF_8));
+
+        repository.lock(resource, false);
+        final Info locked = repository.info(repository.createView(), resource, Revision.HEAD);
+        Assert.assertTrue("resource must be locked", locked.isLocked());
+
+        final Transaction transaction = repository.createTransaction();
+        repository.add(transaction, resource, false, "changed".getBytes(StandardCharsets.UTF_8));
+        repository.commit(transaction, "change locked", true);
+
+        final Info unlocked = repository.info(repository.createView(), resource, Revision.HEAD);
+        Assert.assertFalse("commit must release the lock", unlocked.isLocked());
+    }
+
+    @Test
+    public void protocolVersionHttpv1() throws IOException {
+        final Repository repository = connect(ProtocolVersion.HTTP_V1);
+        Assert.assertEquals("protocol version must match", ProtocolVersion.HTTP_V1, repository.getProtocolVersion());
+    }
+
+    @Test
+    public void protocolVersionHttpv2() throws IOException {
+        final Repository repository = connect(ProtocolVersion.HTTP_V2);
+        Assert.assertEquals("protocol version must match", ProtocolVersion.HTTP_V2, repository.getProtocolVersion());
+    }
+
+    @Test
+    public void roundTripHttpv1() throws IOException {
+        roundTrip(connect(ProtocolVersion.HTTP_V1));
+    }
+
+    @Test
+    public void roundTripHttpv2() throws IOException {
+        roundTrip(connect(ProtocolVersion.HTTP_V2));
+    }
+
+    private void roundTrip(final Repository repository) throws IOException {
+        final Resource source = PREFIX.append(Resource.create("/a/b/file.txt"));
+        final Resource target = PREFIX.append(Resource.create("/c/file.txt"));
+        final ResourceProperty property = new ResourceProperty(new Key(Type.SUBVERSION_CUSTOM, "team:name"), "value");
+
+        final Transaction add = repository.createTransaction();
+        repository.add(add, source, true, "first".getBytes(StandardCharsets.UTF_8));
+        repository.propertiesSet(add, source, property);
+        repository.commit(add, "add", true);
+
+        final Transaction move = repository.createTransaction();
+        repository.move(move, source, target, true);
+        repository.commit(move, "move", true);
+
+        final View view = repository.createView();
+        Assert.assertFalse("source must be moved", repository.exists(view, source, Revision.HEAD));
+        try (final InputStream download = repository.download(view, target, Revision.HEAD)) {
+            Assert.assertEquals("content must match", "first", IOUtils.toString(download, StandardCharsets.UTF_8));
+        }
+
+        final Info info = repository.info(view, target, Revision.HEAD);
+        Assert.assertArrayEquals("properties must be copied", new ResourceProperty[] { property }, info.getProperties());
+        Assert.assertEquals("md5 must match", Optional.of("8b04d5e3775d298e78455efc5ca404d5"), info.getMd5());
+
+        final List<LogEntry> log = repository.log(view, target, Revision.INITIAL, Revision.HEAD, 0, false);
+        Assert.assertEquals("log must follow the copy", 2, log.size());
+        Assert.assertEquals("first message", "add", log.get(0).getMessage());
+        Assert.assertEquals("second message", "move", log.get(1).getMessage());
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.fake;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.RepositoryFactory;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.http.client.SubversionRequestExecutor;
+import de.shadowhunt.subversion.http.client.SubversionRequestRetryHandler;
+import de.shadowhunt.subversion.internal.AbstractRepositoryDownloadIT;
+import de.shadowhunt.subversion.internal.AbstractRepositoryExistsIT;
+import de.shadowhunt.subversion.internal.AbstractRepositoryInfoIT;
+import de.shadowhunt.subversion.internal.AbstractRepositoryListIT;
+import de.shadowhunt.subversion.internal.AbstractRepositoryLogIT;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.protocol.BasicHttpContext;
+
+/**
+ * Starts {@link FakeSubversionServer}s with the fixtures of the read only integration tests and connects {@link Repository}s to them.
+ */
+public final class Helper {
+
+    public static Repository connect(final FakeSubversionServer server, final RepositoryConfiguration configuration, final HttpRequestInterceptor... interceptors) {
+        final HttpClientBuilder builder = HttpClientBuilder.create();
+        for (final HttpRequestInterceptor interceptor : interceptors) {
+            builder.addInterceptorFirst(interceptor);
+        }
+        builder.setRetryHandler(new SubversionRequestRetryHandler());
+        builder.setRequestExecutor(new SubversionRequestExecutor());
+        final HttpClient client = builder.build();
+
+        final RepositoryFactory factory = RepositoryFactory.getInstance();
+        return factory.createRepository(server.getRepositoryUri(), client, new BasicHttpContext(), configuration);
+    }
+
+    public static FakeSubversionServer start(final ProtocolVersion version) {
+        final FakeSubversionServer server;
+        try {
+            server = new FakeSubversionServer(version);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // fixtures the read only tests expect from the dumped test repository
+        final byte[] content = "test".getBytes(StandardCharsets.UTF_8);
+        final Resource file = Resource.create("/file.txt");
+        server.add(AbstractRepositoryDownloadIT.PREFIX.append(file), content);
+        server.add(AbstractRepositoryExistsIT.PREFIX.append(file), content);
+        server.add(AbstractRepositoryInfoIT.PREFIX.append(file), content);
+        server.add(AbstractRepositoryListIT.PREFIX.append(Resource.create("/folder/file.txt")), content);
+        server.add(AbstractRepositoryLogIT.PREFIX.append(file), content);
+        return server;
+    }
+
+    private Helper() {
+        // prevent instantiation
+    }
+}
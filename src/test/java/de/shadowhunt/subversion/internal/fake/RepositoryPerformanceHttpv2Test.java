@@ -0,0 +1,44 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.fake;
+
+import java.util.UUID;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.internal.AbstractRepositoryPerformanceIT;
+import org.junit.AfterClass;
+
+public class RepositoryPerformanceHttpv2Test extends AbstractRepositoryPerformanceIT {
+
+    private static final CountingHttpRequestInterceptor INTERCEPTOR = new CountingHttpRequestInterceptor();
+
+    private static final FakeSubversionServer SERVER = Helper.start(ProtocolVersion.HTTP_V2);
+
+    private static final Repository REPOSITORY = Helper.connect(SERVER, RepositoryConfiguration.DEFAULT, INTERCEPTOR);
+
+    @AfterClass
+    public static void afterClass() {
+        SERVER.close();
+    }
+
+    public RepositoryPerformanceHttpv2Test() {
+        super(REPOSITORY, INTERCEPTOR, UUID.randomUUID());
+    }
+}
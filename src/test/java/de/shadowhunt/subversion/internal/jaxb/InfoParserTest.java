@@ -0,0 +1,135 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.jaxb;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import de.shadowhunt.subversion.LockToken;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.ResourceProperty;
+import de.shadowhunt.subversion.ResourceProperty.Key;
+import de.shadowhunt.subversion.ResourceProperty.Type;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.SubversionException;
+import de.shadowhunt.subversion.internal.InfoImpl;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InfoParserTest {
+
+    private static final Resource BASE_PATH = Resource.create("/base");
+
+    private static final String FOOTER = "</D:multistatus>";
+
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"utf-8\"?>" //
+            + "<D:multistatus xmlns:D=\"DAV:\" xmlns:ns0=\"DAV:\">";
+
+    private static final String NAMESPACES = " xmlns:C=\"http://subversion.tigris.org/xmlns/custom/\"" //
+            + " xmlns:S=\"http://subversion.tigris.org/xmlns/svn/\"" //
+            + " xmlns:lp1=\"DAV:\" xmlns:lp2=\"http://subversion.tigris.org/xmlns/dav/\"";
+
+    private static List<InfoImpl> parse(final String xml) throws Exception {
+        final InputStream stream = IOUtils.toInputStream(xml, StandardCharsets.UTF_8);
+        return InfoParser.parse(stream, BASE_PATH);
+    }
+
+    @Test
+    public void testParse_directory() throws Exception {
+        final String xml = HEADER //
+                + "<D:response" + NAMESPACES + "><D:href>/svn/test/!svn/bc/5/base/dir/</D:href><D:propstat><D:prop>" //
+                + "<lp1:resourcetype><D:collection/></lp1:resourcetype>" //
+                + "<lp1:version-name>5</lp1:version-name>" //
+                + "<lp2:baseline-relative-path>base/dir</lp2:baseline-relative-path>" //
+                + "<lp2:repository-uuid>f6e7c0cd-3b70-4e6e-a2a1-6d6e8a5ea1f5</lp2:repository-uuid>" //
+                + "</D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat></D:response>" //
+                + FOOTER;
+
+        final List<InfoImpl> infos = parse(xml);
+        Assert.assertEquals("one info", 1, infos.size());
+        final InfoImpl info = infos.get(0);
+        Assert.assertTrue("directory", info.isDirectory());
+        Assert.assertEquals("resource", Resource.create("/dir"), info.getResource());
+        Assert.assertEquals("revision", Revision.create(5), info.getRevision());
+        Assert.assertEquals("uuid", UUID.fromString("f6e7c0cd-3b70-4e6e-a2a1-6d6e8a5ea1f5"), info.getRepositoryId());
+        Assert.assertEquals("no properties", 0, info.getProperties().length);
+    }
+
+    @Test
+    public void testParse_file() throws Exception {
+        final String xml = HEADER //
+                + "<D:response" + NAMESPACES + "><D:href>/svn/test/!svn/bc/7/base/file.txt</D:href><D:propstat><D:prop>" //
+                + "<C:foo:bar>a &amp; b</C:foo:bar>" //
+                + "<C:plain/>" //
+                + "<S:mime-type>text/plain</S:mime-type>" //
+                + "<lp1:resourcetype/>" //
+                + "<lp2:md5-checksum>d41d8cd98f00b204e9800998ecf8427e</lp2:md5-checksum>" //
+                + "<lp2:baseline-relative-path>base/file.txt</lp2:baseline-relative-path>" //
+                + "<D:lockdiscovery><D:activelock><D:locktype><D:write/></D:locktype><D:owner>owner</D:owner>" //
+                + "<D:locktoken><D:href>opaquelocktoken:1234</D:href></D:locktoken></D:activelock></D:lockdiscovery>" //
+                + "</D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat>" //
+                + "<D:propstat><D:prop><lp1:creator-displayname/></D:prop><D:status>HTTP/1.1 404 Not Found</D:status></D:propstat>" //
+                + "</D:response>" //
+                + FOOTER;
+
+        final List<InfoImpl> infos = parse(xml);
+        Assert.assertEquals("one info", 1, infos.size());
+        final InfoImpl info = infos.get(0);
+        Assert.assertFalse("file", info.isDirectory());
+        Assert.assertEquals("resource", Resource.create("/file.txt"), info.getResource());
+        Assert.assertEquals("md5", "d41d8cd98f00b204e9800998ecf8427e", info.getMd5().get());
+        Assert.assertEquals("lock token", new LockToken("opaquelocktoken:1234"), info.getLockToken().get());
+
+        final ResourceProperty[] expected = { //
+                new ResourceProperty(new Key(Type.SUBVERSION_CUSTOM, "foo:bar"), "a & b"), //
+                new ResourceProperty(new Key(Type.SUBVERSION_CUSTOM, "plain"), ""), //
+                new ResourceProperty(new Key(Type.SUBVERSION_SVN, "mime-type"), "text/plain") //
+        };
+        Assert.assertArrayEquals("properties", expected, info.getProperties());
+    }
+
+    @Test(expected = SubversionException.class)
+    public void testParse_missingProperties() throws Exception {
+        final String xml = HEADER //
+                + "<D:response><D:href>/svn/test/base/missing</D:href><D:propstat><D:prop><D:resourcetype/></D:prop>" //
+                + "<D:status>HTTP/1.1 404 Not Found</D:status></D:propstat></D:response>" //
+                + FOOTER;
+
+        parse(xml);
+    }
+
+    @Test
+    public void testParse_multipleResponses() throws Exception {
+        final StringBuilder xml = new StringBuilder(HEADER);
+        for (int i = 0; i < 3; i++) {
+            xml.append("<D:response xmlns:lp2=\"http://subversion.tigris.org/xmlns/dav/\"><D:propstat><D:prop>");
+            xml.append("<lp2:baseline-relative-path>base/").append(i).append("</lp2:baseline-relative-path>");
+            xml.append("</D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat></D:response>");
+        }
+        xml.append(FOOTER);
+
+        final List<InfoImpl> infos = parse(xml.toString());
+        Assert.assertEquals("three infos", 3, infos.size());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("resource", Resource.create("/" + i), infos.get(i).getResource());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.jaxb;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.internal.InfoImpl;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ListReportParserTest {
+
+    private static final Resource BASE_PATH = Resource.create("/base");
+
+    private static final UUID REPOSITORY_ID = UUID.fromString("f6e7c0cd-3b70-4e6e-a2a1-6d6e8a5ea1f5");
+
+    private static List<InfoImpl> parse(final String items) throws Exception {
+        final String xml = "<?xml version=\"1.0\" encoding=\"utf-8\"?>" //
+                + "<S:list-report xmlns:S=\"svn:\" xmlns:D=\"DAV:\">" + items + "</S:list-report>";
+        final InputStream stream = IOUtils.toInputStream(xml, StandardCharsets.UTF_8);
+
+        final List<InfoImpl> result = new ArrayList<>();
+        ListReportParser.parse(stream, BASE_PATH, Resource.create("/dir"), REPOSITORY_ID, result::add);
+        return result;
+    }
+
+    @Test
+    public void testParse_absolutePaths() throws Exception {
+        final List<InfoImpl> infos = parse("" //
+                + "<S:item node-kind=\"dir\" created-rev=\"3\" date=\"2019-01-02T03:04:05.123456Z\">/base/dir</S:item>" //
+                + "<S:item node-kind=\"file\" created-rev=\"2\" date=\"2019-01-02T03:04:05.123456Z\">/base/dir/a &amp; b.txt</S:item>");
+
+        Assert.assertEquals("two infos", 2, infos.size());
+
+        final InfoImpl directory = infos.get(0);
+        Assert.assertTrue("directory", directory.isDirectory());
+        Assert.assertEquals("resource", Resource.create("/dir"), directory.getResource());
+        Assert.assertEquals("revision", Revision.create(3), directory.getRevision());
+        Assert.assertEquals("uuid", REPOSITORY_ID, directory.getRepositoryId());
+        Assert.assertNotNull("creation date", directory.getCreationDate());
+
+        final InfoImpl file = infos.get(1);
+        Assert.assertFalse("file", file.isDirectory());
+        Assert.assertEquals("resource", Resource.create("/dir/a & b.txt"), file.getResource());
+        Assert.assertEquals("revision", Revision.create(2), file.getRevision());
+    }
+
+    @Test
+    public void testParse_relativePaths() throws Exception {
+        final List<InfoImpl> infos = parse("" //
+                + "<S:item node-kind=\"dir\" created-rev=\"3\"></S:item>" //
+                + "<S:item node-kind=\"file\" created-rev=\"2\">sub/file.txt</S:item>");
+
+        Assert.assertEquals("two infos", 2, infos.size());
+        Assert.assertEquals("resource", Resource.create("/dir"), infos.get(0).getResource());
+        Assert.assertEquals("resource", Resource.create("/dir/sub/file.txt"), infos.get(1).getResource());
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.jaxb;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.shadowhunt.subversion.LogEntry;
+import de.shadowhunt.subversion.Revision;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LogEntryParserTest {
+
+    private static String createLogReport(final int entries) {
+        final StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>");
+        xml.append("<S:log-report xmlns:S=\"svn:\" xmlns:D=\"DAV:\">");
+        for (int i = 1; i <= entries; i++) {
+            xml.append("<S:log-item>");
+            xml.append("<D:version-name>").append(i).append("</D:version-name>");
+            xml.append("<D:creator-displayname>author").append(i).append("</D:creator-displayname>");
+            xml.append("<S:date>2019-01-02T03:04:05.123456Z</S:date>");
+            xml.append("<D:comment> message\t").append(i).append(" </D:comment>");
+            xml.append("<S:modified-path node-kind=\"file\">/file.txt</S:modified-path>");
+            xml.append("</S:log-item>");
+        }
+        xml.append("</S:log-report>");
+        return xml.toString();
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        final InputStream stream = IOUtils.toInputStream(createLogReport(3), StandardCharsets.UTF_8);
+
+        final List<LogEntry> entries = LogEntryParser.parse(stream);
+        Assert.assertEquals("entries", 3, entries.size());
+        for (int i = 0; i < 3; i++) {
+            final LogEntry entry = entries.get(i);
+            Assert.assertEquals("revision", Revision.create(i + 1), entry.getRevision());
+            Assert.assertEquals("author", "author" + (i + 1), entry.getAuthor());
+            Assert.assertEquals("message", "message\\t" + (i + 1), entry.getMessage());
+            Assert.assertNotNull("date", entry.getDate());
+        }
+    }
+
+    @Test
+    public void testParse_abort() throws Exception {
+        final InputStream stream = IOUtils.toInputStream(createLogReport(5), StandardCharsets.UTF_8);
+
+        final List<LogEntry> entries = new ArrayList<>();
+        final boolean complete = LogEntryParser.parse(stream, entry -> {
+            entries.add(entry);
+            return entries.size() < 2;
+        });
+        Assert.assertFalse("aborted", complete);
+        Assert.assertEquals("entries", 2, entries.size());
+    }
+
+    @Test
+    public void testParse_empty() throws Exception {
+        final InputStream stream = IOUtils.toInputStream(createLogReport(0), StandardCharsets.UTF_8);
+
+        final List<LogEntry> entries = LogEntryParser.parse(stream);
+        Assert.assertTrue("no entries", entries.isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LazyReferenceTest {
+
+    @Test
+    public void createOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final LazyReference<Integer> reference = new LazyReference<>(calls::incrementAndGet, Runnable::run);
+        Assert.assertEquals("value", Integer.valueOf(1), reference.get());
+        Assert.assertEquals("value", Integer.valueOf(1), reference.get());
+        Assert.assertEquals("created once", 1, calls.get());
+    }
+
+    @Test
+    public void propagateFailure() {
+        final LazyReference<Integer> reference = new LazyReference<>(() -> {
+            throw new IllegalStateException("probe failed");
+        }, Runnable::run);
+
+        try {
+            reference.get();
+            Assert.fail("failure must be propagated");
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals("message", "probe failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void retryAfterFailure() {
+        final AtomicInteger calls = new AtomicInteger();
+        final LazyReference<Integer> reference = new LazyReference<>(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("probe failed");
+            }
+            return calls.get();
+        }, Runnable::run);
+
+        Assert.assertEquals("value of retry", Integer.valueOf(2), reference.get());
+        Assert.assertEquals("value is kept", Integer.valueOf(2), reference.get());
+        Assert.assertEquals("created twice", 2, calls.get());
+    }
+}
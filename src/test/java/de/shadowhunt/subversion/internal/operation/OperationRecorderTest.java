@@ -0,0 +1,126 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import de.shadowhunt.subversion.internal.fake.Helper;
+import de.shadowhunt.subversion.tracing.Span;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OperationRecorderTest {
+
+    private static final byte[] CONTENT = new byte[64 * 1024];
+
+    private static final Resource RESOURCE = Resource.create("/recorder/file.bin");
+
+    private Repository repository;
+
+    private FakeSubversionServer server;
+
+    private final List<Span> spans = new CopyOnWriteArrayList<>();
+
+    @After
+    public void after() {
+        server.close();
+    }
+
+    @Before
+    public void before() throws IOException {
+        server = new FakeSubversionServer(ProtocolVersion.HTTP_V2);
+        server.add(RESOURCE, CONTENT);
+        repository = Helper.connect(server, RepositoryConfiguration.DEFAULT.withSpanExporter(spans::add));
+    }
+
+    @Test
+    public void closedContentEndsSpan() throws IOException {
+        final View view = repository.createView();
+        try (final InputStream content = repository.download(view, RESOURCE, Revision.HEAD)) {
+            Assert.assertEquals("first byte", 0, content.read());
+            Assert.assertTrue("span must still be running", getSpans().isEmpty());
+        }
+        Assert.assertEquals("span must end with the content", 1, getSpans().size());
+    }
+
+    @Test
+    public void closedContentRecordsReadBytes() throws IOException {
+        final View view = repository.createView();
+        try (final InputStream content = repository.download(view, RESOURCE, Revision.HEAD)) {
+            Assert.assertEquals("first byte", 0, content.read());
+        }
+        final long bytes = getResponseBytes();
+        Assert.assertTrue("only the read bytes must be recorded: " + bytes, (bytes > 0L) && (bytes < CONTENT.length));
+    }
+
+    @Test
+    public void consumedContentEndsSpan() throws IOException {
+        final View view = repository.createView();
+        server.setBandwidth(256 * 1024);
+        final InputStream content = repository.download(view, RESOURCE, Revision.HEAD);
+        try {
+            Assert.assertTrue("span must still be running", getSpans().isEmpty());
+            Assert.assertEquals("content length", CONTENT.length, IOUtils.toByteArray(content).length);
+
+            final List<Span> downloads = getSpans();
+            Assert.assertEquals("span must end at the end of the content", 1, downloads.size());
+            final Long body = downloads.get(0).getPhases().get("body");
+            Assert.assertNotNull("body phase", body);
+            // 64 KiB at 256 KiB/s
+            Assert.assertTrue("body phase must cover the transfer: " + body, body >= 200_000_000L);
+        } finally {
+            content.close();
+        }
+        Assert.assertEquals("span must only end once", 1, getSpans().size());
+    }
+
+    @Test
+    public void consumedContentRecordsReadBytes() throws IOException {
+        final View view = repository.createView();
+        try (final InputStream content = repository.download(view, RESOURCE, Revision.HEAD)) {
+            IOUtils.toByteArray(content);
+        }
+        Assert.assertEquals("response bytes", CONTENT.length, getResponseBytes());
+    }
+
+    private long getResponseBytes() {
+        final List<Span> downloads = getSpans();
+        Assert.assertEquals("spans", 1, downloads.size());
+        final Object bytes = downloads.get(0).getAttributes().get("http.response.bytes");
+        Assert.assertNotNull("response bytes", bytes);
+        return (Long) bytes;
+    }
+
+    private List<Span> getSpans() {
+        return spans.stream().filter(span -> "GET".equals(span.getName())).collect(Collectors.toList());
+    }
+}
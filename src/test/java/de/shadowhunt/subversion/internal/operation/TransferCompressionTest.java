@@ -0,0 +1,140 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import de.shadowhunt.subversion.ReadOnlyRepository.ProtocolVersion;
+import de.shadowhunt.subversion.Repository;
+import de.shadowhunt.subversion.RepositoryConfiguration;
+import de.shadowhunt.subversion.Resource;
+import de.shadowhunt.subversion.Revision;
+import de.shadowhunt.subversion.Transaction;
+import de.shadowhunt.subversion.View;
+import de.shadowhunt.subversion.internal.fake.FakeSubversionServer;
+import de.shadowhunt.subversion.internal.fake.Helper;
+import de.shadowhunt.subversion.internal.svndiff.SvndiffInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TransferCompressionTest {
+
+    private static final String CONTENT = "content";
+
+    private static final Resource RESOURCE = Resource.create("/compression/file.txt");
+
+    private final List<String> acceptedEncodings = new CopyOnWriteArrayList<>();
+
+    private final List<byte[]> uploadedContents = new CopyOnWriteArrayList<>();
+
+    private final List<String> uploadedContentTypes = new CopyOnWriteArrayList<>();
+
+    private final HttpRequestInterceptor interceptor = (request, context) -> {
+        final Header acceptEncoding = request.getFirstHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null) {
+            acceptedEncodings.add(acceptEncoding.getValue());
+        }
+        if ("PUT".equals(request.getRequestLine().getMethod())) {
+            final HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            final Header contentType = entity.getContentType();
+            uploadedContentTypes.add((contentType == null) ? "" : contentType.getValue());
+            if (entity.isRepeatable()) {
+                // like any logging interceptor would
+                uploadedContents.add(EntityUtils.toByteArray(entity));
+            }
+        }
+    };
+
+    private FakeSubversionServer server;
+
+    @After
+    public void after() {
+        server.close();
+    }
+
+    @Before
+    public void before() {
+        acceptedEncodings.clear();
+        uploadedContents.clear();
+        uploadedContentTypes.clear();
+    }
+
+    @Test
+    public void compressionDisabled() throws IOException {
+        final Repository repository = connect(ProtocolVersion.HTTP_V2, false);
+        upload(repository);
+
+        Assert.assertTrue("identity must be requested", acceptedEncodings.contains(TransferEncoding.IDENTITY));
+        for (final String acceptedEncoding : acceptedEncodings) {
+            Assert.assertFalse("compression must not be negotiated: " + acceptedEncoding, acceptedEncoding.contains("gzip"));
+        }
+        Assert.assertFalse("content must be uploaded as is", uploadedContentTypes.get(0).startsWith(Operation.CONTENT_TYPE_SVNDIFF.getMimeType()));
+    }
+
+    @Test
+    public void compressionEnabledHttpv1() throws IOException {
+        final Repository repository = connect(ProtocolVersion.HTTP_V1, true);
+        upload(repository);
+
+        Assert.assertTrue("compression must be negotiated", acceptedEncodings.contains(TransferEncoding.ACCEPTED_ENCODINGS));
+        Assert.assertFalse("svndiff version 1 must not be sent to servers that may be older than 1.4", uploadedContentTypes.get(0).startsWith(Operation.CONTENT_TYPE_SVNDIFF.getMimeType()));
+    }
+
+    @Test
+    public void compressionEnabledHttpv2() throws IOException {
+        final Repository repository = connect(ProtocolVersion.HTTP_V2, true);
+        upload(repository);
+
+        Assert.assertTrue("compression must be negotiated", acceptedEncodings.contains(TransferEncoding.ACCEPTED_ENCODINGS));
+        Assert.assertTrue("content must be uploaded as svndiff", uploadedContentTypes.get(0).startsWith(Operation.CONTENT_TYPE_SVNDIFF.getMimeType()));
+
+        try (final InputStream decoded = new SvndiffInputStream(new ByteArrayInputStream(new byte[0]), new ByteArrayInputStream(uploadedContents.get(0)))) {
+            Assert.assertEquals("svndiff content must be readable", CONTENT, IOUtils.toString(decoded, StandardCharsets.UTF_8));
+        }
+    }
+
+    private Repository connect(final ProtocolVersion version, final boolean compressionEnabled) throws IOException {
+        server = new FakeSubversionServer(version);
+        return Helper.connect(server, RepositoryConfiguration.DEFAULT.withCompressionEnabled(compressionEnabled), interceptor);
+    }
+
+    private void upload(final Repository repository) throws IOException {
+        final Transaction transaction = repository.createTransaction();
+        repository.add(transaction, RESOURCE, true, CONTENT.getBytes(StandardCharsets.UTF_8));
+        repository.commit(transaction, "upload", true);
+
+        final View view = repository.createView();
+        try (final InputStream download = repository.download(view, RESOURCE, Revision.HEAD)) {
+            Assert.assertEquals("content must match", CONTENT, IOUtils.toString(download, StandardCharsets.UTF_8));
+        }
+    }
+}
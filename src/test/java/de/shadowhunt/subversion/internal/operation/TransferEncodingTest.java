@@ -0,0 +1,114 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.operation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import de.shadowhunt.subversion.internal.AbstractUploadContent;
+import de.shadowhunt.subversion.internal.TransferStatistics;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.StringEntity;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TransferEncodingTest {
+
+    private static final String CONTENT = StringUtils.repeat("<D:response><D:href>/svn/test/trunk/file.txt</D:href></D:response>", 100);
+
+    private static void assertDecoded(final String encoding) throws Exception {
+        final ByteArrayEntity entity = compressed(encoding);
+        final TransferStatistics statistics = new TransferStatistics();
+        try (final InputStream content = TransferEncoding.decode(entity, statistics)) {
+            Assert.assertEquals("content must match", CONTENT, IOUtils.toString(content, StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals("raw bytes", CONTENT.length(), statistics.getReceivedRawBytes());
+        Assert.assertEquals("wire bytes", entity.getContentLength(), statistics.getReceivedWireBytes());
+        Assert.assertTrue("content is compressed", statistics.getReceivedWireBytes() < statistics.getReceivedRawBytes());
+    }
+
+    private static ByteArrayEntity compressed(final String encoding) throws Exception {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (final OutputStream output = "gzip".equals(encoding) ? new GZIPOutputStream(buffer) : new DeflaterOutputStream(buffer)) {
+            output.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        final ByteArrayEntity entity = new ByteArrayEntity(buffer.toByteArray());
+        entity.setContentEncoding(encoding);
+        return entity;
+    }
+
+    @Test
+    public void decodeDecompressedByClient() throws Exception {
+        final TransferStatistics statistics = new TransferStatistics();
+        try (final InputStream content = TransferEncoding.decode(new GzipDecompressingEntity(compressed("gzip")), statistics)) {
+            Assert.assertEquals("content must match", CONTENT, IOUtils.toString(content, StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals("raw bytes", CONTENT.length(), statistics.getReceivedRawBytes());
+        Assert.assertEquals("compressed size is unknown", 0L, statistics.getReceivedWireBytes());
+    }
+
+    @Test
+    public void decodeDeflate() throws Exception {
+        assertDecoded("deflate");
+    }
+
+    @Test
+    public void decodeGzip() throws Exception {
+        assertDecoded("gzip");
+    }
+
+    @Test
+    public void decodeIdentity() throws Exception {
+        final TransferStatistics statistics = new TransferStatistics();
+        try (final InputStream content = TransferEncoding.decode(new StringEntity(CONTENT, StandardCharsets.UTF_8), statistics)) {
+            Assert.assertEquals("content must match", CONTENT, IOUtils.toString(content, StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals("raw bytes", CONTENT.length(), statistics.getReceivedRawBytes());
+        Assert.assertEquals("wire bytes", CONTENT.length(), statistics.getReceivedWireBytes());
+    }
+
+    @Test
+    public void meterSvndiff() throws Exception {
+        final TransferStatistics statistics = new TransferStatistics();
+        final HttpEntity entity = TransferEncoding.meter(SvndiffEntity.fullText(AbstractUploadContent.of(IOUtils.toInputStream(CONTENT, StandardCharsets.UTF_8)), 1), statistics);
+        Assert.assertEquals("content type", Operation.CONTENT_TYPE_SVNDIFF.toString(), entity.getContentType().getValue());
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        entity.writeTo(output);
+        Assert.assertEquals("raw bytes", CONTENT.length(), statistics.getSentRawBytes());
+        Assert.assertEquals("wire bytes", output.size(), statistics.getSentWireBytes());
+        Assert.assertTrue("content is compressed", statistics.getSentWireBytes() < statistics.getSentRawBytes());
+    }
+
+    @Test
+    public void meterUncompressed() throws Exception {
+        final TransferStatistics statistics = new TransferStatistics();
+        final HttpEntity entity = TransferEncoding.meter(new StringEntity(CONTENT, StandardCharsets.UTF_8), statistics);
+        entity.writeTo(new ByteArrayOutputStream());
+        Assert.assertEquals("raw bytes", CONTENT.length(), statistics.getSentRawBytes());
+        Assert.assertEquals("wire bytes", CONTENT.length(), statistics.getSentWireBytes());
+    }
+}
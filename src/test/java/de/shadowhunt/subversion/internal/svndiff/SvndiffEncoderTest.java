@@ -0,0 +1,217 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.svndiff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SvndiffEncoderTest {
+
+    // minimal svndiff interpreter, source views are addressed directly instead of being read sequentially
+    private static byte[] apply(final byte[] source, final byte[] delta) throws DataFormatException {
+        final ByteBuffer input = ByteBuffer.wrap(delta);
+        Assert.assertEquals("header", 'S', input.get());
+        Assert.assertEquals("header", 'V', input.get());
+        Assert.assertEquals("header", 'N', input.get());
+        final int version = input.get();
+
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        long lastSourceOffset = 0L;
+        long lastSourceEnd = 0L;
+        while (input.hasRemaining()) {
+            final long sourceOffset = readInt(input);
+            final int sourceLength = (int) readInt(input);
+            final int targetLength = (int) readInt(input);
+            final int instructionLength = (int) readInt(input);
+            final int newDataLength = (int) readInt(input);
+            final byte[] instructions = section(input, instructionLength, version);
+            final byte[] newData = section(input, newDataLength, version);
+            Assert.assertTrue("source view must not slide backwards", (sourceOffset >= lastSourceOffset) && ((sourceOffset + sourceLength) >= lastSourceEnd));
+            Assert.assertTrue("source view must not leave gaps", sourceOffset <= lastSourceEnd);
+            Assert.assertTrue("window size", (sourceLength <= Svndiff.WINDOW_SIZE) && (targetLength <= Svndiff.WINDOW_SIZE));
+            lastSourceOffset = sourceOffset;
+            lastSourceEnd = sourceOffset + sourceLength;
+
+            final ByteBuffer instructionBuffer = ByteBuffer.wrap(instructions);
+            final ByteArrayOutputStream window = new ByteArrayOutputStream();
+            int newPosition = 0;
+            while (instructionBuffer.hasRemaining()) {
+                final int first = instructionBuffer.get() & 0xFF;
+                final int instruction = first >> 6;
+                int length = first & 0x3F;
+                if (length == 0) {
+                    length = (int) readInt(instructionBuffer);
+                }
+                if (instruction == Svndiff.INSTRUCTION_SOURCE) {
+                    final int offset = (int) readInt(instructionBuffer);
+                    Assert.assertTrue("copy inside source view", (offset + length) <= sourceLength);
+                    window.write(source, (int) sourceOffset + offset, length);
+                } else {
+                    Assert.assertEquals("only source and new data instructions are generated", Svndiff.INSTRUCTION_NEW, instruction);
+                    window.write(newData, newPosition, length);
+                    newPosition += length;
+                }
+            }
+            Assert.assertEquals("all new data is used", newData.length, newPosition);
+            Assert.assertEquals("target view is filled", targetLength, window.size());
+            target.write(window.toByteArray(), 0, window.size());
+        }
+        return target.toByteArray();
+    }
+
+    private static byte[] encode(final byte[] source, final byte[] target, final int version) throws IOException {
+        final ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        final long written = new SvndiffEncoder(version).encode(new ByteArrayInputStream(source), new ByteArrayInputStream(target), delta);
+        Assert.assertEquals("written bytes", delta.size(), written);
+        return delta.toByteArray();
+    }
+
+    private static byte[] random(final long seed, final int length) {
+        final byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static long readInt(final ByteBuffer input) {
+        long value = 0L;
+        byte current;
+        do {
+            current = input.get();
+            value = (value << 7) | (current & 0x7F);
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+
+    private static byte[] roundTrip(final byte[] source, final byte[] target, final int version) throws Exception {
+        final byte[] delta = encode(source, target, version);
+        Assert.assertArrayEquals("target is restored", target, apply(source, delta));
+        return delta;
+    }
+
+    private static byte[] section(final ByteBuffer input, final int length, final int version) throws DataFormatException {
+        final byte[] data = new byte[length];
+        input.get(data);
+        if (version == 0) {
+            return data;
+        }
+
+        final ByteBuffer section = ByteBuffer.wrap(data);
+        final int originalLength = (int) readInt(section);
+        final byte[] original = new byte[originalLength];
+        if (section.remaining() == originalLength) {
+            section.get(original);
+            return original;
+        }
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, section.position(), section.remaining());
+            Assert.assertEquals("inflated length", originalLength, inflater.inflate(original));
+        } finally {
+            inflater.end();
+        }
+        return original;
+    }
+
+    @Test
+    public void appended() throws Exception {
+        final byte[] source = random(1L, 250_000);
+        final byte[] target = Arrays.copyOf(source, 260_000);
+        System.arraycopy(random(2L, 10_000), 0, target, 250_000, 10_000);
+        final byte[] delta = roundTrip(source, target, 0);
+        Assert.assertTrue("only the appended bytes are transferred", delta.length < 11_000);
+    }
+
+    @Test
+    public void compressed() throws Exception {
+        final byte[] source = random(1L, 50_000);
+        final byte[] target = new byte[300_000];
+        Arrays.fill(target, (byte) 'x');
+        final byte[] uncompressed = roundTrip(source, target, 0);
+        final byte[] compressed = roundTrip(source, target, 1);
+        Assert.assertTrue("new data is compressed", compressed.length < (uncompressed.length / 10));
+        Assert.assertEquals("version", 1, compressed[3]);
+    }
+
+    @Test
+    public void deleted() throws Exception {
+        final byte[] source = random(1L, 400_000);
+        final byte[] target = new byte[source.length - 1_000];
+        System.arraycopy(source, 0, target, 0, 150_000);
+        System.arraycopy(source, 151_000, target, 150_000, source.length - 151_000);
+        final byte[] delta = roundTrip(source, target, 0);
+        Assert.assertTrue("delta only contains instructions", delta.length < 1_000);
+    }
+
+    @Test
+    public void empty() throws Exception {
+        Assert.assertEquals("only header", 4, roundTrip(new byte[0], new byte[0], 0).length);
+        roundTrip(random(1L, 1_000), new byte[0], 0);
+        roundTrip(new byte[0], random(1L, 1_000), 1);
+    }
+
+    @Test
+    public void identical() throws Exception {
+        final byte[] content = random(1L, 500_000);
+        final byte[] delta = roundTrip(content, content, 0);
+        Assert.assertTrue("delta only contains instructions", delta.length < 200);
+    }
+
+    @Test
+    public void inserted() throws Exception {
+        final byte[] source = random(1L, 400_000);
+        final byte[] target = new byte[source.length + 1_000];
+        System.arraycopy(source, 0, target, 0, 150_000);
+        System.arraycopy(random(2L, 1_000), 0, target, 150_000, 1_000);
+        System.arraycopy(source, 150_000, target, 151_000, source.length - 150_000);
+        final byte[] delta = roundTrip(source, target, 0);
+        Assert.assertTrue("only the inserted bytes are transferred", delta.length < 2_000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidVersion() {
+        new SvndiffEncoder(2);
+    }
+
+    @Test
+    public void modified() throws Exception {
+        final byte[] source = random(1L, 300_000);
+        final byte[] target = source.clone();
+        for (int i = 0; i < target.length; i += 50_000) {
+            target[i] ^= 0x55;
+        }
+        final byte[] delta = roundTrip(source, target, 1);
+        Assert.assertTrue("only the modified bytes are transferred", delta.length < 500);
+    }
+
+    @Test
+    public void unrelated() throws Exception {
+        final byte[] source = random(1L, 200_000);
+        final byte[] target = random(2L, 200_000);
+        final byte[] delta = roundTrip(source, target, 1);
+        Assert.assertTrue("delta is not smaller than full text", delta.length >= target.length);
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.svndiff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SvndiffInputStreamTest {
+
+    private static byte[] apply(final byte[] source, final byte[] delta) throws IOException {
+        try (final InputStream target = new SvndiffInputStream(new ByteArrayInputStream(source), new ByteArrayInputStream(delta))) {
+            return IOUtils.toByteArray(target);
+        }
+    }
+
+    private static byte[] encode(final byte[] source, final byte[] target, final int version) throws IOException {
+        final SvndiffEncoder encoder = new SvndiffEncoder(version);
+        final ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        encoder.encode(new ByteArrayInputStream(source), new ByteArrayInputStream(target), delta);
+        return delta.toByteArray();
+    }
+
+    private static byte[] random(final long seed, final int length) {
+        final byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static void roundTrip(final byte[] source, final byte[] target) throws IOException {
+        for (int version = 0; version <= 1; version++) {
+            final byte[] delta = encode(source, target, version);
+            Assert.assertArrayEquals("svndiff" + version + " must restore target", target, apply(source, delta));
+        }
+    }
+
+    @Test
+    public void empty() throws Exception {
+        roundTrip(random(1L, 1000), new byte[0]);
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidHeader() throws Exception {
+        apply(new byte[0], new byte[] { 'S', 'V', 'X', 0 });
+    }
+
+    @Test
+    public void modified() throws Exception {
+        final byte[] source = random(2L, 300000);
+        final byte[] target = Arrays.copyOf(source, source.length + 5000);
+        System.arraycopy(random(3L, 5000), 0, target, source.length, 5000);
+        for (int i = 0; i < target.length; i += 10000) {
+            target[i] ^= 0x5A;
+        }
+        roundTrip(source, target);
+    }
+
+    @Test(expected = IOException.class)
+    public void shortSource() throws Exception {
+        final byte[] source = random(4L, 10000);
+        final byte[] delta = encode(source, source, 0);
+        apply(Arrays.copyOf(source, 100), delta);
+    }
+
+    @Test
+    public void targetCopy() throws Exception {
+        // one window without source view: new data "ab", then copy 6 bytes from target offset 0 (overlapping)
+        final byte[] delta = { 'S', 'V', 'N', 0, 0, 0, 8, 3, 2, (byte) 0x82, 0x46, 0, 'a', 'b' };
+        Assert.assertArrayEquals("target copy repeats pattern", "abababab".getBytes("US-ASCII"), apply(new byte[0], delta));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncated() throws Exception {
+        final byte[] source = random(5L, 10000);
+        final byte[] target = random(6L, 10000);
+        final byte[] delta = encode(source, target, 1);
+        apply(source, Arrays.copyOf(delta, delta.length / 2));
+    }
+
+    @Test
+    public void unrelated() throws Exception {
+        roundTrip(random(7L, 150000), random(8L, 250000));
+    }
+}
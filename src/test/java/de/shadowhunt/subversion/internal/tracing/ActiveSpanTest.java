@@ -0,0 +1,115 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.internal.tracing;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import de.shadowhunt.subversion.internal.WorkerPool;
+import de.shadowhunt.subversion.tracing.NoopSpanExporter;
+import de.shadowhunt.subversion.tracing.Span;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ActiveSpanTest {
+
+    @Test
+    public void children() {
+        final List<Span> spans = new CopyOnWriteArrayList<>();
+        final ActiveSpan parent = ActiveSpan.start(spans::add, "parent");
+        final ActiveSpan first = ActiveSpan.start(spans::add, "first");
+        first.attribute("key", "value");
+        first.phase("phase", 42L);
+        first.finish();
+        final ActiveSpan second = ActiveSpan.start(spans::add, "second");
+        second.finish();
+        parent.finish();
+
+        Assert.assertEquals("all spans must be exported", 3, spans.size());
+        final Span firstSpan = spans.get(0);
+        final Span secondSpan = spans.get(1);
+        final Span parentSpan = spans.get(2);
+        Assert.assertEquals("first name", "first", firstSpan.getName());
+        Assert.assertEquals("first attribute", "value", firstSpan.getAttributes().get("key"));
+        Assert.assertEquals("first phase", Long.valueOf(42L), firstSpan.getPhases().get("phase"));
+        Assert.assertEquals("first parent", parentSpan.getSpanId(), firstSpan.getParentSpanId());
+        Assert.assertEquals("second parent", parentSpan.getSpanId(), secondSpan.getParentSpanId());
+        Assert.assertNull("parent has no parent", parentSpan.getParentSpanId());
+        Assert.assertEquals("first trace", parentSpan.getTraceId(), firstSpan.getTraceId());
+        Assert.assertEquals("second trace", parentSpan.getTraceId(), secondSpan.getTraceId());
+        Assert.assertNotEquals("span ids must differ", firstSpan.getSpanId(), secondSpan.getSpanId());
+        Assert.assertTrue("parent must last longer than child", parentSpan.getDurationNanos() >= firstSpan.getDurationNanos());
+
+        final List<Span> next = new CopyOnWriteArrayList<>();
+        ActiveSpan.start(next::add, "next").finish();
+        Assert.assertNull("finished parent must no longer be current", next.get(0).getParentSpanId());
+        Assert.assertNotEquals("new trace", parentSpan.getTraceId(), next.get(0).getTraceId());
+    }
+
+    @Test
+    public void detach() {
+        final List<Span> spans = new CopyOnWriteArrayList<>();
+        final ActiveSpan parent = ActiveSpan.start(spans::add, "parent");
+        final ActiveSpan detached = ActiveSpan.start(spans::add, "detached");
+        detached.detach();
+        ActiveSpan.start(spans::add, "sibling").finish();
+        parent.finish();
+        detached.finish();
+
+        Assert.assertEquals("all spans must be exported", 3, spans.size());
+        Assert.assertEquals("sibling name", "sibling", spans.get(0).getName());
+        Assert.assertEquals("sibling parent", spans.get(1).getSpanId(), spans.get(0).getParentSpanId());
+        Assert.assertEquals("detached name", "detached", spans.get(2).getName());
+        Assert.assertEquals("detached parent", spans.get(1).getSpanId(), spans.get(2).getParentSpanId());
+
+        final List<Span> next = new CopyOnWriteArrayList<>();
+        ActiveSpan.start(next::add, "next").finish();
+        Assert.assertNull("finished detached span must not restore its parent", next.get(0).getParentSpanId());
+    }
+
+    @Test
+    public void noop() {
+        final ActiveSpan span = ActiveSpan.start(NoopSpanExporter.INSTANCE, "noop");
+        Assert.assertFalse("span must not be recorded", span.isRecording());
+
+        final List<Span> spans = new CopyOnWriteArrayList<>();
+        ActiveSpan.start(spans::add, "child").finish();
+        Assert.assertNull("noop span must not become parent", spans.get(0).getParentSpanId());
+
+        Assert.assertTrue("duration must be measured", span.finish() >= 0L);
+    }
+
+    @Test
+    public void propagate() throws Exception {
+        final List<Span> spans = new CopyOnWriteArrayList<>();
+        final ExecutorService executor = WorkerPool.create(2);
+        final ActiveSpan parent = ActiveSpan.start(spans::add, "parent");
+        try {
+            executor.submit(() -> ActiveSpan.start(spans::add, "worker").finish()).get(1, TimeUnit.MINUTES);
+        } finally {
+            parent.finish();
+            executor.shutdown();
+        }
+
+        Assert.assertEquals("all spans must be exported", 2, spans.size());
+        Assert.assertEquals("worker name", "worker", spans.get(0).getName());
+        Assert.assertEquals("worker parent", spans.get(1).getSpanId(), spans.get(0).getParentSpanId());
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.metrics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InMemoryMetricsRegistryTest {
+
+    @Test
+    public void bucketBoundaries() {
+        for (long value = 0L; value < 100_000L; value++) {
+            final HistogramSnapshot snapshot = snapshotOf(value);
+            Assert.assertEquals("percentile of single value " + value, value, snapshot.getValueAtPercentile(50.0));
+        }
+        Assert.assertEquals("last bucket", HistogramSnapshot.BUCKETS - 1, HistogramSnapshot.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void concurrentCounter() throws Exception {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                executor.execute(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        registry.counter("counter").increment();
+                        registry.histogram("histogram").record(j);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue("executor must terminate", executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        final MetricsSnapshot snapshot = registry.snapshot();
+        Assert.assertEquals("counter", 40_000L, snapshot.getCounter("counter"));
+        final HistogramSnapshot histogram = snapshot.getHistogram("histogram");
+        Assert.assertNotNull("histogram must not be null", histogram);
+        Assert.assertEquals("count", 40_000L, histogram.getCount());
+        Assert.assertEquals("sum", 4L * ((9_999L * 10_000L) / 2L), histogram.getSum());
+    }
+
+    @Test
+    public void counter() {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        Assert.assertSame("counter is reused", registry.counter("counter"), registry.counter("counter"));
+
+        registry.counter("counter").increment();
+        registry.counter("counter").increment(41L);
+
+        final MetricsSnapshot snapshot = registry.snapshot();
+        Assert.assertEquals("counter", 42L, snapshot.getCounter("counter"));
+        Assert.assertEquals("unknown counter", 0L, snapshot.getCounter("unknown"));
+    }
+
+    @Test
+    public void gauge() {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        final AtomicLong value = new AtomicLong(1L);
+        registry.gauge("gauge", value::get);
+        Assert.assertEquals("initial value", Long.valueOf(1L), registry.snapshot().getGauges().get("gauge"));
+
+        value.set(2L);
+        Assert.assertEquals("gauge is evaluated on snapshot", Long.valueOf(2L), registry.snapshot().getGauges().get("gauge"));
+
+        registry.gauge("gauge", () -> 3L);
+        Assert.assertEquals("gauge is replaced", Long.valueOf(3L), registry.snapshot().getGauges().get("gauge"));
+    }
+
+    @Test
+    public void histogram() {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        for (long value = 1L; value <= 1000L; value++) {
+            registry.histogram("histogram").record(value * 1_000_000L);
+        }
+
+        final HistogramSnapshot snapshot = registry.snapshot().getHistogram("histogram");
+        Assert.assertNotNull("histogram must not be null", snapshot);
+        Assert.assertEquals("count", 1000L, snapshot.getCount());
+        Assert.assertEquals("minimum", 1_000_000L, snapshot.getMinimum());
+        Assert.assertEquals("maximum", 1_000_000_000L, snapshot.getMaximum());
+        Assert.assertEquals("mean", 500_500_000.0, snapshot.getMean(), 0.0);
+        Assert.assertEquals("p0", 1_000_000L, snapshot.getValueAtPercentile(0.0));
+        Assert.assertEquals("p100", 1_000_000_000L, snapshot.getValueAtPercentile(100.0));
+
+        final long median = snapshot.getValueAtPercentile(50.0);
+        Assert.assertTrue("median must not be smaller than the recorded value: " + median, median >= 500_000_000L);
+        Assert.assertTrue("median must be within 12.5%: " + median, median <= 562_500_000L);
+    }
+
+    @Test
+    public void histogramEmpty() {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        registry.histogram("histogram");
+
+        final HistogramSnapshot snapshot = registry.snapshot().getHistogram("histogram");
+        Assert.assertNotNull("histogram must not be null", snapshot);
+        Assert.assertEquals("count", 0L, snapshot.getCount());
+        Assert.assertEquals("minimum", 0L, snapshot.getMinimum());
+        Assert.assertEquals("maximum", 0L, snapshot.getMaximum());
+        Assert.assertEquals("p99", 0L, snapshot.getValueAtPercentile(99.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalPercentile() {
+        snapshotOf(1L).getValueAtPercentile(101.0);
+    }
+
+    @Test
+    public void negativeValue() {
+        final HistogramSnapshot snapshot = snapshotOf(-1L);
+        Assert.assertEquals("negative values are recorded as 0", 0L, snapshot.getMinimum());
+    }
+
+    @Test
+    public void snapshotIsDetached() {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        registry.counter("counter").increment();
+        final MetricsSnapshot snapshot = registry.snapshot();
+
+        registry.counter("counter").increment();
+        Assert.assertEquals("snapshot must not change", 1L, snapshot.getCounter("counter"));
+        Assert.assertEquals("registry must change", 2L, registry.snapshot().getCounter("counter"));
+    }
+
+    private static HistogramSnapshot snapshotOf(final long value) {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        registry.histogram("histogram").record(value);
+        return registry.snapshot().getHistogram("histogram");
+    }
+}
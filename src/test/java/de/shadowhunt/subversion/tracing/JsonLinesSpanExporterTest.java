@@ -0,0 +1,84 @@
+/**
+ * Shadowhunt Subversion - Streaming subversion library without the need for a local sandbox
+ * Copyright © 2013-2019 shadowhunt (dev@shadowhunt.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.shadowhunt.subversion.tracing;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonLinesSpanExporterTest {
+
+    private static Span createSpan(final String parentSpanId, final Map<String, Object> attributes) {
+        final Map<String, Long> phases = new LinkedHashMap<>();
+        phases.put("ttfb", 3L);
+        phases.put("body", 4L);
+        return new Span.Builder("0000000000000001", "0000000000000002", "PROPFIND") //
+                .withParentSpanId(parentSpanId) //
+                .withTiming(Instant.EPOCH, 7L) //
+                .withAttributes(attributes) //
+                .withPhases(phases) //
+                .build();
+    }
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void escape() {
+        final Map<String, Object> attributes = Collections.singletonMap("error", "a \"quoted\"\\path\n" + (char) 1);
+        final String json = JsonLinesSpanExporter.toJson(createSpan(null, attributes));
+        final String expected = "{\"traceId\":\"0000000000000001\",\"spanId\":\"0000000000000002\",\"name\":\"PROPFIND\",\"start\":\"1970-01-01T00:00:00Z\",\"durationNanos\":7," //
+                + "\"attributes\":{\"error\":\"a \\\"quoted\\\"\\\\path\\n\\" + "u0001\"}," //
+                + "\"phases\":{\"ttfb\":3,\"body\":4}}";
+        Assert.assertEquals("json", expected, json);
+    }
+
+    @Test
+    public void export() throws Exception {
+        final Path file = folder.getRoot().toPath().resolve("spans.jsonl");
+        final Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("http.method", "PROPFIND");
+        attributes.put("http.status", 207);
+
+        try (JsonLinesSpanExporter exporter = new JsonLinesSpanExporter(file)) {
+            exporter.export(createSpan("0000000000000003", attributes));
+        }
+        try (JsonLinesSpanExporter exporter = new JsonLinesSpanExporter(file)) {
+            exporter.export(createSpan(null, Collections.emptyMap()));
+        }
+
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Assert.assertEquals("spans must be appended", 2, lines.size());
+        final String first = "{\"traceId\":\"0000000000000001\",\"spanId\":\"0000000000000002\",\"parentSpanId\":\"0000000000000003\",\"name\":\"PROPFIND\"," //
+                + "\"start\":\"1970-01-01T00:00:00Z\",\"durationNanos\":7,\"attributes\":{\"http.method\":\"PROPFIND\",\"http.status\":207}," //
+                + "\"phases\":{\"ttfb\":3,\"body\":4}}";
+        Assert.assertEquals("first", first, lines.get(0));
+        Assert.assertTrue("second without parent: " + lines.get(1), lines.get(1).contains("\"attributes\":{}"));
+        Assert.assertFalse("second without parent: " + lines.get(1), lines.get(1).contains("parentSpanId"));
+    }
+}